@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.build.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import groovy.json.JsonSlurper;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+/**
+ * Task that compares two JMH result files in JSON format, matching benchmarks
+ * by name, mode and parameters, and reports the change of each score in percent.
+ * <p>A change is considered a regression if the score got worse by more than the
+ * {@link #getThreshold() threshold}, taking the benchmark mode into account:
+ * higher is better for throughput, lower is better for all time-based modes.
+ */
+public class JmhBaselineComparisonTask extends DefaultTask {
+
+	private final RegularFileProperty baselineResults = getProject().getObjects().fileProperty();
+
+	private final RegularFileProperty currentResults = getProject().getObjects().fileProperty();
+
+	private final RegularFileProperty report = getProject().getObjects().fileProperty();
+
+	private final Property<Double> threshold = getProject().getObjects().property(Double.class);
+
+	private final Property<Boolean> failOnRegression = getProject().getObjects().property(Boolean.class);
+
+	@InputFile
+	@Optional
+	public RegularFileProperty getBaselineResults() {
+		return this.baselineResults;
+	}
+
+	@InputFile
+	public RegularFileProperty getCurrentResults() {
+		return this.currentResults;
+	}
+
+	@OutputFile
+	public RegularFileProperty getReport() {
+		return this.report;
+	}
+
+	@Input
+	public Property<Double> getThreshold() {
+		return this.threshold;
+	}
+
+	@Input
+	public Property<Boolean> getFailOnRegression() {
+		return this.failOnRegression;
+	}
+
+	@TaskAction
+	public void compare() throws IOException {
+		if (!this.baselineResults.isPresent()) {
+			throw new GradleException("No JMH baseline given: specify one with -PjmhBaseline=/path/to/results.json");
+		}
+		Map<String, Result> baseline = readResults(this.baselineResults.get().getAsFile());
+		Map<String, Result> current = readResults(this.currentResults.get().getAsFile());
+		double threshold = this.threshold.get();
+
+		List<String> lines = new ArrayList<>();
+		List<String> regressions = new ArrayList<>();
+		lines.add(String.format("%-90s %6s %16s %16s %9s", "Benchmark", "Mode", "Baseline", "Current", "Change"));
+		current.forEach((key, result) -> {
+			Result previous = baseline.get(key);
+			if (previous == null) {
+				lines.add(String.format("%-90s %6s %16s %16.3f %9s", result.name, result.mode, "-", result.score, "new"));
+				return;
+			}
+			double change = (result.score - previous.score) / previous.score * 100;
+			boolean regression = (result.isHigherBetter() ? -change : change) > threshold;
+			lines.add(String.format("%-90s %6s %16.3f %16.3f %+8.2f%%%s", result.name, result.mode,
+					previous.score, result.score, change, (regression ? "  REGRESSION" : "")));
+			if (regression) {
+				regressions.add(result.name + " (" + result.mode + ")");
+			}
+		});
+		baseline.forEach((key, previous) -> {
+			if (!current.containsKey(key)) {
+				lines.add(String.format("%-90s %6s %16.3f %16s %9s", previous.name, previous.mode,
+						previous.score, "-", "removed"));
+			}
+		});
+		lines.add("");
+		lines.add(regressions.size() + " regression(s) beyond " + threshold + "%");
+
+		File reportFile = this.report.get().getAsFile();
+		Files.write(reportFile.toPath(), lines, StandardCharsets.UTF_8);
+		getLogger().lifecycle(String.join(System.lineSeparator(), lines));
+		if (!regressions.isEmpty() && this.failOnRegression.get()) {
+			throw new GradleException("JMH benchmarks regressed beyond " + threshold + "%: " + regressions +
+					" (see " + reportFile + ")");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Result> readResults(File file) {
+		if (!file.exists()) {
+			throw new GradleException("JMH results not found: " + file);
+		}
+		List<Map<String, Object>> entries;
+		try {
+			entries = (List<Map<String, Object>>) new JsonSlurper().parse(file, StandardCharsets.UTF_8.name());
+		}
+		catch (RuntimeException ex) {
+			throw new GradleException("Invalid JMH results: " + file, ex);
+		}
+		Map<String, Result> results = new LinkedHashMap<>();
+		for (Map<String, Object> entry : entries) {
+			String name = entry.get("benchmark").toString();
+			Object params = entry.get("params");
+			if (params instanceof Map && !((Map<?, ?>) params).isEmpty()) {
+				name = name + " " + params;
+			}
+			String mode = entry.get("mode").toString();
+			Map<String, Object> metric = (Map<String, Object>) entry.get("primaryMetric");
+			// A benchmark may run in several modes, each with its own score
+			results.put(name + " " + mode, new Result(name, mode, ((Number) metric.get("score")).doubleValue()));
+		}
+		return results;
+	}
+
+
+	private static class Result {
+
+		final String name;
+
+		final String mode;
+
+		final double score;
+
+		Result(String name, String mode, double score) {
+			this.name = name;
+			this.mode = mode;
+			this.score = score;
+		}
+
+		boolean isHigherBetter() {
+			return "thrpt".equals(this.mode);
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.build.jmh;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.tasks.TaskProvider;
+
+/**
+ * {@link Plugin} that creates a {@code "jmhBaselineComparison"} task, comparing
+ * the JMH results of the current project with the results of a previous run.
+ * <p>{@code "./gradlew :spring-core:jmhBaselineComparison -PjmhBaseline=/path/to/results.json"}
+ * writes the report to {@code "build/reports/jmh/baseline-comparison.txt"}.
+ * The regression threshold in percent can be set with {@code "-PjmhThreshold=10"},
+ * and {@code "-PjmhFailOnRegression"} fails the build if any benchmark regressed.
+ */
+public class JmhBaselinePlugin implements Plugin<Project> {
+
+	public static final String TASK_NAME = "jmhBaselineComparison";
+
+	private static final String BASELINE_PROPERTY = "jmhBaseline";
+
+	private static final String THRESHOLD_PROPERTY = "jmhThreshold";
+
+	private static final String FAIL_ON_REGRESSION_PROPERTY = "jmhFailOnRegression";
+
+	private static final double DEFAULT_THRESHOLD = 5.0;
+
+	@Override
+	public void apply(Project project) {
+		TaskProvider<JmhBaselineComparisonTask> comparison =
+				project.getTasks().register(TASK_NAME, JmhBaselineComparisonTask.class, task -> {
+					task.setDescription("Compares JMH results with the results of a baseline run");
+					task.setGroup("benchmark");
+					if (project.hasProperty(BASELINE_PROPERTY)) {
+						task.getBaselineResults().set(project.file(project.property(BASELINE_PROPERTY)));
+					}
+					task.getCurrentResults().set(project.getLayout().getBuildDirectory().file("reports/jmh/results.json"));
+					task.getReport().set(project.getLayout().getBuildDirectory().file("reports/jmh/baseline-comparison.txt"));
+					task.getThreshold().set(project.hasProperty(THRESHOLD_PROPERTY) ?
+							Double.parseDouble(project.property(THRESHOLD_PROPERTY).toString()) : DEFAULT_THRESHOLD);
+					task.getFailOnRegression().set(project.hasProperty(FAIL_ON_REGRESSION_PROPERTY));
+				});
+		project.getTasks().matching(task -> task.getName().equals("jmh"))
+				.all(jmh -> comparison.configure(task -> task.mustRunAfter(jmh)));
+	}
+
+}
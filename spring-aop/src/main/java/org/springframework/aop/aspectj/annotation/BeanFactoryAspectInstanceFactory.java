@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -110,13 +110,10 @@ public class BeanFactoryAspectInstanceFactory implements MetadataAwareAspectInst
 			// Rely on singleton semantics provided by the factory -> no local lock.
 			return null;
 		}
-		else if (this.beanFactory instanceof ConfigurableBeanFactory) {
-			// No singleton guarantees from the factory -> let's lock locally but
-			// reuse the factory's singleton lock, just in case a lazy dependency
-			// of our advice bean happens to trigger the singleton lock implicitly...
-			return ((ConfigurableBeanFactory) this.beanFactory).getSingletonMutex();
-		}
 		else {
+			// No singleton guarantees from the factory -> let's lock locally.
+			// Not reusing the factory's singleton mutex: singleton creation does
+			// not hold it, and may run on other threads while we're waiting...
 			return this;
 		}
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,7 +23,6 @@ import org.aopalliance.aop.Advice;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
-import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -82,12 +81,9 @@ public abstract class AbstractBeanFactoryPointcutAdvisor extends AbstractPointcu
 	}
 
 	private void resetAdviceMonitor() {
-		if (this.beanFactory instanceof ConfigurableBeanFactory) {
-			this.adviceMonitor = ((ConfigurableBeanFactory) this.beanFactory).getSingletonMutex();
-		}
-		else {
-			this.adviceMonitor = new Object();
-		}
+		// Not reusing the factory's singleton mutex: singleton creation does not
+		// hold it, and may run on other threads while we're waiting for it...
+		this.adviceMonitor = new Object();
 	}
 
 	/**
@@ -118,9 +114,7 @@ public abstract class AbstractBeanFactoryPointcutAdvisor extends AbstractPointcu
 			return advice;
 		}
 		else {
-			// No singleton guarantees from the factory -> let's lock locally but
-			// reuse the factory's singleton lock, just in case a lazy dependency
-			// of our advice bean happens to trigger the singleton lock implicitly...
+			// No singleton guarantees from the factory -> let's lock locally.
 			synchronized (this.adviceMonitor) {
 				advice = this.advice;
 				if (advice == null) {
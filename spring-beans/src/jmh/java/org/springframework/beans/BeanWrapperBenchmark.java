@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for {@link BeanWrapperImpl} property access, with and without
+ * generated property accessors.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class BeanWrapperBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"false", "true"})
+		public boolean generatedAccessors;
+
+		public Person person = new Person();
+
+		@Setup
+		public void setup() {
+			// Read once when CachedIntrospectionResults is initialized in the forked JVM
+			System.setProperty(CachedIntrospectionResults.GENERATED_ACCESSORS_PROPERTY_NAME,
+					String.valueOf(this.generatedAccessors));
+		}
+
+		@TearDown
+		public void tearDown() {
+			System.clearProperty(CachedIntrospectionResults.GENERATED_ACCESSORS_PROPERTY_NAME);
+		}
+	}
+
+	@Benchmark
+	public Object getPropertyValue(BenchmarkState state) {
+		return new BeanWrapperImpl(state.person).getPropertyValue("name");
+	}
+
+	@Benchmark
+	public Person setPropertyValue(BenchmarkState state) {
+		BeanWrapper wrapper = new BeanWrapperImpl(state.person);
+		wrapper.setPropertyValue("name", "Juergen");
+		wrapper.setPropertyValue("age", 42);
+		return state.person;
+	}
+
+	@Benchmark
+	public Person setPropertyValueWithConversion(BenchmarkState state) {
+		BeanWrapper wrapper = new BeanWrapperImpl(state.person);
+		wrapper.setPropertyValue("age", "42");
+		return state.person;
+	}
+
+	@Benchmark
+	public Object nestedPropertyPath(BenchmarkState state) {
+		BeanWrapper wrapper = new BeanWrapperImpl(state.person);
+		wrapper.setAutoGrowNestedPaths(true);
+		wrapper.setPropertyValue("spouse.name", "Sam");
+		return wrapper.getPropertyValue("spouse.name");
+	}
+
+
+	public static class Person {
+
+		private String name;
+
+		private int age;
+
+		private Person spouse;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public Person getSpouse() {
+			return this.spouse;
+		}
+
+		public void setSpouse(Person spouse) {
+			this.spouse = spouse;
+		}
+	}
+
+}
@@ -297,6 +297,11 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 					throw pae.getException();
 				}
 			} else {
+				CachedIntrospectionResults.PropertyMethodAccessor accessor =
+						getCachedIntrospectionResults().getPropertyMethodAccessor(readMethod);
+				if (accessor != null) {
+					return accessor.invoke(getWrappedInstance(), null);
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -319,6 +324,12 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 					throw ex.getException();
 				}
 			} else {
+				CachedIntrospectionResults.PropertyMethodAccessor accessor =
+						getCachedIntrospectionResults().getPropertyMethodAccessor(writeMethod);
+				if (accessor != null) {
+					accessor.invoke(getWrappedInstance(), value);
+					return;
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
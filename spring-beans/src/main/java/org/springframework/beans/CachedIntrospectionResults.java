@@ -20,7 +20,11 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -92,10 +96,26 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to invoke property read and write methods
+	 * through bytecode accessors generated per bean class instead of through reflection:
+	 * "spring.beans.generated-accessors", with a value of "true" enabling generated accessors.
+	 * <p>The default is "false". Consider switching this flag to "true" for applications
+	 * that bind properties on the same bean classes repeatedly, e.g. for prototype beans.
+	 * Methods that cannot be invoked from generated code (e.g. private methods)
+	 * are still invoked through reflection.
+	 * @since 5.3
+	 * @see GeneratedBeanAccessors
+	 */
+	public static final String GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beans.generated-accessors";
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldUseGeneratedAccessors =
+			SpringProperties.getFlag(GENERATED_ACCESSORS_PROPERTY_NAME);
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -258,6 +278,10 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** Generated accessors keyed by property read/write Method, built lazily. */
+	@Nullable
+	private volatile Map<Method, PropertyMethodAccessor> propertyMethodAccessors;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -381,4 +405,91 @@ public final class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return a generated accessor for the given property read or write method,
+	 * if generated accessors are enabled and the method is supported.
+	 * @param method the read method or the write method for actual access
+	 * @return the accessor, or {@code null} to invoke the method via reflection
+	 * @see #GENERATED_ACCESSORS_PROPERTY_NAME
+	 */
+	@Nullable
+	PropertyMethodAccessor getPropertyMethodAccessor(Method method) {
+		if (!shouldUseGeneratedAccessors) {
+			return null;
+		}
+		Map<Method, PropertyMethodAccessor> accessors = this.propertyMethodAccessors;
+		if (accessors == null) {
+			synchronized (this) {
+				accessors = this.propertyMethodAccessors;
+				if (accessors == null) {
+					accessors = buildPropertyMethodAccessors();
+					this.propertyMethodAccessors = accessors;
+				}
+			}
+		}
+		return accessors.get(method);
+	}
+
+	private Map<Method, PropertyMethodAccessor> buildPropertyMethodAccessors() {
+		Class<?> beanClass = getBeanClass();
+		List<Method> methods = new ArrayList<>();
+		for (PropertyDescriptor pd : getPropertyDescriptors()) {
+			Method readMethod = pd.getReadMethod();
+			if (readMethod != null && readMethod.getParameterCount() == 0 &&
+					GeneratedBeanAccessors.isSupported(beanClass, readMethod) && !methods.contains(readMethod)) {
+				methods.add(readMethod);
+			}
+			Method writeMethod = pd.getWriteMethod();
+			if (writeMethod != null && pd instanceof GenericTypeAwarePropertyDescriptor) {
+				writeMethod = ((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess();
+			}
+			if (writeMethod != null && writeMethod.getParameterCount() == 1 &&
+					GeneratedBeanAccessors.isSupported(beanClass, writeMethod) && !methods.contains(writeMethod)) {
+				methods.add(writeMethod);
+			}
+		}
+		if (methods.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		GeneratedBeanAccessors.MethodAccessor accessor = GeneratedBeanAccessors.forMethods(beanClass, methods);
+		if (accessor == null) {
+			return Collections.emptyMap();
+		}
+		Map<Method, PropertyMethodAccessor> accessors = new HashMap<>(methods.size() * 2);
+		for (int i = 0; i < methods.size(); i++) {
+			accessors.put(methods.get(i), new PropertyMethodAccessor(accessor, i));
+		}
+		return accessors;
+	}
+
+
+	/**
+	 * Generated accessor for a single property read or write method.
+	 */
+	static final class PropertyMethodAccessor {
+
+		private final GeneratedBeanAccessors.MethodAccessor accessor;
+
+		private final int index;
+
+		PropertyMethodAccessor(GeneratedBeanAccessors.MethodAccessor accessor, int index) {
+			this.accessor = accessor;
+			this.index = index;
+		}
+
+		/**
+		 * Invoke the method on the given target, with the same exception
+		 * semantics as {@link Method#invoke}.
+		 */
+		@Nullable
+		Object invoke(Object target, @Nullable Object arg) throws InvocationTargetException {
+			try {
+				return this.accessor.invoke(this.index, target, arg);
+			}
+			catch (ClassCastException | NullPointerException ex) {
+				throw new IllegalArgumentException("Argument type mismatch", ex);
+			}
+		}
+	}
+
 }
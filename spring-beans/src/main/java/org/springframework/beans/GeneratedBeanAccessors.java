@@ -0,0 +1,388 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Factory for small bytecode accessors that invoke constructors and methods
+ * directly instead of through reflection, generated with the ASM library
+ * repackaged in {@code org.springframework.asm}.
+ *
+ * <p>Each accessor class is defined in the package and ClassLoader of the
+ * target class, so that it can invoke public as well as package-visible
+ * members. Private members, parameter types that are not visible from the
+ * target package, and classes that cannot host generated classes (such as
+ * JDK classes) are not supported: the factory methods return {@code null}
+ * in such cases, and callers are expected to fall back to reflection.
+ *
+ * <p>Generating an accessor costs a class definition, so accessors only pay
+ * off for constructors and methods that are invoked repeatedly.
+ *
+ * @since 5.3
+ * @see org.springframework.beans.factory.support.GeneratedInstantiationStrategy
+ * @see CachedIntrospectionResults#GENERATED_ACCESSORS_PROPERTY_NAME
+ */
+public abstract class GeneratedBeanAccessors {
+
+	private static final String CONSTRUCTOR_ACCESSOR_SUFFIX = "$$SpringConstructorAccessor$$";
+
+	private static final String METHOD_ACCESSOR_SUFFIX = "$$SpringMethodAccessor$$";
+
+	private static final String OBJECT_NAME = Type.getInternalName(Object.class);
+
+	private static final String INVOCATION_TARGET_EXCEPTION_NAME = Type.getInternalName(InvocationTargetException.class);
+
+	private static final Object NO_ACCESSOR = new Object();
+
+	private static final Log logger = LogFactory.getLog(GeneratedBeanAccessors.class);
+
+	private static final Map<Constructor<?>, Object> constructorAccessorCache = new ConcurrentReferenceHashMap<>(64);
+
+	private static final AtomicInteger classCounter = new AtomicInteger();
+
+
+	/**
+	 * Return a generated accessor for the given constructor.
+	 * <p>Accessors are cached per constructor.
+	 * @param ctor the constructor to invoke
+	 * @return the accessor, or {@code null} if the constructor is not supported
+	 */
+	@Nullable
+	public static ConstructorAccessor forConstructor(Constructor<?> ctor) {
+		Object accessor = constructorAccessorCache.get(ctor);
+		if (accessor == null) {
+			accessor = generateConstructorAccessor(ctor);
+			constructorAccessorCache.put(ctor, (accessor != null ? accessor : NO_ACCESSOR));
+		}
+		return (accessor instanceof ConstructorAccessor ? (ConstructorAccessor) accessor : null);
+	}
+
+	/**
+	 * Return a generated accessor for the given methods of the target class,
+	 * each invoked by its index in the given list.
+	 * <p>Accessors are not cached: callers are expected to hold on to them.
+	 * @param targetClass the class of the target instances
+	 * @param methods the methods to invoke, each supported according to
+	 * {@link #isSupported(Class, Method)}
+	 * @return the accessor, or {@code null} if it could not be generated
+	 */
+	@Nullable
+	public static MethodAccessor forMethods(Class<?> targetClass, List<Method> methods) {
+		for (Method method : methods) {
+			if (!isSupported(targetClass, method)) {
+				throw new IllegalArgumentException("Unsupported method for generated accessor: " + method);
+			}
+		}
+		String className = targetClass.getName() + METHOD_ACCESSOR_SUFFIX + classCounter.incrementAndGet();
+		return (MethodAccessor) defineAndInstantiate(targetClass, className,
+				generateMethodAccessor(className, targetClass, methods));
+	}
+
+	/**
+	 * Determine whether a method accessor for the given target class can invoke
+	 * the given method: a non-static, non-private method with at most one
+	 * parameter, visible from the package of the target class.
+	 * @param targetClass the class of the target instances
+	 * @param method the method to check
+	 */
+	public static boolean isSupported(Class<?> targetClass, Method method) {
+		return (method.getParameterCount() <= 1 && !Modifier.isStatic(method.getModifiers()) &&
+				method.getDeclaringClass().isAssignableFrom(targetClass) &&
+				canHostAccessor(targetClass) && isVisible(targetClass, method));
+	}
+
+	@Nullable
+	private static ConstructorAccessor generateConstructorAccessor(Constructor<?> ctor) {
+		Class<?> declaringClass = ctor.getDeclaringClass();
+		if (Modifier.isAbstract(declaringClass.getModifiers()) || declaringClass.isEnum() ||
+				!canHostAccessor(declaringClass) || !isVisible(declaringClass, ctor)) {
+			return null;
+		}
+		String className = declaringClass.getName() + CONSTRUCTOR_ACCESSOR_SUFFIX + classCounter.incrementAndGet();
+		return (ConstructorAccessor) defineAndInstantiate(declaringClass, className,
+				generateConstructorAccessor(className, ctor));
+	}
+
+	private static boolean canHostAccessor(Class<?> targetClass) {
+		String className = targetClass.getName();
+		return (targetClass.getClassLoader() != null && !targetClass.isArray() && !targetClass.isPrimitive() &&
+				!className.startsWith("java.") && className.indexOf('/') == -1);
+	}
+
+	private static boolean isVisible(Class<?> targetClass, Executable executable) {
+		int modifiers = executable.getModifiers();
+		if (Modifier.isPrivate(modifiers) ||
+				(!Modifier.isPublic(modifiers) && !isInSamePackage(targetClass, executable.getDeclaringClass()))) {
+			return false;
+		}
+		for (Class<?> parameterType : executable.getParameterTypes()) {
+			while (parameterType.isArray()) {
+				parameterType = parameterType.getComponentType();
+			}
+			if (!parameterType.isPrimitive() && !Modifier.isPublic(parameterType.getModifiers()) &&
+					!isInSamePackage(targetClass, parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isInSamePackage(Class<?> targetClass, Class<?> otherClass) {
+		return (targetClass.getClassLoader() == otherClass.getClassLoader() &&
+				ClassUtils.getPackageName(targetClass).equals(ClassUtils.getPackageName(otherClass)));
+	}
+
+	@Nullable
+	private static Object defineAndInstantiate(Class<?> targetClass, String className, byte[] bytes) {
+		try {
+			Class<?> accessorClass = ReflectUtils.defineClass(className, bytes, targetClass.getClassLoader(),
+					targetClass.getProtectionDomain(), targetClass);
+			return accessorClass.getDeclaredConstructor().newInstance();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not define generated accessor for class [" + targetClass.getName() + "]", ex);
+			}
+			return null;
+		}
+	}
+
+	private static byte[] generateConstructorAccessor(String className, Constructor<?> ctor) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		String internalName = className.replace('.', '/');
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null,
+				OBJECT_NAME, new String[] {Type.getInternalName(ConstructorAccessor.class)});
+		generateDefaultConstructor(cw);
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "newInstance",
+				"([Ljava/lang/Object;)Ljava/lang/Object;", null, new String[] {INVOCATION_TARGET_EXCEPTION_NAME});
+		mv.visitCode();
+		Label tryStart = new Label();
+		Label tryEnd = new Label();
+		Label handler = new Label();
+		mv.visitTryCatchBlock(tryStart, tryEnd, handler, "java/lang/Throwable");
+		String ownerName = Type.getInternalName(ctor.getDeclaringClass());
+		mv.visitTypeInsn(Opcodes.NEW, ownerName);
+		mv.visitInsn(Opcodes.DUP);
+		Class<?>[] parameterTypes = ctor.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			pushInt(mv, i);
+			mv.visitInsn(Opcodes.AALOAD);
+			unboxOrCast(mv, parameterTypes[i]);
+		}
+		mv.visitLabel(tryStart);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, ownerName, "<init>", Type.getConstructorDescriptor(ctor), false);
+		mv.visitLabel(tryEnd);
+		mv.visitInsn(Opcodes.ARETURN);
+		generateInvocationTargetExceptionHandler(mv, handler);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static byte[] generateMethodAccessor(String className, Class<?> targetClass, List<Method> methods) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		String internalName = className.replace('.', '/');
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null,
+				OBJECT_NAME, new String[] {Type.getInternalName(MethodAccessor.class)});
+		generateDefaultConstructor(cw);
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke",
+				"(ILjava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", null,
+				new String[] {INVOCATION_TARGET_EXCEPTION_NAME});
+		mv.visitCode();
+		Label handler = new Label();
+		Label defaultCase = new Label();
+		Label[] cases = new Label[methods.size()];
+		for (int i = 0; i < cases.length; i++) {
+			cases[i] = new Label();
+		}
+		String ownerName = Type.getInternalName(targetClass);
+		boolean ownerIsInterface = targetClass.isInterface();
+		if (cases.length > 0) {
+			mv.visitVarInsn(Opcodes.ILOAD, 1);
+			mv.visitTableSwitchInsn(0, cases.length - 1, defaultCase, cases);
+		}
+		for (int i = 0; i < cases.length; i++) {
+			Method method = methods.get(i);
+			Label tryStart = new Label();
+			Label tryEnd = new Label();
+			mv.visitTryCatchBlock(tryStart, tryEnd, handler, "java/lang/Throwable");
+			mv.visitLabel(cases[i]);
+			mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+			mv.visitVarInsn(Opcodes.ALOAD, 2);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, ownerName);
+			if (method.getParameterCount() == 1) {
+				mv.visitVarInsn(Opcodes.ALOAD, 3);
+				unboxOrCast(mv, method.getParameterTypes()[0]);
+			}
+			mv.visitLabel(tryStart);
+			mv.visitMethodInsn((ownerIsInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL), ownerName,
+					method.getName(), Type.getMethodDescriptor(method), ownerIsInterface);
+			mv.visitLabel(tryEnd);
+			box(mv, method.getReturnType());
+			mv.visitInsn(Opcodes.ARETURN);
+		}
+		mv.visitLabel(defaultCase);
+		if (cases.length > 0) {
+			mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+		}
+		mv.visitTypeInsn(Opcodes.NEW, "java/lang/IllegalArgumentException");
+		mv.visitInsn(Opcodes.DUP);
+		mv.visitLdcInsn("No method for index");
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>",
+				"(Ljava/lang/String;)V", false);
+		mv.visitInsn(Opcodes.ATHROW);
+		if (cases.length > 0) {
+			generateInvocationTargetExceptionHandler(mv, handler);
+		}
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static void generateDefaultConstructor(ClassWriter cw) {
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT_NAME, "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+	}
+
+	/**
+	 * Wrap any Throwable thrown by the invoked member in an
+	 * {@link InvocationTargetException}, like reflective invocation does.
+	 */
+	private static void generateInvocationTargetExceptionHandler(MethodVisitor mv, Label handler) {
+		mv.visitLabel(handler);
+		mv.visitFrame(Opcodes.F_SAME1, 0, null, 1, new Object[] {"java/lang/Throwable"});
+		mv.visitTypeInsn(Opcodes.NEW, INVOCATION_TARGET_EXCEPTION_NAME);
+		mv.visitInsn(Opcodes.DUP_X1);
+		mv.visitInsn(Opcodes.SWAP);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, INVOCATION_TARGET_EXCEPTION_NAME, "<init>",
+				"(Ljava/lang/Throwable;)V", false);
+		mv.visitInsn(Opcodes.ATHROW);
+	}
+
+	private static void pushInt(MethodVisitor mv, int value) {
+		if (value <= 5) {
+			mv.visitInsn(Opcodes.ICONST_0 + value);
+		}
+		else if (value <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(Opcodes.BIPUSH, value);
+		}
+		else if (value <= Short.MAX_VALUE) {
+			mv.visitIntInsn(Opcodes.SIPUSH, value);
+		}
+		else {
+			mv.visitLdcInsn(value);
+		}
+	}
+
+	private static void unboxOrCast(MethodVisitor mv, Class<?> type) {
+		if (type.isPrimitive()) {
+			Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+			String wrapperName = Type.getInternalName(wrapperType);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperName);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+					"()" + Type.getDescriptor(type), false);
+		}
+		else if (type != Object.class) {
+			mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+		}
+	}
+
+	private static void box(MethodVisitor mv, Class<?> type) {
+		if (type == void.class) {
+			mv.visitInsn(Opcodes.ACONST_NULL);
+		}
+		else if (type.isPrimitive()) {
+			Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+			String wrapperName = Type.getInternalName(wrapperType);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapperName, "valueOf",
+					"(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapperType), false);
+		}
+	}
+
+
+	/**
+	 * Generated accessor for a constructor.
+	 */
+	public interface ConstructorAccessor {
+
+		/**
+		 * Create a new instance through the constructor.
+		 * @param args the constructor arguments, matching the parameter types
+		 * (primitive parameters require non-null wrapper values)
+		 * @return the new instance
+		 * @throws InvocationTargetException if the constructor threw an exception
+		 * @throws ClassCastException if an argument does not match its parameter type
+		 * @throws NullPointerException if an argument for a primitive parameter is {@code null}
+		 */
+		Object newInstance(Object[] args) throws InvocationTargetException;
+	}
+
+
+	/**
+	 * Generated accessor for a set of methods with at most one parameter,
+	 * typically the read and write methods of bean properties.
+	 */
+	public interface MethodAccessor {
+
+		/**
+		 * Invoke the method with the given index on the given target.
+		 * @param index the index of the method in the list the accessor was generated for
+		 * @param target the target instance
+		 * @param arg the argument for a method with one parameter (ignored otherwise)
+		 * @return the return value, or {@code null} for a {@code void} method
+		 * @throws InvocationTargetException if the method threw an exception
+		 * @throws ClassCastException if the argument does not match the parameter type
+		 * @throws NullPointerException if the argument for a primitive parameter is {@code null}
+		 */
+		@Nullable
+		Object invoke(int index, Object target, @Nullable Object arg) throws InvocationTargetException;
+	}
+
+}
@@ -54,6 +54,7 @@ import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -496,58 +497,64 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 		if (logger.isTraceEnabled()) {
 			logger.trace("Creating instance of bean '" + beanName + "'");
 		}
-		RootBeanDefinition mbdToUse = mbd;
-		
-		// 确保bean类实际上已经被解析了
-		// 如果获取class属性不为null,则克隆该BeanDefinition
-		// 不主要是因为该动态解析的calss不能存储在共享的BeanDefinition中。
-		Class<?> resolvedClass = resolveBeanClass(mbd, beanName);
-		if (resolvedClass != null && !mbd.hasBeanClass() && mbd.getBeanClassName() != null) {
-			mbdToUse = new RootBeanDefinition(mbd);
-			mbdToUse.setBeanClass(resolvedClass);
-		}
-		
-		// 准备方法覆盖
-		try {
-			/***
-			 * 验证和准备覆盖方法
-			 * lookup-method 和 replace-method
-			 * 这两个配置存放在BeanDefinition的methodOverrides
-			 * 我们知道在Bean实例化过程中过检测到存在methodOverrides,则会动态的为当前Bean生成代理并使用拦截器为Bean做增强处理
-			 */
-			mbdToUse.prepareMethodOverrides();
-		} catch (BeanDefinitionValidationException ex) {
-			throw new BeanDefinitionStoreException(mbdToUse.getResourceDescription(),
-					beanName, "Validation of method overrides failed", ex);
-		}
-		
+		StartupStep beanCreation = getApplicationStartup().start("spring.beans.instantiate")
+				.tag("beanName", beanName);
 		try {
-			/***
-			 * 通过Bean的后置处理器来生成代理对象,一般情况下这里不会生成代理对象,因为不管是JDK代理还是cglib
-			 * 在这里我们真实的对象还没有生成.这一步是AOP和事务的关键,这里是解析AOP切面信息进行缓存*/
-			Object bean = resolveBeforeInstantiation(beanName, mbdToUse);
-			if (bean != null) {
-				return bean;
+			RootBeanDefinition mbdToUse = mbd;
+			
+			// 确保bean类实际上已经被解析了
+			// 如果获取class属性不为null,则克隆该BeanDefinition
+			// 不主要是因为该动态解析的calss不能存储在共享的BeanDefinition中。
+			Class<?> resolvedClass = resolveBeanClass(mbd, beanName);
+			if (resolvedClass != null && !mbd.hasBeanClass() && mbd.getBeanClassName() != null) {
+				mbdToUse = new RootBeanDefinition(mbd);
+				mbdToUse.setBeanClass(resolvedClass);
 			}
-		} catch (Throwable ex) {
-			throw new BeanCreationException(mbdToUse.getResourceDescription(), beanName,
-					"BeanPostProcessor before instantiation of bean failed", ex);
-		}
-		
-		try {
-			// 该步骤正真创建Bean和实例化Bean过程
-			Object beanInstance = doCreateBean(beanName, mbdToUse, args);
-			if (logger.isTraceEnabled()) {
-				logger.trace("Finished creating instance of bean '" + beanName + "'");
+			
+			// 准备方法覆盖
+			try {
+				/***
+				 * 验证和准备覆盖方法
+				 * lookup-method 和 replace-method
+				 * 这两个配置存放在BeanDefinition的methodOverrides
+				 * 我们知道在Bean实例化过程中过检测到存在methodOverrides,则会动态的为当前Bean生成代理并使用拦截器为Bean做增强处理
+				 */
+				mbdToUse.prepareMethodOverrides();
+			} catch (BeanDefinitionValidationException ex) {
+				throw new BeanDefinitionStoreException(mbdToUse.getResourceDescription(),
+						beanName, "Validation of method overrides failed", ex);
 			}
-			return beanInstance;
-		} catch (BeanCreationException | ImplicitlyAppearedSingletonException ex) {
-			// 之前检测到的带有正确bean创建上下文的异常，
-			// 或非法的单例状态被通信到DefaultsingletonBeanRegistry。
-			throw ex;
-		} catch (Throwable ex) {
-			throw new BeanCreationException(
-					mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
+			
+			try {
+				/***
+				 * 通过Bean的后置处理器来生成代理对象,一般情况下这里不会生成代理对象,因为不管是JDK代理还是cglib
+				 * 在这里我们真实的对象还没有生成.这一步是AOP和事务的关键,这里是解析AOP切面信息进行缓存*/
+				Object bean = resolveBeforeInstantiation(beanName, mbdToUse);
+				if (bean != null) {
+					return bean;
+				}
+			} catch (Throwable ex) {
+				throw new BeanCreationException(mbdToUse.getResourceDescription(), beanName,
+						"BeanPostProcessor before instantiation of bean failed", ex);
+			}
+			
+			try {
+				// 该步骤正真创建Bean和实例化Bean过程
+				Object beanInstance = doCreateBean(beanName, mbdToUse, args);
+				if (logger.isTraceEnabled()) {
+					logger.trace("Finished creating instance of bean '" + beanName + "'");
+				}
+				return beanInstance;
+			} catch (BeanCreationException | ImplicitlyAppearedSingletonException ex) {
+				// 之前检测到的带有正确bean创建上下文的异常，
+				// 或非法的单例状态被通信到DefaultsingletonBeanRegistry。
+				throw ex;
+			} catch (Throwable ex) {
+				throw new BeanCreationException(
+						mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
+			}
+		} finally {
+			beanCreation.end();
 		}
 	}
 	
@@ -1027,7 +1034,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Nullable
 	private FactoryBean<?> getSingletonFactoryBeanForTypeCheck(String beanName, RootBeanDefinition mbd) {
-		synchronized (getSingletonMutex()) {
+		// 只在当前线程可以获取该bean的单例创建锁时创建快捷实例,不等待其他线程
+		if (!tryAcquireSingletonCreationLock(beanName)) {
+			return null;
+		}
+		try {
 			BeanWrapper bw = this.factoryBeanInstanceCache.get(beanName);
 			if (bw != null) {
 				return (FactoryBean<?>) bw.getWrappedInstance();
@@ -1071,6 +1082,8 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 				this.factoryBeanInstanceCache.put(beanName, bw);
 			}
 			return fb;
+		} finally {
+			releaseSingletonCreationLock(beanName);
 		}
 	}
 	
@@ -2032,10 +2045,8 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 	 */
 	@Override
 	protected void removeSingleton(String beanName) {
-		synchronized (getSingletonMutex()) {
-			super.removeSingleton(beanName);
-			this.factoryBeanInstanceCache.remove(beanName);
-		}
+		super.removeSingleton(beanName);
+		this.factoryBeanInstanceCache.remove(beanName);
 	}
 	
 	/**
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Delegate for pre-instantiating the non-lazy singletons of a
+ * {@link DefaultListableBeanFactory} in the background, after the
+ * factory has already been handed out to callers.
+ *
+ * <p>The singletons are created one after another on the given {@link Executor},
+ * with each singleton following its statically known dependencies (see
+ * {@link ParallelSingletonPreInstantiator#sortByDependencies}). Singletons that
+ * other threads request in the meantime are simply created on demand: a thread
+ * requesting a singleton that is currently being created in the background waits
+ * for that singleton only, through the per-bean creation locks of
+ * {@link DefaultSingletonBeanRegistry}.
+ *
+ * <p>Failures are logged and do not stop the warm-up: the failed singleton is
+ * created again, with the same failure being thrown, on its first actual request.
+ *
+ * @since 5.3
+ * @see DefaultListableBeanFactory#setBackgroundPreInstantiationExecutor
+ */
+class BackgroundSingletonPreInstantiator implements Runnable {
+
+	private static final int NEW = 0;
+
+	private static final int RUNNING = 1;
+
+	private static final int FINISHED = 2;
+
+	private static final int CANCELLED = 3;
+
+	private static final Log logger = LogFactory.getLog(BackgroundSingletonPreInstantiator.class);
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final List<String> beanNames;
+
+	private final Runnable completionCallback;
+
+	private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+	private final AtomicInteger state = new AtomicInteger(NEW);
+
+	private final CountDownLatch completion = new CountDownLatch(1);
+
+	private volatile boolean cancelled;
+
+	@Nullable
+	private volatile Thread runner;
+
+
+	/**
+	 * Create a new background pre-instantiator.
+	 * @param beanFactory the bean factory to pre-instantiate singletons in
+	 * @param beanNames the names of the singletons, sorted by dependencies
+	 * @param completionCallback callback to invoke on the background thread
+	 * once all singletons have been created (unless cancelled)
+	 */
+	BackgroundSingletonPreInstantiator(DefaultListableBeanFactory beanFactory, List<String> beanNames,
+			Runnable completionCallback) {
+
+		this.beanFactory = beanFactory;
+		this.beanNames = beanNames;
+		this.completionCallback = completionCallback;
+	}
+
+
+	/**
+	 * Submit the warm-up to the given executor, running it on the
+	 * calling thread if the executor rejects it.
+	 */
+	public void start(Executor executor) {
+		try {
+			executor.execute(this);
+		}
+		catch (RejectedExecutionException ex) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Background singleton pre-instantiation rejected by executor [" + executor +
+						"] - pre-instantiating " + this.beanNames.size() + " singletons on the calling thread");
+			}
+			run();
+		}
+	}
+
+	@Override
+	public void run() {
+		if (!this.state.compareAndSet(NEW, RUNNING)) {
+			return;
+		}
+		Thread currentThread = Thread.currentThread();
+		ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+		currentThread.setContextClassLoader(this.contextClassLoader);
+		this.runner = currentThread;
+		try {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Pre-instantiating " + this.beanNames.size() + " singletons in the background");
+			}
+			for (String beanName : this.beanNames) {
+				if (this.cancelled) {
+					return;
+				}
+				try {
+					this.beanFactory.preInstantiateSingleton(beanName);
+				}
+				catch (Throwable ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Background pre-instantiation of singleton '" + beanName + "' failed", ex);
+					}
+				}
+			}
+			if (!this.cancelled) {
+				this.completionCallback.run();
+			}
+		}
+		finally {
+			currentThread.setContextClassLoader(previousClassLoader);
+			this.runner = null;
+			this.state.set(FINISHED);
+			this.completion.countDown();
+		}
+	}
+
+	/**
+	 * Cancel the warm-up: singletons that have not been created yet are skipped.
+	 * If the warm-up is currently running, wait for the singleton that is being
+	 * created to be finished, so that no singleton gets registered afterwards.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+		if (this.state.compareAndSet(NEW, CANCELLED)) {
+			this.completion.countDown();
+			return;
+		}
+		if (this.runner == Thread.currentThread()) {
+			// Cancelled from within the warm-up itself
+			return;
+		}
+		try {
+			this.completion.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Wait for the warm-up to finish or to be cancelled.
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit of the timeout argument
+	 * @return {@code true} if the warm-up is over, {@code false} if the timeout elapsed
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.completion.await(timeout, unit);
+	}
+
+}
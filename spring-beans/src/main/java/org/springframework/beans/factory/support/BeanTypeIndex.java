@@ -0,0 +1,247 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of bean names by type, backing the by-type lookups of a
+ * {@link DefaultListableBeanFactory} once its configuration has been frozen.
+ *
+ * <p>Each entry holds the names of the beans matching a particular type, keyed
+ * by either a raw {@link Class} or a {@link ResolvableType} with generics, as
+ * determined by the regular type matching of the bean factory. Instead of
+ * invalidating all entries whenever a bean gets registered, the index updates
+ * each existing entry in place by matching just the new bean against the type
+ * of the entry. Changes that may affect the type of existing beans (such as
+ * overriding or destroying beans) still {@link #clear() clear} the index.
+ *
+ * <p>Note that this is an index of lookup results rather than of bean types:
+ * an entry only exists for a type that has been looked up before, and beans
+ * are not indexed under the classes, interfaces and generics of their own
+ * type hierarchy. Bean types may still change through post-processing (e.g.
+ * proxies exposing additional interfaces) or through bean definitions being
+ * modified before the configuration is frozen, which an index built from
+ * predicted types at registration time would not reflect. Before freezing,
+ * by-type lookups therefore keep matching each bean definition.
+ *
+ * <p>Lookups are lock-free. Updates are serialized, with entries that have been
+ * added while an update was being prepared being dropped rather than updated.
+ *
+ * @since 5.3
+ * @see DefaultListableBeanFactory#getBeanNamesForType(Class, boolean, boolean)
+ */
+class BeanTypeIndex {
+
+	/** Entries for singleton and non-singleton bean names, keyed by type. */
+	private final Map<Object, Entry> allBeanNamesByType = new ConcurrentHashMap<>(64);
+
+	/** Entries for singleton-only bean names, keyed by type. */
+	private final Map<Object, Entry> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
+
+	/** Incremented on every update, guarded by this index. */
+	private volatile int generation;
+
+
+	/**
+	 * Return the indexed bean names for the given type, if any.
+	 * @param typeKey the raw {@code Class} or the {@code ResolvableType} to look up
+	 * @param includeNonSingletons whether to look up names including non-singletons
+	 * @return the bean names, or {@code null} if the type has not been indexed
+	 */
+	@Nullable
+	public String[] getBeanNames(Object typeKey, boolean includeNonSingletons) {
+		Entry entry = getEntries(includeNonSingletons).get(typeKey);
+		return (entry != null ? entry.beanNames : null);
+	}
+
+	/**
+	 * Return the current generation of this index, to be passed to
+	 * {@link #register} after determining the bean names for a type.
+	 */
+	public int getGeneration() {
+		return this.generation;
+	}
+
+	/**
+	 * Register the bean names for the given type, unless the index has been
+	 * updated since the given generation (in which case the bean names might
+	 * be stale already).
+	 * @param typeKey the raw {@code Class} or the {@code ResolvableType} to index
+	 * @param type the type to match further beans against
+	 * @param includeNonSingletons whether the bean names include non-singletons
+	 * @param beanDefinitionNames the names of matching bean definitions
+	 * @param manualSingletonNames the names of matching manually registered singletons
+	 * @param expectedGeneration the generation before determining the bean names
+	 * @return all bean names
+	 */
+	public String[] register(Object typeKey, ResolvableType type, boolean includeNonSingletons,
+			List<String> beanDefinitionNames, List<String> manualSingletonNames, int expectedGeneration) {
+
+		Entry entry = new Entry(type, beanDefinitionNames, manualSingletonNames);
+		synchronized (this) {
+			if (this.generation == expectedGeneration) {
+				getEntries(includeNonSingletons).put(typeKey, entry);
+			}
+		}
+		return entry.beanNames;
+	}
+
+	/**
+	 * Add a newly registered bean definition to all existing entries.
+	 * @param matcher the matcher for the new bean definition
+	 */
+	public void addBeanDefinition(Matcher matcher) {
+		add(matcher, true);
+	}
+
+	/**
+	 * Add a newly registered manual singleton to all existing entries.
+	 * @param matcher the matcher for the new singleton
+	 */
+	public void addManualSingleton(Matcher matcher) {
+		add(matcher, false);
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public void clear() {
+		synchronized (this) {
+			this.generation++;
+			this.allBeanNamesByType.clear();
+			this.singletonBeanNamesByType.clear();
+		}
+	}
+
+	private void add(Matcher matcher, boolean beanDefinition) {
+		// Match outside of the lock since type matching may create FactoryBean instances
+		Map<Entry, String> allMatches = match(this.allBeanNamesByType, true, matcher);
+		Map<Entry, String> singletonMatches = match(this.singletonBeanNamesByType, false, matcher);
+		synchronized (this) {
+			this.generation++;
+			update(this.allBeanNamesByType, allMatches, beanDefinition);
+			update(this.singletonBeanNamesByType, singletonMatches, beanDefinition);
+		}
+	}
+
+	private Map<Entry, String> match(Map<Object, Entry> entries, boolean includeNonSingletons, Matcher matcher) {
+		Map<Entry, String> matches = new IdentityHashMap<>(entries.size());
+		for (Entry entry : entries.values()) {
+			matches.put(entry, matcher.match(entry.type, includeNonSingletons));
+		}
+		return matches;
+	}
+
+	private void update(Map<Object, Entry> entries, Map<Entry, String> matches, boolean beanDefinition) {
+		for (Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Object, Entry> mapEntry = it.next();
+			Entry entry = mapEntry.getValue();
+			if (!matches.containsKey(entry)) {
+				// Registered while matching: might have missed the new bean.
+				it.remove();
+			}
+			else {
+				String beanName = matches.get(entry);
+				if (beanName != null) {
+					mapEntry.setValue(entry.withBeanName(beanName, beanDefinition));
+				}
+			}
+		}
+	}
+
+	private Map<Object, Entry> getEntries(boolean includeNonSingletons) {
+		return (includeNonSingletons ? this.allBeanNamesByType : this.singletonBeanNamesByType);
+	}
+
+
+	/**
+	 * Strategy for matching a single newly registered bean against indexed types.
+	 */
+	@FunctionalInterface
+	interface Matcher {
+
+		/**
+		 * Match the bean against the given type.
+		 * @param type the indexed type
+		 * @param includeNonSingletons whether non-singletons are included
+		 * @return the bean name to index for the type (possibly with the
+		 * FactoryBean prefix), or {@code null} if the bean does not match
+		 */
+		@Nullable
+		String match(ResolvableType type, boolean includeNonSingletons);
+	}
+
+
+	/**
+	 * Immutable index entry, with bean definition names first, followed
+	 * by the names of manually registered singletons.
+	 */
+	private static final class Entry {
+
+		final ResolvableType type;
+
+		final String[] beanNames;
+
+		final int beanDefinitionCount;
+
+		Entry(ResolvableType type, List<String> beanDefinitionNames, List<String> manualSingletonNames) {
+			this.type = type;
+			this.beanNames = new String[beanDefinitionNames.size() + manualSingletonNames.size()];
+			this.beanDefinitionCount = beanDefinitionNames.size();
+			int i = 0;
+			for (String beanName : beanDefinitionNames) {
+				this.beanNames[i++] = beanName;
+			}
+			for (String beanName : manualSingletonNames) {
+				this.beanNames[i++] = beanName;
+			}
+		}
+
+		private Entry(ResolvableType type, String[] beanNames, int beanDefinitionCount) {
+			this.type = type;
+			this.beanNames = beanNames;
+			this.beanDefinitionCount = beanDefinitionCount;
+		}
+
+		Entry withBeanName(String beanName, boolean beanDefinition) {
+			if (ObjectUtils.containsElement(this.beanNames, beanName)) {
+				return this;
+			}
+			if (!beanDefinition) {
+				return new Entry(this.type, StringUtils.addStringToArray(this.beanNames, beanName),
+						this.beanDefinitionCount);
+			}
+			String[] beanNames = new String[this.beanNames.length + 1];
+			System.arraycopy(this.beanNames, 0, beanNames, 0, this.beanDefinitionCount);
+			beanNames[this.beanDefinitionCount] = beanName;
+			System.arraycopy(this.beanNames, this.beanDefinitionCount, beanNames, this.beanDefinitionCount + 1,
+					this.beanNames.length - this.beanDefinitionCount);
+			return new Entry(this.type, beanNames, this.beanDefinitionCount + 1);
+		}
+	}
+
+}
@@ -43,6 +43,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.InjectionPoint;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -809,11 +810,14 @@ class ConstructorResolver {
 									"] - did you specify the correct bean references as arguments?");
 				}
 				try {
+					Set<String> paramAutowiredBeanNames = new LinkedHashSet<>(1);
 					Object autowiredArgument = resolveAutowiredArgument(
-							methodParam, beanName, autowiredBeanNames, converter, fallback);
+							methodParam, beanName, paramAutowiredBeanNames, converter, fallback);
+					autowiredBeanNames.addAll(paramAutowiredBeanNames);
 					args.rawArguments[paramIndex] = autowiredArgument;
 					args.arguments[paramIndex] = autowiredArgument;
-					args.preparedArguments[paramIndex] = autowiredArgumentMarker;
+					args.preparedArguments[paramIndex] =
+							prepareAutowiredArgument(methodParam, paramAutowiredBeanNames, autowiredArgument);
 					args.resolveNecessary = true;
 				} catch (BeansException ex) {
 					throw new UnsatisfiedDependencyException(
@@ -834,6 +838,24 @@ class ConstructorResolver {
 		return args;
 	}
 	
+	/**
+	 * 为缓存的参数数组准备自动装配的参数:如果按类型只解析到一个bean,缓存其名称,
+	 * 后续创建(原型或请求作用域bean)直接按名称获取,跳过候选bean的查找。
+	 */
+	private Object prepareAutowiredArgument(MethodParameter methodParam, Set<String> autowiredBeanNames,
+											@Nullable Object autowiredArgument) {
+		
+		if (autowiredArgument != null && autowiredBeanNames.size() == 1) {
+			String autowiredBeanName = autowiredBeanNames.iterator().next();
+			Class<?> paramType = methodParam.getParameterType();
+			if (this.beanFactory.containsBean(autowiredBeanName) &&
+					this.beanFactory.isTypeMatch(autowiredBeanName, paramType)) {
+				return new ShortcutDependencyDescriptor(methodParam, autowiredBeanName, paramType);
+			}
+		}
+		return autowiredArgumentMarker;
+	}
+	
 	/**
 	 * Resolve the prepared arguments stored in the given bean definition.
 	 */
@@ -842,8 +864,8 @@ class ConstructorResolver {
 		
 		TypeConverter customConverter = this.beanFactory.getCustomTypeConverter();
 		TypeConverter converter = (customConverter != null ? customConverter : bw);
-		BeanDefinitionValueResolver valueResolver =
-				new BeanDefinitionValueResolver(this.beanFactory, beanName, mbd, converter);
+		// 只有存在需要解析的bean元数据时才创建
+		BeanDefinitionValueResolver valueResolver = null;
 		Class<?>[] paramTypes = executable.getParameterTypes();
 		
 		Object[] resolvedArgs = new Object[argsToResolve.length];
@@ -852,7 +874,14 @@ class ConstructorResolver {
 			MethodParameter methodParam = MethodParameter.forExecutable(executable, argIndex);
 			if (argValue == autowiredArgumentMarker) {
 				argValue = resolveAutowiredArgument(methodParam, beanName, null, converter, fallback);
+			} else if (argValue instanceof ShortcutDependencyDescriptor) {
+				// 按缓存的bean名称直接获取,跳过候选bean的查找
+				argValue = this.beanFactory.resolveDependency(
+						(ShortcutDependencyDescriptor) argValue, beanName, null, converter);
 			} else if (argValue instanceof BeanMetadataElement) {
+				if (valueResolver == null) {
+					valueResolver = new BeanDefinitionValueResolver(this.beanFactory, beanName, mbd, converter);
+				}
 				argValue = valueResolver.resolveValueIfNecessary("constructor argument", argValue);
 			} else if (argValue instanceof String) {
 				argValue = this.beanFactory.evaluateBeanDefinitionString((String) argValue, mbd);
@@ -1005,6 +1034,29 @@ class ConstructorResolver {
 		}
 	}
 	
+	/**
+	 * 预先解析了目标bean名称的自动装配参数,缓存在bean定义的
+	 * {@code preparedConstructorArguments}中。
+	 */
+	@SuppressWarnings("serial")
+	private static class ShortcutDependencyDescriptor extends DependencyDescriptor {
+		
+		private final String shortcut;
+		
+		private final Class<?> requiredType;
+		
+		public ShortcutDependencyDescriptor(MethodParameter methodParameter, String shortcut, Class<?> requiredType) {
+			super(methodParameter, true);
+			this.shortcut = shortcut;
+			this.requiredType = requiredType;
+		}
+		
+		@Override
+		public Object resolveShortcut(BeanFactory beanFactory) {
+			return beanFactory.getBean(this.shortcut, this.requiredType);
+		}
+	}
+	
 	/**
 	 * Delegate for checking Java 6's {@link ConstructorProperties} annotation.
 	 */
@@ -55,7 +55,9 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -65,6 +67,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -141,6 +145,29 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private boolean allowEagerClassLoading = true;
 	
+	/**
+	 * Number of threads to pre-instantiate singletons with, 1 meaning sequential.
+	 */
+	private int preInstantiationParallelism = 1;
+	
+	/**
+	 * Optional Executor for pre-instantiating singletons in the background.
+	 */
+	@Nullable
+	private Executor backgroundPreInstantiationExecutor;
+	
+	/**
+	 * Currently running background pre-instantiation, if any.
+	 */
+	@Nullable
+	private volatile BackgroundSingletonPreInstantiator backgroundPreInstantiator;
+	
+	/**
+	 * Currently running parallel pre-instantiation, if any.
+	 */
+	@Nullable
+	private volatile ParallelSingletonPreInstantiator parallelPreInstantiator;
+	
 	/**
 	 * Optional OrderComparator for dependency Lists and arrays.
 	 */
@@ -168,14 +195,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private final Map<String, BeanDefinitionHolder> mergedBeanDefinitionHolders = new ConcurrentHashMap<>(256);
 	
 	/**
-	 * Map of singleton and non-singleton bean names, keyed by dependency type.
+	 * Index of singleton and non-singleton bean names, keyed by dependency type.
 	 */
-	private final Map<Class<?>, String[]> allBeanNamesByType = new ConcurrentHashMap<>(64);
-	
-	/**
-	 * Map of singleton-only bean names, keyed by dependency type.
-	 */
-	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
+	private final BeanTypeIndex beanTypeIndex = new BeanTypeIndex();
 	
 	/**
 	 * List of bean definition names, in registration order.
@@ -288,6 +310,88 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.allowEagerClassLoading;
 	}
 	
+	/**
+	 * Set the number of threads to use for pre-instantiating non-lazy singletons
+	 * in {@link #preInstantiateSingletons()}.
+	 * <p>Default is 1, creating all singletons one after another on the calling
+	 * thread. A higher value creates singletons with independent dependency
+	 * subgraphs concurrently on a bounded {@link java.util.concurrent.ForkJoinPool},
+	 * based on the dependencies declared in their merged bean definitions.
+	 * Singletons involved in reference cycles are still created sequentially.
+	 * <p>Only switch this on if all eagerly initialized singletons are safe to be
+	 * created on a thread other than the one refreshing the application context.
+	 *
+	 * @see #preInstantiateSingletons()
+	 * @since 5.3
+	 */
+	public void setPreInstantiationParallelism(int preInstantiationParallelism) {
+		Assert.isTrue(preInstantiationParallelism > 0, "Pre-instantiation parallelism must be greater than 0");
+		this.preInstantiationParallelism = preInstantiationParallelism;
+	}
+	
+	/**
+	 * Return the number of threads to use for pre-instantiating non-lazy singletons.
+	 *
+	 * @since 5.3
+	 */
+	public int getPreInstantiationParallelism() {
+		return this.preInstantiationParallelism;
+	}
+	
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in the
+	 * background, turning them into lazy singletons from the caller's perspective.
+	 * <p>Default is none, creating all non-lazy singletons before
+	 * {@link #preInstantiateSingletons()} returns. If an Executor is specified,
+	 * only infrastructure singletons ({@link BeanDefinition#ROLE_INFRASTRUCTURE})
+	 * are created upfront; all others are created one after another on the given
+	 * Executor, in dependency order, while the factory is already in use. A singleton
+	 * requested in the meantime is created on demand; if it is being created in the
+	 * background at that point, the requesting thread waits for that singleton only.
+	 * {@link SmartInitializingSingleton} callbacks for background-created singletons
+	 * are invoked on the background thread once all singletons have been created.
+	 * <p>Consider an Executor with a single low-priority thread, e.g. a
+	 * {@code SimpleAsyncTaskExecutor} with {@code Thread.MIN_PRIORITY}, so that the
+	 * background work does not compete with the actual workload. Only switch this on
+	 * if all eagerly initialized singletons are safe to be created on a thread other
+	 * than the one refreshing the application context.
+	 *
+	 * @see #preInstantiateSingletons()
+	 * @see #awaitBackgroundPreInstantiation(long, TimeUnit)
+	 * @since 5.3
+	 */
+	public void setBackgroundPreInstantiationExecutor(@Nullable Executor backgroundPreInstantiationExecutor) {
+		this.backgroundPreInstantiationExecutor = backgroundPreInstantiationExecutor;
+	}
+	
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons in the background, if any.
+	 *
+	 * @since 5.3
+	 */
+	@Nullable
+	public Executor getBackgroundPreInstantiationExecutor() {
+		return this.backgroundPreInstantiationExecutor;
+	}
+	
+	/**
+	 * Wait for the background pre-instantiation of singletons to complete.
+	 * Returns immediately if no background pre-instantiation is in progress.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit of the timeout argument
+	 * @return {@code true} if all singletons have been pre-instantiated (or the
+	 * background pre-instantiation has been cancelled on shutdown), {@code false}
+	 * if the timeout elapsed before
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 * @see #setBackgroundPreInstantiationExecutor
+	 * @since 5.3
+	 */
+	public boolean awaitBackgroundPreInstantiation(long timeout, TimeUnit unit) throws InterruptedException {
+		BackgroundSingletonPreInstantiator preInstantiator = this.backgroundPreInstantiator;
+		return (preInstantiator == null || preInstantiator.await(timeout, unit));
+	}
+	
 	/**
 	 * Set a {@link java.util.Comparator} for dependency Lists and arrays.
 	 *
@@ -343,6 +447,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			DefaultListableBeanFactory otherListableFactory = (DefaultListableBeanFactory) otherFactory;
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
+			this.preInstantiationParallelism = otherListableFactory.preInstantiationParallelism;
+			this.backgroundPreInstantiationExecutor = otherListableFactory.backgroundPreInstantiationExecutor;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
@@ -496,9 +602,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		Class<?> resolved = type.resolve();
 		if (resolved != null && !type.hasGenerics()) {
 			return getBeanNamesForType(resolved, includeNonSingletons, allowEagerInit);
-		} else {
+		}
+		if (!isConfigurationFrozen() || !allowEagerInit || resolved == null || type.hasUnresolvableGenerics()) {
 			return doGetBeanNamesForType(type, includeNonSingletons, allowEagerInit);
 		}
+		// 带泛型的类型同样走类型索引
+		String[] resolvedBeanNames = this.beanTypeIndex.getBeanNames(type, includeNonSingletons);
+		if (resolvedBeanNames != null) {
+			return resolvedBeanNames;
+		}
+		return getBeanNamesForTypeAndIndex(type, type, includeNonSingletons, isCacheSafe(type));
 	}
 	
 	@Override
@@ -512,99 +625,172 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (!isConfigurationFrozen() || type == null || !allowEagerInit) {
 			return doGetBeanNamesForType(ResolvableType.forRawClass(type), includeNonSingletons, allowEagerInit);
 		}
-		Map<Class<?>, String[]> cache =
-				(includeNonSingletons ? this.allBeanNamesByType : this.singletonBeanNamesByType);
-		String[] resolvedBeanNames = cache.get(type);
+		String[] resolvedBeanNames = this.beanTypeIndex.getBeanNames(type, includeNonSingletons);
 		if (resolvedBeanNames != null) {
 			return resolvedBeanNames;
 		}
-		resolvedBeanNames = doGetBeanNamesForType(ResolvableType.forRawClass(type), includeNonSingletons, true);
-		if (ClassUtils.isCacheSafe(type, getBeanClassLoader())) {
-			cache.put(type, resolvedBeanNames);
+		return getBeanNamesForTypeAndIndex(type, ResolvableType.forRawClass(type), includeNonSingletons,
+				ClassUtils.isCacheSafe(type, getBeanClassLoader()));
+	}
+	
+	/**
+	 * Determine the bean names for the given type, adding them to the
+	 * by-type index if the type is safe to be cached.
+	 *
+	 * @param typeKey the raw class or the generic type to index the names under
+	 * @param type the type to match
+	 * @param includeNonSingletons whether to include prototype or scoped beans too
+	 * @param cacheSafe whether the type may be kept in the index
+	 */
+	private String[] getBeanNamesForTypeAndIndex(Object typeKey, ResolvableType type,
+												 boolean includeNonSingletons, boolean cacheSafe) {
+		int generation = this.beanTypeIndex.getGeneration();
+		List<String> beanDefinitionNames = doGetBeanDefinitionNamesForType(type, includeNonSingletons, true);
+		List<String> manualSingletonNames = doGetManualSingletonNamesForType(type, includeNonSingletons);
+		if (cacheSafe) {
+			return this.beanTypeIndex.register(typeKey, type, includeNonSingletons,
+					beanDefinitionNames, manualSingletonNames, generation);
+		}
+		List<String> result = new ArrayList<>(beanDefinitionNames);
+		result.addAll(manualSingletonNames);
+		return StringUtils.toStringArray(result);
+	}
+	
+	private boolean isCacheSafe(ResolvableType type) {
+		Class<?> resolved = type.resolve();
+		if (resolved == null || !ClassUtils.isCacheSafe(resolved, getBeanClassLoader())) {
+			return false;
+		}
+		for (ResolvableType generic : type.getGenerics()) {
+			if (!isCacheSafe(generic)) {
+				return false;
+			}
 		}
-		return resolvedBeanNames;
+		return true;
 	}
 	
 	/* 根据类型去factory中获取对应类的名字
 	 * 比如在工厂初始化的时候可以根据BeanFactory去获取所有的BeanFactoryProcessor */
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
+		List<String> result = doGetBeanDefinitionNamesForType(type, includeNonSingletons, allowEagerInit);
+		result.addAll(doGetManualSingletonNamesForType(type, includeNonSingletons));
+		return StringUtils.toStringArray(result);
+	}
+	
+	private List<String> doGetBeanDefinitionNamesForType(ResolvableType type, boolean includeNonSingletons,
+														 boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 		
 		// Check all bean definitions.
 		for (String beanName : this.beanDefinitionNames) {
-			// Only consider bean as eligible if the bean name
-			// is not defined as alias for some other bean.
-			if (!isAlias(beanName)) {
-				try {
-					RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
-					// Only check bean definition if it is complete.
-					if (!mbd.isAbstract() && (allowEagerInit ||
-							(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) &&
-									!requiresEagerInitForType(mbd.getFactoryBeanName()))) {
-						boolean isFactoryBean = isFactoryBean(beanName, mbd);
-						BeanDefinitionHolder dbd = mbd.getDecoratedDefinition();
-						boolean matchFound = false;
-						boolean allowFactoryBeanInit = allowEagerInit || containsSingleton(beanName);
-						boolean isNonLazyDecorated = dbd != null && !mbd.isLazyInit();
-						if (!isFactoryBean) {
-							if (includeNonSingletons || isSingleton(beanName, mbd, dbd)) {
-								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
-							}
-						} else {
-							if (includeNonSingletons || isNonLazyDecorated ||
-									(allowFactoryBeanInit && isSingleton(beanName, mbd, dbd))) {
-								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
-							}
-							if (!matchFound) {
-								// In case of FactoryBean, try to match FactoryBean instance itself next.
-								beanName = FACTORY_BEAN_PREFIX + beanName;
-								matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
-							}
-						}
-						if (matchFound) {
-							result.add(beanName);
-						}
-					}
-				} catch (CannotLoadBeanClassException | BeanDefinitionStoreException ex) {
-					if (allowEagerInit) {
-						throw ex;
-					}
-					// Probably a placeholder: let's ignore it for type matching purposes.
-					LogMessage message = (ex instanceof CannotLoadBeanClassException) ?
-							LogMessage.format("Ignoring bean class loading failure for bean '%s'", beanName) :
-							LogMessage.format("Ignoring unresolvable metadata in bean definition '%s'", beanName);
-					logger.trace(message, ex);
-					onSuppressedException(ex);
-				}
+			String matchingName = matchBeanDefinitionForType(beanName, type, includeNonSingletons, allowEagerInit);
+			if (matchingName != null) {
+				result.add(matchingName);
 			}
 		}
+		return result;
+	}
+	
+	private List<String> doGetManualSingletonNamesForType(ResolvableType type, boolean includeNonSingletons) {
+		List<String> result = new ArrayList<>();
 		
 		// Check manually registered singletons too.
 		for (String beanName : this.manualSingletonNames) {
-			try {
-				// In case of FactoryBean, match object created by FactoryBean.
-				if (isFactoryBean(beanName)) {
-					if ((includeNonSingletons || isSingleton(beanName)) && isTypeMatch(beanName, type)) {
-						result.add(beanName);
-						// Match found for this bean: do not match FactoryBean itself anymore.
-						continue;
+			String matchingName = matchManualSingletonForType(beanName, type, includeNonSingletons);
+			if (matchingName != null) {
+				result.add(matchingName);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Match the given bean definition against the given type.
+	 *
+	 * @return the matching bean name (with the FactoryBean prefix in case of
+	 * the FactoryBean itself matching), or {@code null} if no match
+	 */
+	@Nullable
+	private String matchBeanDefinitionForType(String beanName, ResolvableType type, boolean includeNonSingletons,
+											  boolean allowEagerInit) {
+		// Only consider bean as eligible if the bean name
+		// is not defined as alias for some other bean.
+		if (isAlias(beanName)) {
+			return null;
+		}
+		try {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			// Only check bean definition if it is complete.
+			if (!mbd.isAbstract() && (allowEagerInit ||
+					(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) &&
+							!requiresEagerInitForType(mbd.getFactoryBeanName()))) {
+				boolean isFactoryBean = isFactoryBean(beanName, mbd);
+				BeanDefinitionHolder dbd = mbd.getDecoratedDefinition();
+				boolean matchFound = false;
+				boolean allowFactoryBeanInit = allowEagerInit || containsSingleton(beanName);
+				boolean isNonLazyDecorated = dbd != null && !mbd.isLazyInit();
+				if (!isFactoryBean) {
+					if (includeNonSingletons || isSingleton(beanName, mbd, dbd)) {
+						matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
+					}
+				} else {
+					if (includeNonSingletons || isNonLazyDecorated ||
+							(allowFactoryBeanInit && isSingleton(beanName, mbd, dbd))) {
+						matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
+					}
+					if (!matchFound) {
+						// In case of FactoryBean, try to match FactoryBean instance itself next.
+						beanName = FACTORY_BEAN_PREFIX + beanName;
+						matchFound = isTypeMatch(beanName, type, allowFactoryBeanInit);
 					}
-					// In case of FactoryBean, try to match FactoryBean itself next.
-					beanName = FACTORY_BEAN_PREFIX + beanName;
 				}
-				// Match raw bean instance (might be raw FactoryBean).
-				if (isTypeMatch(beanName, type)) {
-					result.add(beanName);
+				if (matchFound) {
+					return beanName;
 				}
-			} catch (NoSuchBeanDefinitionException ex) {
-				// Shouldn't happen - probably a result of circular reference resolution...
-				logger.trace(
-						LogMessage.format("Failed to check manually registered singleton with name '%s'", beanName),
-						ex);
 			}
+		} catch (CannotLoadBeanClassException | BeanDefinitionStoreException ex) {
+			if (allowEagerInit) {
+				throw ex;
+			}
+			// Probably a placeholder: let's ignore it for type matching purposes.
+			LogMessage message = (ex instanceof CannotLoadBeanClassException) ?
+					LogMessage.format("Ignoring bean class loading failure for bean '%s'", beanName) :
+					LogMessage.format("Ignoring unresolvable metadata in bean definition '%s'", beanName);
+			logger.trace(message, ex);
+			onSuppressedException(ex);
 		}
-		
-		return StringUtils.toStringArray(result);
+		return null;
+	}
+	
+	/**
+	 * Match the given manually registered singleton against the given type.
+	 *
+	 * @return the matching bean name (with the FactoryBean prefix in case of
+	 * the FactoryBean itself matching), or {@code null} if no match
+	 */
+	@Nullable
+	private String matchManualSingletonForType(String beanName, ResolvableType type, boolean includeNonSingletons) {
+		try {
+			// In case of FactoryBean, match object created by FactoryBean.
+			if (isFactoryBean(beanName)) {
+				if ((includeNonSingletons || isSingleton(beanName)) && isTypeMatch(beanName, type)) {
+					// Match found for this bean: do not match FactoryBean itself anymore.
+					return beanName;
+				}
+				// In case of FactoryBean, try to match FactoryBean itself next.
+				beanName = FACTORY_BEAN_PREFIX + beanName;
+			}
+			// Match raw bean instance (might be raw FactoryBean).
+			if (isTypeMatch(beanName, type)) {
+				return beanName;
+			}
+		} catch (NoSuchBeanDefinitionException ex) {
+			// Shouldn't happen - probably a result of circular reference resolution...
+			logger.trace(
+					LogMessage.format("Failed to check manually registered singleton with name '%s'", beanName),
+					ex);
+		}
+		return null;
 	}
 	
 	private boolean isSingleton(String beanName, RootBeanDefinition mbd, @Nullable BeanDefinitionHolder dbd) {
@@ -885,47 +1071,78 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		// 获取容器中所有的Bean定义名称
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 		
-		// 循环所有Bean定义名称
-		for (String beanName : beanNames) {
-			// 合并Bean定义
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			// 根据Bean定义判断  不是抽象的 && 是单例的 && 不是懒加载的
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				// 是否是工厂Bean
-				if (isFactoryBean(beanName)) {
-					// 是的话给BeanName加前缀符号"&"
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					// 进行类型转换
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						// 判断这个 FactoryBean 是否希望急切的初始化
-						boolean isEagerInit;
-						// 是否是系统安全接口
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						} else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						// 如果希望急切的初始化,则通过beanName获取bean实例
-						if (isEagerInit) {
-							// 调用真正的getBean流程
-							getBean(beanName);
-						}
+		if (this.backgroundPreInstantiationExecutor != null) {
+			// 仅同步创建基础设施单例,其余单例交给后台线程按依赖顺序预热
+			List<String> backgroundBeanNames = new ArrayList<>(beanNames.size());
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					if (bd.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+						preInstantiateSingleton(beanName);
+					} else {
+						backgroundBeanNames.add(beanName);
 					}
-				} else {
-					// 非工厂Bean,就是普通的Bean
-					getBean(beanName);
+				}
+			}
+			Set<String> initializedBeanNames = invokeAfterSingletonsInstantiated(beanNames, Collections.emptySet());
+			if (!backgroundBeanNames.isEmpty()) {
+				startBackgroundPreInstantiation(this.backgroundPreInstantiationExecutor,
+						backgroundBeanNames, beanNames, initializedBeanNames);
+			}
+			return;
+		}
+		
+		if (this.preInstantiationParallelism > 1) {
+			List<String> eagerBeanNames = new ArrayList<>(beanNames.size());
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					eagerBeanNames.add(beanName);
+				}
+			}
+			ParallelSingletonPreInstantiator preInstantiator =
+					new ParallelSingletonPreInstantiator(this, this.preInstantiationParallelism);
+			this.parallelPreInstantiator = preInstantiator;
+			try {
+				preInstantiator.preInstantiate(eagerBeanNames);
+			} finally {
+				this.parallelPreInstantiator = null;
+			}
+		} else {
+			// 循环所有Bean定义名称
+			for (String beanName : beanNames) {
+				// 合并Bean定义
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				// 根据Bean定义判断  不是抽象的 && 是单例的 && 不是懒加载的
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
 		
 		// 遍历 beanNames ,触发所有 SmartInitializingSingleton 的后初始化回调
+		invokeAfterSingletonsInstantiated(beanNames, Collections.emptySet());
+	}
+	
+	/**
+	 * Invoke {@link SmartInitializingSingleton#afterSingletonsInstantiated()}
+	 * on all of the given singletons that have been created already.
+	 *
+	 * @param beanNames the names of the beans to check
+	 * @param excludedBeanNames the names of beans to skip
+	 * @return the names of all singletons that have been found created
+	 */
+	private Set<String> invokeAfterSingletonsInstantiated(List<String> beanNames, Set<String> excludedBeanNames) {
+		Set<String> initializedBeanNames = new HashSet<>(beanNames.size() * 2);
 		for (String beanName : beanNames) {
+			if (excludedBeanNames.contains(beanName)) {
+				continue;
+			}
 			// 获取 beanName 对应的 bean 实例
 			Object singletonInstance = getSingleton(beanName);
+			if (singletonInstance != null) {
+				initializedBeanNames.add(beanName);
+			}
 			if (singletonInstance instanceof SmartInitializingSingleton) {
 				final SmartInitializingSingleton smartSingleton = (SmartInitializingSingleton) singletonInstance;
 				if (System.getSecurityManager() != null) {
@@ -938,6 +1155,78 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 		}
+		return initializedBeanNames;
+	}
+	
+	/**
+	 * Start pre-instantiating the given singletons on the given Executor,
+	 * invoking the {@link SmartInitializingSingleton} callbacks of all
+	 * singletons not initialized before once done.
+	 */
+	private void startBackgroundPreInstantiation(Executor executor, List<String> backgroundBeanNames,
+												 List<String> beanNames, Set<String> initializedBeanNames) {
+		
+		List<String> sortedBeanNames =
+				new ParallelSingletonPreInstantiator(this, 1).sortByDependencies(backgroundBeanNames);
+		BackgroundSingletonPreInstantiator preInstantiator = new BackgroundSingletonPreInstantiator(
+				this, sortedBeanNames, () -> invokeAfterSingletonsInstantiated(beanNames, initializedBeanNames));
+		this.backgroundPreInstantiator = preInstantiator;
+		preInstantiator.start(executor);
+	}
+	
+	/**
+	 * Let a running parallel pre-instantiation know when a thread is about
+	 * to wait for a singleton that another thread is creating.
+	 */
+	@Override
+	protected boolean acquireSingletonCreationLock(String beanName) {
+		ParallelSingletonPreInstantiator preInstantiator = this.parallelPreInstantiator;
+		if (preInstantiator != null) {
+			if (tryAcquireSingletonCreationLock(beanName)) {
+				return true;
+			}
+			preInstantiator.singletonCreationLockContended(beanName);
+		}
+		return super.acquireSingletonCreationLock(beanName);
+	}
+	
+	/**
+	 * Pre-instantiate the given non-lazy singleton, including the object
+	 * exposed by a {@link SmartFactoryBean} that requests eager initialization.
+	 *
+	 * @param beanName the name of the singleton
+	 * @throws BeansException if the singleton could not be created
+	 * @see #preInstantiateSingletons()
+	 */
+	void preInstantiateSingleton(String beanName) throws BeansException {
+		// 是否是工厂Bean
+		if (isFactoryBean(beanName)) {
+			// 是的话给BeanName加前缀符号"&"
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			// 进行类型转换
+			if (bean instanceof FactoryBean) {
+				final FactoryBean<?> factory = (FactoryBean<?>) bean;
+				// 判断这个 FactoryBean 是否希望急切的初始化
+				boolean isEagerInit;
+				// 是否是系统安全接口
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+									((SmartFactoryBean<?>) factory)::isEagerInit,
+							getAccessControlContext());
+				} else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				// 如果希望急切的初始化,则通过beanName获取bean实例
+				if (isEagerInit) {
+					// 调用真正的getBean流程
+					getBean(beanName);
+				}
+			}
+		} else {
+			// 非工厂Bean,就是普通的Bean
+			getBean(beanName);
+		}
 	}
 	
 	//---------------------------------------------------------------------
@@ -1027,8 +1316,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		// 是否被冻结了:是
 		else if (isConfigurationFrozen()) {
 			/*不存在的bean，在添加完BeanDefinition，需要判断是否被冻结了
-			 *被冻结可能正在实例化了，那么就可能会有缓存，那么就需要清除type-name缓存，因为现在已经更新了*/
-			clearByTypeCache();
+			 *被冻结可能正在实例化了，那么就可能会有缓存，那么就需要把新的bean增量加入type-name索引*/
+			addBeanDefinitionToByTypeIndex(beanName);
 		}
 	}
 	
@@ -1113,11 +1402,29 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		super.registerSingleton(beanName, singletonObject);
 		updateManualSingletonNames(set -> set.add(beanName), set -> !this.beanDefinitionMap.containsKey(beanName));
-		clearByTypeCache();
+		if (this.beanDefinitionMap.containsKey(beanName)) {
+			// 已有bean定义的类型可能因实例而改变
+			clearByTypeCache();
+		} else {
+			try {
+				this.beanTypeIndex.addManualSingleton((type, includeNonSingletons) ->
+						matchManualSingletonForType(beanName, type, includeNonSingletons));
+			} catch (BeansException ex) {
+				// Let the next by-type lookup report the problem
+				logger.trace(LogMessage.format("Failed to index singleton '%s' by type", beanName), ex);
+				clearByTypeCache();
+			}
+		}
 	}
 	
 	@Override
 	public void destroySingletons() {
+		BackgroundSingletonPreInstantiator preInstantiator = this.backgroundPreInstantiator;
+		if (preInstantiator != null) {
+			// 停止后台预热,避免销毁之后仍有单例被注册
+			preInstantiator.cancel();
+			this.backgroundPreInstantiator = null;
+		}
 		super.destroySingletons();
 		updateManualSingletonNames(Set::clear, set -> !set.isEmpty());
 		clearByTypeCache();
@@ -1166,8 +1473,38 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 * 消除任何关于按类型映射的假设。
 	 */
 	private void clearByTypeCache() {
-		this.allBeanNamesByType.clear();
-		this.singletonBeanNamesByType.clear();
+		this.beanTypeIndex.clear();
+	}
+	
+	/**
+	 * Add a newly registered bean definition to the by-type index, matching it
+	 * against the indexed types instead of clearing the entire index. Falls back
+	 * to clearing the index if the new bean definition may affect the types of
+	 * existing beans, or if its own type cannot be determined without creating
+	 * a FactoryBean.
+	 *
+	 * @param beanName the name of the new bean definition
+	 */
+	private void addBeanDefinitionToByTypeIndex(String beanName) {
+		for (BeanDefinition bd : this.beanDefinitionMap.values()) {
+			if (beanName.equals(bd.getParentName()) || beanName.equals(bd.getFactoryBeanName())) {
+				clearByTypeCache();
+				return;
+			}
+		}
+		try {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			if (isFactoryBean(beanName, mbd) || requiresEagerInitForType(mbd.getFactoryBeanName())) {
+				clearByTypeCache();
+				return;
+			}
+			this.beanTypeIndex.addBeanDefinition((type, includeNonSingletons) ->
+					matchBeanDefinitionForType(beanName, type, includeNonSingletons, true));
+		} catch (BeansException ex) {
+			// Let the next by-type lookup report the problem
+			logger.trace(LogMessage.format("Failed to index bean definition '%s' by type", beanName), ex);
+			clearByTypeCache();
+		}
 	}
 	
 	//---------------------------------------------------------------------
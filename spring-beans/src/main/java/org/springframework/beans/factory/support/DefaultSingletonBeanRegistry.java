@@ -22,6 +22,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -82,18 +83,34 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/**
 	 * (三级缓存)单例工厂的缓存:bean名到objectFactory。
 	 */
-	private final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<>(16);
+	private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>(16);
 	
 	/**
 	 * (二级缓存)早期单例对象的缓存:bean名称到bean实例。
 	 */
-	private final Map<String, Object> earlySingletonObjects = new HashMap<>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
 	
 	/**
-	 * 记录已经处理保存的bean名称。
+	 * 记录已经处理保存的bean名称(以自身作为锁)。
 	 */
 	private final Set<String> registeredSingletons = new LinkedHashSet<>(256);
 	
+	/**
+	 * 单例创建锁:bean名称到持有该锁的线程。只在以该Map为监视器的同步块内修改,
+	 * 但可以无锁读取。
+	 */
+	private final Map<String, SingletonCreationLock> singletonCreationLocks = new ConcurrentHashMap<>(16);
+	
+	/**
+	 * 正在等待单例创建锁的线程:线程到其等待的bean名称,用于检测跨线程的循环等待。
+	 */
+	private final Map<Thread, String> singletonCreationLockWaiters = new HashMap<>(16);
+	
+	/**
+	 * 为打破跨线程循环等待而允许使用早期引用的等待线程:线程到其等待的bean名称。
+	 */
+	private final Map<Thread, String> earlySingletonReferenceGrants = new HashMap<>(4);
+	
 	/**
 	 * 当前正在创建的bean的名称。
 	 */
@@ -107,15 +124,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 	
 	/**
-	 * Collection of suppressed Exceptions, available for associating related causes.
+	 * Collection of suppressed Exceptions for the singleton currently being created
+	 * by each thread, available for associating related causes.
 	 */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions during singleton creation");
 	
 	/**
 	 * Flag that indicates whether we're currently within destroySingletons.
 	 */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
 	
 	/**
 	 * Disposable bean instances: bean name to disposable instance.
@@ -158,15 +176,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @param singletonObject the singleton object
 	 */
 	protected void addSingleton(String beanName, Object singletonObject) {
-		// 单例锁,一级缓存
-		synchronized (this.singletonObjects) {
-			// 存入一级缓存
-			this.singletonObjects.put(beanName, singletonObject);
-			// 从三级缓存中移除(针对不是处理循环依赖的)
-			this.singletonFactories.remove(beanName);
-			// 从二级缓存中移除(解决循环依赖的时候,半成品对象在二级缓存中)
-			this.earlySingletonObjects.remove(beanName);
-			// 记录已经处理保存的bean
+		// 不获取单例锁:bean的创建由其单例创建锁保护,三级缓存均为并发Map
+		// 存入一级缓存
+		this.singletonObjects.put(beanName, singletonObject);
+		// 从三级缓存中移除(针对不是处理循环依赖的)
+		this.singletonFactories.remove(beanName);
+		// 从二级缓存中移除(解决循环依赖的时候,半成品对象在二级缓存中)
+		this.earlySingletonObjects.remove(beanName);
+		// 记录已经处理保存的bean
+		synchronized (this.registeredSingletons) {
 			this.registeredSingletons.add(beanName);
 		}
 	}
@@ -176,14 +194,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	protected void addSingletonFactory(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(singletonFactory, "Singleton factory must not be null");
-		synchronized (this.singletonObjects) {
-			// (一级缓存)单例对象的缓存
-			if (!this.singletonObjects.containsKey(beanName)) {
-				// (三级缓存)单例工厂的缓存
-				this.singletonFactories.put(beanName, singletonFactory);
-				// (二级缓存)早期单例对象的缓存
-				this.earlySingletonObjects.remove(beanName);
-				// 记录已经处理保存的 bean
+		// (一级缓存)单例对象的缓存
+		if (!this.singletonObjects.containsKey(beanName)) {
+			// (三级缓存)单例工厂的缓存
+			this.singletonFactories.put(beanName, singletonFactory);
+			// (二级缓存)早期单例对象的缓存
+			this.earlySingletonObjects.remove(beanName);
+			// 记录已经处理保存的 bean
+			synchronized (this.registeredSingletons) {
 				this.registeredSingletons.add(beanName);
 			}
 		}
@@ -204,30 +222,44 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * 原因:获取三级缓存---getEarlyBeanReference()经过一系列后置处理器来给我们半成品对象进行特殊化处理
 	 * 从三级缓存获取包装(代理)对象的时候经过一次后置处理器的处理对我们的半成品对象bean进行特殊化处理,但是Spring的原生
 	 * 后置处理器没有经过处理,而是留给了程序员进行扩展
+	 * <p>完整的单例对象无锁读取;早期引用只暴露给持有该bean单例创建锁的线程,
+	 * 其他线程返回{@code null},并在{@link #getSingleton(String, ObjectFactory)}中等待创建完成。
 	 * @param beanName            查找的bean名称
 	 * @param allowEarlyReference 是否提前暴露对象(解决循环依赖)
 	 * @return 注册的单例对象，如果没有找到，则为{@code null}
 	 */
 	@Nullable
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
-		// 如果没有完整的单例锁，请检查现有的实例
+		// 一级缓存无锁读取完整的单例对象
 		Object singletonObject = this.singletonObjects.get(beanName);
-		// 如果一级缓存中没有,并且正在创建的集合中有Bean名称,通常循环依赖可以满足该条件
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-			/**
-			 * 5.2.9版本中这里的单例模式使用了双重判断,即一级二级缓存在锁的前后都会尝试拿一次以免出现实例化两次错误 */
-			synchronized (this.singletonObjects) {
-				// 二级缓存,尝试获取半成品对象:也就是刚刚调用了构造方法实例化,但还来不及给bean的属性进行赋值初始化的对象
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				if (singletonObject == null && allowEarlyReference) {
-					/**
-					 * 三级缓存,获取 ObjectFactory 这个对象就是解决循环依赖的关键所在,在 ioc 后置处理器的过程中,
-					 * 当bean调用了构造方法的时候会把半成品对象包裹成 ObjectFactory 暴露到三级缓存中
-					 * ObjectFactory(其实是一个 lambda 表达式来进行 AOP 生成代理对象)与二级缓存互斥
-					 * lambda 表达式 == getEarlyBeanReference(beanName, mbd, bean);
-					 * */
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
+		// 如果一级缓存中没有,并且当前线程正在创建该Bean,通常循环依赖可以满足该条件
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				isSingletonCreationLockHeldByCurrentThread(beanName)) {
+			// 二级缓存,尝试获取半成品对象:也就是刚刚调用了构造方法实例化,但还来不及给bean的属性进行赋值初始化的对象
+			singletonObject = this.earlySingletonObjects.get(beanName);
+			if (singletonObject == null && allowEarlyReference) {
+				// 三级缓存,通过 ObjectFactory(getEarlyBeanReference)获取早期引用并移入二级缓存
+				singletonObject = getEarlySingletonReference(beanName);
+			}
+		}
+		return singletonObject;
+	}
+	
+	/**
+	 * 从二级缓存获取早期单例引用,或者执行三级缓存中的 ObjectFactory 并将结果移入二级缓存。
+	 * <p>同一个bean的 ObjectFactory 只会被执行一次。
+	 * @param beanName the name of the bean
+	 * @return the early singleton reference, or {@code null} if none exposed
+	 */
+	@Nullable
+	private Object getEarlySingletonReference(String beanName) {
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null) {
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory != null) {
+				synchronized (singletonFactory) {
+					singletonObject = this.earlySingletonObjects.get(beanName);
+					if (singletonObject == null) {
 						// 执行 lambda AOP
 						singletonObject = singletonFactory.getObject();
 						// 把三级缓存移植到二级缓存中
@@ -250,10 +282,23 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		// 断言
 		Assert.notNull(beanName, "Bean name must not be null");
-		// 加锁
-		synchronized (this.singletonObjects) {
-			// <1>尝试从单例缓存池中获取对象
-			Object singletonObject = this.singletonObjects.get(beanName);
+		// <1>无锁尝试从单例缓存池中获取对象
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		// 只锁定当前bean,不相关的单例可以在其他线程中并发创建
+		if (!acquireSingletonCreationLock(beanName)) {
+			// 跨线程循环依赖:持有锁的线程正在等待当前线程,与单线程创建一样使用早期引用
+			singletonObject = getEarlySingletonReference(beanName);
+			if (singletonObject == null) {
+				throw new BeanCurrentlyInCreationException(beanName);
+			}
+			return singletonObject;
+		}
+		try {
+			// 获取锁之后再次检查,其他线程可能已经创建完成
+			singletonObject = this.singletonObjects.get(beanName);
 			// 如果缓存中单例对象获取不到
 			if (singletonObject == null) {
 				// 如果当前在 destorySingletons 中
@@ -271,12 +316,12 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				beforeSingletonCreation(beanName);
 				// 表示生成了新的单例对象的标记,默认为faLse,表示没有生成新的单例对象
 				boolean newSingleton = false;
-				// 抑制异常记录标记,没有时没true,否则为false
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
+				// 抑制异常记录标记,当前线程没有时为true,否则为false
+				boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
 				// 如果没有抑制异常记录
 				if (recordSuppressedExceptions) {
-					// 对抑制的异常列表进行实例化(LinkedHashSet)
-					this.suppressedExceptions = new LinkedHashSet<>();
+					// 对当前线程抑制的异常列表进行实例化(LinkedHashSet)
+					this.suppressedExceptions.set(new LinkedHashSet<>());
 				}
 				try {
 					// <3>初始化Bean,这里其实调用的是CreateBean方法,lambda表达式方法当做参数传入
@@ -293,7 +338,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 					// 如果没有抑制异常记录
 					if (recordSuppressedExceptions) {
 						// 遍历抑制的异常列表
-						for (Exception suppressedException : this.suppressedExceptions) {
+						for (Exception suppressedException : this.suppressedExceptions.get()) {
 							// 将抑制的异常对象添加到bean创建异常中,这样做的,就是相当于,因XXX异常导致了Bean创建异常,的说法
 							ex.addRelatedCause(suppressedException);
 						}
@@ -302,9 +347,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				} finally {
 					// 如果没有抑制异常记录
 					if (recordSuppressedExceptions) {
-						/**将抑制的异常列表置为nulL,因为 suppressedExceptions 是对应单个bean的异常记录,置为null
+						/**移除当前线程抑制的异常列表,因为 suppressedExceptions 是对应单个bean的异常记录,
 						 * 可防止异常信息的混乱*/
-						this.suppressedExceptions = null;
+						this.suppressedExceptions.remove();
 					}
 					// <4>后置处理,将bean从当前正在创建中集合中移除(singletonsCurrentlyInCreation)
 					afterSingletonCreation(beanName);
@@ -316,7 +361,183 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				}
 			}
 			return singletonObject;
+		} finally {
+			releaseSingletonCreationLock(beanName);
+		}
+	}
+	
+	/**
+	 * Acquire the creation lock for the given singleton bean, blocking while
+	 * another thread holds it. Creation locks are reentrant and per bean, so
+	 * unrelated singletons can be created concurrently.
+	 * <p>If waiting would close a cycle of threads waiting for each other's
+	 * beans (a circular reference across threads), the cycle is broken the
+	 * same way sequential creation would break it: with an early singleton
+	 * reference. This method returns {@code false} if the current thread
+	 * should use the early reference of the given bean; if the early reference
+	 * of another bean in the cycle is available instead, the thread waiting for
+	 * that bean is released to use it and the current thread keeps waiting.
+	 * @param beanName the name of the bean
+	 * @return {@code true} if the lock has been acquired, {@code false} if the
+	 * current thread should use the early reference of the bean instead
+	 * @throws BeanCurrentlyInCreationException if the cycle cannot be broken
+	 * since no early reference is available
+	 * @since 5.3
+	 * @see #releaseSingletonCreationLock
+	 */
+	protected boolean acquireSingletonCreationLock(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		boolean interrupted = false;
+		try {
+			synchronized (this.singletonCreationLocks) {
+				while (true) {
+					String grantedBeanName = this.earlySingletonReferenceGrants.remove(currentThread);
+					SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+					if (lock == null) {
+						this.singletonCreationLocks.put(beanName, new SingletonCreationLock(currentThread));
+						return true;
+					}
+					if (lock.owner == currentThread) {
+						lock.holdCount++;
+						return true;
+					}
+					if (beanName.equals(grantedBeanName)) {
+						return false;
+					}
+					Map<Thread, String> cycle = findCircularWait(lock.owner, currentThread);
+					if (cycle != null && !breakCircularWait(beanName, cycle)) {
+						return false;
+					}
+					this.singletonCreationLockWaiters.put(currentThread, beanName);
+					try {
+						this.singletonCreationLocks.wait();
+					} catch (InterruptedException ex) {
+						// 与 synchronized 一样不可中断地等待,稍后恢复中断状态
+						interrupted = true;
+					} finally {
+						this.singletonCreationLockWaiters.remove(currentThread);
+					}
+				}
+			}
+		} finally {
+			if (interrupted) {
+				currentThread.interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Try to acquire the creation lock for the given singleton bean without
+	 * blocking, succeeding if the lock is free or already held by the current thread.
+	 * @param beanName the name of the bean
+	 * @return whether the lock has been acquired
+	 * @since 5.3
+	 * @see #releaseSingletonCreationLock
+	 */
+	protected boolean tryAcquireSingletonCreationLock(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		synchronized (this.singletonCreationLocks) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			if (lock == null) {
+				this.singletonCreationLocks.put(beanName, new SingletonCreationLock(currentThread));
+				return true;
+			}
+			if (lock.owner == currentThread) {
+				lock.holdCount++;
+				return true;
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * Release the creation lock for the given singleton bean, previously
+	 * acquired by the current thread.
+	 * @param beanName the name of the bean
+	 * @since 5.3
+	 * @see #acquireSingletonCreationLock
+	 */
+	protected void releaseSingletonCreationLock(String beanName) {
+		synchronized (this.singletonCreationLocks) {
+			SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+			if (lock == null || lock.owner != Thread.currentThread()) {
+				throw new IllegalStateException("Creation lock for singleton '" + beanName +
+						"' isn't held by the current thread");
+			}
+			if (--lock.holdCount == 0) {
+				this.singletonCreationLocks.remove(beanName);
+				this.singletonCreationLocks.notifyAll();
+			}
+		}
+	}
+	
+	/**
+	 * Return whether the current thread holds the creation lock for the given singleton bean.
+	 * @param beanName the name of the bean
+	 * @since 5.3
+	 */
+	protected boolean isSingletonCreationLockHeldByCurrentThread(String beanName) {
+		SingletonCreationLock lock = this.singletonCreationLocks.get(beanName);
+		return (lock != null && lock.owner == Thread.currentThread());
+	}
+	
+	/**
+	 * 沿着等待关系从锁的持有者开始查找,判断是否会回到当前线程。
+	 * <p>必须在 singletonCreationLocks 的同步块内调用。
+	 * @param owner         持有被请求锁的线程
+	 * @param currentThread 当前线程
+	 * @return 循环中的等待线程到其等待的bean名称,如果没有形成循环则为{@code null}
+	 */
+	@Nullable
+	private Map<Thread, String> findCircularWait(Thread owner, Thread currentThread) {
+		Map<Thread, String> cycle = new LinkedHashMap<>();
+		Thread thread = owner;
+		while (thread != currentThread) {
+			String awaitedBeanName = this.singletonCreationLockWaiters.get(thread);
+			SingletonCreationLock awaitedLock =
+					(awaitedBeanName != null ? this.singletonCreationLocks.get(awaitedBeanName) : null);
+			if (awaitedLock == null || cycle.containsKey(thread)) {
+				return null;
+			}
+			cycle.put(thread, awaitedBeanName);
+			thread = awaitedLock.owner;
+		}
+		return cycle;
+	}
+	
+	/**
+	 * 打破跨线程的循环等待:优先让当前线程使用请求bean的早期引用,否则允许循环中
+	 * 另一个等待线程使用其等待bean的早期引用。
+	 * <p>必须在 singletonCreationLocks 的同步块内调用。
+	 * @param beanName 当前线程请求的bean名称
+	 * @param cycle    循环中的其他等待线程到其等待的bean名称
+	 * @return 当前线程是否需要继续等待
+	 * @throws BeanCurrentlyInCreationException 如果循环中没有可用的早期引用
+	 */
+	private boolean breakCircularWait(String beanName, Map<Thread, String> cycle) {
+		if (hasEarlySingletonReference(beanName)) {
+			return false;
 		}
+		for (Map.Entry<Thread, String> entry : cycle.entrySet()) {
+			if (this.earlySingletonReferenceGrants.containsKey(entry.getKey())) {
+				// 已经允许某个线程使用早期引用,等待其完成创建
+				return true;
+			}
+		}
+		for (Map.Entry<Thread, String> entry : cycle.entrySet()) {
+			if (hasEarlySingletonReference(entry.getValue())) {
+				this.earlySingletonReferenceGrants.put(entry.getKey(), entry.getValue());
+				this.singletonCreationLocks.notifyAll();
+				return true;
+			}
+		}
+		throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in creation " +
+				"by another thread that is waiting for a bean held by the current thread: " +
+				"Is there an unresolvable circular reference?");
+	}
+	
+	private boolean hasEarlySingletonReference(String beanName) {
+		return (this.earlySingletonObjects.containsKey(beanName) || this.singletonFactories.containsKey(beanName));
 	}
 	
 	/**
@@ -329,10 +550,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see BeanCreationException#getRelatedCauses()
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null && this.suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null && suppressedExceptions.size() < SUPPRESSED_EXCEPTIONS_LIMIT) {
+			suppressedExceptions.add(ex);
 		}
 	}
 	
@@ -343,10 +563,10 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see #getSingletonMutex()
 	 */
 	protected void removeSingleton(String beanName) {
-		synchronized (this.singletonObjects) {
-			this.singletonObjects.remove(beanName);
-			this.singletonFactories.remove(beanName);
-			this.earlySingletonObjects.remove(beanName);
+		this.singletonObjects.remove(beanName);
+		this.singletonFactories.remove(beanName);
+		this.earlySingletonObjects.remove(beanName);
+		synchronized (this.registeredSingletons) {
 			this.registeredSingletons.remove(beanName);
 		}
 	}
@@ -358,14 +578,14 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	
 	@Override
 	public String[] getSingletonNames() {
-		synchronized (this.singletonObjects) {
+		synchronized (this.registeredSingletons) {
 			return StringUtils.toStringArray(this.registeredSingletons);
 		}
 	}
 	
 	@Override
 	public int getSingletonCount() {
-		synchronized (this.singletonObjects) {
+		synchronized (this.registeredSingletons) {
 			return this.registeredSingletons.size();
 		}
 	}
@@ -589,7 +809,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			this.singletonObjects.clear();
 			this.singletonFactories.clear();
 			this.earlySingletonObjects.clear();
-			this.registeredSingletons.clear();
+			synchronized (this.registeredSingletons) {
+				this.registeredSingletons.clear();
+			}
 			this.singletonsCurrentlyInDestruction = false;
 		}
 	}
@@ -675,14 +897,32 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	
 	/**
 	 * Exposes the singleton mutex to subclasses and external collaborators.
-	 * <p>Subclasses should synchronize on the given Object if they perform
-	 * any sort of extended singleton creation phase. In particular, subclasses
-	 * should <i>not</i> have their own mutexes involved in singleton creation,
-	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>As of 5.3, singleton creation is guarded by per-bean creation locks
+	 * rather than by this mutex, so that unrelated singletons can be created
+	 * concurrently. Collaborators should only hold the mutex for short
+	 * bookkeeping sections and should <i>not</i> trigger singleton creation
+	 * while holding it, since a thread creating a singleton may need the mutex
+	 * in turn. Subclasses with an extended singleton creation phase should use
+	 * {@link #acquireSingletonCreationLock} for the bean in question instead.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
 	}
 	
+	
+	/**
+	 * 单个bean的单例创建锁,由创建该bean的线程持有,可重入。
+	 */
+	private static final class SingletonCreationLock {
+		
+		final Thread owner;
+		
+		int holdCount = 1;
+		
+		SingletonCreationLock(Thread owner) {
+			this.owner = owner;
+		}
+	}
+	
 }
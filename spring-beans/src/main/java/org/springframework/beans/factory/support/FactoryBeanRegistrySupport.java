@@ -95,8 +95,17 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	 */
 	protected Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
 		if (factory.isSingleton() && containsSingleton(beanName)) {
-			synchronized (getSingletonMutex()) {
-				Object object = this.factoryBeanObjectCache.get(beanName);
+			Object object = this.factoryBeanObjectCache.get(beanName);
+			if (object != null) {
+				return object;
+			}
+			if (!acquireSingletonCreationLock(beanName)) {
+				// The FactoryBean is fully initialized and has no early reference:
+				// a cross-thread cycle through getObject() cannot be resolved.
+				throw new BeanCurrentlyInCreationException(beanName);
+			}
+			try {
+				object = this.factoryBeanObjectCache.get(beanName);
 				if (object == null) {
 					object = doGetObjectFromFactoryBean(factory, beanName);
 					// Only post-process and store if not put there already during getObject() call above
@@ -130,6 +139,9 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 				}
 				return object;
 			}
+			finally {
+				releaseSingletonCreationLock(beanName);
+			}
 		}
 		else {
 			Object object = doGetObjectFromFactoryBean(factory, beanName);
@@ -224,10 +236,8 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	 */
 	@Override
 	protected void removeSingleton(String beanName) {
-		synchronized (getSingletonMutex()) {
-			super.removeSingleton(beanName);
-			this.factoryBeanObjectCache.remove(beanName);
-		}
+		super.removeSingleton(beanName);
+		this.factoryBeanObjectCache.remove(beanName);
 	}
 
 	/**
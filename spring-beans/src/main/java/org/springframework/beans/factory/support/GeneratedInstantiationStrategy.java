@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.GeneratedBeanAccessors;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+
+/**
+ * Instantiation strategy that invokes bean constructors through bytecode
+ * accessors generated by {@link GeneratedBeanAccessors} instead of through
+ * reflection, for bean definitions that are instantiated repeatedly.
+ *
+ * <p>Generated accessors are only used for non-singleton bean definitions
+ * without method overrides, since singletons are instantiated just once and
+ * would not amortize the cost of generating an accessor class. In all other
+ * cases, and for constructors that cannot be invoked from generated code
+ * (e.g. private constructors or Kotlin types), this strategy behaves like
+ * its {@link CglibSubclassingInstantiationStrategy} superclass.
+ *
+ * <p>Not used by default: set it on the bean factory through
+ * {@link AbstractAutowireCapableBeanFactory#setInstantiationStrategy}.
+ *
+ * @since 5.3
+ * @see GeneratedBeanAccessors#forConstructor(Constructor)
+ */
+public class GeneratedInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	@Override
+	public Object instantiate(RootBeanDefinition bd, @Nullable String beanName, BeanFactory owner) {
+		if (isGeneratedAccessorCandidate(bd)) {
+			Object ctor = bd.resolvedConstructorOrFactoryMethod;
+			if (ctor instanceof Constructor) {
+				Object instance = instantiateWithGeneratedAccessor((Constructor<?>) ctor);
+				if (instance != null) {
+					return instance;
+				}
+			}
+		}
+		return super.instantiate(bd, beanName, owner);
+	}
+
+	@Override
+	public Object instantiate(RootBeanDefinition bd, @Nullable String beanName, BeanFactory owner,
+			Constructor<?> ctor, Object... args) {
+
+		if (isGeneratedAccessorCandidate(bd)) {
+			Object instance = instantiateWithGeneratedAccessor(ctor, args);
+			if (instance != null) {
+				return instance;
+			}
+		}
+		return super.instantiate(bd, beanName, owner, ctor, args);
+	}
+
+	/**
+	 * Determine whether instances of the given bean definition should be
+	 * created through a generated accessor.
+	 * <p>The default implementation accepts non-singleton bean definitions
+	 * without method overrides, unless a SecurityManager is active.
+	 * @param bd the bean definition
+	 */
+	protected boolean isGeneratedAccessorCandidate(RootBeanDefinition bd) {
+		return (!bd.isSingleton() && !bd.hasMethodOverrides() && System.getSecurityManager() == null);
+	}
+
+	@Nullable
+	private Object instantiateWithGeneratedAccessor(Constructor<?> ctor, Object... args) {
+		Class<?>[] parameterTypes = ctor.getParameterTypes();
+		if (parameterTypes.length != args.length ||
+				(KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(ctor.getDeclaringClass()))) {
+			return null;
+		}
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null && parameterTypes[i].isPrimitive()) {
+				// Let BeanUtils apply primitive default values
+				return null;
+			}
+		}
+		GeneratedBeanAccessors.ConstructorAccessor accessor = GeneratedBeanAccessors.forConstructor(ctor);
+		if (accessor == null) {
+			return null;
+		}
+		try {
+			return accessor.newInstance(args);
+		}
+		catch (InvocationTargetException ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+		}
+		catch (ClassCastException | NullPointerException ex) {
+			throw new BeanInstantiationException(ctor, "Illegal arguments for constructor", ex);
+		}
+	}
+
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.lang.Nullable;
+
+/**
+ * Delegate for pre-instantiating the non-lazy singletons of a
+ * {@link DefaultListableBeanFactory} on a bounded {@link ForkJoinPool}.
+ *
+ * <p>A dependency graph is derived from the merged bean definitions: explicit
+ * {@code depends-on} declarations, factory bean references, as well as bean
+ * references in constructor arguments and property values (including nested
+ * inner beans and managed collections). A singleton is only submitted once all
+ * of its statically known dependencies have been created, so that independent
+ * subgraphs get instantiated concurrently. Dependencies that are only discovered
+ * at creation time (e.g. through autowiring) are resolved on the creating thread,
+ * just like in sequential mode.
+ *
+ * <p>Since such dependencies are not part of the graph, two singletons that need
+ * each other may still get submitted at the same time. As soon as a pool thread
+ * has to wait for a singleton that another thread is creating, no further
+ * singletons are submitted: the ones in progress complete, and the remaining
+ * ones get created sequentially on the calling thread.
+ *
+ * <p>Singletons taking part in a reference cycle, or depending on one, are not
+ * submitted to the pool either: they get created sequentially on the calling
+ * thread afterwards, in registration order, preserving the regular circular
+ * reference resolution of {@link DefaultSingletonBeanRegistry}.
+ *
+ * <p>If any singleton fails to be created, its dependents are skipped while
+ * independent singletons are still created. All singletons not created by then
+ * are retried sequentially in registration order, so that the exception thrown
+ * is the one for the first failing singleton in registration order, just like
+ * in sequential mode, regardless of the order in which the pool threads
+ * completed. The failures of other singletons in the parallel phase are
+ * registered as {@link BeanCreationException#addRelatedCause related causes}.
+ *
+ * @since 5.3
+ * @see DefaultListableBeanFactory#setPreInstantiationParallelism
+ */
+class ParallelSingletonPreInstantiator {
+
+	private static final Log logger = LogFactory.getLog(ParallelSingletonPreInstantiator.class);
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final int parallelism;
+
+	@Nullable
+	private volatile Execution execution;
+
+
+	ParallelSingletonPreInstantiator(DefaultListableBeanFactory beanFactory, int parallelism) {
+		this.beanFactory = beanFactory;
+		this.parallelism = parallelism;
+	}
+
+
+	/**
+	 * Pre-instantiate the given singletons.
+	 * @param beanNames the names of the non-lazy singletons to pre-instantiate,
+	 * in registration order
+	 * @throws BeansException if any of the singletons could not be created
+	 */
+	public void preInstantiate(List<String> beanNames) throws BeansException {
+		Set<String> candidates = new LinkedHashSet<>(beanNames);
+		Map<String, Set<String>> dependencies = new LinkedHashMap<>(candidates.size() * 2);
+		Map<String, List<String>> dependents = new HashMap<>(candidates.size() * 2);
+		buildDependencyGraph(candidates, dependencies, dependents);
+
+		Set<String> acyclic = findAcyclicBeans(dependencies, dependents);
+		if (logger.isDebugEnabled() && acyclic.size() < dependencies.size()) {
+			logger.debug((dependencies.size() - acyclic.size()) + " singletons involved in reference cycles " +
+					"will be created sequentially after the parallel pre-instantiation phase");
+		}
+		Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<>(acyclic.size() * 2));
+		Map<String, Throwable> failures = new ConcurrentHashMap<>();
+		if (!acyclic.isEmpty()) {
+			Execution execution = new Execution(dependencies, dependents, acyclic, created, failures);
+			this.execution = execution;
+			try {
+				execution.run();
+			}
+			finally {
+				this.execution = null;
+			}
+		}
+
+		for (String beanName : dependencies.keySet()) {
+			if (!created.contains(beanName)) {
+				try {
+					this.beanFactory.preInstantiateSingleton(beanName);
+				}
+				catch (BeanCreationException ex) {
+					failures.forEach((failedBeanName, failure) -> {
+						if (!failedBeanName.equals(beanName) && failure instanceof Exception) {
+							ex.addRelatedCause((Exception) failure);
+						}
+					});
+					throw ex;
+				}
+			}
+		}
+		if (!failures.isEmpty() && logger.isDebugEnabled()) {
+			logger.debug("Singletons " + failures.keySet() + " failed to be created in parallel " +
+					"but have been created sequentially");
+		}
+	}
+
+	/**
+	 * Callback for a thread about to wait for the creation lock of the given
+	 * singleton, held by another thread: stop submitting singletons to the pool.
+	 * @param beanName the name of the singleton
+	 */
+	void singletonCreationLockContended(String beanName) {
+		Execution execution = this.execution;
+		if (execution != null) {
+			execution.fallBackToSequential(beanName);
+		}
+	}
+
+	/**
+	 * Sort the given singletons so that each one comes after its statically
+	 * known dependencies, for creating them one after another.
+	 * <p>Singletons taking part in a reference cycle, or depending on one,
+	 * are appended at the end in registration order.
+	 * @param beanNames the names of the singletons, in registration order
+	 * @return the sorted bean names
+	 */
+	public List<String> sortByDependencies(List<String> beanNames) {
+		Set<String> candidates = new LinkedHashSet<>(beanNames);
+		Map<String, Set<String>> dependencies = new LinkedHashMap<>(candidates.size() * 2);
+		Map<String, List<String>> dependents = new HashMap<>(candidates.size() * 2);
+		buildDependencyGraph(candidates, dependencies, dependents);
+
+		Set<String> sorted = findAcyclicBeans(dependencies, dependents);
+		sorted.addAll(candidates);
+		return new ArrayList<>(sorted);
+	}
+
+	private void buildDependencyGraph(Set<String> beanNames,
+			Map<String, Set<String>> dependencies, Map<String, List<String>> dependents) {
+
+		for (String beanName : beanNames) {
+			Set<String> beanDependencies = resolveDependencies(beanName, beanNames);
+			dependencies.put(beanName, beanDependencies);
+			for (String dependency : beanDependencies) {
+				dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Determine the statically known dependencies of the given bean
+	 * within the given set of candidate beans.
+	 */
+	private Set<String> resolveDependencies(String beanName, Set<String> candidates) {
+		RootBeanDefinition mbd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+		Set<String> references = new LinkedHashSet<>();
+		collectReferences(mbd, references);
+		Set<String> dependencies = new LinkedHashSet<>(references.size());
+		for (String reference : references) {
+			String dependency = this.beanFactory.canonicalName(BeanFactoryUtils.transformedBeanName(reference));
+			if (!dependency.equals(beanName) && candidates.contains(dependency)) {
+				dependencies.add(dependency);
+			}
+		}
+		return dependencies;
+	}
+
+	private void collectReferences(BeanDefinition bd, Set<String> references) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			Collections.addAll(references, dependsOn);
+		}
+		if (bd.getFactoryBeanName() != null) {
+			references.add(bd.getFactoryBeanName());
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+				collectReferences(valueHolder.getValue(), references);
+			}
+			for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getGenericArgumentValues()) {
+				collectReferences(valueHolder.getValue(), references);
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectReferences(pv.getValue(), references);
+			}
+		}
+	}
+
+	private void collectReferences(Object value, Set<String> references) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference ref = (RuntimeBeanReference) value;
+			if (!ref.isToParent() && ref.getBeanType() == null) {
+				references.add(ref.getBeanName());
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectReferences(((BeanDefinitionHolder) value).getBeanDefinition(), references);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectReferences((BeanDefinition) value, references);
+		}
+		else if (value instanceof ManagedList || value instanceof ManagedSet) {
+			for (Object element : (Collection<?>) value) {
+				collectReferences(element, references);
+			}
+		}
+		else if (value instanceof ManagedMap) {
+			for (Map.Entry<?, ?> entry : ((ManagedMap<?, ?>) value).entrySet()) {
+				collectReferences(entry.getKey(), references);
+				collectReferences(entry.getValue(), references);
+			}
+		}
+	}
+
+	/**
+	 * Determine the beans that neither take part in a reference cycle
+	 * nor depend on a bean that does, using Kahn's algorithm.
+	 * <p>The returned set is ordered with dependencies before their dependents.
+	 */
+	private Set<String> findAcyclicBeans(Map<String, Set<String>> dependencies, Map<String, List<String>> dependents) {
+		Map<String, Integer> pending = new HashMap<>(dependencies.size() * 2);
+		List<String> ready = new ArrayList<>();
+		dependencies.forEach((beanName, beanDependencies) -> {
+			pending.put(beanName, beanDependencies.size());
+			if (beanDependencies.isEmpty()) {
+				ready.add(beanName);
+			}
+		});
+		Set<String> acyclic = new LinkedHashSet<>(dependencies.size() * 2);
+		for (int i = 0; i < ready.size(); i++) {
+			String beanName = ready.get(i);
+			acyclic.add(beanName);
+			for (String dependent : dependents.getOrDefault(beanName, Collections.emptyList())) {
+				if (pending.merge(dependent, -1, Integer::sum) == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		return acyclic;
+	}
+
+
+	/**
+	 * A single parallel pre-instantiation run over the acyclic part of the graph.
+	 */
+	private class Execution {
+
+		private final Map<String, Set<String>> dependencies;
+
+		private final Map<String, List<String>> dependents;
+
+		private final Set<String> beanNames;
+
+		private final Set<String> created;
+
+		private final Map<String, Throwable> failures;
+
+		private final Map<String, AtomicInteger> pending;
+
+		private final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+		private final ForkJoinPool pool;
+
+		private volatile boolean sequentialFallback;
+
+		Execution(Map<String, Set<String>> dependencies, Map<String, List<String>> dependents,
+				Set<String> beanNames, Set<String> created, Map<String, Throwable> failures) {
+
+			this.dependencies = dependencies;
+			this.dependents = dependents;
+			this.beanNames = beanNames;
+			this.created = created;
+			this.failures = failures;
+			this.pending = new HashMap<>(beanNames.size() * 2);
+			for (String beanName : beanNames) {
+				this.pending.put(beanName, new AtomicInteger(dependencies.get(beanName).size()));
+			}
+			this.pool = new ForkJoinPool(parallelism, pool -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("singleton-preinstantiation-" + thread.getPoolIndex());
+				return thread;
+			}, null, false);
+		}
+
+		void run() {
+			try {
+				for (String beanName : this.beanNames) {
+					if (this.dependencies.get(beanName).isEmpty()) {
+						submit(beanName);
+					}
+				}
+				while (!this.pool.awaitQuiescence(1, TimeUnit.SECONDS)) {
+					if (logger.isTraceEnabled()) {
+						logger.trace("Waiting for parallel singleton pre-instantiation to complete");
+					}
+				}
+			}
+			finally {
+				this.pool.shutdownNow();
+			}
+		}
+
+		void fallBackToSequential(String beanName) {
+			if (!this.sequentialFallback) {
+				this.sequentialFallback = true;
+				if (logger.isDebugEnabled()) {
+					logger.debug("Singleton '" + beanName + "' is being created by another thread: creating " +
+							"the remaining singletons sequentially after the parallel pre-instantiation phase");
+				}
+			}
+		}
+
+		private void submit(String beanName) {
+			if (!this.sequentialFallback) {
+				this.pool.execute(() -> instantiate(beanName));
+			}
+		}
+
+		private void instantiate(String beanName) {
+			Thread currentThread = Thread.currentThread();
+			ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+			currentThread.setContextClassLoader(this.contextClassLoader);
+			try {
+				beanFactory.preInstantiateSingleton(beanName);
+			}
+			catch (Throwable ex) {
+				this.failures.put(beanName, ex);
+				return;
+			}
+			finally {
+				currentThread.setContextClassLoader(previousClassLoader);
+			}
+			this.created.add(beanName);
+			for (String dependent : this.dependents.getOrDefault(beanName, Collections.emptyList())) {
+				AtomicInteger counter = this.pending.get(dependent);
+				if (counter != null && counter.decrementAndGet() == 0) {
+					submit(dependent);
+				}
+			}
+		}
+	}
+
+}
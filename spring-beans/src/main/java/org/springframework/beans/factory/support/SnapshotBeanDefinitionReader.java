@@ -0,0 +1,388 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+/**
+ * Bean definition reader for bean definition snapshots, i.e. the compact
+ * binary format written by {@link SnapshotBeanDefinitionWriter}.
+ *
+ * <p>Each bean definition in the snapshot gets registered as a
+ * {@link RootBeanDefinition}, together with its aliases. No bean classes
+ * are loaded or introspected at this point: a snapshot is typically generated
+ * at build time, so that the expensive parsing of the original configuration
+ * does not need to happen again on every startup.
+ *
+ * <p>Snapshots may also carry additional string properties describing the
+ * environment they were generated for, see {@link #getSnapshotProperties()}.
+ *
+ * @since 5.3
+ * @see SnapshotBeanDefinitionWriter
+ */
+public class SnapshotBeanDefinitionReader extends AbstractBeanDefinitionReader {
+
+	static final int MAGIC = 0x53424453;
+
+	static final int VERSION = 1;
+
+	static final int NEW_STRING = -2;
+
+	static final int NULL_STRING = -1;
+
+	static final int FLAG_ABSTRACT = 1;
+
+	static final int FLAG_AUTOWIRE_CANDIDATE = 1 << 1;
+
+	static final int FLAG_PRIMARY = 1 << 2;
+
+	static final int FLAG_NON_PUBLIC_ACCESS_ALLOWED = 1 << 3;
+
+	static final int FLAG_LENIENT_CONSTRUCTOR_RESOLUTION = 1 << 4;
+
+	static final int FLAG_ENFORCE_INIT_METHOD = 1 << 5;
+
+	static final int FLAG_ENFORCE_DESTROY_METHOD = 1 << 6;
+
+	static final int FLAG_SYNTHETIC = 1 << 7;
+
+	static final int FLAG_FACTORY_METHOD_UNIQUE = 1 << 8;
+
+	static final byte VALUE_NULL = 0;
+
+	static final byte VALUE_STRING = 1;
+
+	static final byte VALUE_TYPED_STRING = 2;
+
+	static final byte VALUE_BEAN_REFERENCE = 3;
+
+	static final byte VALUE_BEAN_NAME_REFERENCE = 4;
+
+	static final byte VALUE_BEAN_DEFINITION_HOLDER = 5;
+
+	static final byte VALUE_BEAN_DEFINITION = 6;
+
+	static final byte VALUE_LIST = 7;
+
+	static final byte VALUE_SET = 8;
+
+	static final byte VALUE_MAP = 9;
+
+	static final byte VALUE_ARRAY = 10;
+
+	static final byte VALUE_PROPERTIES = 11;
+
+	static final byte VALUE_BOOLEAN = 12;
+
+	static final byte VALUE_INTEGER = 13;
+
+	static final byte VALUE_LONG = 14;
+
+
+	private final Map<String, String> snapshotProperties = new LinkedHashMap<>();
+
+
+	/**
+	 * Create a new SnapshotBeanDefinitionReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public SnapshotBeanDefinitionReader(BeanDefinitionRegistry registry) {
+		super(registry);
+	}
+
+
+	/**
+	 * Return the properties stored in the snapshots loaded so far,
+	 * in the order in which they were read.
+	 * @see SnapshotBeanDefinitionWriter#addSnapshotProperty
+	 */
+	public Map<String, String> getSnapshotProperties() {
+		return Collections.unmodifiableMap(this.snapshotProperties);
+	}
+
+	/**
+	 * Load bean definitions from the specified snapshot resource.
+	 * @param resource the resource descriptor for the snapshot
+	 * @return the number of bean definitions found
+	 * @throws BeanDefinitionStoreException in case of loading or parsing errors
+	 */
+	@Override
+	public int loadBeanDefinitions(Resource resource) throws BeanDefinitionStoreException {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Loading bean definition snapshot from " + resource);
+		}
+		try (InputStream is = resource.getInputStream()) {
+			int count = new SnapshotInput(is, resource.getDescription()).readSnapshot();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " bean definitions from snapshot " + resource);
+			}
+			return count;
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("Could not read bean definition snapshot from " + resource, ex);
+		}
+	}
+
+
+	/**
+	 * Reads a single snapshot stream.
+	 */
+	private class SnapshotInput {
+
+		private final DataInputStream in;
+
+		private final String resourceDescription;
+
+		private final List<String> strings = new ArrayList<>(256);
+
+		SnapshotInput(InputStream is, String resourceDescription) {
+			this.in = new DataInputStream(new BufferedInputStream(is));
+			this.resourceDescription = resourceDescription;
+		}
+
+		int readSnapshot() throws IOException {
+			if (this.in.readInt() != MAGIC) {
+				throw new BeanDefinitionStoreException(this.resourceDescription, "Not a bean definition snapshot");
+			}
+			int version = this.in.readInt();
+			if (version != VERSION) {
+				throw new BeanDefinitionStoreException(this.resourceDescription,
+						"Unsupported bean definition snapshot version " + version);
+			}
+			int propertyCount = this.in.readInt();
+			for (int i = 0; i < propertyCount; i++) {
+				snapshotProperties.put(readRequiredString(), readString());
+			}
+			int beanCount = this.in.readInt();
+			for (int i = 0; i < beanCount; i++) {
+				BeanDefinitionHolder holder = readHolder();
+				BeanDefinitionReaderUtils.registerBeanDefinition(holder, getRegistry());
+			}
+			return beanCount;
+		}
+
+		private BeanDefinitionHolder readHolder() throws IOException {
+			String beanName = readRequiredString();
+			String[] aliases = readStringArray();
+			return new BeanDefinitionHolder(readBeanDefinition(), beanName, aliases);
+		}
+
+		private RootBeanDefinition readBeanDefinition() throws IOException {
+			RootBeanDefinition bd = new RootBeanDefinition();
+			bd.setBeanClassName(readString());
+			bd.setScope(readString());
+			byte lazyInit = this.in.readByte();
+			if (lazyInit >= 0) {
+				bd.setLazyInit(lazyInit == 1);
+			}
+			int flags = this.in.readInt();
+			bd.setAbstract((flags & FLAG_ABSTRACT) != 0);
+			bd.setAutowireCandidate((flags & FLAG_AUTOWIRE_CANDIDATE) != 0);
+			bd.setPrimary((flags & FLAG_PRIMARY) != 0);
+			bd.setNonPublicAccessAllowed((flags & FLAG_NON_PUBLIC_ACCESS_ALLOWED) != 0);
+			bd.setLenientConstructorResolution((flags & FLAG_LENIENT_CONSTRUCTOR_RESOLUTION) != 0);
+			bd.setEnforceInitMethod((flags & FLAG_ENFORCE_INIT_METHOD) != 0);
+			bd.setEnforceDestroyMethod((flags & FLAG_ENFORCE_DESTROY_METHOD) != 0);
+			bd.setSynthetic((flags & FLAG_SYNTHETIC) != 0);
+			bd.setAutowireMode(this.in.readInt());
+			bd.setDependencyCheck(this.in.readInt());
+			bd.setRole(this.in.readInt());
+			bd.setDependsOn(readStringArray());
+			bd.setFactoryBeanName(readString());
+			String factoryMethodName = readString();
+			if (factoryMethodName != null) {
+				if ((flags & FLAG_FACTORY_METHOD_UNIQUE) != 0) {
+					bd.setUniqueFactoryMethodName(factoryMethodName);
+				}
+				else {
+					bd.setFactoryMethodName(factoryMethodName);
+				}
+			}
+			bd.setInitMethodName(readString());
+			bd.setDestroyMethodName(readString());
+			bd.setDescription(readString());
+			bd.setResourceDescription(readString());
+
+			int indexedArgCount = this.in.readInt();
+			int genericArgCount = this.in.readInt();
+			if (indexedArgCount > 0 || genericArgCount > 0) {
+				ConstructorArgumentValues cav = bd.getConstructorArgumentValues();
+				for (int i = 0; i < indexedArgCount; i++) {
+					int index = this.in.readInt();
+					cav.addIndexedArgumentValue(index, readValueHolder());
+				}
+				for (int i = 0; i < genericArgCount; i++) {
+					cav.addGenericArgumentValue(readValueHolder());
+				}
+			}
+			int propertyCount = this.in.readInt();
+			if (propertyCount > 0) {
+				MutablePropertyValues pvs = bd.getPropertyValues();
+				for (int i = 0; i < propertyCount; i++) {
+					pvs.add(readRequiredString(), readValue());
+				}
+			}
+			int attributeCount = this.in.readInt();
+			for (int i = 0; i < attributeCount; i++) {
+				bd.setAttribute(readRequiredString(), readValue());
+			}
+			if (this.in.readBoolean()) {
+				bd.setDecoratedDefinition(readHolder());
+			}
+			return bd;
+		}
+
+		private ConstructorArgumentValues.ValueHolder readValueHolder() throws IOException {
+			Object value = readValue();
+			String type = readString();
+			String name = readString();
+			return new ConstructorArgumentValues.ValueHolder(value, type, name);
+		}
+
+		@Nullable
+		private Object readValue() throws IOException {
+			byte tag = this.in.readByte();
+			switch (tag) {
+				case VALUE_NULL:
+					return null;
+				case VALUE_STRING:
+					return readString();
+				case VALUE_TYPED_STRING:
+					String value = readString();
+					String targetTypeName = readString();
+					return (targetTypeName != null ? new TypedStringValue(value, targetTypeName) : new TypedStringValue(value));
+				case VALUE_BEAN_REFERENCE:
+					String refName = readRequiredString();
+					return new RuntimeBeanReference(refName, this.in.readBoolean());
+				case VALUE_BEAN_NAME_REFERENCE:
+					return new RuntimeBeanNameReference(readRequiredString());
+				case VALUE_BEAN_DEFINITION_HOLDER:
+					return readHolder();
+				case VALUE_BEAN_DEFINITION:
+					return readBeanDefinition();
+				case VALUE_LIST:
+				case VALUE_ARRAY:
+					String elementTypeName = readString();
+					int size = this.in.readInt();
+					ManagedList<Object> list = (tag == VALUE_ARRAY ?
+							new ManagedArray(elementTypeName != null ? elementTypeName : Object.class.getName(), size) :
+							new ManagedList<>(size));
+					list.setElementTypeName(elementTypeName);
+					list.setMergeEnabled(this.in.readBoolean());
+					for (int i = 0; i < size; i++) {
+						list.add(readValue());
+					}
+					return list;
+				case VALUE_SET:
+					String setElementTypeName = readString();
+					int setSize = this.in.readInt();
+					ManagedSet<Object> set = new ManagedSet<>(setSize);
+					set.setElementTypeName(setElementTypeName);
+					set.setMergeEnabled(this.in.readBoolean());
+					for (int i = 0; i < setSize; i++) {
+						set.add(readValue());
+					}
+					return set;
+				case VALUE_MAP:
+					String keyTypeName = readString();
+					String valueTypeName = readString();
+					int mapSize = this.in.readInt();
+					ManagedMap<Object, Object> map = new ManagedMap<>(mapSize);
+					map.setKeyTypeName(keyTypeName);
+					map.setValueTypeName(valueTypeName);
+					map.setMergeEnabled(this.in.readBoolean());
+					for (int i = 0; i < mapSize; i++) {
+						map.put(readValue(), readValue());
+					}
+					return map;
+				case VALUE_PROPERTIES:
+					int propsSize = this.in.readInt();
+					ManagedProperties props = new ManagedProperties();
+					props.setMergeEnabled(this.in.readBoolean());
+					for (int i = 0; i < propsSize; i++) {
+						props.put(readValue(), readValue());
+					}
+					return props;
+				case VALUE_BOOLEAN:
+					return this.in.readBoolean();
+				case VALUE_INTEGER:
+					return this.in.readInt();
+				case VALUE_LONG:
+					return this.in.readLong();
+				default:
+					throw new BeanDefinitionStoreException(this.resourceDescription,
+							"Unknown value type " + tag + " in bean definition snapshot");
+			}
+		}
+
+		@Nullable
+		private String[] readStringArray() throws IOException {
+			int length = this.in.readInt();
+			if (length < 0) {
+				return null;
+			}
+			String[] array = new String[length];
+			for (int i = 0; i < length; i++) {
+				array[i] = readRequiredString();
+			}
+			return array;
+		}
+
+		private String readRequiredString() throws IOException {
+			String value = readString();
+			if (value == null) {
+				throw new BeanDefinitionStoreException(this.resourceDescription,
+						"Unexpected null value in bean definition snapshot");
+			}
+			return value;
+		}
+
+		@Nullable
+		private String readString() throws IOException {
+			int index = this.in.readInt();
+			if (index == NULL_STRING) {
+				return null;
+			}
+			if (index == NEW_STRING) {
+				String value = this.in.readUTF();
+				this.strings.add(value);
+				return value;
+			}
+			return this.strings.get(index);
+		}
+	}
+
+}
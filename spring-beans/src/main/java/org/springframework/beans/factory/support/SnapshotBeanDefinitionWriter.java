@@ -0,0 +1,435 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_ABSTRACT;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_AUTOWIRE_CANDIDATE;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_ENFORCE_DESTROY_METHOD;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_ENFORCE_INIT_METHOD;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_FACTORY_METHOD_UNIQUE;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_LENIENT_CONSTRUCTOR_RESOLUTION;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_NON_PUBLIC_ACCESS_ALLOWED;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_PRIMARY;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.FLAG_SYNTHETIC;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.MAGIC;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.NEW_STRING;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.NULL_STRING;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_ARRAY;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_BEAN_DEFINITION;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_BEAN_DEFINITION_HOLDER;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_BEAN_NAME_REFERENCE;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_BEAN_REFERENCE;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_BOOLEAN;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_INTEGER;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_LIST;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_LONG;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_MAP;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_NULL;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_PROPERTIES;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_SET;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_STRING;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VALUE_TYPED_STRING;
+import static org.springframework.beans.factory.support.SnapshotBeanDefinitionReader.VERSION;
+
+/**
+ * Writes the bean definitions of a {@link ConfigurableListableBeanFactory}
+ * as a bean definition snapshot, i.e. a compact binary format that can be
+ * loaded again through a {@link SnapshotBeanDefinitionReader}.
+ *
+ * <p>Bean definitions are written in their merged form, so that every
+ * definition can be restored as a standalone {@link RootBeanDefinition}.
+ * Only declarative state can be captured: definitions with an instance
+ * supplier, method overrides, qualifiers, or property and constructor argument
+ * values other than strings, primitive wrappers, bean references, inner bean
+ * definitions and managed collections thereof are rejected with a
+ * {@link BeanDefinitionStoreException}. Bean definition attributes of other
+ * types are not considered part of the snapshot and are skipped.
+ *
+ * @since 5.3
+ * @see SnapshotBeanDefinitionReader
+ */
+public class SnapshotBeanDefinitionWriter {
+
+	private static final Log logger = LogFactory.getLog(SnapshotBeanDefinitionWriter.class);
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	private Predicate<String> beanNameFilter = beanName -> true;
+
+	private final Map<String, String> snapshotProperties = new LinkedHashMap<>();
+
+
+	/**
+	 * Create a new SnapshotBeanDefinitionWriter for the given bean factory.
+	 * @param beanFactory the bean factory holding the bean definitions to write
+	 */
+	public SnapshotBeanDefinitionWriter(ConfigurableListableBeanFactory beanFactory) {
+		Assert.notNull(beanFactory, "BeanFactory must not be null");
+		this.beanFactory = beanFactory;
+	}
+
+
+	/**
+	 * Set a filter for the bean definitions to include in the snapshot.
+	 * <p>By default, all bean definitions are included.
+	 */
+	public void setBeanNameFilter(Predicate<String> beanNameFilter) {
+		Assert.notNull(beanNameFilter, "Bean name filter must not be null");
+		this.beanNameFilter = beanNameFilter;
+	}
+
+	/**
+	 * Add a property to store along with the bean definitions, e.g. to describe
+	 * the environment that the snapshot was generated for.
+	 * @see SnapshotBeanDefinitionReader#getSnapshotProperties()
+	 */
+	public void addSnapshotProperty(String key, @Nullable String value) {
+		Assert.notNull(key, "Key must not be null");
+		this.snapshotProperties.put(key, value);
+	}
+
+	/**
+	 * Write the bean definitions to the given stream.
+	 * <p>The stream is flushed but not closed.
+	 * @param out the stream to write to
+	 * @return the number of bean definitions written
+	 * @throws IOException in case of I/O errors
+	 * @throws BeanDefinitionStoreException if a bean definition cannot be represented
+	 * in a snapshot
+	 */
+	public int writeBeanDefinitions(OutputStream out) throws IOException, BeanDefinitionStoreException {
+		List<String> beanNames = new ArrayList<>();
+		for (String beanName : this.beanFactory.getBeanDefinitionNames()) {
+			if (this.beanNameFilter.test(beanName)) {
+				beanNames.add(beanName);
+			}
+		}
+		SnapshotOutput output = new SnapshotOutput(out);
+		output.writeSnapshot(beanNames);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Wrote " + beanNames.size() + " bean definitions to snapshot");
+		}
+		return beanNames.size();
+	}
+
+
+	/**
+	 * Writes a single snapshot stream.
+	 */
+	private class SnapshotOutput {
+
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> strings = new HashMap<>(256);
+
+		SnapshotOutput(OutputStream out) {
+			this.out = new DataOutputStream(new BufferedOutputStream(out));
+		}
+
+		void writeSnapshot(List<String> beanNames) throws IOException {
+			this.out.writeInt(MAGIC);
+			this.out.writeInt(VERSION);
+			this.out.writeInt(snapshotProperties.size());
+			for (Map.Entry<String, String> entry : snapshotProperties.entrySet()) {
+				writeString(entry.getKey());
+				writeString(entry.getValue());
+			}
+			this.out.writeInt(beanNames.size());
+			for (String beanName : beanNames) {
+				writeHolder(beanName, beanFactory.getAliases(beanName), beanFactory.getMergedBeanDefinition(beanName));
+			}
+			this.out.flush();
+		}
+
+		private void writeHolder(String beanName, @Nullable String[] aliases, BeanDefinition bd) throws IOException {
+			writeString(beanName);
+			writeStringArray(aliases);
+			writeBeanDefinition(beanName, bd);
+		}
+
+		private void writeBeanDefinition(String beanName, BeanDefinition bd) throws IOException {
+			if (!(bd instanceof AbstractBeanDefinition)) {
+				throw new BeanDefinitionStoreException(bd.getResourceDescription(), beanName,
+						"Bean definition of type [" + bd.getClass().getName() + "] cannot be written to a snapshot");
+			}
+			AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+			if (abd.getInstanceSupplier() != null) {
+				unsupported(beanName, abd, "an instance supplier");
+			}
+			if (abd.hasMethodOverrides()) {
+				unsupported(beanName, abd, "method overrides");
+			}
+			if (!abd.getQualifiers().isEmpty()) {
+				unsupported(beanName, abd, "qualifiers");
+			}
+
+			writeString(abd.getBeanClassName());
+			writeString(abd.getScope());
+			Boolean lazyInit = abd.getLazyInit();
+			this.out.writeByte(lazyInit == null ? -1 : (lazyInit ? 1 : 0));
+			int flags = 0;
+			flags |= (abd.isAbstract() ? FLAG_ABSTRACT : 0);
+			flags |= (abd.isAutowireCandidate() ? FLAG_AUTOWIRE_CANDIDATE : 0);
+			flags |= (abd.isPrimary() ? FLAG_PRIMARY : 0);
+			flags |= (abd.isNonPublicAccessAllowed() ? FLAG_NON_PUBLIC_ACCESS_ALLOWED : 0);
+			flags |= (abd.isLenientConstructorResolution() ? FLAG_LENIENT_CONSTRUCTOR_RESOLUTION : 0);
+			flags |= (abd.isEnforceInitMethod() ? FLAG_ENFORCE_INIT_METHOD : 0);
+			flags |= (abd.isEnforceDestroyMethod() ? FLAG_ENFORCE_DESTROY_METHOD : 0);
+			flags |= (abd.isSynthetic() ? FLAG_SYNTHETIC : 0);
+			flags |= (abd instanceof RootBeanDefinition && ((RootBeanDefinition) abd).isFactoryMethodUnique ?
+					FLAG_FACTORY_METHOD_UNIQUE : 0);
+			this.out.writeInt(flags);
+			this.out.writeInt(abd.getAutowireMode());
+			this.out.writeInt(abd.getDependencyCheck());
+			this.out.writeInt(abd.getRole());
+			writeStringArray(abd.getDependsOn());
+			writeString(abd.getFactoryBeanName());
+			writeString(abd.getFactoryMethodName());
+			writeString(abd.getInitMethodName());
+			writeString(abd.getDestroyMethodName());
+			writeString(abd.getDescription());
+			writeString(abd.getResourceDescription());
+
+			if (abd.hasConstructorArgumentValues()) {
+				Map<Integer, ValueHolder> indexedArgs = abd.getConstructorArgumentValues().getIndexedArgumentValues();
+				List<ValueHolder> genericArgs = abd.getConstructorArgumentValues().getGenericArgumentValues();
+				this.out.writeInt(indexedArgs.size());
+				this.out.writeInt(genericArgs.size());
+				for (Map.Entry<Integer, ValueHolder> entry : indexedArgs.entrySet()) {
+					this.out.writeInt(entry.getKey());
+					writeValueHolder(beanName, abd, entry.getValue());
+				}
+				for (ValueHolder valueHolder : genericArgs) {
+					writeValueHolder(beanName, abd, valueHolder);
+				}
+			}
+			else {
+				this.out.writeInt(0);
+				this.out.writeInt(0);
+			}
+			if (abd.hasPropertyValues()) {
+				PropertyValue[] pvs = abd.getPropertyValues().getPropertyValues();
+				this.out.writeInt(pvs.length);
+				for (PropertyValue pv : pvs) {
+					writeString(pv.getName());
+					writeValue(beanName, abd, pv.getValue());
+				}
+			}
+			else {
+				this.out.writeInt(0);
+			}
+
+			List<String> attributeNames = new ArrayList<>();
+			for (String attributeName : abd.attributeNames()) {
+				if (isSupportedAttribute(abd.getAttribute(attributeName))) {
+					attributeNames.add(attributeName);
+				}
+				else if (logger.isTraceEnabled()) {
+					logger.trace("Skipping attribute '" + attributeName + "' of bean '" + beanName + "' for snapshot");
+				}
+			}
+			this.out.writeInt(attributeNames.size());
+			for (String attributeName : attributeNames) {
+				writeString(attributeName);
+				writeValue(beanName, abd, abd.getAttribute(attributeName));
+			}
+
+			BeanDefinitionHolder decorated = (abd instanceof RootBeanDefinition ?
+					((RootBeanDefinition) abd).getDecoratedDefinition() : null);
+			this.out.writeBoolean(decorated != null);
+			if (decorated != null) {
+				writeHolder(decorated.getBeanName(), decorated.getAliases(), decorated.getBeanDefinition());
+			}
+		}
+
+		private boolean isSupportedAttribute(@Nullable Object value) {
+			return (value == null || value instanceof String || value instanceof Boolean ||
+					value instanceof Integer || value instanceof Long);
+		}
+
+		private void writeValueHolder(String beanName, AbstractBeanDefinition bd, ValueHolder valueHolder)
+				throws IOException {
+
+			writeValue(beanName, bd, valueHolder.getValue());
+			writeString(valueHolder.getType());
+			writeString(valueHolder.getName());
+		}
+
+		private void writeValue(String beanName, AbstractBeanDefinition bd, @Nullable Object value) throws IOException {
+			if (value == null) {
+				this.out.writeByte(VALUE_NULL);
+			}
+			else if (value instanceof String) {
+				this.out.writeByte(VALUE_STRING);
+				writeString((String) value);
+			}
+			else if (value instanceof TypedStringValue) {
+				TypedStringValue typedValue = (TypedStringValue) value;
+				this.out.writeByte(VALUE_TYPED_STRING);
+				writeString(typedValue.getValue());
+				writeString(typedValue.hasTargetType() ? typedValue.getTargetType().getName() :
+						typedValue.getTargetTypeName());
+			}
+			else if (value instanceof Class) {
+				this.out.writeByte(VALUE_TYPED_STRING);
+				writeString(((Class<?>) value).getName());
+				writeString(Class.class.getName());
+			}
+			else if (value instanceof RuntimeBeanReference) {
+				RuntimeBeanReference ref = (RuntimeBeanReference) value;
+				if (ref.getBeanType() != null) {
+					unsupported(beanName, bd, "a bean reference by type");
+				}
+				this.out.writeByte(VALUE_BEAN_REFERENCE);
+				writeString(ref.getBeanName());
+				this.out.writeBoolean(ref.isToParent());
+			}
+			else if (value instanceof RuntimeBeanNameReference) {
+				this.out.writeByte(VALUE_BEAN_NAME_REFERENCE);
+				writeString(((RuntimeBeanNameReference) value).getBeanName());
+			}
+			else if (value instanceof BeanDefinitionHolder) {
+				BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+				this.out.writeByte(VALUE_BEAN_DEFINITION_HOLDER);
+				writeHolder(holder.getBeanName(), holder.getAliases(), holder.getBeanDefinition());
+			}
+			else if (value instanceof BeanDefinition) {
+				this.out.writeByte(VALUE_BEAN_DEFINITION);
+				writeBeanDefinition(beanName, (BeanDefinition) value);
+			}
+			else if (value instanceof ManagedList) {
+				ManagedList<?> list = (ManagedList<?>) value;
+				this.out.writeByte(value instanceof ManagedArray ? VALUE_ARRAY : VALUE_LIST);
+				writeString(list.getElementTypeName());
+				writeElements(beanName, bd, list, list.isMergeEnabled());
+			}
+			else if (value instanceof ManagedSet) {
+				ManagedSet<?> set = (ManagedSet<?>) value;
+				this.out.writeByte(VALUE_SET);
+				writeString(set.getElementTypeName());
+				writeElements(beanName, bd, set, set.isMergeEnabled());
+			}
+			else if (value instanceof ManagedMap) {
+				ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+				this.out.writeByte(VALUE_MAP);
+				writeString(map.getKeyTypeName());
+				writeString(map.getValueTypeName());
+				this.out.writeInt(map.size());
+				this.out.writeBoolean(map.isMergeEnabled());
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					writeValue(beanName, bd, entry.getKey());
+					writeValue(beanName, bd, entry.getValue());
+				}
+			}
+			else if (value instanceof ManagedProperties) {
+				ManagedProperties props = (ManagedProperties) value;
+				this.out.writeByte(VALUE_PROPERTIES);
+				this.out.writeInt(props.size());
+				this.out.writeBoolean(props.isMergeEnabled());
+				for (Map.Entry<Object, Object> entry : props.entrySet()) {
+					writeValue(beanName, bd, entry.getKey());
+					writeValue(beanName, bd, entry.getValue());
+				}
+			}
+			else if (value instanceof Boolean) {
+				this.out.writeByte(VALUE_BOOLEAN);
+				this.out.writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Integer) {
+				this.out.writeByte(VALUE_INTEGER);
+				this.out.writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				this.out.writeByte(VALUE_LONG);
+				this.out.writeLong((Long) value);
+			}
+			else {
+				unsupported(beanName, bd, "a value of type [" + value.getClass().getName() + "]");
+			}
+		}
+
+		private void writeElements(String beanName, AbstractBeanDefinition bd, Collection<?> elements,
+				boolean mergeEnabled) throws IOException {
+
+			this.out.writeInt(elements.size());
+			this.out.writeBoolean(mergeEnabled);
+			for (Object element : elements) {
+				writeValue(beanName, bd, element);
+			}
+		}
+
+		private void writeStringArray(@Nullable String[] array) throws IOException {
+			if (array == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			this.out.writeInt(array.length);
+			for (String element : array) {
+				writeString(element);
+			}
+		}
+
+		private void writeString(@Nullable String value) throws IOException {
+			if (value == null) {
+				this.out.writeInt(NULL_STRING);
+				return;
+			}
+			Integer index = this.strings.get(value);
+			if (index != null) {
+				this.out.writeInt(index);
+			}
+			else {
+				this.strings.put(value, this.strings.size());
+				this.out.writeInt(NEW_STRING);
+				this.out.writeUTF(value);
+			}
+		}
+
+		private void unsupported(String beanName, AbstractBeanDefinition bd, String feature) {
+			throw new BeanDefinitionStoreException(bd.getResourceDescription(), beanName,
+					"Bean definition with " + feature + " cannot be written to a snapshot");
+		}
+	}
+
+}
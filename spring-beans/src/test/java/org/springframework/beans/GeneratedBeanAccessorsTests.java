@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GeneratedBeanAccessors}.
+ */
+class GeneratedBeanAccessorsTests {
+
+	@Test
+	void constructorAccessorCreatesInstance() throws Exception {
+		Constructor<TestBean> ctor = TestBean.class.getConstructor(String.class, int.class);
+		GeneratedBeanAccessors.ConstructorAccessor accessor = GeneratedBeanAccessors.forConstructor(ctor);
+		assertThat(accessor).isNotNull();
+		assertThat(accessor.getClass().getName()).startsWith(TestBean.class.getName() + "$$SpringConstructorAccessor$$");
+
+		TestBean tb = (TestBean) accessor.newInstance(new Object[] {"juergen", 42});
+		assertThat(tb.getName()).isEqualTo("juergen");
+		assertThat(tb.getAge()).isEqualTo(42);
+	}
+
+	@Test
+	void constructorAccessorIsCached() throws Exception {
+		Constructor<TestBean> ctor = TestBean.class.getConstructor();
+		assertThat(GeneratedBeanAccessors.forConstructor(ctor)).isSameAs(GeneratedBeanAccessors.forConstructor(ctor));
+	}
+
+	@Test
+	void constructorAccessorForPackageVisibleConstructor() throws Exception {
+		Constructor<PackageVisibleBean> ctor = PackageVisibleBean.class.getDeclaredConstructor(long.class);
+		GeneratedBeanAccessors.ConstructorAccessor accessor = GeneratedBeanAccessors.forConstructor(ctor);
+		assertThat(accessor).isNotNull();
+		assertThat(((PackageVisibleBean) accessor.newInstance(new Object[] {7L})).value).isEqualTo(7L);
+	}
+
+	@Test
+	void constructorAccessorWrapsException() throws Exception {
+		Constructor<FailingBean> ctor = FailingBean.class.getDeclaredConstructor();
+		GeneratedBeanAccessors.ConstructorAccessor accessor = GeneratedBeanAccessors.forConstructor(ctor);
+		assertThat(accessor).isNotNull();
+		assertThatExceptionOfType(InvocationTargetException.class).isThrownBy(() ->
+				accessor.newInstance(new Object[0])).withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void constructorAccessorRejectsMismatchedArgument() throws Exception {
+		Constructor<TestBean> ctor = TestBean.class.getConstructor(String.class, int.class);
+		GeneratedBeanAccessors.ConstructorAccessor accessor = GeneratedBeanAccessors.forConstructor(ctor);
+		assertThat(accessor).isNotNull();
+		assertThatExceptionOfType(ClassCastException.class).isThrownBy(() ->
+				accessor.newInstance(new Object[] {"juergen", "42"}));
+	}
+
+	@Test
+	void noConstructorAccessorForPrivateConstructor() throws Exception {
+		assertThat(GeneratedBeanAccessors.forConstructor(PrivateConstructorBean.class.getDeclaredConstructor())).isNull();
+	}
+
+	@Test
+	void noConstructorAccessorForJdkClass() throws Exception {
+		assertThat(GeneratedBeanAccessors.forConstructor(StringBuilder.class.getConstructor())).isNull();
+	}
+
+	@Test
+	void methodAccessorInvokesReadAndWriteMethods() throws Exception {
+		Method setName = TestBean.class.getMethod("setName", String.class);
+		Method getName = TestBean.class.getMethod("getName");
+		Method setAge = TestBean.class.getMethod("setAge", int.class);
+		Method getAge = TestBean.class.getMethod("getAge");
+		GeneratedBeanAccessors.MethodAccessor accessor = GeneratedBeanAccessors.forMethods(
+				TestBean.class, Arrays.asList(setName, getName, setAge, getAge));
+		assertThat(accessor).isNotNull();
+
+		TestBean tb = new TestBean();
+		assertThat(accessor.invoke(0, tb, "juergen")).isNull();
+		assertThat(accessor.invoke(2, tb, 42)).isNull();
+		assertThat(accessor.invoke(1, tb, null)).isEqualTo("juergen");
+		assertThat(accessor.invoke(3, tb, null)).isEqualTo(42);
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> accessor.invoke(4, tb, null));
+	}
+
+	@Test
+	void methodAccessorWrapsException() throws Exception {
+		Method fail = FailingBean.class.getDeclaredMethod("setValue", String.class);
+		GeneratedBeanAccessors.MethodAccessor accessor =
+				GeneratedBeanAccessors.forMethods(FailingBean.class, Collections.singletonList(fail));
+		assertThat(accessor).isNotNull();
+		assertThatExceptionOfType(InvocationTargetException.class).isThrownBy(() ->
+				accessor.invoke(0, new FailingBean(false), "value")).withCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void unsupportedMethods() throws Exception {
+		assertThat(GeneratedBeanAccessors.isSupported(TestBean.class, TestBean.class.getMethod("getName"))).isTrue();
+		assertThat(GeneratedBeanAccessors.isSupported(PackageVisibleBean.class,
+				PackageVisibleBean.class.getDeclaredMethod("getValue"))).isTrue();
+		assertThat(GeneratedBeanAccessors.isSupported(PackageVisibleBean.class,
+				PackageVisibleBean.class.getDeclaredMethod("setValueInternal", long.class))).isFalse();
+		assertThat(GeneratedBeanAccessors.isSupported(TestBean.class,
+				Object.class.getMethod("wait", long.class, int.class))).isFalse();
+		assertThat(GeneratedBeanAccessors.isSupported(String.class, String.class.getMethod("length"))).isFalse();
+	}
+
+
+	static class PackageVisibleBean {
+
+		long value;
+
+		PackageVisibleBean(long value) {
+			this.value = value;
+		}
+
+		long getValue() {
+			return this.value;
+		}
+
+		private void setValueInternal(long value) {
+			this.value = value;
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Failing constructor");
+		}
+
+		FailingBean(boolean flag) {
+		}
+
+		public void setValue(String value) {
+			throw new IllegalStateException("Failing setter");
+		}
+	}
+
+
+	public static class PrivateConstructorBean {
+
+		private PrivateConstructorBean() {
+		}
+	}
+
+}
@@ -37,6 +37,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -59,10 +60,12 @@ import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.AutowiredPropertyMarker;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.BeanExpressionContext;
 import org.springframework.beans.factory.config.BeanExpressionResolver;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.beans.factory.config.PropertiesFactoryBean;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
@@ -76,6 +79,7 @@ import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.ManagedList;
 import org.springframework.beans.factory.support.PropertiesBeanDefinitionReader;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.factory.support.SimpleAutowireCandidateResolver;
 import org.springframework.beans.factory.xml.ConstructorDependenciesBean;
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
 import org.springframework.beans.testfixture.beans.DependenciesBean;
@@ -1270,6 +1274,33 @@ class DefaultListableBeanFactoryTests {
 		assertThat(ab.getResourceArray()).isNull();
 	}
 
+	@Test
+	void prototypeConstructorAutowiringSkipsCandidateLookupAfterFirstCreation() {
+		AtomicInteger candidateChecks = new AtomicInteger();
+		lbf.setAutowireCandidateResolver(new SimpleAutowireCandidateResolver() {
+			@Override
+			public boolean isAutowireCandidate(BeanDefinitionHolder bdHolder, DependencyDescriptor descriptor) {
+				candidateChecks.incrementAndGet();
+				return super.isAutowireCandidate(bdHolder, descriptor);
+			}
+		});
+		lbf.registerBeanDefinition("spouse", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("other", new RootBeanDefinition(NestedTestBean.class));
+		RootBeanDefinition rbd = new RootBeanDefinition(SingleConstructorDependency.class);
+		rbd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		rbd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("bean", rbd);
+
+		SingleConstructorDependency first = (SingleConstructorDependency) lbf.getBean("bean");
+		int checksAfterFirstCreation = candidateChecks.get();
+		assertThat(checksAfterFirstCreation).isGreaterThan(0);
+		SingleConstructorDependency second = (SingleConstructorDependency) lbf.getBean("bean");
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.spouse).isSameAs(first.spouse).isSameAs(lbf.getBean("spouse"));
+		assertThat(candidateChecks.get()).isEqualTo(checksAfterFirstCreation);
+	}
+
 	@Test
 	void expressionInStringArray() {
 		BeanExpressionResolver beanExpressionResolver = mock(BeanExpressionResolver.class);
@@ -2951,6 +2982,16 @@ class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class SingleConstructorDependency {
+
+		public final TestBean spouse;
+
+		public SingleConstructorDependency(TestBean spouse) {
+			this.spouse = spouse;
+		}
+	}
+
+
 	public static class UnsatisfiedConstructorDependency {
 
 		public UnsatisfiedConstructorDependency(TestBean t, SideEffectBean b) {
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for background singleton pre-instantiation in {@link DefaultListableBeanFactory}.
+ */
+class BackgroundSingletonPreInstantiationTests {
+
+	@Test
+	void singletonsAreCreatedInBackgroundInDependencyOrder() throws Exception {
+		List<String> creationOrder = new CopyOnWriteArrayList<>();
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		bf.setBackgroundPreInstantiationExecutor(executor);
+		try {
+			bf.registerBeanDefinition("top", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+					.addConstructorArgValue(creationOrder).addConstructorArgValue("top")
+					.addPropertyReference("other", "bottom").getBeanDefinition());
+			bf.registerBeanDefinition("bottom", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+					.addConstructorArgValue(creationOrder).addConstructorArgValue("bottom").getBeanDefinition());
+			bf.registerBeanDefinition("infrastructure", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+					.addConstructorArgValue(creationOrder).addConstructorArgValue("infrastructure")
+					.setRole(BeanDefinition.ROLE_INFRASTRUCTURE).getBeanDefinition());
+			bf.registerBeanDefinition("lazy", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+					.addConstructorArgValue(creationOrder).addConstructorArgValue("lazy")
+					.setLazyInit(true).getBeanDefinition());
+			bf.preInstantiateSingletons();
+
+			assertThat(bf.awaitBackgroundPreInstantiation(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(creationOrder).containsExactly("infrastructure", "bottom", "top");
+			assertThat(bf.containsSingleton("lazy")).isFalse();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void preInstantiateSingletonsDoesNotWaitForBackgroundCreation() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		bf.setBackgroundPreInstantiationExecutor(executor);
+		try {
+			bf.registerBeanDefinition("blocking", BeanDefinitionBuilder.rootBeanDefinition(BlockingBean.class)
+					.addConstructorArgValue(release).getBeanDefinition());
+			bf.registerBeanDefinition("other", new RootBeanDefinition(RecordingBean.class));
+			bf.preInstantiateSingletons();
+			assertThat(bf.containsSingleton("blocking")).isFalse();
+
+			// A requested singleton gets created on demand while the warm-up is blocked
+			assertThat(bf.getBean("other")).isInstanceOf(RecordingBean.class);
+			assertThat(bf.awaitBackgroundPreInstantiation(10, TimeUnit.MILLISECONDS)).isFalse();
+
+			// A request for the singleton in creation waits for that singleton
+			ExecutorService requester = Executors.newSingleThreadExecutor();
+			try {
+				Future<Object> request = requester.submit(() -> bf.getBean("blocking"));
+				release.countDown();
+				Object blocking = request.get(10, TimeUnit.SECONDS);
+				assertThat(bf.awaitBackgroundPreInstantiation(10, TimeUnit.SECONDS)).isTrue();
+				assertThat(bf.getBean("blocking")).isSameAs(blocking);
+				assertThat(BlockingBean.instances).isEqualTo(1);
+			}
+			finally {
+				requester.shutdownNow();
+			}
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void smartInitializingSingletonsAreCalledOnce() throws Exception {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		bf.setBackgroundPreInstantiationExecutor(executor);
+		try {
+			bf.registerBeanDefinition("infrastructure", BeanDefinitionBuilder.rootBeanDefinition(SmartBean.class)
+					.setRole(BeanDefinition.ROLE_INFRASTRUCTURE).getBeanDefinition());
+			bf.registerBeanDefinition("smart", new RootBeanDefinition(SmartBean.class));
+			bf.preInstantiateSingletons();
+			assertThat(bf.getBean("infrastructure", SmartBean.class).initialized).isEqualTo(1);
+
+			assertThat(bf.awaitBackgroundPreInstantiation(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(bf.getBean("infrastructure", SmartBean.class).initialized).isEqualTo(1);
+			assertThat(bf.getBean("smart", SmartBean.class).initialized).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void rejectedExecutionFallsBackToCallingThread() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+		bf.setBackgroundPreInstantiationExecutor(executor);
+		bf.registerBeanDefinition("bean", new RootBeanDefinition(RecordingBean.class));
+		bf.preInstantiateSingletons();
+
+		assertThat(bf.containsSingleton("bean")).isTrue();
+	}
+
+	@Test
+	void destroySingletonsCancelsBackgroundCreation() throws Exception {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setBackgroundPreInstantiationExecutor(task -> {
+			// Never run
+		});
+		bf.registerBeanDefinition("bean", new RootBeanDefinition(RecordingBean.class));
+		bf.preInstantiateSingletons();
+		assertThat(bf.awaitBackgroundPreInstantiation(10, TimeUnit.MILLISECONDS)).isFalse();
+
+		bf.destroySingletons();
+		assertThat(bf.awaitBackgroundPreInstantiation(10, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(bf.containsSingleton("bean")).isFalse();
+	}
+
+
+	static class RecordingBean {
+
+		public RecordingBean() {
+		}
+
+		public RecordingBean(List<String> creationOrder, String name) {
+			creationOrder.add(name);
+		}
+
+		public void setOther(Object other) {
+		}
+	}
+
+
+	static class BlockingBean {
+
+		static volatile int instances;
+
+		public BlockingBean(CountDownLatch release) throws InterruptedException {
+			release.await(10, TimeUnit.SECONDS);
+			instances++;
+		}
+	}
+
+
+	static class SmartBean implements SmartInitializingSingleton {
+
+		int initialized;
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.initialized++;
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.DummyFactory;
+import org.springframework.beans.testfixture.beans.ITestBean;
+import org.springframework.beans.testfixture.beans.NestedTestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.core.ResolvableType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanTypeIndex} as used by {@link DefaultListableBeanFactory}.
+ */
+class BeanTypeIndexTests {
+
+	@Test
+	void lookupIsIndexedOnceConfigurationIsFrozen() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		String[] beanNames = bf.getBeanNamesForType(ITestBean.class);
+		assertThat(beanNames).containsExactly("tb");
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).isNotSameAs(beanNames);
+
+		bf.freezeConfiguration();
+		beanNames = bf.getBeanNamesForType(ITestBean.class);
+		assertThat(beanNames).containsExactly("tb");
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).isSameAs(beanNames);
+	}
+
+	@Test
+	void unrelatedRegistrationKeepsIndexEntry() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		bf.freezeConfiguration();
+		String[] beanNames = bf.getBeanNamesForType(ITestBean.class);
+
+		bf.registerBeanDefinition("ntb", new RootBeanDefinition(NestedTestBean.class));
+		bf.registerSingleton("string", "value");
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).isSameAs(beanNames);
+		assertThat(bf.getBeanNamesForType(NestedTestBean.class)).containsExactly("ntb");
+	}
+
+	@Test
+	void registrationUpdatesIndexEntryInPlace() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		bf.registerSingleton("manual1", new TestBean());
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).containsExactly("tb1", "manual1");
+		assertThat(bf.getBeanNamesForType(ITestBean.class, false, true)).containsExactly("tb1", "manual1");
+
+		RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+		prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("tb2", prototype);
+		bf.registerSingleton("manual2", new TestBean());
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).containsExactly("tb1", "tb2", "manual1", "manual2");
+		assertThat(bf.getBeanNamesForType(ITestBean.class, false, true)).containsExactly("tb1", "manual1", "manual2");
+		// Same result as a non-indexed lookup
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).isEqualTo(bf.getBeanNamesForType(ITestBean.class, true, false));
+	}
+
+	@Test
+	void factoryBeanRegistrationClearsIndex() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb");
+
+		bf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		assertThat(bf.getBeanNamesForType(TestBean.class)).containsExactly("tb", "factory");
+		assertThat(bf.getBeanNamesForType(DummyFactory.class)).containsExactly("&factory");
+	}
+
+	@Test
+	void genericLookupIsIndexed() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("strings", new RootBeanDefinition(StringList.class));
+		bf.registerBeanDefinition("integers", new RootBeanDefinition(IntegerList.class));
+		bf.freezeConfiguration();
+
+		ResolvableType type = ResolvableType.forClassWithGenerics(List.class, String.class);
+		String[] beanNames = bf.getBeanNamesForType(type);
+		assertThat(beanNames).containsExactly("strings");
+		assertThat(bf.getBeanNamesForType(ResolvableType.forClassWithGenerics(List.class, String.class)))
+				.isSameAs(beanNames);
+
+		bf.registerBeanDefinition("moreStrings", new RootBeanDefinition(StringList.class));
+		assertThat(bf.getBeanNamesForType(type)).containsExactly("strings", "moreStrings");
+	}
+
+	@Test
+	void overridingRegistrationClearsIndex() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.registerBeanDefinition("bean", new RootBeanDefinition(TestBean.class));
+		bf.freezeConfiguration();
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).containsExactly("bean");
+
+		bf.registerBeanDefinition("bean", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(bf.getBeanNamesForType(ITestBean.class)).isEmpty();
+		assertThat(bf.getBeanNamesForType(NestedTestBean.class)).containsExactly("bean");
+	}
+
+
+	@SuppressWarnings("serial")
+	static class StringList extends ArrayList<String> {
+	}
+
+
+	@SuppressWarnings("serial")
+	static class IntegerList extends ArrayList<Integer> {
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for the per-bean singleton creation locks in {@link DefaultSingletonBeanRegistry}.
+ */
+class ConcurrentSingletonCreationTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void unrelatedSingletonsAreCreatedConcurrently() throws Exception {
+		// Each instance supplier only returns once both singletons are in creation
+		CountDownLatch latch = new CountDownLatch(2);
+		this.beanFactory.registerBeanDefinition("a", new RootBeanDefinition(Node.class, () -> awaitNode(latch)));
+		this.beanFactory.registerBeanDefinition("b", new RootBeanDefinition(Node.class, () -> awaitNode(latch)));
+
+		Future<Object> a = this.executor.submit(() -> this.beanFactory.getBean("a"));
+		Future<Object> b = this.executor.submit(() -> this.beanFactory.getBean("b"));
+
+		assertThat(a.get(10, TimeUnit.SECONDS)).isSameAs(this.beanFactory.getBean("a"));
+		assertThat(b.get(10, TimeUnit.SECONDS)).isSameAs(this.beanFactory.getBean("b"));
+	}
+
+	@Test
+	void circularReferenceAcrossThreadsIsResolvedWithEarlyReference() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		RootBeanDefinition a = new RootBeanDefinition(Node.class, () -> awaitNode(latch));
+		a.getPropertyValues().add("other", new RuntimeBeanReference("b"));
+		RootBeanDefinition b = new RootBeanDefinition(Node.class, () -> awaitNode(latch));
+		b.getPropertyValues().add("other", new RuntimeBeanReference("a"));
+		this.beanFactory.registerBeanDefinition("a", a);
+		this.beanFactory.registerBeanDefinition("b", b);
+
+		Future<Object> futureA = this.executor.submit(() -> this.beanFactory.getBean("a"));
+		Future<Object> futureB = this.executor.submit(() -> this.beanFactory.getBean("b"));
+
+		Node nodeA = (Node) futureA.get(10, TimeUnit.SECONDS);
+		Node nodeB = (Node) futureB.get(10, TimeUnit.SECONDS);
+		assertThat(nodeA.getOther()).isSameAs(nodeB);
+		assertThat(nodeB.getOther()).isSameAs(nodeA);
+		assertThat(this.beanFactory.getBean("a")).isSameAs(nodeA);
+		assertThat(this.beanFactory.getBean("b")).isSameAs(nodeB);
+	}
+
+	@Test
+	void unresolvableCircularReferenceAcrossThreadsFailsInsteadOfDeadlocking() throws Exception {
+		CountDownLatch latch = new CountDownLatch(2);
+		this.beanFactory.addBeanPostProcessor(new InstantiationAwareBeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) {
+				// Let both threads start their constructor argument resolution at once
+				awaitNode(latch);
+				return null;
+			}
+		});
+		RootBeanDefinition a = new RootBeanDefinition(Node.class);
+		a.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("b"));
+		RootBeanDefinition b = new RootBeanDefinition(Node.class);
+		b.getConstructorArgumentValues().addGenericArgumentValue(new RuntimeBeanReference("a"));
+		this.beanFactory.registerBeanDefinition("a", a);
+		this.beanFactory.registerBeanDefinition("b", b);
+
+		Future<Object> futureA = this.executor.submit(() -> this.beanFactory.getBean("a"));
+		Future<Object> futureB = this.executor.submit(() -> this.beanFactory.getBean("b"));
+
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> futureA.get(10, TimeUnit.SECONDS))
+				.withRootCauseInstanceOf(BeanCurrentlyInCreationException.class);
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> futureB.get(10, TimeUnit.SECONDS))
+				.withRootCauseInstanceOf(BeanCurrentlyInCreationException.class);
+	}
+
+
+	private static Node awaitNode(CountDownLatch latch) {
+		latch.countDown();
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS)).as("other singleton in creation").isTrue();
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return new Node();
+	}
+
+
+	static class Node {
+
+		private Node other;
+
+		Node() {
+		}
+
+		Node(Node other) {
+			this.other = other;
+		}
+
+		public Node getOther() {
+			return this.other;
+		}
+
+		public void setOther(Node other) {
+			this.other = other;
+		}
+	}
+
+}
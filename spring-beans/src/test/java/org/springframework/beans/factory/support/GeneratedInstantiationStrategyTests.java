@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GeneratedInstantiationStrategy}.
+ */
+class GeneratedInstantiationStrategyTests {
+
+	@Test
+	void prototypeWithDefaultConstructor() {
+		DefaultListableBeanFactory bf = createBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getPropertyValues().add("name", "juergen");
+		bf.registerBeanDefinition("tb", bd);
+
+		TestBean tb1 = bf.getBean("tb", TestBean.class);
+		TestBean tb2 = bf.getBean("tb", TestBean.class);
+		assertThat(tb1).isNotSameAs(tb2);
+		assertThat(tb2.getName()).isEqualTo("juergen");
+	}
+
+	@Test
+	void prototypeWithConstructorArguments() {
+		DefaultListableBeanFactory bf = createBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		bf.registerBeanDefinition("tb", bd);
+
+		for (int i = 0; i < 3; i++) {
+			TestBean tb = bf.getBean("tb", TestBean.class);
+			assertThat(tb.getName()).isEqualTo("juergen");
+			assertThat(tb.getAge()).isEqualTo(42);
+		}
+	}
+
+	@Test
+	void prototypeWithPrivateConstructorFallsBackToReflection() {
+		DefaultListableBeanFactory bf = createBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(PrivateConstructorBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("bean", bd);
+
+		assertThat(bf.getBean("bean")).isInstanceOf(PrivateConstructorBean.class);
+		assertThat(bf.getBean("bean")).isInstanceOf(PrivateConstructorBean.class);
+	}
+
+	@Test
+	void prototypeWithFailingConstructor() {
+		DefaultListableBeanFactory bf = createBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(FailingBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("bean", bd);
+
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(() -> bf.getBean("bean"))
+				.withRootCauseInstanceOf(IllegalStateException.class);
+		assertThatExceptionOfType(BeanCreationException.class).isThrownBy(() -> bf.getBean("bean"))
+				.withRootCauseInstanceOf(IllegalStateException.class);
+	}
+
+	private DefaultListableBeanFactory createBeanFactory() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setInstantiationStrategy(new GeneratedInstantiationStrategy());
+		return bf;
+	}
+
+
+	public static class PrivateConstructorBean {
+
+		private PrivateConstructorBean() {
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Failing constructor");
+		}
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for parallel singleton pre-instantiation in {@link DefaultListableBeanFactory}.
+ */
+class ParallelSingletonPreInstantiationTests {
+
+	@Test
+	void independentSingletonsAreCreated() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setPreInstantiationParallelism(4);
+		for (int i = 0; i < 50; i++) {
+			bf.registerBeanDefinition("bean" + i, new RootBeanDefinition(RecordingBean.class));
+		}
+		bf.registerBeanDefinition("lazy", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.setLazyInit(true).getBeanDefinition());
+		bf.preInstantiateSingletons();
+
+		for (int i = 0; i < 50; i++) {
+			assertThat(bf.containsSingleton("bean" + i)).isTrue();
+		}
+		assertThat(bf.containsSingleton("lazy")).isFalse();
+	}
+
+	@Test
+	void dependenciesAreCreatedFirst() {
+		List<String> creationOrder = new CopyOnWriteArrayList<>();
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setPreInstantiationParallelism(4);
+		bf.registerBeanDefinition("top", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.addConstructorArgValue(creationOrder).addConstructorArgValue("top")
+				.addPropertyReference("other", "middle").getBeanDefinition());
+		bf.registerBeanDefinition("middle", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.addConstructorArgValue(creationOrder).addConstructorArgValue("middle")
+				.addDependsOn("bottom").getBeanDefinition());
+		bf.registerBeanDefinition("bottom", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.addConstructorArgValue(creationOrder).addConstructorArgValue("bottom").getBeanDefinition());
+		bf.preInstantiateSingletons();
+
+		assertThat(creationOrder).containsExactly("bottom", "middle", "top");
+		assertThat(bf.getBean("top", RecordingBean.class).other).isSameAs(bf.getBean("middle"));
+	}
+
+	@Test
+	void circularReferencesAreResolved() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setPreInstantiationParallelism(4);
+		bf.registerBeanDefinition("first", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.addPropertyReference("other", "second").getBeanDefinition());
+		bf.registerBeanDefinition("second", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.addPropertyReference("other", "first").getBeanDefinition());
+		bf.registerBeanDefinition("dependent", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+				.addPropertyValue("other", new RuntimeBeanReference("first")).getBeanDefinition());
+		bf.preInstantiateSingletons();
+
+		RecordingBean first = bf.getBean("first", RecordingBean.class);
+		RecordingBean second = bf.getBean("second", RecordingBean.class);
+		assertThat(first.other).isSameAs(second);
+		assertThat(second.other).isSameAs(first);
+		assertThat(bf.getBean("dependent", RecordingBean.class).other).isSameAs(first);
+	}
+
+	@Test
+	void failuresAreReportedInRegistrationOrder() {
+		for (int run = 0; run < 5; run++) {
+			DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+			bf.setPreInstantiationParallelism(4);
+			for (int i = 0; i < 10; i++) {
+				bf.registerBeanDefinition("bean" + i, new RootBeanDefinition(RecordingBean.class));
+			}
+			bf.registerBeanDefinition("failing1", new RootBeanDefinition(FailingBean.class));
+			bf.registerBeanDefinition("failing2", new RootBeanDefinition(FailingBean.class));
+			bf.registerBeanDefinition("dependent", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+					.addPropertyReference("other", "failing1").getBeanDefinition());
+
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(bf::preInstantiateSingletons)
+					.satisfies(ex -> {
+						assertThat(ex.getBeanName()).isEqualTo("failing1");
+						assertThat(ex.getRelatedCauses()).hasSize(1);
+						assertThat(((BeanCreationException) ex.getRelatedCauses()[0]).getBeanName()).isEqualTo("failing2");
+					});
+			assertThat(bf.containsSingleton("bean9")).isTrue();
+			assertThat(bf.containsSingleton("dependent")).isFalse();
+		}
+	}
+
+	@Test
+	void failureIsReportedForFirstFailingSingletonInRegistrationOrder() {
+		for (int run = 0; run < 5; run++) {
+			DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+			bf.setPreInstantiationParallelism(4);
+			bf.registerBeanDefinition("dependent", BeanDefinitionBuilder.rootBeanDefinition(RecordingBean.class)
+					.addPropertyReference("other", "failing").getBeanDefinition());
+			for (int i = 0; i < 10; i++) {
+				bf.registerBeanDefinition("bean" + i, new RootBeanDefinition(RecordingBean.class));
+			}
+			bf.registerBeanDefinition("failing", new RootBeanDefinition(FailingBean.class));
+
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(bf::preInstantiateSingletons)
+					.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("dependent"));
+		}
+	}
+
+	@Test
+	void dependenciesDiscoveredAtCreationTimeAreResolved() {
+		for (int run = 0; run < 5; run++) {
+			DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+			bf.setPreInstantiationParallelism(4);
+			for (int i = 0; i < 10; i++) {
+				String name = "bean" + i;
+				String dependency = "bean" + ((i + 1) % 10);
+				bf.registerBeanDefinition(name, new RootBeanDefinition(RecordingBean.class, () -> {
+					RecordingBean bean = new RecordingBean();
+					bean.setOther(bf.getBean(dependency));
+					return bean;
+				}));
+			}
+			bf.registerBeanDefinition("bean9", new RootBeanDefinition(RecordingBean.class));
+			bf.preInstantiateSingletons();
+
+			for (int i = 0; i < 9; i++) {
+				assertThat(bf.getBean("bean" + i, RecordingBean.class).other).isSameAs(bf.getBean("bean" + (i + 1)));
+			}
+		}
+	}
+
+	@Test
+	void smartInitializingSingletonsAreCalled() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setPreInstantiationParallelism(2);
+		bf.registerBeanDefinition("smart", new RootBeanDefinition(SmartBean.class));
+		bf.preInstantiateSingletons();
+
+		assertThat(bf.getBean(SmartBean.class).initialized).isTrue();
+	}
+
+	@Test
+	void parallelismIsCopied() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setPreInstantiationParallelism(3);
+		DefaultListableBeanFactory other = new DefaultListableBeanFactory();
+		other.copyConfigurationFrom(bf);
+		assertThat(other.getPreInstantiationParallelism()).isEqualTo(3);
+	}
+
+
+	static class RecordingBean {
+
+		Object other;
+
+		public RecordingBean() {
+		}
+
+		public RecordingBean(List<String> creationOrder, String name) {
+			creationOrder.add(name);
+		}
+
+		public void setOther(Object other) {
+			this.other = other;
+		}
+	}
+
+
+	static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Expected failure");
+		}
+	}
+
+
+	static class SmartBean implements SmartInitializingSingleton {
+
+		boolean initialized;
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.initialized = true;
+		}
+	}
+
+}
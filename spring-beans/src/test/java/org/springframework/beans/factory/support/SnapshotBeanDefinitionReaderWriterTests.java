@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.core.io.ByteArrayResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link SnapshotBeanDefinitionWriter} and {@link SnapshotBeanDefinitionReader}.
+ */
+class SnapshotBeanDefinitionReaderWriterTests {
+
+	@Test
+	void roundtripBeanDefinitions() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition spouse = new RootBeanDefinition(TestBean.class);
+		spouse.getPropertyValues().add("name", "Juergen").add("age", 42);
+		spouse.setLazyInit(true);
+		source.registerBeanDefinition("spouse", spouse);
+		RootBeanDefinition tb = new RootBeanDefinition(TestBean.class);
+		tb.getConstructorArgumentValues().addIndexedArgumentValue(0, "Rod");
+		tb.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		ManagedList<String> list = new ManagedList<>();
+		list.add("a");
+		list.add("b");
+		tb.getPropertyValues().add("someList", list);
+		tb.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		tb.setPrimary(true);
+		tb.setAttribute("custom", "value");
+		source.registerBeanDefinition("tb", tb);
+		source.registerAlias("tb", "rod");
+
+		SnapshotBeanDefinitionWriter writer = new SnapshotBeanDefinitionWriter(source);
+		writer.addSnapshotProperty("key", "value");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(writer.writeBeanDefinitions(out)).isEqualTo(2);
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		SnapshotBeanDefinitionReader reader = new SnapshotBeanDefinitionReader(target);
+		assertThat(reader.loadBeanDefinitions(new ByteArrayResource(out.toByteArray()))).isEqualTo(2);
+		assertThat(reader.getSnapshotProperties()).containsEntry("key", "value");
+		assertThat(target.getBeanDefinitionNames()).containsExactly("spouse", "tb");
+		assertThat(target.getAliases("tb")).containsExactly("rod");
+
+		BeanDefinition loaded = target.getBeanDefinition("tb");
+		assertThat(loaded.isPrototype()).isTrue();
+		assertThat(loaded.isPrimary()).isTrue();
+		assertThat(loaded.getAttribute("custom")).isEqualTo("value");
+		assertThat(target.getBeanDefinition("spouse").isLazyInit()).isTrue();
+
+		TestBean bean = target.getBean("rod", TestBean.class);
+		assertThat(bean.getName()).isEqualTo("Rod");
+		assertThat(bean.getSpouse().getName()).isEqualTo("Juergen");
+		assertThat(bean.getSpouse().getAge()).isEqualTo(42);
+		assertThat(bean.getSomeList()).isEqualTo(Arrays.asList("a", "b"));
+		assertThat(target.getBean("tb")).isNotSameAs(bean);
+	}
+
+	@Test
+	void rejectInstanceSupplier() {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		source.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class, TestBean::new));
+		SnapshotBeanDefinitionWriter writer = new SnapshotBeanDefinitionWriter(source);
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				writer.writeBeanDefinitions(new ByteArrayOutputStream()));
+	}
+
+	@Test
+	void rejectInvalidSnapshot() {
+		SnapshotBeanDefinitionReader reader = new SnapshotBeanDefinitionReader(new DefaultListableBeanFactory());
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				reader.loadBeanDefinitions(new ByteArrayResource(new byte[] {1, 2, 3, 4, 5})));
+	}
+
+}
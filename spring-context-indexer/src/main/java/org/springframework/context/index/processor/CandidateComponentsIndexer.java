@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.Completion;
@@ -40,6 +41,10 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>Also writes a binary type metadata index holding the annotation metadata
+ * of all annotated types, so that the runtime can introspect candidate
+ * components without parsing their class files.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -55,6 +60,10 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private TypeMetadataEncoder typeMetadataEncoder;
+
+	private Map<String, byte[]> previousTypeMetadata;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -77,8 +86,10 @@ public class CandidateComponentsIndexer implements Processor {
 	public synchronized void init(ProcessingEnvironment env) {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
+		this.typeMetadataEncoder = new TypeMetadataEncoder(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		this.previousTypeMetadata = this.metadataStore.readTypeMetadata();
 	}
 
 	@Override
@@ -119,18 +130,29 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
 		}
+		if (element instanceof TypeElement) {
+			TypeElement type = (TypeElement) element;
+			byte[] typeMetadata = this.typeMetadataEncoder.encode(type);
+			if (typeMetadata != null) {
+				this.metadataCollector.addTypeMetadata(this.typeMetadataEncoder.getBinaryName(type), typeMetadata);
+			}
+		}
 	}
 
 	private void writeMetaData() {
 		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
-		if (!metadata.getItems().isEmpty()) {
-			try {
+		Map<String, byte[]> typeMetadata = this.metadataCollector.getTypeMetadata(this.previousTypeMetadata);
+		try {
+			if (!metadata.getItems().isEmpty()) {
 				this.metadataStore.writeMetadata(metadata);
 			}
-			catch (IOException ex) {
-				throw new IllegalStateException("Failed to write metadata", ex);
+			if (!typeMetadata.isEmpty()) {
+				this.metadataStore.writeTypeMetadata(typeMetadata);
 			}
 		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write metadata", ex);
+		}
 	}
 
 	private static List<TypeElement> staticTypesIn(Iterable<? extends Element> elements) {
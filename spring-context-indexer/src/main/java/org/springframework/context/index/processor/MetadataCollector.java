@@ -19,6 +19,8 @@ package org.springframework.context.index.processor;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Set;
 
 import javax.annotation.processing.ProcessingEnvironment;
@@ -36,6 +38,8 @@ class MetadataCollector {
 
 	private final List<ItemMetadata> metadataItems = new ArrayList<>();
 
+	private final Map<String, byte[]> typeMetadata = new TreeMap<>();
+
 	private final ProcessingEnvironment processingEnvironment;
 
 	private final CandidateComponentsMetadata previousMetadata;
@@ -75,6 +79,10 @@ class MetadataCollector {
 		this.metadataItems.add(metadata);
 	}
 
+	public void addTypeMetadata(String type, byte[] metadata) {
+		this.typeMetadata.put(type, metadata);
+	}
+
 	public CandidateComponentsMetadata getMetadata() {
 		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
 		for (ItemMetadata item : this.metadataItems) {
@@ -91,6 +99,27 @@ class MetadataCollector {
 		return metadata;
 	}
 
+	/**
+	 * Return the type metadata collected in this build, merged with any
+	 * still-valid entry of the given previous type metadata.
+	 * @param previousTypeMetadata any previous type metadata or {@code null}
+	 */
+	public Map<String, byte[]> getTypeMetadata(Map<String, byte[]> previousTypeMetadata) {
+		Map<String, byte[]> metadata = new TreeMap<>();
+		if (previousTypeMetadata != null) {
+			previousTypeMetadata.forEach((type, data) -> {
+				// Nested types are re-processed along with their top-level type
+				int nestedIndex = type.indexOf('$');
+				String sourceType = (nestedIndex != -1 ? type.substring(0, nestedIndex) : type);
+				if (!deletedInCurrentBuild(type.replace('$', '.')) && !processedInCurrentBuild(sourceType)) {
+					metadata.put(type, data);
+				}
+			});
+		}
+		metadata.putAll(this.typeMetadata);
+		return metadata;
+	}
+
 	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
 		String sourceType = itemMetadata.getType();
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
@@ -19,13 +19,15 @@ package org.springframework.context.index.processor;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Map;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 
 /**
- * Store {@link CandidateComponentsMetadata} on the filesystem.
+ * Store {@link CandidateComponentsMetadata} and the type metadata index
+ * on the filesystem.
  *
  * @author Stephane Nicoll
  * @since 5.0
@@ -34,6 +36,8 @@ class MetadataStore {
 
 	static final String METADATA_PATH = "META-INF/spring.components";
 
+	static final String TYPE_METADATA_PATH = "META-INF/spring.metadata";
+
 	private final ProcessingEnvironment environment;
 
 
@@ -61,6 +65,25 @@ class MetadataStore {
 	}
 
 
+	public Map<String, byte[]> readTypeMetadata() {
+		try (InputStream in = getResource(TYPE_METADATA_PATH).openInputStream()) {
+			return TypeMetadataMarshaller.read(in);
+		}
+		catch (IOException ex) {
+			// Failed to read metadata -> ignore.
+			return null;
+		}
+	}
+
+	public void writeTypeMetadata(Map<String, byte[]> metadata) throws IOException {
+		if (!metadata.isEmpty()) {
+			try (OutputStream outputStream = createResource(TYPE_METADATA_PATH).openOutputStream()) {
+				TypeMetadataMarshaller.write(metadata, outputStream);
+			}
+		}
+	}
+
+
 	private CandidateComponentsMetadata readMetadata(InputStream in) throws IOException {
 		try {
 			return PropertiesMarshaller.read(in);
@@ -71,11 +94,19 @@ class MetadataStore {
 	}
 
 	private FileObject getMetadataResource() throws IOException {
-		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+		return getResource(METADATA_PATH);
 	}
 
 	private FileObject createMetadataResource() throws IOException {
-		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+		return createResource(METADATA_PATH);
+	}
+
+	private FileObject getResource(String path) throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+	}
+
+	private FileObject createResource(String path) throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
 }
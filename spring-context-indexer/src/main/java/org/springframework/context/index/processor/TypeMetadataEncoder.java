@@ -0,0 +1,372 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encodes the annotation metadata of a {@link TypeElement} in the binary form
+ * of a type metadata index entry, mirroring what an ASM-based metadata reader
+ * would extract from the compiled class file.
+ *
+ * <p>An entry consists of the class access flags, the enclosing class, super
+ * class, interface and member class names, the runtime-visible annotations
+ * declared on the type and the methods carrying runtime-visible annotations.
+ * Annotations are written with their explicitly declared attribute values only,
+ * in declaration order; meta-annotations and default values are merged on read.
+ * Class names use the binary ({@code Outer$Inner}) form.
+ *
+ * @since 5.3
+ * @see TypeMetadataMarshaller
+ */
+class TypeMetadataEncoder {
+
+	static final int ACC_PUBLIC = 0x0001;
+
+	static final int ACC_PRIVATE = 0x0002;
+
+	static final int ACC_PROTECTED = 0x0004;
+
+	static final int ACC_STATIC = 0x0008;
+
+	static final int ACC_FINAL = 0x0010;
+
+	static final int ACC_INTERFACE = 0x0200;
+
+	static final int ACC_ABSTRACT = 0x0400;
+
+	static final int ACC_ANNOTATION = 0x2000;
+
+	static final int ACC_ENUM = 0x4000;
+
+	static final char TAG_STRING = 's';
+
+	static final char TAG_CLASS = 'c';
+
+	static final char TAG_ENUM = 'e';
+
+	static final char TAG_ANNOTATION = '@';
+
+	static final char TAG_ARRAY = '[';
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	TypeMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Return the binary name of the given type.
+	 */
+	public String getBinaryName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Encode the metadata of the given type.
+	 * @param type the type to encode
+	 * @return the encoded metadata, or {@code null} if neither the type nor any
+	 * of its methods carry runtime-visible annotations
+	 */
+	public byte[] encode(TypeElement type) {
+		List<? extends AnnotationMirror> annotations = getRuntimeAnnotations(type);
+		List<ExecutableElement> annotatedMethods = new ArrayList<>();
+		List<String> memberClassNames = new ArrayList<>();
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed.getKind() == ElementKind.METHOD && !getRuntimeAnnotations(enclosed).isEmpty()) {
+				annotatedMethods.add((ExecutableElement) enclosed);
+			}
+			else if (enclosed.getKind().isClass() || enclosed.getKind().isInterface()) {
+				memberClassNames.add(getBinaryName((TypeElement) enclosed));
+			}
+		}
+		if (annotations.isEmpty() && annotatedMethods.isEmpty()) {
+			return null;
+		}
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(getAccess(type));
+			Element enclosing = type.getEnclosingElement();
+			writeNullableString(out, (enclosing instanceof TypeElement ?
+					getBinaryName((TypeElement) enclosing) : null));
+			TypeMirror superclass = type.getSuperclass();
+			writeNullableString(out, (superclass.getKind() == TypeKind.DECLARED && !type.getKind().isInterface() ?
+					getTypeName(superclass) : null));
+			out.writeInt(type.getInterfaces().size());
+			for (TypeMirror ifc : type.getInterfaces()) {
+				writeString(out, getTypeName(ifc));
+			}
+			out.writeInt(memberClassNames.size());
+			for (String memberClassName : memberClassNames) {
+				writeString(out, memberClassName);
+			}
+			writeAnnotations(out, annotations);
+			out.writeInt(annotatedMethods.size());
+			for (ExecutableElement method : annotatedMethods) {
+				writeString(out, method.getSimpleName().toString());
+				writeString(out, getTypeName(method.getReturnType()));
+				out.writeInt(getAccess(method));
+				writeAnnotations(out, getRuntimeAnnotations(method));
+			}
+			out.flush();
+			return bytes.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to encode metadata for " + type, ex);
+		}
+	}
+
+	private int getAccess(TypeElement type) {
+		int access = getAccess(type.getModifiers());
+		ElementKind kind = type.getKind();
+		if (kind.isInterface()) {
+			access |= ACC_INTERFACE | ACC_ABSTRACT;
+			if (type.getEnclosingElement() instanceof TypeElement) {
+				access |= ACC_STATIC;
+			}
+		}
+		if (kind == ElementKind.ANNOTATION_TYPE) {
+			access |= ACC_ANNOTATION;
+		}
+		if (kind == ElementKind.ENUM) {
+			access |= ACC_ENUM;
+			if (type.getEnclosingElement() instanceof TypeElement) {
+				access |= ACC_STATIC;
+			}
+		}
+		return access;
+	}
+
+	private int getAccess(ExecutableElement method) {
+		int access = getAccess(method.getModifiers());
+		if (method.getEnclosingElement().getKind().isInterface() &&
+				!method.getModifiers().contains(Modifier.DEFAULT) &&
+				!method.getModifiers().contains(Modifier.STATIC) &&
+				!method.getModifiers().contains(Modifier.PRIVATE)) {
+			access |= ACC_ABSTRACT;
+		}
+		return access;
+	}
+
+	private int getAccess(Set<Modifier> modifiers) {
+		int access = 0;
+		access |= (modifiers.contains(Modifier.PUBLIC) ? ACC_PUBLIC : 0);
+		access |= (modifiers.contains(Modifier.PRIVATE) ? ACC_PRIVATE : 0);
+		access |= (modifiers.contains(Modifier.PROTECTED) ? ACC_PROTECTED : 0);
+		access |= (modifiers.contains(Modifier.STATIC) ? ACC_STATIC : 0);
+		access |= (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0);
+		access |= (modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		return access;
+	}
+
+	private List<? extends AnnotationMirror> getRuntimeAnnotations(Element element) {
+		List<AnnotationMirror> result = null;
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (isRuntimeVisible(annotation)) {
+				if (result == null) {
+					result = new ArrayList<>();
+				}
+				result.add(annotation);
+			}
+		}
+		return (result != null ? result : Collections.emptyList());
+	}
+
+	private boolean isRuntimeVisible(AnnotationMirror annotation) {
+		TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+		String name = getBinaryName(annotationType);
+		if (name.startsWith("java.lang.") || name.startsWith("org.springframework.lang.")) {
+			return false;
+		}
+		Retention retention = annotationType.getAnnotation(Retention.class);
+		return (retention != null && retention.value() == RetentionPolicy.RUNTIME);
+	}
+
+	private void writeAnnotations(DataOutputStream out, List<? extends AnnotationMirror> annotations)
+			throws IOException {
+
+		out.writeInt(annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			writeAnnotation(out, annotation);
+		}
+	}
+
+	private void writeAnnotation(DataOutputStream out, AnnotationMirror annotation) throws IOException {
+		writeString(out, getTypeName(annotation.getAnnotationType()));
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		out.writeInt(values.size());
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			writeString(out, entry.getKey().getSimpleName().toString());
+			writeValue(out, entry.getKey().getReturnType(), entry.getValue().getValue());
+		}
+	}
+
+	private void writeValue(DataOutputStream out, TypeMirror type, Object value) throws IOException {
+		if (type.getKind() == TypeKind.ARRAY) {
+			char componentTag = getTag(((ArrayType) type).getComponentType());
+			List<?> elements = (value instanceof List ? (List<?>) value : Collections.singletonList(value));
+			out.writeByte(TAG_ARRAY);
+			out.writeByte(componentTag);
+			out.writeInt(elements.size());
+			for (Object element : elements) {
+				writeRawValue(out, componentTag,
+						(element instanceof AnnotationValue ? ((AnnotationValue) element).getValue() : element));
+			}
+		}
+		else {
+			char tag = getTag(type);
+			out.writeByte(tag);
+			writeRawValue(out, tag, value);
+		}
+	}
+
+	private char getTag(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN: return 'Z';
+			case BYTE: return 'B';
+			case CHAR: return 'C';
+			case SHORT: return 'S';
+			case INT: return 'I';
+			case LONG: return 'J';
+			case FLOAT: return 'F';
+			case DOUBLE: return 'D';
+			case DECLARED:
+				Element element = ((DeclaredType) type).asElement();
+				if (element.getKind() == ElementKind.ENUM) {
+					return TAG_ENUM;
+				}
+				if (element.getKind() == ElementKind.ANNOTATION_TYPE) {
+					return TAG_ANNOTATION;
+				}
+				String name = getBinaryName((TypeElement) element);
+				if (String.class.getName().equals(name)) {
+					return TAG_STRING;
+				}
+				if (Class.class.getName().equals(name)) {
+					return TAG_CLASS;
+				}
+				break;
+			default:
+				break;
+		}
+		throw new IllegalStateException("Unsupported annotation attribute type " + type);
+	}
+
+	private void writeRawValue(DataOutputStream out, char tag, Object value) throws IOException {
+		switch (tag) {
+			case 'Z':
+				out.writeBoolean((Boolean) value);
+				break;
+			case 'B':
+				out.writeByte((Byte) value);
+				break;
+			case 'C':
+				out.writeChar((Character) value);
+				break;
+			case 'S':
+				out.writeShort((Short) value);
+				break;
+			case 'I':
+				out.writeInt((Integer) value);
+				break;
+			case 'J':
+				out.writeLong((Long) value);
+				break;
+			case 'F':
+				out.writeFloat((Float) value);
+				break;
+			case 'D':
+				out.writeDouble((Double) value);
+				break;
+			case TAG_STRING:
+				writeString(out, (String) value);
+				break;
+			case TAG_CLASS:
+				writeString(out, getTypeName((TypeMirror) value));
+				break;
+			case TAG_ENUM:
+				VariableElement constant = (VariableElement) value;
+				writeString(out, getBinaryName((TypeElement) constant.getEnclosingElement()));
+				writeString(out, constant.getSimpleName().toString());
+				break;
+			case TAG_ANNOTATION:
+				writeAnnotation(out, (AnnotationMirror) value);
+				break;
+			default:
+				throw new IllegalStateException("Unsupported annotation attribute tag " + tag);
+		}
+	}
+
+	private String getTypeName(TypeMirror type) {
+		TypeMirror erased = this.types.erasure(type);
+		switch (erased.getKind()) {
+			case ARRAY:
+				return getTypeName(((ArrayType) erased).getComponentType()) + "[]";
+			case DECLARED:
+				return getBinaryName((TypeElement) ((DeclaredType) erased).asElement());
+			default:
+				return erased.toString();
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			writeString(out, value);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+}
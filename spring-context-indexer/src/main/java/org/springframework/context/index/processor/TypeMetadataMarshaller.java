@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Marshaller to write the type metadata index in its binary form.
+ *
+ * <p>The index starts with a {@link #MAGIC magic number} and a {@link #VERSION},
+ * followed by the number of entries. Each entry holds the binary name of a type
+ * and the metadata produced by {@link TypeMetadataEncoder} for that type, as a
+ * length-prefixed block so that entries can be merged without being decoded.
+ *
+ * @since 5.3
+ */
+abstract class TypeMetadataMarshaller {
+
+	/**
+	 * Magic number at the start of a type metadata index ("SPMI").
+	 */
+	static final int MAGIC = 0x53504D49;
+
+	/**
+	 * Current version of the type metadata format.
+	 */
+	static final int VERSION = 1;
+
+
+	public static void write(Map<String, byte[]> metadata, OutputStream out) throws IOException {
+		DataOutputStream dataOut = new DataOutputStream(out);
+		dataOut.writeInt(MAGIC);
+		dataOut.writeInt(VERSION);
+		dataOut.writeInt(metadata.size());
+		for (Map.Entry<String, byte[]> entry : new TreeMap<>(metadata).entrySet()) {
+			dataOut.writeUTF(entry.getKey());
+			dataOut.writeInt(entry.getValue().length);
+			dataOut.write(entry.getValue());
+		}
+		dataOut.flush();
+	}
+
+	public static Map<String, byte[]> read(InputStream in) throws IOException {
+		DataInputStream dataIn = new DataInputStream(in);
+		if (dataIn.readInt() != MAGIC || dataIn.readInt() != VERSION) {
+			throw new IOException("Unsupported type metadata index format");
+		}
+		int count = dataIn.readInt();
+		Map<String, byte[]> result = new TreeMap<>();
+		for (int i = 0; i < count; i++) {
+			String type = dataIn.readUTF();
+			byte[] data = new byte[dataIn.readInt()];
+			dataIn.readFully(data);
+			result.put(type, data);
+		}
+		return result;
+	}
+
+}
@@ -19,7 +19,10 @@ package org.springframework.context.index.processor;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Path;
+import java.util.Set;
 
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
@@ -33,6 +36,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.index.AnnotationMetadataIndex;
+import org.springframework.context.index.AnnotationMetadataIndexLoader;
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
 import org.springframework.context.index.sample.SampleComponent;
@@ -45,6 +55,7 @@ import org.springframework.context.index.sample.SampleNone;
 import org.springframework.context.index.sample.SampleRepository;
 import org.springframework.context.index.sample.SampleService;
 import org.springframework.context.index.sample.cdi.SampleManagedBean;
+import org.springframework.context.index.sample.config.SampleConfiguration;
 import org.springframework.context.index.sample.cdi.SampleNamed;
 import org.springframework.context.index.sample.cdi.SampleTransactional;
 import org.springframework.context.index.sample.jpa.SampleConverter;
@@ -58,6 +69,10 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -232,6 +247,83 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(1);
 	}
 
+	@Test
+	void typeMetadataMatchesClassFile() throws Exception {
+		compile(SampleConfiguration.class);
+		try (URLClassLoader classLoader = createOutputClassLoader()) {
+			AnnotationMetadataIndex index = AnnotationMetadataIndexLoader.loadIndex(classLoader);
+			assertThat(index).isNotNull();
+			SimpleMetadataReaderFactory readerFactory = new SimpleMetadataReaderFactory(classLoader);
+			for (Class<?> type : new Class<?>[] {SampleConfiguration.class, SampleConfiguration.Nested.class}) {
+				AnnotationMetadata indexed = index.getAnnotationMetadata(type.getName());
+				AnnotationMetadata read = readerFactory.getMetadataReader(type.getName()).getAnnotationMetadata();
+				assertThat(indexed).isNotNull();
+				assertThat(indexed.getClassName()).isEqualTo(read.getClassName());
+				assertThat(indexed.isIndependent()).isEqualTo(read.isIndependent());
+				assertThat(indexed.isAbstract()).isEqualTo(read.isAbstract());
+				assertThat(indexed.getEnclosingClassName()).isEqualTo(read.getEnclosingClassName());
+				assertThat(indexed.getSuperClassName()).isEqualTo(read.getSuperClassName());
+				assertThat(indexed.getInterfaceNames()).containsExactly(read.getInterfaceNames());
+				assertThat(indexed.getMemberClassNames()).containsExactly(read.getMemberClassNames());
+				assertThat(indexed.getAnnotationTypes()).isEqualTo(read.getAnnotationTypes());
+				assertThat(indexed.getAnnotationAttributes(Configuration.class.getName()))
+						.isEqualTo(read.getAnnotationAttributes(Configuration.class.getName()));
+				assertThat(String.valueOf(indexed.getAnnotationAttributes(ComponentScan.class.getName(), true)))
+						.isEqualTo(String.valueOf(read.getAnnotationAttributes(ComponentScan.class.getName(), true)));
+				assertThat(indexed.isAnnotated(Component.class.getName())).isTrue();
+				assertBeanMethods(indexed.getAnnotatedMethods(Bean.class.getName()),
+						read.getAnnotatedMethods(Bean.class.getName()));
+			}
+		}
+	}
+
+	@Test
+	void typeMetadataSkipsTypeWithoutAnnotations() throws Exception {
+		CandidateComponentsMetadata metadata = compile(SampleRepo.class);
+		assertThat(metadata).has(Metadata.of(SampleRepo.class, Repo.class));
+		try (URLClassLoader classLoader = createOutputClassLoader()) {
+			assertThat(AnnotationMetadataIndexLoader.loadIndex(classLoader)).isNull();
+		}
+	}
+
+	@Test
+	void typeMetadataIndexUsedForComponentScan() throws Exception {
+		compile(SampleConfiguration.class);
+		try (URLClassLoader classLoader = createOutputClassLoader()) {
+			GenericApplicationContext context = new GenericApplicationContext();
+			context.setClassLoader(classLoader);
+			new ClassPathBeanDefinitionScanner(context).scan(SampleConfiguration.class.getPackage().getName());
+			context.refresh();
+			assertThat(context.getBean("firstAlias")).isEqualTo("first");
+			assertThat(context.getBeanDefinition("first").isPrototype()).isTrue();
+			assertThat(context.getBeanDefinition("second").isLazyInit()).isTrue();
+			assertThat(context.getBean("third")).isEqualTo(3L);
+			context.close();
+		}
+	}
+
+	private void assertBeanMethods(Set<MethodMetadata> indexed, Set<MethodMetadata> read) {
+		assertThat(indexed).hasSameSizeAs(read);
+		MethodMetadata[] readMethods = read.toArray(new MethodMetadata[0]);
+		int i = 0;
+		for (MethodMetadata method : indexed) {
+			MethodMetadata readMethod = readMethods[i++];
+			assertThat(method.getMethodName()).isEqualTo(readMethod.getMethodName());
+			assertThat(method.getReturnTypeName()).isEqualTo(readMethod.getReturnTypeName());
+			assertThat(method.isStatic()).isEqualTo(readMethod.isStatic());
+			assertThat(method.isOverridable()).isEqualTo(readMethod.isOverridable());
+			assertThat(String.valueOf(method.getAnnotationAttributes(Bean.class.getName())))
+					.isEqualTo(String.valueOf(readMethod.getAnnotationAttributes(Bean.class.getName())));
+			assertThat(String.valueOf(method.getAnnotationAttributes(Scope.class.getName())))
+					.isEqualTo(String.valueOf(readMethod.getAnnotationAttributes(Scope.class.getName())));
+		}
+	}
+
+	private URLClassLoader createOutputClassLoader() throws IOException {
+		URL output = this.compiler.getOutputLocation().toURI().toURL();
+		return new URLClassLoader(new URL[] {output}, getClass().getClassLoader());
+	}
+
 	private CandidateComponentsMetadata compile(Class<?>... types) {
 		CandidateComponentsIndexer processor = new CandidateComponentsIndexer();
 		this.compiler.getTask(types).call(processor);
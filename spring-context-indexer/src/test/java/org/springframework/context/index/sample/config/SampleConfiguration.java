@@ -0,0 +1,66 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample.config;
+
+import java.io.Serializable;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Test candidate for the type metadata index, using annotation attributes
+ * of all kinds.
+ */
+@Configuration(proxyBeanMethods = false)
+@ComponentScan(basePackageClasses = SampleConfiguration.class,
+		excludeFilters = @Filter(type = FilterType.ANNOTATION, classes = Repository.class))
+public class SampleConfiguration implements Serializable {
+
+	@Bean(name = {"first", "firstAlias"}, initMethod = "toString")
+	@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.NO)
+	public String first() {
+		return "first";
+	}
+
+	@Bean
+	@Lazy
+	public static Integer second() {
+		return 2;
+	}
+
+	String notABean() {
+		return "none";
+	}
+
+
+	@Configuration
+	public static class Nested {
+
+		@Bean
+		public Long third() {
+			return 3L;
+		}
+	}
+
+}
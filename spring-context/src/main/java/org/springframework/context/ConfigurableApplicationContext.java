@@ -22,6 +22,7 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ProtocolResolver;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 
 import java.io.Closeable;
@@ -85,6 +86,21 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	 */
 	String SYSTEM_ENVIRONMENT_BEAN_NAME = "systemEnvironment";
 	
+	/**
+	 * Name of the {@link ApplicationStartup} bean in the factory.
+	 * @since 5.3
+	 */
+	String APPLICATION_STARTUP_BEAN_NAME = "applicationStartup";
+	
+	/**
+	 * Name of the {@link java.util.concurrent.Executor} bean in the factory for
+	 * pre-instantiating non-lazy singletons in the background.
+	 * If none is supplied, all non-lazy singletons are created during refresh.
+	 * @see org.springframework.beans.factory.support.DefaultListableBeanFactory#setBackgroundPreInstantiationExecutor
+	 * @since 5.3
+	 */
+	String BACKGROUND_PRE_INSTANTIATION_EXECUTOR_BEAN_NAME = "backgroundPreInstantiationExecutor";
+	
 	/**
 	 * {@link Thread#getName() Name} of the {@linkplain #registerShutdownHook()
 	 * shutdown hook} thread: {@value}.
@@ -124,6 +140,21 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	@Override
 	ConfigurableEnvironment getEnvironment();
 	
+	/**
+	 * Set the {@link ApplicationStartup} for this application context.
+	 * <p>This allows the application context to record metrics
+	 * during startup.
+	 * @param applicationStartup the application startup to record steps with
+	 * @since 5.3
+	 */
+	void setApplicationStartup(ApplicationStartup applicationStartup);
+	
+	/**
+	 * Return the {@link ApplicationStartup} for this application context.
+	 * @since 5.3
+	 */
+	ApplicationStartup getApplicationStartup();
+	
 	/**
 	 * Add a new BeanFactoryPostProcessor that will get applied to the internal
 	 * bean factory of this application context on refresh, before any of the
@@ -24,6 +24,7 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 /**
@@ -167,6 +168,27 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 		this.scanner.setScopeMetadataResolver(scopeMetadataResolver);
 	}
 	
+	/**
+	 * Specify a {@link ForkJoinPool} to scan the class path in parallel with, both
+	 * for {@link #scan(String...)} and for {@link ComponentScan @ComponentScan}
+	 * declarations on registered configuration classes.
+	 * <p>Default is none, scanning sequentially. The pool is not managed by this
+	 * context and needs to be shut down by the caller.
+	 * <p>Any call to this method must occur prior to calls to {@link #scan(String...)}
+	 * and {@link #refresh()}.
+	 *
+	 * @since 5.3
+	 * @see ClassPathScanningCandidateComponentProvider#setForkJoinPool
+	 * @see ConfigurationClassPostProcessor#setScanningForkJoinPool
+	 */
+	public void setScanningForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.scanner.setForkJoinPool(forkJoinPool);
+		if (containsBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+			getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+					.getPropertyValues().add("scanningForkJoinPool", forkJoinPool);
+		}
+	}
+	
 	//---------------------------------------------------------------------
 	// Implementation of AnnotationConfigRegistry
 	//---------------------------------------------------------------------
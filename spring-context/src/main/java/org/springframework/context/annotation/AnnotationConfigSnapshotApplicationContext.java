@@ -0,0 +1,280 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.parsing.FailFastProblemReporter;
+import org.springframework.beans.factory.support.SnapshotBeanDefinitionReader;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertySourceFactory;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Application context loading its bean definitions from bean definition
+ * snapshots generated at build time by {@link AnnotationConfigSnapshotGenerator}.
+ *
+ * <p>In contrast to {@link AnnotationConfigApplicationContext}, no configuration
+ * classes get parsed on startup: {@code @Configuration} classes, component scanning,
+ * {@code @Import} and {@code @Conditional} have all been processed when the
+ * snapshot was generated. On refresh, this context only enhances
+ * {@code @Configuration} classes and provides {@link ImportAware} callbacks,
+ * based on the import relationships recorded in the snapshot.
+ *
+ * <p>Since conditions were evaluated at build time, a snapshot is only valid
+ * for the active profiles it was generated with; refreshing this context with
+ * a different set of active profiles fails with an {@link IllegalStateException}.
+ * {@link PropertySource @PropertySource} declarations recorded in the snapshot
+ * are added to the environment on refresh.
+ *
+ * @since 5.3
+ * @see AnnotationConfigSnapshotGenerator
+ * @see SnapshotBeanDefinitionReader
+ */
+public class AnnotationConfigSnapshotApplicationContext extends GenericApplicationContext {
+
+	/**
+	 * Snapshot property holding the active profiles at generation time.
+	 */
+	static final String ACTIVE_PROFILES_PROPERTY = "context.activeProfiles";
+
+	/**
+	 * Prefix of snapshot properties mapping an imported class to its importing class.
+	 */
+	static final String IMPORTING_CLASS_PROPERTY_PREFIX = "context.importingClass:";
+
+	/**
+	 * Prefix of snapshot properties holding the attributes of a {@code @PropertySource}
+	 * declaration, followed by the declaring class and the index of the declaration.
+	 */
+	static final String PROPERTY_SOURCE_PROPERTY_PREFIX = "context.propertySource:";
+
+
+	private final SnapshotBeanDefinitionReader reader = new SnapshotBeanDefinitionReader(this);
+
+
+	/**
+	 * Create a new AnnotationConfigSnapshotApplicationContext that needs to be
+	 * {@link #load loaded} and then manually {@link #refresh refreshed}.
+	 */
+	public AnnotationConfigSnapshotApplicationContext() {
+	}
+
+	/**
+	 * Create a new AnnotationConfigSnapshotApplicationContext, loading bean
+	 * definitions from the given snapshots and automatically refreshing the context.
+	 * @param resources the snapshot resources to load from
+	 */
+	public AnnotationConfigSnapshotApplicationContext(Resource... resources) {
+		load(resources);
+		refresh();
+	}
+
+	/**
+	 * Create a new AnnotationConfigSnapshotApplicationContext, loading bean
+	 * definitions from the given snapshot locations and automatically refreshing
+	 * the context.
+	 * @param resourceLocations the snapshot resources to load from
+	 */
+	public AnnotationConfigSnapshotApplicationContext(String... resourceLocations) {
+		load(resourceLocations);
+		refresh();
+	}
+
+
+	/**
+	 * Exposes the underlying {@link SnapshotBeanDefinitionReader} for additional
+	 * configuration facilities and {@code loadBeanDefinition} variations.
+	 */
+	public final SnapshotBeanDefinitionReader getReader() {
+		return this.reader;
+	}
+
+	/**
+	 * Delegates the given environment to underlying {@link SnapshotBeanDefinitionReader}.
+	 * Should be called before any call to {@code #load}.
+	 */
+	@Override
+	public void setEnvironment(ConfigurableEnvironment environment) {
+		super.setEnvironment(environment);
+		this.reader.setEnvironment(getEnvironment());
+	}
+
+	/**
+	 * Load bean definitions from the given snapshots.
+	 * @param resources one or more resources to load from
+	 */
+	public void load(Resource... resources) {
+		this.reader.loadBeanDefinitions(resources);
+	}
+
+	/**
+	 * Load bean definitions from the given snapshots.
+	 * @param resourceLocations one or more resource locations to load from
+	 */
+	public void load(String... resourceLocations) {
+		this.reader.loadBeanDefinitions(resourceLocations);
+	}
+
+
+	@Override
+	protected void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		Map<String, String> snapshotProperties = this.reader.getSnapshotProperties();
+		addPropertySources(snapshotProperties);
+		validateActiveProfiles(snapshotProperties.get(ACTIVE_PROFILES_PROPERTY));
+
+		Map<String, String> importingClasses = new HashMap<>();
+		snapshotProperties.forEach((key, value) -> {
+			if (key.startsWith(IMPORTING_CLASS_PROPERTY_PREFIX) && value != null) {
+				importingClasses.put(key.substring(IMPORTING_CLASS_PROPERTY_PREFIX.length()), value);
+			}
+		});
+
+		ConfigurationClassPostProcessor configurationClassProcessor = new ConfigurationClassPostProcessor();
+		configurationClassProcessor.setBeanClassLoader(getClassLoader());
+		configurationClassProcessor.setApplicationStartup(getApplicationStartup());
+		configurationClassProcessor.enhanceConfigurationClasses(beanFactory);
+		if (!beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			beanFactory.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(importingClasses, getClassLoader()));
+		}
+		beanFactory.addBeanPostProcessor(new ConfigurationClassPostProcessor.ImportAwareBeanPostProcessor(beanFactory));
+	}
+
+	private void validateActiveProfiles(@Nullable String snapshotProfiles) {
+		if (snapshotProfiles == null) {
+			return;
+		}
+		Set<String> expected = StringUtils.commaDelimitedListToSet(snapshotProfiles);
+		Set<String> actual = new LinkedHashSet<>(Arrays.asList(getEnvironment().getActiveProfiles()));
+		if (!expected.equals(actual)) {
+			throw new IllegalStateException("Bean definition snapshot was generated for active profiles " +
+					expected + " but this context runs with active profiles " + actual);
+		}
+	}
+
+	/**
+	 * Add the {@code @PropertySource} declarations recorded in the snapshot to
+	 * the environment, in the order they were processed at generation time.
+	 * Locations get resolved against the runtime environment.
+	 */
+	private void addPropertySources(Map<String, String> snapshotProperties) {
+		Map<String, AnnotationAttributes> propertySources = new LinkedHashMap<>();
+		Map<String, List<String>> locations = new HashMap<>();
+		snapshotProperties.forEach((key, value) -> {
+			if (key.startsWith(PROPERTY_SOURCE_PROPERTY_PREFIX) && value != null) {
+				String declaration = key.substring(PROPERTY_SOURCE_PROPERTY_PREFIX.length());
+				int separator = declaration.indexOf('.', declaration.lastIndexOf('#'));
+				String attribute = declaration.substring(separator + 1);
+				declaration = declaration.substring(0, separator);
+				AnnotationAttributes attributes = propertySources.computeIfAbsent(declaration, d -> {
+					AnnotationAttributes newAttributes = new AnnotationAttributes(PropertySource.class);
+					newAttributes.put("name", "");
+					newAttributes.put("encoding", "");
+					newAttributes.put("ignoreResourceNotFound", false);
+					newAttributes.put("factory", PropertySourceFactory.class);
+					return newAttributes;
+				});
+				if (attribute.startsWith("value.")) {
+					locations.computeIfAbsent(declaration, d -> new ArrayList<>()).add(value);
+				}
+				else if (attribute.equals("ignoreResourceNotFound")) {
+					attributes.put(attribute, Boolean.valueOf(value));
+				}
+				else if (attribute.equals("factory")) {
+					attributes.put(attribute, ClassUtils.resolveClassName(value, getClassLoader()));
+				}
+				else {
+					attributes.put(attribute, value);
+				}
+			}
+		});
+		if (propertySources.isEmpty()) {
+			return;
+		}
+
+		ConfigurationClassParser parser = new ConfigurationClassParser(new CachingMetadataReaderFactory(getClassLoader()),
+				new FailFastProblemReporter(), getEnvironment(), this, AnnotationBeanNameGenerator.INSTANCE, this);
+		propertySources.forEach((declaration, attributes) -> {
+			attributes.put("value", StringUtils.toStringArray(locations.getOrDefault(declaration, Collections.emptyList())));
+			try {
+				parser.processPropertySource(attributes);
+			}
+			catch (IOException ex) {
+				throw new ApplicationContextException("Failed to add @PropertySource declared on " +
+						declaration + " to the environment", ex);
+			}
+		});
+	}
+
+
+	/**
+	 * {@link ImportRegistry} backed by the import relationships recorded in a
+	 * snapshot, introspecting importing classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = importingClasses;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			try {
+				return AnnotationMetadata.introspect(ClassUtils.forName(importingClass, this.classLoader));
+			}
+			catch (ClassNotFoundException ex) {
+				throw new IllegalStateException("Failed to load importing class [" + importingClass + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
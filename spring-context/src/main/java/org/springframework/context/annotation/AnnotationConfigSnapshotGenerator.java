@@ -0,0 +1,220 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.SnapshotBeanDefinitionWriter;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.io.support.PropertySourceFactory;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Build-time generator for bean definition snapshots, to be loaded through an
+ * {@link AnnotationConfigSnapshotApplicationContext} at runtime.
+ *
+ * <p>Processes the given component classes like an
+ * {@link AnnotationConfigApplicationContext} would on refresh: configuration
+ * classes get parsed, components scanned, imports and {@code @Bean} methods
+ * registered, and conditions evaluated against this generator's
+ * {@link #getEnvironment() environment}. The resulting bean definitions are
+ * written as a snapshot instead of being instantiated, along with the
+ * {@link PropertySource @PropertySource} declarations to add to the
+ * environment on load.
+ *
+ * <p>Only {@link Profile @Profile} conditions are supported, since the active
+ * profiles are recorded and checked on load. Other {@link Conditional @Conditional}
+ * conditions may depend on state that differs at runtime, so generation fails
+ * if any of them is encountered.
+ *
+ * <p>Meant to be invoked from build tooling after compilation, with the
+ * application classpath and the target environment set up.
+ *
+ * @since 5.3
+ * @see AnnotationConfigSnapshotApplicationContext
+ * @see SnapshotBeanDefinitionWriter
+ */
+public class AnnotationConfigSnapshotGenerator {
+
+	private static final ThreadLocal<Recording> currentRecording =
+			new NamedThreadLocal<>("Bean definition snapshot recording");
+
+
+	private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+
+	/**
+	 * Create a new AnnotationConfigSnapshotGenerator for the given component classes.
+	 * @param componentClasses one or more component classes,
+	 * e.g. {@link Configuration @Configuration} classes
+	 */
+	public AnnotationConfigSnapshotGenerator(Class<?>... componentClasses) {
+		Assert.notEmpty(componentClasses, "At least one component class must be specified");
+		this.context.register(componentClasses);
+	}
+
+
+	/**
+	 * Return the environment to evaluate conditions against,
+	 * allowing for further customization before {@link #generate generating}.
+	 */
+	public ConfigurableEnvironment getEnvironment() {
+		return this.context.getEnvironment();
+	}
+
+	/**
+	 * Process the component classes and write the resulting bean definitions
+	 * to the given stream.
+	 * @param out the stream to write the snapshot to (flushed but not closed)
+	 * @return the number of bean definitions written
+	 * @throws IOException in case of I/O errors
+	 */
+	public int generate(OutputStream out) throws IOException {
+		DefaultListableBeanFactory beanFactory = this.context.getDefaultListableBeanFactory();
+		ConfigurationClassPostProcessor configurationClassProcessor = new ConfigurationClassPostProcessor();
+		configurationClassProcessor.setEnvironment(getEnvironment());
+		configurationClassProcessor.setResourceLoader(this.context);
+		configurationClassProcessor.setBeanClassLoader(this.context.getClassLoader());
+
+		Recording recording = new Recording();
+		currentRecording.set(recording);
+		try {
+			configurationClassProcessor.postProcessBeanDefinitionRegistry(beanFactory);
+		}
+		finally {
+			currentRecording.remove();
+		}
+		if (!recording.unsupportedConditions.isEmpty()) {
+			throw new IllegalStateException("Bean definition snapshots only support @Profile conditions " +
+					"since other conditions cannot be re-evaluated on load: " + recording.unsupportedConditions);
+		}
+
+		SnapshotBeanDefinitionWriter writer = new SnapshotBeanDefinitionWriter(beanFactory);
+		writer.setBeanNameFilter(beanName ->
+				!AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME.equals(beanName));
+		writer.addSnapshotProperty(AnnotationConfigSnapshotApplicationContext.ACTIVE_PROFILES_PROPERTY,
+				StringUtils.arrayToCommaDelimitedString(getEnvironment().getActiveProfiles()));
+		recording.properties.forEach(writer::addSnapshotProperty);
+
+		Object importRegistry = beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		if (importRegistry instanceof ImportRegistry) {
+			for (String beanName : beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+				String className = bd.getBeanClassName();
+				if (className != null) {
+					AnnotationMetadata importingClass = ((ImportRegistry) importRegistry).getImportingClassFor(className);
+					if (importingClass != null) {
+						writer.addSnapshotProperty(AnnotationConfigSnapshotApplicationContext.IMPORTING_CLASS_PROPERTY_PREFIX +
+								className, importingClass.getClassName());
+					}
+				}
+			}
+		}
+		return writer.writeBeanDefinitions(out);
+	}
+
+
+	/**
+	 * Record the given conditions if the current thread generates a snapshot.
+	 * Called by {@link ConditionEvaluator} for each evaluated element.
+	 */
+	static void recordConditions(List<Condition> conditions, AnnotatedTypeMetadata metadata) {
+		Recording recording = currentRecording.get();
+		if (recording != null) {
+			for (Condition condition : conditions) {
+				if (!(condition instanceof ProfileCondition)) {
+					recording.unsupportedConditions.add(condition.getClass().getName() + " on " + describe(metadata));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Record the given {@code @PropertySource} declaration if the current thread
+	 * generates a snapshot. Called by {@link ConfigurationClassParser} for each
+	 * processed declaration.
+	 */
+	static void recordPropertySource(String declaringClass, AnnotationAttributes propertySource) {
+		Recording recording = currentRecording.get();
+		if (recording != null) {
+			int index = recording.propertySourceCounts.merge(declaringClass, 1, Integer::sum) - 1;
+			String prefix = AnnotationConfigSnapshotApplicationContext.PROPERTY_SOURCE_PROPERTY_PREFIX +
+					declaringClass + "#" + index + ".";
+			String[] locations = propertySource.getStringArray("value");
+			for (int i = 0; i < locations.length; i++) {
+				recording.properties.put(prefix + "value." + i, locations[i]);
+			}
+			String name = propertySource.getString("name");
+			if (StringUtils.hasLength(name)) {
+				recording.properties.put(prefix + "name", name);
+			}
+			String encoding = propertySource.getString("encoding");
+			if (StringUtils.hasLength(encoding)) {
+				recording.properties.put(prefix + "encoding", encoding);
+			}
+			if (propertySource.getBoolean("ignoreResourceNotFound")) {
+				recording.properties.put(prefix + "ignoreResourceNotFound", "true");
+			}
+			Class<?> factoryClass = propertySource.getClass("factory");
+			if (factoryClass != PropertySourceFactory.class) {
+				recording.properties.put(prefix + "factory", factoryClass.getName());
+			}
+		}
+	}
+
+	private static String describe(AnnotatedTypeMetadata metadata) {
+		if (metadata instanceof MethodMetadata) {
+			MethodMetadata methodMetadata = (MethodMetadata) metadata;
+			return methodMetadata.getDeclaringClassName() + "." + methodMetadata.getMethodName() + "()";
+		}
+		if (metadata instanceof ClassMetadata) {
+			return ((ClassMetadata) metadata).getClassName();
+		}
+		return metadata.toString();
+	}
+
+
+	/**
+	 * Conditions and property sources encountered while processing the
+	 * component classes on the current thread.
+	 */
+	private static class Recording {
+
+		final Set<String> unsupportedConditions = new LinkedHashSet<>();
+
+		final Map<String, Integer> propertySourceCounts = new HashMap<>();
+
+		final Map<String, String> properties = new LinkedHashMap<>();
+	}
+
+}
@@ -23,6 +23,9 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,8 +36,11 @@ import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.index.AnnotationMetadataIndex;
+import org.springframework.context.index.AnnotationMetadataIndexLoader;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.context.index.IndexedMetadataReaderFactory;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -112,6 +118,15 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 	
+	@Nullable
+	private AnnotationMetadataIndex metadataIndex;
+	
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+	
+	@Nullable
+	private PathMatchingResourcePatternResolver parallelResourcePatternResolver;
+	
 	/**
 	 * Protected constructor for flexible subclass initialization.
 	 * @since 4.3.6
@@ -264,8 +279,11 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Override
 	public void setResourceLoader(@Nullable ResourceLoader resourceLoader) {
 		this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+		this.parallelResourcePatternResolver = null;
 		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
 		this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
+		this.metadataIndex = (this.componentsIndex != null ?
+				AnnotationMetadataIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader()) : null);
 	}
 	
 	/**
@@ -282,6 +300,42 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.resourcePatternResolver;
 	}
 	
+	/**
+	 * Specify a {@link ForkJoinPool} to scan the class path in parallel: class path
+	 * locations are searched concurrently, and class metadata is read concurrently
+	 * as well. Candidate components are determined in the same order as with
+	 * sequential scanning, applying filters in the calling thread.
+	 * <p>Class path resources are resolved through a dedicated
+	 * {@link PathMatchingResourcePatternResolver} on top of the configured
+	 * {@linkplain #setResourceLoader resource loader} in that case. The
+	 * {@linkplain #setMetadataReaderFactory MetadataReaderFactory} needs to be
+	 * thread-safe, as the default {@link CachingMetadataReaderFactory} is.
+	 * <p>Default is none, scanning sequentially.
+	 * @param forkJoinPool the pool to scan with, or {@code null} to scan sequentially
+	 * @since 5.3
+	 * @see PathMatchingResourcePatternResolver#setForkJoinPool
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+		this.parallelResourcePatternResolver = null;
+	}
+	
+	private ResourcePatternResolver getScanningResourcePatternResolver() {
+		ResourcePatternResolver resourcePatternResolver = getResourcePatternResolver();
+		if (this.forkJoinPool == null) {
+			return resourcePatternResolver;
+		}
+		if (this.parallelResourcePatternResolver == null) {
+			PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(resourcePatternResolver);
+			if (resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+				resolver.setPathMatcher(((PathMatchingResourcePatternResolver) resourcePatternResolver).getPathMatcher());
+			}
+			resolver.setForkJoinPool(this.forkJoinPool);
+			this.parallelResourcePatternResolver = resolver;
+		}
+		return this.parallelResourcePatternResolver;
+	}
+	
 	/**
 	 * Set the {@link MetadataReaderFactory} to use.
 	 * <p>Default is a {@link CachingMetadataReaderFactory} for the specified
@@ -393,8 +447,12 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			}
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
+			// 有元数据索引时直接从索引读取注解元数据,无需解析class文件
+			MetadataReaderFactory readerFactory = (this.metadataIndex != null ?
+					new IndexedMetadataReaderFactory(getMetadataReaderFactory(), this.metadataIndex,
+							getResourcePatternResolver().getClassLoader()) : getMetadataReaderFactory());
 			for (String type : types) {
-				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(type);
+				MetadataReader metadataReader = readerFactory.getMetadataReader(type);
 				// 筛选,排除指定的类,excludeFilters, includeFilters判断 @Component-->includeFilters判断
 				if (isCandidateComponent(metadataReader)) {
 					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
@@ -429,19 +487,23 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			// 获取到完整扫描路径下的所有.class文件,这里不排除
-			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
+			Resource[] resources = getScanningResourcePatternResolver().getResources(packageSearchPath);
+			MetadataReader[] metadataReaders = (this.forkJoinPool != null ?
+					readMetadataInParallel(this.forkJoinPool, resources) : null);
 			
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
 				// 是否可读
-				if (resource.isReadable()) {
+				if (metadataReaders != null ? metadataReaders[i] != null : resource.isReadable()) {
 					try {
 						// org.springframework.asm读取.class文件内容,获得MetadataReader原数据读取器
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+						MetadataReader metadataReader = (metadataReaders != null ? metadataReaders[i] :
+								getMetadataReaderFactory().getMetadataReader(resource));
 						// 筛选,排除指定的类,excludeFilters, includeFilters判断 @Component-->includeFilters判断
 						if (isCandidateComponent(metadataReader)) {
 							// 生成 BeanDefinition
@@ -480,6 +542,48 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 	
+	/**
+	 * Read the metadata of the given resources in parallel, propagating the
+	 * thread context ClassLoader of the calling thread.
+	 * @return the metadata readers in the order of the resources,
+	 * with {@code null} for resources that are not readable
+	 */
+	private MetadataReader[] readMetadataInParallel(ForkJoinPool forkJoinPool, Resource[] resources) {
+		MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		MetadataReader[] metadataReaders = new MetadataReader[resources.length];
+		Throwable[] failures = new Throwable[resources.length];
+		Runnable task = () -> IntStream.range(0, resources.length).parallel().forEach(i -> {
+			Thread currentThread = Thread.currentThread();
+			ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+			currentThread.setContextClassLoader(classLoader);
+			try {
+				if (resources[i].isReadable()) {
+					metadataReaders[i] = metadataReaderFactory.getMetadataReader(resources[i]);
+				}
+			} catch (Throwable ex) {
+				failures[i] = ex;
+			} finally {
+				currentThread.setContextClassLoader(originalClassLoader);
+			}
+		});
+		try {
+			forkJoinPool.submit(task).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanDefinitionStoreException("Interrupted during classpath scanning", ex);
+		} catch (ExecutionException ex) {
+			throw new BeanDefinitionStoreException("Failure during classpath scanning", ex.getCause());
+		}
+		for (int i = 0; i < failures.length; i++) {
+			if (failures[i] != null) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resources[i], failures[i]);
+			}
+		}
+		return metadataReaders;
+	}
+	
 	/**
 	 * Resolve the specified base package into a pattern specification for
 	 * the package search path.
@@ -555,6 +659,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * Clear the local metadata cache, if any, removing all cached class metadata.
 	 */
 	public void clearCache() {
+		if (this.parallelResourcePatternResolver != null) {
+			this.parallelResourcePatternResolver.clearCache();
+		}
 		if (this.metadataReaderFactory instanceof CachingMetadataReaderFactory) {
 			// Clear cache in externally provided MetadataReaderFactory; this is a no-op
 			// for a shared cache since it'll be cleared by the ApplicationContext.
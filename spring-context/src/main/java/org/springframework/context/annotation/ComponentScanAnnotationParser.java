@@ -30,6 +30,7 @@ import org.springframework.core.type.filter.AspectJTypeFilter;
 import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.RegexPatternTypeFilter;
 import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
@@ -40,6 +41,7 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 /**
@@ -61,6 +63,9 @@ class ComponentScanAnnotationParser {
 	
 	private final BeanDefinitionRegistry registry;
 	
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+	
 	public ComponentScanAnnotationParser(Environment environment, ResourceLoader resourceLoader,
 										 BeanNameGenerator beanNameGenerator, BeanDefinitionRegistry registry) {
 		
@@ -70,6 +75,15 @@ class ComponentScanAnnotationParser {
 		this.registry = registry;
 	}
 	
+	/**
+	 * Specify a {@link ForkJoinPool} to scan the class path in parallel with.
+	 * @since 5.3
+	 * @see ClassPathScanningCandidateComponentProvider#setForkJoinPool
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+	
 	/**
 	 *
 	 * @param componentScan 表示@ComponentScan注解的属性值
@@ -96,6 +110,7 @@ class ComponentScanAnnotationParser {
 		}
 		
 		scanner.setResourcePattern(componentScan.getString("resourcePattern"));
+		scanner.setForkJoinPool(this.forkJoinPool);
 		
 		for (AnnotationAttributes filter : componentScan.getAnnotationArray("includeFilters")) {
 			for (TypeFilter typeFilter : typeFiltersFor(filter)) {
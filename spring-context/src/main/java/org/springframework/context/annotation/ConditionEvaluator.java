@@ -97,6 +97,7 @@ class ConditionEvaluator {
 		}
 		
 		AnnotationAwareOrderComparator.sort(conditions);
+		AnnotationConfigSnapshotGenerator.recordConditions(conditions, metadata);
 		
 		for (Condition condition : conditions) {
 			ConfigurationPhase requiredPhase = null;
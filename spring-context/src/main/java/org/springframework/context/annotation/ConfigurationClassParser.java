@@ -82,6 +82,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 /**
@@ -164,6 +165,15 @@ class ConfigurationClassParser {
 		this.conditionEvaluator = new ConditionEvaluator(registry, environment, resourceLoader);
 	}
 	
+	/**
+	 * Specify a {@link ForkJoinPool} to scan the class path in parallel with
+	 * for {@link ComponentScan @ComponentScan} declarations.
+	 * @since 5.3
+	 */
+	void setScanningForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.componentScanParser.setForkJoinPool(forkJoinPool);
+	}
+	
 	public void parse(Set<BeanDefinitionHolder> configCandidates) {
 		// 循环遍历 configCandidates
 		for (BeanDefinitionHolder holder : configCandidates) {
@@ -287,6 +297,8 @@ class ConfigurationClassParser {
 				sourceClass.getMetadata(), PropertySources.class,
 				org.springframework.context.annotation.PropertySource.class)) {
 			if (this.environment instanceof ConfigurableEnvironment) {
+				AnnotationConfigSnapshotGenerator.recordPropertySource(
+						sourceClass.getMetadata().getClassName(), propertySource);
 				processPropertySource(propertySource);
 			} else {
 				logger.info("Ignoring @PropertySource annotation on [" + sourceClass.getMetadata().getClassName() +
@@ -454,7 +466,7 @@ class ConfigurationClassParser {
 	 * @param propertySource metadata for the <code>@PropertySource</code> annotation found
 	 * @throws IOException if loading a property source failed
 	 */
-	private void processPropertySource(AnnotationAttributes propertySource) throws IOException {
+	void processPropertySource(AnnotationAttributes propertySource) throws IOException {
 		String name = propertySource.getString("name");
 		if (!StringUtils.hasLength(name)) {
 			name = null;
@@ -34,15 +34,21 @@ import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
 import org.springframework.beans.factory.support.BeanNameGenerator;
+import org.springframework.context.ApplicationStartupAware;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
+import org.springframework.context.index.AnnotationMetadataIndex;
+import org.springframework.context.index.AnnotationMetadataIndexLoader;
+import org.springframework.context.index.IndexedMetadataReaderFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
@@ -59,6 +65,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * {@link BeanFactoryPostProcessor} used for bootstrapping processing of
@@ -78,7 +85,7 @@ import java.util.Set;
  * @since 3.0
  */
 public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPostProcessor,
-		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
+		PriorityOrdered, ResourceLoaderAware, ApplicationStartupAware, BeanClassLoaderAware, EnvironmentAware {
 	
 	/**
 	 * A {@code BeanNameGenerator} using fully qualified class names as default bean names.
@@ -92,7 +99,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	public static final AnnotationBeanNameGenerator IMPORT_BEAN_NAME_GENERATOR =
 			new FullyQualifiedAnnotationBeanNameGenerator();
 	
-	private static final String IMPORT_REGISTRY_BEAN_NAME =
+	static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 	
 	private final Log logger = LogFactory.getLog(getClass());
@@ -128,6 +135,11 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/* Using fully qualified class names as default bean names by default. */
 	private BeanNameGenerator importBeanNameGenerator = IMPORT_BEAN_NAME_GENERATOR;
 	
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+	
+	@Nullable
+	private ForkJoinPool scanningForkJoinPool;
+	
 	@Override
 	public int getOrder() {
 		return Ordered.LOWEST_PRECEDENCE;  // within PriorityOrdered
@@ -185,12 +197,29 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 	
+	/**
+	 * Specify a {@link ForkJoinPool} to scan the class path in parallel with when
+	 * triggering component scanning from {@link Configuration} classes.
+	 * <p>Default is none, scanning sequentially.
+	 * @since 5.3
+	 * @see ClassPathScanningCandidateComponentProvider#setForkJoinPool
+	 * @see AnnotationConfigApplicationContext#setScanningForkJoinPool
+	 */
+	public void setScanningForkJoinPool(@Nullable ForkJoinPool scanningForkJoinPool) {
+		this.scanningForkJoinPool = scanningForkJoinPool;
+	}
+	
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
 		this.environment = environment;
 	}
 	
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		this.applicationStartup = applicationStartup;
+	}
+	
 	@Override
 	public void setResourceLoader(ResourceLoader resourceLoader) {
 		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
@@ -261,6 +290,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<>();
 		// 获取容器中注册的所有bd名字7个由于配置类是手动注册的所以也能拿到
 		String[] candidateNames = registry.getBeanDefinitionNames();
+		// 有编译期生成的元数据索引时,优先从索引读取类的注解元数据,不再解析class文件
+		MetadataReaderFactory readerFactory = getIndexedMetadataReaderFactory();
 		/**
 		 * 开始扫描,就是把类信息拿出来然后构建成为BeanDefinition对象
 		 * 然后把这个BeanDerinition对象放到集合当中,但是在没有完成扫描之前这个map当中已经有七个BeanDefinition
@@ -282,7 +313,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 				 * 		candidatelndicators.add(ImportResource.class. getName());
 				 * 	beanDef = appconfig
 				 */
-			} else if (ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, this.metadataReaderFactory)) {
+			} else if (ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, readerFactory)) {
 				// BeanDefinitionHolder也可以看成一个数据结构
 				configCandidates.add(new BeanDefinitionHolder(beanDef, beanName));
 			}
@@ -326,33 +357,40 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		
 		// 实例化 ConfiqurationCLassParser 类,并初始化相关的参数,完成配置类的解析工作
 		ConfigurationClassParser parser = new ConfigurationClassParser(
-				this.metadataReaderFactory, this.problemReporter, this.environment,
+				readerFactory, this.problemReporter, this.environment,
 				this.resourceLoader, this.componentScanBeanNameGenerator, registry);
+		parser.setScanningForkJoinPool(this.scanningForkJoinPool);
 		// 创建两个集合对象.存放相关的 BeanDefinitionHoLder 对象
 		Set<BeanDefinitionHolder> candidates = new LinkedHashSet<>(configCandidates);
 		// 存放扫描包下的所有bean
 		Set<ConfigurationClass> alreadyParsed = new HashSet<>(configCandidates.size());
 		do {
-			// 解析带有@controller.@Import.@ImportResource, @Componentscan, @componentscans, @Bean的BeanDefinition
-			parser.parse(candidates);
-			// 将解析完的 Configuration 配置类进行校验, 1、配置类不能是final, 2,@Bean修饰的方法必须可以重写以支持cglib
-			parser.validate();
+			StartupStep processConfig = this.applicationStartup.start("spring.context.config-classes.parse");
+			try {
+				// 解析带有@controller.@Import.@ImportResource, @Componentscan, @componentscans, @Bean的BeanDefinition
+				parser.parse(candidates);
+				// 将解析完的 Configuration 配置类进行校验, 1、配置类不能是final, 2,@Bean修饰的方法必须可以重写以支持cglib
+				parser.validate();
 			
-			// 获取所有的bean,包括扫描的bean对象, @Import导入的bean对象
-			Set<ConfigurationClass> configClasses = new LinkedHashSet<>(parser.getConfigurationClasses());
-			// 清除掉已经解析处理过的配置类
-			configClasses.removeAll(alreadyParsed);
+				// 获取所有的bean,包括扫描的bean对象, @Import导入的bean对象
+				Set<ConfigurationClass> configClasses = new LinkedHashSet<>(parser.getConfigurationClasses());
+				// 清除掉已经解析处理过的配置类
+				configClasses.removeAll(alreadyParsed);
 			
-			// 判断读取器是否为空,如果为空的话,就创建完全填充好的 ConfigurationClass 实例的读取器
-			if (this.reader == null) {
-				this.reader = new ConfigurationClassBeanDefinitionReader(
-						registry, this.sourceExtractor, this.resourceLoader, this.environment,
-						this.importBeanNameGenerator, parser.getImportRegistry());
+				// 判断读取器是否为空,如果为空的话,就创建完全填充好的 ConfigurationClass 实例的读取器
+				if (this.reader == null) {
+					this.reader = new ConfigurationClassBeanDefinitionReader(
+							registry, this.sourceExtractor, this.resourceLoader, this.environment,
+							this.importBeanNameGenerator, parser.getImportRegistry());
+				}
+				// 核心方法,将完全填充好的 ConfigurationcLass 实例转化为 BeanDefinition 注册入10C容器
+				this.reader.loadBeanDefinitions(configClasses);
+				// 添加到已经处理的集合中
+				alreadyParsed.addAll(configClasses);
+				processConfig.tag("classCount", () -> String.valueOf(configClasses.size()));
+			} finally {
+				processConfig.end();
 			}
-			// 核心方法,将完全填充好的 ConfigurationcLass 实例转化为 BeanDefinition 注册入10C容器
-			this.reader.loadBeanDefinitions(configClasses);
-			// 添加到已经处理的集合中
-			alreadyParsed.addAll(configClasses);
 			
 			candidates.clear();
 			/**
@@ -373,7 +411,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 				for (String candidateName : newCandidateNames) {
 					if (!oldCandidateNames.contains(candidateName)) {
 						BeanDefinition bd = registry.getBeanDefinition(candidateName);
-						if (ConfigurationClassUtils.checkConfigurationClassCandidate(bd, this.metadataReaderFactory) &&
+						if (ConfigurationClassUtils.checkConfigurationClassCandidate(bd, readerFactory) &&
 								!alreadyParsedClasses.contains(bd.getBeanClassName())) {
 							candidates.add(new BeanDefinitionHolder(bd, candidateName));
 						}
@@ -396,6 +434,23 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 	
+	/**
+	 * Return a {@link MetadataReaderFactory} that serves classes recorded in the
+	 * {@link AnnotationMetadataIndex} from the index, falling back to the configured
+	 * factory, or the configured factory itself if no index is available.
+	 *
+	 * @see AnnotationMetadataIndexLoader
+	 */
+	private MetadataReaderFactory getIndexedMetadataReaderFactory() {
+		if (this.metadataReaderFactory instanceof IndexedMetadataReaderFactory) {
+			return this.metadataReaderFactory;
+		}
+		AnnotationMetadataIndex index = AnnotationMetadataIndexLoader.loadIndex(this.beanClassLoader);
+		return (index != null ?
+				new IndexedMetadataReaderFactory(this.metadataReaderFactory, index, this.beanClassLoader) :
+				this.metadataReaderFactory);
+	}
+	
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
@@ -403,64 +458,70 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 * @see ConfigurationClassEnhancer
 	 */
 	public void enhanceConfigurationClasses(ConfigurableListableBeanFactory beanFactory) {
-		Map<String, AbstractBeanDefinition> configBeanDefs = new LinkedHashMap<>();
-		for (String beanName : beanFactory.getBeanDefinitionNames()) {
-			BeanDefinition beanDef = beanFactory.getBeanDefinition(beanName);
-			Object configClassAttr = beanDef.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE);
-			MethodMetadata methodMetadata = null;
-			if (beanDef instanceof AnnotatedBeanDefinition) {
-				methodMetadata = ((AnnotatedBeanDefinition) beanDef).getFactoryMethodMetadata();
-			}
-			if ((configClassAttr != null || methodMetadata != null) && beanDef instanceof AbstractBeanDefinition) {
-				// Configuration class (full or lite) or a configuration-derived @Bean method
-				// -> resolve bean class at this point...
-				AbstractBeanDefinition abd = (AbstractBeanDefinition) beanDef;
-				if (!abd.hasBeanClass()) {
-					try {
-						abd.resolveBeanClass(this.beanClassLoader);
-					} catch (Throwable ex) {
-						throw new IllegalStateException(
-								"Cannot load configuration class: " + beanDef.getBeanClassName(), ex);
+		StartupStep enhanceConfigClasses = this.applicationStartup.start("spring.context.config-classes.enhance");
+		try {
+			Map<String, AbstractBeanDefinition> configBeanDefs = new LinkedHashMap<>();
+			for (String beanName : beanFactory.getBeanDefinitionNames()) {
+				BeanDefinition beanDef = beanFactory.getBeanDefinition(beanName);
+				Object configClassAttr = beanDef.getAttribute(ConfigurationClassUtils.CONFIGURATION_CLASS_ATTRIBUTE);
+				MethodMetadata methodMetadata = null;
+				if (beanDef instanceof AnnotatedBeanDefinition) {
+					methodMetadata = ((AnnotatedBeanDefinition) beanDef).getFactoryMethodMetadata();
+				}
+				if ((configClassAttr != null || methodMetadata != null) && beanDef instanceof AbstractBeanDefinition) {
+					// Configuration class (full or lite) or a configuration-derived @Bean method
+					// -> resolve bean class at this point...
+					AbstractBeanDefinition abd = (AbstractBeanDefinition) beanDef;
+					if (!abd.hasBeanClass()) {
+						try {
+							abd.resolveBeanClass(this.beanClassLoader);
+						} catch (Throwable ex) {
+							throw new IllegalStateException(
+									"Cannot load configuration class: " + beanDef.getBeanClassName(), ex);
+						}
 					}
 				}
-			}
-			if (ConfigurationClassUtils.CONFIGURATION_CLASS_FULL.equals(configClassAttr)) {
-				if (!(beanDef instanceof AbstractBeanDefinition)) {
-					throw new BeanDefinitionStoreException("Cannot enhance @Configuration bean definition '" +
-							beanName + "' since it is not stored in an AbstractBeanDefinition subclass");
-				} else if (logger.isInfoEnabled() && beanFactory.containsSingleton(beanName)) {
-					logger.info("Cannot enhance @Configuration bean definition '" + beanName +
-							"' since its singleton instance has been created too early. The typical cause " +
-							"is a non-static @Bean method with a BeanDefinitionRegistryPostProcessor " +
-							"return type: Consider declaring such methods as 'static'.");
+				if (ConfigurationClassUtils.CONFIGURATION_CLASS_FULL.equals(configClassAttr)) {
+					if (!(beanDef instanceof AbstractBeanDefinition)) {
+						throw new BeanDefinitionStoreException("Cannot enhance @Configuration bean definition '" +
+								beanName + "' since it is not stored in an AbstractBeanDefinition subclass");
+					} else if (logger.isInfoEnabled() && beanFactory.containsSingleton(beanName)) {
+						logger.info("Cannot enhance @Configuration bean definition '" + beanName +
+								"' since its singleton instance has been created too early. The typical cause " +
+								"is a non-static @Bean method with a BeanDefinitionRegistryPostProcessor " +
+								"return type: Consider declaring such methods as 'static'.");
+					}
+					configBeanDefs.put(beanName, (AbstractBeanDefinition) beanDef);
 				}
-				configBeanDefs.put(beanName, (AbstractBeanDefinition) beanDef);
 			}
-		}
-		if (configBeanDefs.isEmpty()) {
-			// nothing to enhance -> return immediately
-			return;
-		}
+			if (configBeanDefs.isEmpty()) {
+				// nothing to enhance -> return immediately
+				return;
+			}
 		
-		ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer();
-		for (Map.Entry<String, AbstractBeanDefinition> entry : configBeanDefs.entrySet()) {
-			AbstractBeanDefinition beanDef = entry.getValue();
-			// If a @Configuration class gets proxied, always proxy the target class
-			beanDef.setAttribute(AutoProxyUtils.PRESERVE_TARGET_CLASS_ATTRIBUTE, Boolean.TRUE);
-			// Set enhanced subclass of the user-specified bean class
-			Class<?> configClass = beanDef.getBeanClass();
-			Class<?> enhancedClass = enhancer.enhance(configClass, this.beanClassLoader);
-			if (configClass != enhancedClass) {
-				if (logger.isTraceEnabled()) {
-					logger.trace(String.format("Replacing bean definition '%s' existing class '%s' with " +
-							"enhanced class '%s'", entry.getKey(), configClass.getName(), enhancedClass.getName()));
+			ConfigurationClassEnhancer enhancer = new ConfigurationClassEnhancer();
+			for (Map.Entry<String, AbstractBeanDefinition> entry : configBeanDefs.entrySet()) {
+				AbstractBeanDefinition beanDef = entry.getValue();
+				// If a @Configuration class gets proxied, always proxy the target class
+				beanDef.setAttribute(AutoProxyUtils.PRESERVE_TARGET_CLASS_ATTRIBUTE, Boolean.TRUE);
+				// Set enhanced subclass of the user-specified bean class
+				Class<?> configClass = beanDef.getBeanClass();
+				Class<?> enhancedClass = enhancer.enhance(configClass, this.beanClassLoader);
+				if (configClass != enhancedClass) {
+					if (logger.isTraceEnabled()) {
+						logger.trace(String.format("Replacing bean definition '%s' existing class '%s' with " +
+								"enhanced class '%s'", entry.getKey(), configClass.getName(), enhancedClass.getName()));
+					}
+					beanDef.setBeanClass(enhancedClass);
 				}
-				beanDef.setBeanClass(enhancedClass);
 			}
+			enhanceConfigClasses.tag("classCount", () -> String.valueOf(configBeanDefs.keySet().size()));
+		} finally {
+			enhanceConfigClasses.end();
 		}
 	}
 	
-	private static class ImportAwareBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
+	static class ImportAwareBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
 		
 		private final BeanFactory beanFactory;
 		
@@ -73,7 +73,8 @@ public abstract class AbstractApplicationEventMulticaster
 	@Nullable
 	private ConfigurableBeanFactory beanFactory;
 
-	private Object retrievalMutex = this.defaultRetriever;
+	/** Incremented on every listener change, guarded by the default retriever. */
+	private int retrieverCacheGeneration;
 
 
 	@Override
@@ -90,7 +91,6 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null) {
 			this.beanClassLoader = this.beanFactory.getBeanClassLoader();
 		}
-		this.retrievalMutex = this.beanFactory.getSingletonMutex();
 	}
 
 	private ConfigurableBeanFactory getBeanFactory() {
@@ -104,7 +104,7 @@ public abstract class AbstractApplicationEventMulticaster
 
 	@Override
 	public void addApplicationListener(ApplicationListener<?> listener) {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
@@ -112,43 +112,48 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
 	@Override
 	public void removeApplicationListenerBean(String listenerBeanName) {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
 	@Override
 	public void removeAllListeners() {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			invalidateRetrieverCache();
 		}
 	}
 
+	private void invalidateRetrieverCache() {
+		this.retrieverCacheGeneration++;
+		this.retrieverCache.clear();
+	}
+
 
 	/**
 	 * Return a Collection containing all ApplicationListeners.
@@ -156,7 +161,7 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners() {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			return this.defaultRetriever.getApplicationListeners();
 		}
 	}
@@ -186,18 +191,21 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null ||
 				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
 						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-			// Fully synchronized building and caching of a ListenerRetriever
-			synchronized (this.retrievalMutex) {
-				retriever = this.retrieverCache.get(cacheKey);
-				if (retriever != null) {
-					return retriever.getApplicationListeners();
+			// Build a ListenerRetriever outside of any lock, since listener beans may get
+			// created, and only cache it if no listeners have been changed in the meantime
+			int generation;
+			synchronized (this.defaultRetriever) {
+				generation = this.retrieverCacheGeneration;
+			}
+			retriever = new ListenerRetriever(true);
+			Collection<ApplicationListener<?>> listeners =
+					retrieveApplicationListeners(eventType, sourceType, retriever);
+			synchronized (this.defaultRetriever) {
+				if (generation == this.retrieverCacheGeneration) {
+					this.retrieverCache.putIfAbsent(cacheKey, retriever);
 				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
-				return listeners;
 			}
+			return listeners;
 		}
 		else {
 			// No ListenerRetriever caching -> no synchronization necessary
@@ -218,7 +226,7 @@ public abstract class AbstractApplicationEventMulticaster
 		List<ApplicationListener<?>> allListeners = new ArrayList<>();
 		Set<ApplicationListener<?>> listeners;
 		Set<String> listenerBeans;
-		synchronized (this.retrievalMutex) {
+		synchronized (this.defaultRetriever) {
 			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
 			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
 		}
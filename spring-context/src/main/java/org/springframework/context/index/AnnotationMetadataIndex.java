@@ -0,0 +1,307 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.annotation.AnnotationFilter;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Provide access to the annotation metadata of the types recorded in
+ * {@code META-INF/spring.metadata}, as written by the {@code spring-context-indexer}
+ * annotation processor at compile time.
+ *
+ * <p>Entries are decoded on first access and exposed as {@link AnnotationMetadata}
+ * equivalent to what an ASM-based {@code MetadataReader} would extract from the
+ * corresponding class file, without opening that class file.
+ *
+ * @since 5.3
+ * @see AnnotationMetadataIndexLoader
+ * @see IndexedMetadataReaderFactory
+ */
+public class AnnotationMetadataIndex {
+
+	private static final int MAGIC = 0x53504D49;
+
+	private static final int VERSION = 1;
+
+
+	private final Map<String, byte[]> entries;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+	private final Map<String, AnnotationMetadata> metadataCache = new ConcurrentHashMap<>();
+
+
+	AnnotationMetadataIndex(Map<String, byte[]> entries, @Nullable ClassLoader classLoader) {
+		this.entries = entries;
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Return whether the index holds metadata for the given class.
+	 * @param className the fully qualified class name
+	 */
+	public boolean hasAnnotationMetadata(String className) {
+		return this.entries.containsKey(className);
+	}
+
+	/**
+	 * Return the annotation metadata for the given class.
+	 * @param className the fully qualified class name
+	 * @return the annotation metadata, or {@code null} if the class is not indexed
+	 * @throws IllegalStateException if the indexed metadata cannot be decoded
+	 */
+	@Nullable
+	public AnnotationMetadata getAnnotationMetadata(String className) {
+		AnnotationMetadata metadata = this.metadataCache.get(className);
+		if (metadata == null) {
+			byte[] data = this.entries.get(className);
+			if (data == null) {
+				return null;
+			}
+			try {
+				metadata = new EntryDecoder(className, data, this.classLoader).decode();
+			}
+			catch (IOException | RuntimeException ex) {
+				throw new IllegalStateException("Failed to decode indexed metadata for class [" + className + "]", ex);
+			}
+			this.metadataCache.put(className, metadata);
+		}
+		return metadata;
+	}
+
+	/**
+	 * Return the number of indexed classes.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+
+	/**
+	 * Read the entries of a single index file into the given map,
+	 * keeping existing entries for classes indexed more than once.
+	 */
+	static void readEntries(InputStream in, Map<String, byte[]> entries) throws IOException {
+		DataInputStream dataIn = new DataInputStream(in);
+		int magic = dataIn.readInt();
+		int version = dataIn.readInt();
+		if (magic != MAGIC || version != VERSION) {
+			throw new IOException("Unsupported metadata index format (version " + version + ")");
+		}
+		int count = dataIn.readInt();
+		for (int i = 0; i < count; i++) {
+			String className = dataIn.readUTF();
+			byte[] data = new byte[dataIn.readInt()];
+			dataIn.readFully(data);
+			entries.putIfAbsent(className, data);
+		}
+	}
+
+
+	/**
+	 * Decoder for a single index entry.
+	 */
+	private static class EntryDecoder {
+
+		private final String className;
+
+		private final DataInputStream in;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		EntryDecoder(String className, byte[] data, @Nullable ClassLoader classLoader) {
+			this.className = className;
+			this.in = new DataInputStream(new ByteArrayInputStream(data));
+			this.classLoader = classLoader;
+		}
+
+		AnnotationMetadata decode() throws IOException {
+			int access = this.in.readInt();
+			String enclosingClassName = readNullableString();
+			String superClassName = readNullableString();
+			String[] interfaceNames = readStrings();
+			String[] memberClassNames = readStrings();
+			MergedAnnotations annotations = readAnnotations(this.className);
+			MethodMetadata[] annotatedMethods = new MethodMetadata[this.in.readInt()];
+			for (int i = 0; i < annotatedMethods.length; i++) {
+				String methodName = readString();
+				String returnTypeName = readString();
+				int methodAccess = this.in.readInt();
+				MergedAnnotations methodAnnotations = readAnnotations(this.className + "." + methodName);
+				annotatedMethods[i] = new IndexedMethodMetadata(
+						methodName, methodAccess, this.className, returnTypeName, methodAnnotations);
+			}
+			return new IndexedAnnotationMetadata(this.className, access, enclosingClassName,
+					superClassName, interfaceNames, memberClassNames, annotatedMethods, annotations);
+		}
+
+		private MergedAnnotations readAnnotations(Object source) throws IOException {
+			int count = this.in.readInt();
+			List<MergedAnnotation<?>> annotations = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				MergedAnnotation<?> annotation = readAnnotation(source, true);
+				if (annotation != null) {
+					annotations.add(annotation);
+				}
+			}
+			return MergedAnnotations.of(annotations);
+		}
+
+		/**
+		 * Read an annotation, returning {@code null} if its type cannot be resolved,
+		 * consistent with ASM-based reading.
+		 */
+		@Nullable
+		@SuppressWarnings("unchecked")
+		private MergedAnnotation<?> readAnnotation(Object source, boolean resolve) throws IOException {
+			String typeName = readString();
+			Class<? extends Annotation> type = null;
+			if (resolve && !AnnotationFilter.PLAIN.matches(typeName)) {
+				try {
+					type = (Class<? extends Annotation>) ClassUtils.forName(typeName, this.classLoader);
+				}
+				catch (ClassNotFoundException | LinkageError ex) {
+					// Skip attribute resolution below
+				}
+			}
+			int count = this.in.readInt();
+			Map<String, Object> attributes = new LinkedHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				String name = readString();
+				attributes.put(name, readValue(source, type != null));
+			}
+			return (type != null ? MergedAnnotation.of(this.classLoader, source, type, attributes) : null);
+		}
+
+		@Nullable
+		private Object readValue(Object source, boolean resolve) throws IOException {
+			char tag = (char) this.in.readByte();
+			if (tag != '[') {
+				return readRawValue(tag, source, resolve);
+			}
+			char componentTag = (char) this.in.readByte();
+			int length = this.in.readInt();
+			if (length == 0) {
+				return new Object[0];
+			}
+			Object array = null;
+			for (int i = 0; i < length; i++) {
+				Object element = readRawValue(componentTag, source, resolve);
+				if (!resolve) {
+					continue;
+				}
+				if (array == null) {
+					array = Array.newInstance(getComponentType(componentTag, element), length);
+				}
+				Array.set(array, i, element);
+			}
+			return array;
+		}
+
+		private Class<?> getComponentType(char tag, @Nullable Object firstElement) {
+			switch (tag) {
+				case 'Z': return boolean.class;
+				case 'B': return byte.class;
+				case 'C': return char.class;
+				case 'S': return short.class;
+				case 'I': return int.class;
+				case 'J': return long.class;
+				case 'F': return float.class;
+				case 'D': return double.class;
+				case 'e': return ((Enum<?>) firstElement).getDeclaringClass();
+				case '@': return MergedAnnotation.class;
+				default: return String.class;
+			}
+		}
+
+		@Nullable
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Object readRawValue(char tag, Object source, boolean resolve) throws IOException {
+			switch (tag) {
+				case 'Z': return this.in.readBoolean();
+				case 'B': return this.in.readByte();
+				case 'C': return this.in.readChar();
+				case 'S': return this.in.readShort();
+				case 'I': return this.in.readInt();
+				case 'J': return this.in.readLong();
+				case 'F': return this.in.readFloat();
+				case 'D': return this.in.readDouble();
+				case 's':
+				case 'c':
+					return readString();
+				case 'e':
+					String enumType = readString();
+					String constant = readString();
+					if (!resolve) {
+						return null;
+					}
+					Class enumClass = ClassUtils.resolveClassName(enumType, this.classLoader);
+					return Enum.valueOf(enumClass, constant);
+				case '@':
+					return readAnnotation(source, resolve);
+				default:
+					throw new IOException("Unsupported attribute tag '" + tag + "'");
+			}
+		}
+
+		private String[] readStrings() throws IOException {
+			int count = this.in.readInt();
+			if (count == 0) {
+				return new String[0];
+			}
+			String[] result = new String[count];
+			for (int i = 0; i < count; i++) {
+				result[i] = readString();
+			}
+			return result;
+		}
+
+		@Nullable
+		private String readNullableString() throws IOException {
+			return (this.in.readBoolean() ? readString() : null);
+		}
+
+		private String readString() throws IOException {
+			byte[] bytes = new byte[this.in.readInt()];
+			this.in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.UrlResource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Annotation metadata index loading mechanism for internal use within the framework.
+ *
+ * @since 5.3
+ * @see CandidateComponentsIndexLoader
+ */
+public final class AnnotationMetadataIndexLoader {
+
+	/**
+	 * The location to look for annotation metadata.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	public static final String METADATA_RESOURCE_LOCATION = "META-INF/spring.metadata";
+
+
+	private static final boolean shouldIgnoreIndex =
+			SpringProperties.getFlag(CandidateComponentsIndexLoader.IGNORE_INDEX);
+
+	private static final Log logger = LogFactory.getLog(AnnotationMetadataIndexLoader.class);
+
+	private static final ConcurrentMap<ClassLoader, Object> cache = new ConcurrentReferenceHashMap<>();
+
+	private static final Object NO_INDEX = new Object();
+
+
+	private AnnotationMetadataIndexLoader() {
+	}
+
+
+	/**
+	 * Load the {@link AnnotationMetadataIndex} from {@value #METADATA_RESOURCE_LOCATION},
+	 * using the given class loader. If no index is available, return {@code null}.
+	 * <p>Like the candidate components index, the metadata index is ignored if the
+	 * {@value CandidateComponentsIndexLoader#IGNORE_INDEX} property is set.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the index to use or {@code null} if no index was found
+	 * @throws IllegalStateException if any module index cannot be loaded
+	 */
+	@Nullable
+	public static AnnotationMetadataIndex loadIndex(@Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = AnnotationMetadataIndexLoader.class.getClassLoader();
+		}
+		Object index = cache.computeIfAbsent(classLoaderToUse, AnnotationMetadataIndexLoader::doLoadIndex);
+		return (index != NO_INDEX ? (AnnotationMetadataIndex) index : null);
+	}
+
+	private static Object doLoadIndex(ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return NO_INDEX;
+		}
+
+		try {
+			Enumeration<URL> urls = classLoader.getResources(METADATA_RESOURCE_LOCATION);
+			Map<String, byte[]> entries = new HashMap<>();
+			int indexCount = 0;
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				try (InputStream in = new UrlResource(url).getInputStream()) {
+					AnnotationMetadataIndex.readEntries(in, entries);
+				}
+				indexCount++;
+			}
+			if (logger.isDebugEnabled() && indexCount > 0) {
+				logger.debug("Loaded " + indexCount + " metadata index(es) with " + entries.size() + " entries");
+			}
+			return (!entries.isEmpty() ? new AnnotationMetadataIndex(entries, classLoader) : NO_INDEX);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unable to load indexes from location [" +
+					METADATA_RESOURCE_LOCATION + "]", ex);
+		}
+	}
+
+}
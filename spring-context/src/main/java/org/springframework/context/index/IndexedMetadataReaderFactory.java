@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MetadataReaderFactory} that serves class names recorded in an
+ * {@link AnnotationMetadataIndex} from the index, without opening the
+ * corresponding class files, and delegates to another factory otherwise.
+ *
+ * <p>Readers obtained for a {@link Resource} are always read from the
+ * delegate, since the class name is not known up front.
+ *
+ * @since 5.3
+ * @see AnnotationMetadataIndexLoader
+ */
+public class IndexedMetadataReaderFactory implements MetadataReaderFactory {
+
+	private final MetadataReaderFactory delegate;
+
+	private final AnnotationMetadataIndex index;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+
+	/**
+	 * Create a new IndexedMetadataReaderFactory.
+	 * @param delegate the factory to use for classes not present in the index
+	 * @param index the index to serve metadata from
+	 * @param classLoader the ClassLoader to expose class file resources for
+	 */
+	public IndexedMetadataReaderFactory(MetadataReaderFactory delegate, AnnotationMetadataIndex index,
+			@Nullable ClassLoader classLoader) {
+
+		Assert.notNull(delegate, "Delegate MetadataReaderFactory must not be null");
+		Assert.notNull(index, "AnnotationMetadataIndex must not be null");
+		this.delegate = delegate;
+		this.index = index;
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Return the factory used for classes not present in the index.
+	 */
+	public MetadataReaderFactory getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(String className) throws IOException {
+		AnnotationMetadata metadata = this.index.getAnnotationMetadata(className);
+		if (metadata != null) {
+			return new IndexedMetadataReader(metadata, this.classLoader);
+		}
+		return this.delegate.getMetadataReader(className);
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		return this.delegate.getMetadataReader(resource);
+	}
+
+
+	/**
+	 * {@link MetadataReader} exposing indexed metadata.
+	 */
+	private static class IndexedMetadataReader implements MetadataReader {
+
+		private final AnnotationMetadata metadata;
+
+		private final Resource resource;
+
+		IndexedMetadataReader(AnnotationMetadata metadata, @Nullable ClassLoader classLoader) {
+			this.metadata = metadata;
+			this.resource = new ClassPathResource(
+					ClassUtils.convertClassNameToResourcePath(metadata.getClassName()) +
+					ClassUtils.CLASS_FILE_SUFFIX, classLoader);
+		}
+
+		@Override
+		public Resource getResource() {
+			return this.resource;
+		}
+
+		@Override
+		public ClassMetadata getClassMetadata() {
+			return this.metadata;
+		}
+
+		@Override
+		public AnnotationMetadata getAnnotationMetadata() {
+			return this.metadata;
+		}
+	}
+
+}
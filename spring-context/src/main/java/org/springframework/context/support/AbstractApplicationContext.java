@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
@@ -39,6 +40,7 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.support.ResourceEditorRegistrar;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -46,6 +48,7 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.ApplicationStartupAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.context.EnvironmentAware;
@@ -77,6 +80,8 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
@@ -259,6 +264,11 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Nullable
 	private Set<ApplicationEvent> earlyApplicationEvents;
 	
+	/**
+	 * Application startup metrics.
+	 */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+	
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
 	 */
@@ -369,6 +379,17 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return new StandardEnvironment();
 	}
 	
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "applicationStartup should not be null");
+		this.applicationStartup = applicationStartup;
+	}
+	
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+	
 	/**
 	 * Return this context's internal bean factory as AutowireCapableBeanFactory,
 	 * if already available.
@@ -565,62 +586,72 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
-			// 为刷新容器预处理。prepare == 预处理
-			/*准备工作包括设置启动时间,是否激活标识位,初始化属性源(property ysource)配置*/
-			prepareRefresh();
-			
-			// 告诉子类刷新内部Bean工厂,返回BeanFactory
-			ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
-			
-			// BeanFactory预处理工作,对Bean工厂进行属性填充。prepare == 预处理
-			prepareBeanFactory(beanFactory);
-			
+			StartupStep contextRefresh = this.applicationStartup.start("spring.context.refresh");
 			try {
-				// 允许在上下文子类中对Bean工厂进行后置处理。空方法子类实现,如 web开发中监听Spring容器是否启动
-				postProcessBeanFactory(beanFactory);
-				
-				// 调动已经注册在上下文中的Bean工厂的后置处理器。处理很多注解
-				invokeBeanFactoryPostProcessors(beanFactory);
+				// 为刷新容器预处理。prepare == 预处理
+				/*准备工作包括设置启动时间,是否激活标识位,初始化属性源(property ysource)配置*/
+				prepareRefresh();
 				
-				// 调用Bean的后置处理器。注册bean处理器,这里只是注册功能,真正调用的是getBean方法
-				registerBeanPostProcessors(beanFactory);
+				// 告诉子类刷新内部Bean工厂,返回BeanFactory
+				ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
 				
-				// 初始化此上下文的消息源。
-				initMessageSource();
+				// BeanFactory预处理工作,对Bean工厂进行属性填充。prepare == 预处理
+				prepareBeanFactory(beanFactory);
 				
-				// 初始化此上下文的事件多播器。
-				initApplicationEventMulticaster();
-				
-				// (空的)初始化特定上下文子类中的其他特殊bean。spring boot重写此方法,启动tomcat
-				onRefresh();
-				
-				// 检查侦听器Bean并注册它们到多播器。
-				registerListeners();
-				
-				// 实例化所有剩余的(非lazy-init)单例。
-				finishBeanFactoryInitialization(beanFactory);
-				
-				// 最后一步:容器刷新,发布相应的事件。(Spring cloud也是从这里启动)
-				finishRefresh();
-			} catch (BeansException ex) {
-				if (logger.isWarnEnabled()) {
-					logger.warn("Exception encountered during context initialization - " +
-							"cancelling refresh attempt: " + ex);
+				try {
+					// 允许在上下文子类中对Bean工厂进行后置处理。空方法子类实现,如 web开发中监听Spring容器是否启动
+					postProcessBeanFactory(beanFactory);
+					
+					StartupStep beanPostProcess = this.applicationStartup.start("spring.context.beans.post-process");
+					try {
+						// 调动已经注册在上下文中的Bean工厂的后置处理器。处理很多注解
+						invokeBeanFactoryPostProcessors(beanFactory);
+						
+						// 调用Bean的后置处理器。注册bean处理器,这里只是注册功能,真正调用的是getBean方法
+						registerBeanPostProcessors(beanFactory);
+					} finally {
+						beanPostProcess.end();
+					}
+					
+					// 初始化此上下文的消息源。
+					initMessageSource();
+					
+					// 初始化此上下文的事件多播器。
+					initApplicationEventMulticaster();
+					
+					// (空的)初始化特定上下文子类中的其他特殊bean。spring boot重写此方法,启动tomcat
+					onRefresh();
+					
+					// 检查侦听器Bean并注册它们到多播器。
+					registerListeners();
+					
+					// 实例化所有剩余的(非lazy-init)单例。
+					finishBeanFactoryInitialization(beanFactory);
+					
+					// 最后一步:容器刷新,发布相应的事件。(Spring cloud也是从这里启动)
+					finishRefresh();
+				} catch (BeansException ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Exception encountered during context initialization - " +
+								"cancelling refresh attempt: " + ex);
+					}
+					
+					// 销毁已经创建的单例，以避免悬空资源。
+					destroyBeans();
+					
+					// Reset 'active' flag.
+					// 取消refresh操作,重置容器的同步标识
+					cancelRefresh(ex);
+					
+					// 将异常传播给调用者。
+					throw ex;
+				} finally {
+					// 在Spring的核心中设置常见的内省缓存，因为我们
+					// 可能再也不需要单例bean的元数据了……
+					resetCommonCaches();
 				}
-				
-				// 销毁已经创建的单例，以避免悬空资源。
-				destroyBeans();
-				
-				// Reset 'active' flag.
-				// 取消refresh操作,重置容器的同步标识
-				cancelRefresh(ex);
-				
-				// 将异常传播给调用者。
-				throw ex;
 			} finally {
-				// 在Spring的核心中设置常见的内省缓存，因为我们
-				// 可能再也不需要单例bean的元数据了……
-				resetCommonCaches();
+				contextRefresh.end();
 			}
 		}
 	}
@@ -703,6 +734,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	protected void prepareBeanFactory(ConfigurableListableBeanFactory beanFactory) {
 		// 设置 beanFactory 的 classLoader 为当前 context 的 classLoader
 		beanFactory.setBeanClassLoader(getClassLoader());
+		beanFactory.setApplicationStartup(getApplicationStartup());
 		// 设置 beanfactory 的表达式语言处理器
 		beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(beanFactory.getBeanClassLoader()));
 		// 为 beanFactory 增加一个默认的 propertyEditor,这个主要是对bean的属性等设置管理的一个工具类
@@ -718,6 +750,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		beanFactory.ignoreDependencyInterface(ApplicationEventPublisherAware.class);
 		beanFactory.ignoreDependencyInterface(MessageSourceAware.class);
 		beanFactory.ignoreDependencyInterface(ApplicationContextAware.class);
+		beanFactory.ignoreDependencyInterface(ApplicationStartupAware.class);
 		
 		// 设置几个自动装配的特殊规则,当在进行ioc初始化的如果有多个实现,那么就使用指定的对象进行注入
 		beanFactory.registerResolvableDependency(BeanFactory.class, beanFactory);
@@ -752,6 +785,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		if (!beanFactory.containsLocalBean(SYSTEM_ENVIRONMENT_BEAN_NAME)) {
 			beanFactory.registerSingleton(SYSTEM_ENVIRONMENT_BEAN_NAME, getEnvironment().getSystemEnvironment());
 		}
+		if (!beanFactory.containsLocalBean(APPLICATION_STARTUP_BEAN_NAME)) {
+			beanFactory.registerSingleton(APPLICATION_STARTUP_BEAN_NAME, getApplicationStartup());
+		}
 	}
 	
 	/**
@@ -944,6 +980,14 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		// 冻结所有Bean定义,说明注册的Bean定义将不被修改或任何进一步的处理
 		beanFactory.freezeConfiguration();
 		
+		// 如果定义了后台预热执行器,则非基础设施单例在后台按依赖顺序创建
+		if (beanFactory instanceof DefaultListableBeanFactory &&
+				beanFactory.containsBean(BACKGROUND_PRE_INSTANTIATION_EXECUTOR_BEAN_NAME) &&
+				beanFactory.isTypeMatch(BACKGROUND_PRE_INSTANTIATION_EXECUTOR_BEAN_NAME, Executor.class)) {
+			((DefaultListableBeanFactory) beanFactory).setBackgroundPreInstantiationExecutor(
+					beanFactory.getBean(BACKGROUND_PRE_INSTANTIATION_EXECUTOR_BEAN_NAME, Executor.class));
+		}
+		
 		// 实例化所有剩余的(非lazy-init)单例。
 		beanFactory.preInstantiateSingletons();
 	}
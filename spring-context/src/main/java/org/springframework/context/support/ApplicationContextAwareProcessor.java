@@ -21,6 +21,7 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.EmbeddedValueResolver;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationStartupAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.context.EnvironmentAware;
@@ -39,7 +40,8 @@ import java.security.PrivilegedAction;
  * {@link StringValueResolver} for the {@code ApplicationContext} to beans that
  * implement the {@link EnvironmentAware}, {@link EmbeddedValueResolverAware},
  * {@link ResourceLoaderAware}, {@link ApplicationEventPublisherAware},
- * {@link MessageSourceAware}, and/or {@link ApplicationContextAware} interfaces.
+ * {@link MessageSourceAware}, {@link ApplicationStartupAware}, and/or
+ * {@link ApplicationContextAware} interfaces.
  *
  * <p>Implemented interfaces are satisfied in the order in which they are
  * mentioned above.
@@ -54,6 +56,7 @@ import java.security.PrivilegedAction;
  * @see org.springframework.context.ResourceLoaderAware
  * @see org.springframework.context.ApplicationEventPublisherAware
  * @see org.springframework.context.MessageSourceAware
+ * @see org.springframework.context.ApplicationStartupAware
  * @see org.springframework.context.ApplicationContextAware
  * @see org.springframework.context.support.AbstractApplicationContext#refresh()
  * @since 10.10.2003
@@ -77,7 +80,8 @@ class ApplicationContextAwareProcessor implements BeanPostProcessor {
 	public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
 		if (!(bean instanceof EnvironmentAware || bean instanceof EmbeddedValueResolverAware ||
 				bean instanceof ResourceLoaderAware || bean instanceof ApplicationEventPublisherAware ||
-				bean instanceof MessageSourceAware || bean instanceof ApplicationContextAware)) {
+				bean instanceof MessageSourceAware || bean instanceof ApplicationContextAware ||
+				bean instanceof ApplicationStartupAware)) {
 			return bean;
 		}
 		
@@ -120,6 +124,9 @@ class ApplicationContextAwareProcessor implements BeanPostProcessor {
 		if (bean instanceof MessageSourceAware) {
 			((MessageSourceAware) bean).setMessageSource(this.applicationContext);
 		}
+		if (bean instanceof ApplicationStartupAware) {
+			((ApplicationStartupAware) bean).setApplicationStartup(this.applicationContext.getApplicationStartup());
+		}
 		if (bean instanceof ApplicationContextAware) {
 			((ApplicationContextAware) bean).setApplicationContext(this.applicationContext);
 		}
@@ -30,6 +30,8 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 
 import java.util.ArrayList;
@@ -115,7 +117,7 @@ final class PostProcessorRegistrationDelegate {
 			// 合并list,不重要(为什么要合并,因为还有自己的)
 			registryProcessors.addAll(currentRegistryProcessors);
 			// 最重要,注意这里是方法调用执行所有BeanDefinitionRegistryPostProcessor
-			invokeBeanDefinitionRegistryPostProcessors(currentRegistryProcessors, registry);
+			invokeBeanDefinitionRegistryPostProcessors(currentRegistryProcessors, registry, beanFactory.getApplicationStartup());
 			// 执行完成了所有BeanDefinitionRegistryPostProcessor这个list只是一个临时变量,故而要清除
 			currentRegistryProcessors.clear();
 			
@@ -132,7 +134,7 @@ final class PostProcessorRegistrationDelegate {
 			}
 			sortPostProcessors(currentRegistryProcessors, beanFactory);
 			registryProcessors.addAll(currentRegistryProcessors);
-			invokeBeanDefinitionRegistryPostProcessors(currentRegistryProcessors, registry);
+			invokeBeanDefinitionRegistryPostProcessors(currentRegistryProcessors, registry, beanFactory.getApplicationStartup());
 			currentRegistryProcessors.clear();
 			
 			// Finally, invoke all other BeanDefinitionRegistryPostProcessors until no further ones appear.
@@ -152,7 +154,7 @@ final class PostProcessorRegistrationDelegate {
 				}
 				sortPostProcessors(currentRegistryProcessors, beanFactory);
 				registryProcessors.addAll(currentRegistryProcessors);
-				invokeBeanDefinitionRegistryPostProcessors(currentRegistryProcessors, registry);
+				invokeBeanDefinitionRegistryPostProcessors(currentRegistryProcessors, registry, beanFactory.getApplicationStartup());
 				currentRegistryProcessors.clear();
 			}
 			
@@ -309,10 +311,16 @@ final class PostProcessorRegistrationDelegate {
 	 */
 	private static void invokeBeanDefinitionRegistryPostProcessors(
 			Collection<? extends BeanDefinitionRegistryPostProcessor> postProcessors,
-			BeanDefinitionRegistry registry) {
+			BeanDefinitionRegistry registry, ApplicationStartup applicationStartup) {
 		
 		for (BeanDefinitionRegistryPostProcessor postProcessor : postProcessors) {
-			postProcessor.postProcessBeanDefinitionRegistry(registry);
+			StartupStep postProcessBeanDefRegistry = applicationStartup.start("spring.context.beandef-registry.post-process")
+					.tag("postProcessor", postProcessor::toString);
+			try {
+				postProcessor.postProcessBeanDefinitionRegistry(registry);
+			} finally {
+				postProcessBeanDefRegistry.end();
+			}
 		}
 	}
 	
@@ -324,7 +332,13 @@ final class PostProcessorRegistrationDelegate {
 			ConfigurableListableBeanFactory beanFactory) {
 		
 		for (BeanFactoryPostProcessor postProcessor : postProcessors) {
-			postProcessor.postProcessBeanFactory(beanFactory);
+			StartupStep postProcessBeanFactory = beanFactory.getApplicationStartup().start("spring.context.bean-factory.post-process")
+					.tag("postProcessor", postProcessor::toString);
+			try {
+				postProcessor.postProcessBeanFactory(beanFactory);
+			} finally {
+				postProcessBeanFactory.end();
+			}
 		}
 	}
 	
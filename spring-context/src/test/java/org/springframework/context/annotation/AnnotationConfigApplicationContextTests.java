@@ -17,6 +17,8 @@
 package org.springframework.context.annotation;
 
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
@@ -390,6 +392,36 @@ class AnnotationConfigApplicationContextTests {
 		assertThat(context.getBeanNamesForType(TypedFactoryBean.class)).hasSize(1);
 	}
 
+	@Test
+	void componentScanWithScanningForkJoinPool() {
+		AtomicInteger workers = new AtomicInteger();
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4, pool -> {
+			workers.incrementAndGet();
+			return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		}, null, false);
+		try {
+			AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+			context.setScanningForkJoinPool(forkJoinPool);
+			context.register(ScanningConfig.class);
+			context.refresh();
+
+			context.getBean(uncapitalize(ConfigForScanning.class.getSimpleName()));
+			context.getBean("testBean"); // contributed by ConfigForScanning
+			context.getBean(uncapitalize(ComponentForScanning.class.getSimpleName()));
+			context.getBean(uncapitalize(Jsr330NamedForScanning.class.getSimpleName()));
+			assertThat(context.getBeanNamesForType(ForkJoinPool.class)).isEmpty();
+			assertThat(workers.get()).isGreaterThan(0);
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+
+	@Configuration
+	@ComponentScan("org.springframework.context.annotation6")
+	static class ScanningConfig {
+	}
 
 	@Configuration
 	static class Config {
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link AnnotationConfigSnapshotApplicationContext} and
+ * {@link AnnotationConfigSnapshotGenerator}.
+ */
+class AnnotationConfigSnapshotApplicationContextTests {
+
+	@Test
+	void loadSnapshotWithConfigurationClasses() throws IOException {
+		ByteArrayResource snapshot = generate(new AnnotationConfigSnapshotGenerator(SnapshotConfig.class));
+		AnnotationConfigSnapshotApplicationContext context = new AnnotationConfigSnapshotApplicationContext(snapshot);
+
+		Holder holder = context.getBean(Holder.class);
+		assertThat(holder.value).isSameAs(context.getBean("value"));
+		assertThat(context.getBean(SnapshotConfig.class).value()).isSameAs(holder.value);
+		assertThat(context.getBean(ImportedConfig.class).importMetadata.getClassName())
+				.isEqualTo(SnapshotConfig.class.getName());
+		assertThat(context.containsBean("conditional")).isFalse();
+		context.close();
+	}
+
+	@Test
+	void loadSnapshotWithProfile() throws IOException {
+		AnnotationConfigSnapshotGenerator generator = new AnnotationConfigSnapshotGenerator(SnapshotConfig.class);
+		generator.getEnvironment().setActiveProfiles("test");
+		ByteArrayResource snapshot = generate(generator);
+
+		AnnotationConfigSnapshotApplicationContext context = new AnnotationConfigSnapshotApplicationContext();
+		context.getEnvironment().setActiveProfiles("test");
+		context.load(snapshot);
+		context.refresh();
+		assertThat(context.getBean("conditional")).isEqualTo("test");
+		context.close();
+	}
+
+	@Test
+	void rejectSnapshotForDifferentProfiles() throws IOException {
+		ByteArrayResource snapshot = generate(new AnnotationConfigSnapshotGenerator(SnapshotConfig.class));
+		AnnotationConfigSnapshotApplicationContext context = new AnnotationConfigSnapshotApplicationContext();
+		context.getEnvironment().setActiveProfiles("test");
+		context.load(snapshot);
+		assertThatIllegalStateException().isThrownBy(context::refresh).withMessageContaining("test");
+	}
+
+	@Test
+	void loadSnapshotWithPropertySources() throws IOException {
+		ByteArrayResource snapshot = generate(new AnnotationConfigSnapshotGenerator(PropertySourceConfig.class));
+		AnnotationConfigSnapshotApplicationContext context = new AnnotationConfigSnapshotApplicationContext(snapshot);
+
+		assertThat(context.getEnvironment().getProperty("from.p1")).isEqualTo("p1Value");
+		assertThat(context.getEnvironment().getProperty("from.p2")).isEqualTo("p2Value");
+		assertThat(context.getEnvironment().getProperty("testbean.name")).isEqualTo("p2TestBean");
+		context.close();
+	}
+
+	@Test
+	void rejectConditionOtherThanProfile() {
+		AnnotationConfigSnapshotGenerator generator = new AnnotationConfigSnapshotGenerator(ConditionalConfig.class);
+		assertThatIllegalStateException().isThrownBy(() -> generate(generator))
+				.withMessageContaining(NeverCondition.class.getName());
+	}
+
+
+	private static ByteArrayResource generate(AnnotationConfigSnapshotGenerator generator) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.generate(out);
+		return new ByteArrayResource(out.toByteArray());
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	static class SnapshotConfig {
+
+		@Bean
+		public Object value() {
+			return new Object();
+		}
+
+		@Bean
+		public Holder holder() {
+			return new Holder(value());
+		}
+
+		@Bean
+		@Profile("test")
+		public String conditional() {
+			return "test";
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	@PropertySource("classpath:org/springframework/context/annotation/p2.properties")
+	@PropertySource(value = "classpath:org/springframework/context/annotation/missing.properties",
+			ignoreResourceNotFound = true)
+	static class PropertySourceConfig {
+	}
+
+
+	@Configuration
+	static class ConditionalConfig {
+
+		@Bean
+		@Conditional(NeverCondition.class)
+		public String conditional() {
+			return "never";
+		}
+	}
+
+
+	static class NeverCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return false;
+		}
+	}
+
+
+	static class Holder {
+
+		final Object value;
+
+		Holder(Object value) {
+			this.value = value;
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.context.annotation;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 import example.gh24375.AnnotatedComponent;
@@ -102,6 +103,21 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertBeanDefinitionType(candidates);
 	}
 
+	@Test
+	public void defaultsWithParallelScan() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+			provider.setResourceLoader(new DefaultResourceLoader(
+					CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader())));
+			provider.setForkJoinPool(forkJoinPool);
+			testDefault(provider);
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
 	@Test
 	public void antStylePackageWithScan() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
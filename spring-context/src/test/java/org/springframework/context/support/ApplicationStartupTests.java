@@ -0,0 +1,127 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.FatalBeanException;
+import org.springframework.context.ApplicationStartupAware;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.buffering.BufferingApplicationStartup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ApplicationStartup} support in application contexts.
+ */
+class ApplicationStartupTests {
+
+	@Test
+	void refreshRecordsStartupSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(256);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(StartupConfig.class);
+		context.refresh();
+
+		List<String> names = applicationStartup.getBufferedTimeline().getEvents().stream()
+				.map(event -> event.getStartupStep().getName()).collect(Collectors.toList());
+		assertThat(names).contains("spring.context.refresh", "spring.context.beans.post-process",
+				"spring.context.beandef-registry.post-process", "spring.context.bean-factory.post-process",
+				"spring.context.config-classes.parse", "spring.context.config-classes.enhance",
+				"spring.beans.instantiate");
+		assertThat(names.get(names.size() - 1)).isEqualTo("spring.context.refresh");
+		assertThat(applicationStartup.getBufferedTimeline().getEvents().stream()
+				.map(event -> event.getStartupStep())
+				.filter(step -> step.getName().equals("spring.beans.instantiate"))
+				.flatMap(step -> tagValues(step, "beanName").stream()))
+				.contains("startupAwareBean");
+		context.close();
+	}
+
+	@Test
+	void applicationStartupIsExposedToBeans() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(256);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(StartupConfig.class);
+		context.refresh();
+
+		assertThat(context.getBean(StartupAwareBean.class).applicationStartup).isSameAs(applicationStartup);
+		assertThat(context.getBean(ApplicationStartup.class)).isSameAs(applicationStartup);
+		assertThat(context.getBeanFactory().getApplicationStartup()).isSameAs(applicationStartup);
+		context.close();
+	}
+
+	@Test
+	void failedRefreshEndsStartupSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(256);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			throw new FatalBeanException("failure");
+		});
+		assertThatExceptionOfType(FatalBeanException.class).isThrownBy(context::refresh);
+
+		List<String> names = applicationStartup.getBufferedTimeline().getEvents().stream()
+				.map(event -> event.getStartupStep().getName()).collect(Collectors.toList());
+		assertThat(names).containsSubsequence("spring.context.bean-factory.post-process",
+				"spring.context.beans.post-process", "spring.context.refresh");
+		assertThat(applicationStartup.start("spring.test").getParentId()).isNull();
+	}
+
+	private static List<String> tagValues(StartupStep step, String key) {
+		List<String> values = new ArrayList<>();
+		for (StartupStep.Tag tag : step.getTags()) {
+			if (tag.getKey().equals(key)) {
+				values.add(tag.getValue());
+			}
+		}
+		return values;
+	}
+
+
+	@Configuration
+	static class StartupConfig {
+
+		@Bean
+		public StartupAwareBean startupAwareBean() {
+			return new StartupAwareBean();
+		}
+	}
+
+
+	static class StartupAwareBean implements ApplicationStartupAware {
+
+		ApplicationStartup applicationStartup;
+
+		@Override
+		public void setApplicationStartup(ApplicationStartup applicationStartup) {
+			this.applicationStartup = applicationStartup;
+		}
+	}
+
+}
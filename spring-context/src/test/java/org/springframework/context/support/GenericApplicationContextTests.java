@@ -16,6 +16,10 @@
 
 package org.springframework.context.support;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
@@ -23,6 +27,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.util.ObjectUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -201,6 +206,27 @@ public class GenericApplicationContextTests {
 		assertThat(context.getBeansOfType(BeanC.class).values().iterator().next()).isSameAs(context.getBean(BeanC.class));
 	}
 
+	@Test
+	public void backgroundPreInstantiationExecutor() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			GenericApplicationContext context = new GenericApplicationContext();
+			context.getBeanFactory().registerSingleton(
+					ConfigurableApplicationContext.BACKGROUND_PRE_INSTANTIATION_EXECUTOR_BEAN_NAME, executor);
+			context.registerBean("b", BeanB.class, BeanB::new);
+			context.refresh();
+
+			assertThat(context.getDefaultListableBeanFactory().getBackgroundPreInstantiationExecutor()).isSameAs(executor);
+			assertThat(context.getDefaultListableBeanFactory().awaitBackgroundPreInstantiation(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(context.getBeanFactory().containsSingleton("b")).isTrue();
+			assertThat(context.getBean(BeanB.class).applicationContext).isSameAs(context);
+			context.close();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 
 	static class BeanA {
 
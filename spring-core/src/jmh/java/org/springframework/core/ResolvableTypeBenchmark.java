@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link ResolvableType} creation and generics resolution.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Field field;
+
+		public Method method;
+
+		public ResolvableType stringListType;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.field = Sample.class.getField("map");
+			this.method = Sample.class.getMethod("list");
+			this.stringListType = ResolvableType.forClassWithGenerics(List.class, String.class);
+		}
+	}
+
+	@Benchmark
+	public ResolvableType forClass() {
+		return ResolvableType.forClass(StringList.class);
+	}
+
+	@Benchmark
+	public void forFieldGenerics(BenchmarkState state, Blackhole bh) {
+		ResolvableType type = ResolvableType.forField(state.field);
+		bh.consume(type.getGeneric(0).resolve());
+		bh.consume(type.getGeneric(1, 0).resolve());
+	}
+
+	@Benchmark
+	public Class<?> forMethodReturnType(BenchmarkState state) {
+		return ResolvableType.forMethodReturnType(state.method).resolveGeneric(0);
+	}
+
+	@Benchmark
+	public ResolvableType asCollection() {
+		return ResolvableType.forClass(StringList.class).asCollection();
+	}
+
+	@Benchmark
+	public boolean isAssignableFrom(BenchmarkState state) {
+		return state.stringListType.isAssignableFrom(ResolvableType.forClass(StringList.class));
+	}
+
+
+	@SuppressWarnings("serial")
+	static class StringList extends java.util.ArrayList<String> {
+	}
+
+
+	public static class Sample {
+
+		public Map<String, List<Integer>> map;
+
+		public List<String> list() {
+			return null;
+		}
+	}
+
+}
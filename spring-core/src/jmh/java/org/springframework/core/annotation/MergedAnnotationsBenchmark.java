@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+/**
+ * Benchmarks for {@link MergedAnnotations} lookups on classes and methods,
+ * covering direct, meta-present and missing annotations.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.method = AnnotatedSubclass.class.getMethod("handle");
+		}
+	}
+
+	@Benchmark
+	public boolean isPresentDirect() {
+		return MergedAnnotations.from(AnnotatedClass.class).isPresent(Composed.class);
+	}
+
+	@Benchmark
+	public boolean isPresentMeta() {
+		return MergedAnnotations.from(AnnotatedClass.class).isPresent(Meta.class);
+	}
+
+	@Benchmark
+	public boolean isPresentMissing() {
+		return MergedAnnotations.from(AnnotatedClass.class).isPresent(Deprecated.class);
+	}
+
+	@Benchmark
+	public String getAliasedAttribute() {
+		return MergedAnnotations.from(AnnotatedClass.class).get(Meta.class).getString("value");
+	}
+
+	@Benchmark
+	public boolean typeHierarchyClass() {
+		return MergedAnnotations.from(AnnotatedSubclass.class, SearchStrategy.TYPE_HIERARCHY).isPresent(Meta.class);
+	}
+
+	@Benchmark
+	public Object typeHierarchyMethod(BenchmarkState state) {
+		return MergedAnnotations.from(state.method, SearchStrategy.TYPE_HIERARCHY)
+				.get(Composed.class).synthesize(MergedAnnotation::isPresent).orElse(null);
+	}
+
+	@Benchmark
+	public Composed findMergedAnnotation(BenchmarkState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.method, Composed.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Meta {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Meta
+	public @interface Composed {
+
+		@AliasFor(annotation = Meta.class)
+		String value() default "";
+	}
+
+
+	@Composed("test")
+	public static class AnnotatedClass {
+
+		@Composed("handle")
+		public void handle() {
+		}
+	}
+
+
+	public static class AnnotatedSubclass extends AnnotatedClass {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
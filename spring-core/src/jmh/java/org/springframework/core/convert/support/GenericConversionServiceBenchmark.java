@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for {@link GenericConversionService#convert} with the default
+ * converters, for simple, collection and array conversions, with and without
+ * {@link GenericConversionService#setCompileConversions compiled conversions}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class GenericConversionServiceBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"false", "true"})
+		public boolean compileConversions;
+
+		public GenericConversionService conversionService;
+
+		public CompiledConverter compiledConverter;
+
+		public List<String> source = Arrays.asList("1", "2", "3", "4", "5");
+
+		public TypeDescriptor sourceType;
+
+		public TypeDescriptor targetType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.conversionService.setCompileConversions(this.compileConversions);
+			this.sourceType = TypeDescriptor.forObject(this.source);
+			this.targetType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+			this.compiledConverter = this.conversionService.compile(this.sourceType, this.targetType);
+		}
+	}
+
+	@Benchmark
+	public Integer stringToInteger(BenchmarkState state) {
+		return state.conversionService.convert("42", Integer.class);
+	}
+
+	@Benchmark
+	public Boolean stringToBoolean(BenchmarkState state) {
+		return state.conversionService.convert("true", Boolean.class);
+	}
+
+	@Benchmark
+	public Object listOfStringToListOfInteger(BenchmarkState state) {
+		return state.conversionService.convert(state.source, state.sourceType, state.targetType);
+	}
+
+	@Benchmark
+	public Object listOfStringToListOfIntegerPrecompiled(BenchmarkState state) {
+		return state.compiledConverter.convert(state.source);
+	}
+
+	@Benchmark
+	public Integer[] stringToIntegerArray(BenchmarkState state) {
+		return state.conversionService.convert("1,2,3,4,5", Integer[].class);
+	}
+
+	@Benchmark
+	public boolean canConvert(BenchmarkState state) {
+		return state.conversionService.canConvert(String.class, Long.class);
+	}
+
+}
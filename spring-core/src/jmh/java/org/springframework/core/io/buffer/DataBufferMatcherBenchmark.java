@@ -0,0 +1,90 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for finding delimiters in data buffers with {@link DataBufferUtils.Matcher},
+ * comparing the default word-scanning matcher with the Knuth-Morris-Pratt matcher.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DataBufferMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"wordScanning", "knuthMorrisPratt"})
+		public String matcher;
+
+		@Param({"\n", "\r\n"})
+		public String delimiter;
+
+		@Param({"32", "256", "4096"})
+		public int lineLength;
+
+		@Param({"false", "true"})
+		public boolean direct;
+
+		public DataBuffer dataBuffer;
+
+		public DataBufferUtils.Matcher delimiterMatcher;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			byte[] delimiterBytes = this.delimiter.getBytes(StandardCharsets.UTF_8);
+			byte[] line = new byte[this.lineLength];
+			Arrays.fill(line, (byte) 'x');
+			System.arraycopy(delimiterBytes, 0, line, line.length - delimiterBytes.length, delimiterBytes.length);
+
+			DataBufferFactory bufferFactory = new DefaultDataBufferFactory(this.direct);
+			int lines = Math.max(1, 64 * 1024 / this.lineLength);
+			this.dataBuffer = bufferFactory.allocateBuffer(lines * this.lineLength);
+			for (int i = 0; i < lines; i++) {
+				this.dataBuffer.write(line);
+			}
+			this.delimiterMatcher = ("wordScanning".equals(this.matcher) ?
+					DataBufferUtils.matcher(delimiterBytes) :
+					DataBufferUtils.knuthMorrisPrattMatcher(delimiterBytes));
+		}
+	}
+
+	@Benchmark
+	public int matchAll(BenchmarkState state) {
+		DataBuffer dataBuffer = state.dataBuffer;
+		DataBufferUtils.Matcher matcher = state.delimiterMatcher;
+		int count = 0;
+		int endIndex;
+		dataBuffer.readPosition(0);
+		while ((endIndex = matcher.match(dataBuffer)) != -1) {
+			dataBuffer.readPosition(endIndex + 1);
+			count++;
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher} matching and URI template extraction,
+ * with and without the pattern cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"true", "false"})
+		public boolean cachePatterns;
+
+		public AntPathMatcher matcher;
+
+		public String[] patterns = {"/api/projects", "/api/projects/{project}", "/api/projects/{project}/releases",
+				"/api/projects/{project}/releases/{version:.+}", "/static/**/*.css", "/static/**/*.js", "/**"};
+
+		public String[] paths = {"/api/projects", "/api/projects/spring-framework/releases",
+				"/api/projects/spring-framework/releases/5.3.0", "/static/css/app/main.css", "/unknown/path"};
+
+		@Setup
+		public void setup() {
+			this.matcher = new AntPathMatcher();
+			this.matcher.setCachePatterns(this.cachePatterns);
+		}
+	}
+
+	@Benchmark
+	public void match(BenchmarkState state, Blackhole bh) {
+		for (String path : state.paths) {
+			for (String pattern : state.patterns) {
+				bh.consume(state.matcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public Map<String, String> extractUriTemplateVariables(BenchmarkState state) {
+		return state.matcher.extractUriTemplateVariables("/api/projects/{project}/releases/{version:.+}",
+				"/api/projects/spring-framework/releases/5.3.0");
+	}
+
+	@Benchmark
+	public int comparePatterns(BenchmarkState state) {
+		return state.matcher.getPatternComparator("/api/projects/spring-framework/releases")
+				.compare("/api/projects/{project}/releases", "/**");
+	}
+
+}
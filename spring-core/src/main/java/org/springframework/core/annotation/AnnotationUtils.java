@@ -1289,6 +1289,7 @@ public abstract class AnnotationUtils {
 	public static void clearCache() {
 		AnnotationTypeMappings.clearCache();
 		AnnotationsScanner.clearCache();
+		TypeMappedAnnotations.clearCache();
 	}
 
 
@@ -110,6 +110,9 @@ final class TypeMappedAnnotation<A extends Annotation> extends AbstractMergedAnn
 
 	private final int[] resolvedMirrors;
 
+	@Nullable
+	private volatile MergedAnnotation<A> nonMergedAttributes;
+
 
 	private TypeMappedAnnotation(AnnotationTypeMapping mapping, @Nullable ClassLoader classLoader,
 			@Nullable Object source, @Nullable Object rootAttributes, ValueExtractor valueExtractor,
@@ -263,9 +266,17 @@ final class TypeMappedAnnotation<A extends Annotation> extends AbstractMergedAnn
 
 	@Override
 	public MergedAnnotation<A> withNonMergedAttributes() {
-		return new TypeMappedAnnotation<>(this.mapping, this.classLoader, this.source, this.rootAttributes,
-				this.valueExtractor, this.aggregateIndex, false, this.attributeFilter,
-				this.resolvedRootMirrors, this.resolvedMirrors);
+		if (!this.useMergedValues) {
+			return this;
+		}
+		MergedAnnotation<A> nonMergedAttributes = this.nonMergedAttributes;
+		if (nonMergedAttributes == null) {
+			nonMergedAttributes = new TypeMappedAnnotation<>(this.mapping, this.classLoader, this.source,
+					this.rootAttributes, this.valueExtractor, this.aggregateIndex, false, this.attributeFilter,
+					this.resolvedRootMirrors, this.resolvedMirrors);
+			this.nonMergedAttributes = nonMergedAttributes;
+		}
+		return nonMergedAttributes;
 	}
 
 	@Override
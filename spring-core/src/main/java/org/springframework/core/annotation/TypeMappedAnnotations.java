@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,23 +18,34 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * {@link MergedAnnotations} implementation that searches for and adapts
  * annotations and meta-annotations using {@link AnnotationTypeMappings}.
  *
+ * <p>Instances for a {@link Class} or {@link Member} with the default
+ * {@link AnnotationFilter#PLAIN PLAIN} filter are shared per search strategy
+ * and repeatable containers, remembering the results of {@code isPresent}
+ * and {@code get} lookups without a predicate. Repeated lookups therefore
+ * return the same {@link MergedAnnotation} instance and, as a consequence,
+ * the same synthesized annotation.
+ *
  * @author Phillip Webb
  * @since 5.2
  */
@@ -46,6 +57,17 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	static final MergedAnnotations NONE = new TypeMappedAnnotations(
 			null, new Annotation[0], RepeatableContainers.none(), AnnotationFilter.ALL);
 
+	/**
+	 * Maximum number of annotation types for which the results of a shared
+	 * instance are remembered.
+	 */
+	static final int MAX_CACHED_RESULTS = 64;
+
+	private static final int SHARED_INSTANCES_PER_ELEMENT = SearchStrategy.values().length * 2;
+
+	private static final Map<AnnotatedElement, TypeMappedAnnotations[]> sharedInstanceCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	@Nullable
 	private final Object source;
@@ -66,9 +88,12 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	@Nullable
 	private volatile List<Aggregate> aggregates;
 
+	@Nullable
+	private final ResultCache resultCache;
+
 
 	private TypeMappedAnnotations(AnnotatedElement element, SearchStrategy searchStrategy,
-			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter, boolean shared) {
 
 		this.source = element;
 		this.element = element;
@@ -76,6 +101,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.annotations = null;
 		this.repeatableContainers = repeatableContainers;
 		this.annotationFilter = annotationFilter;
+		this.resultCache = (shared ? new ResultCache() : null);
 	}
 
 	private TypeMappedAnnotations(@Nullable Object source, Annotation[] annotations,
@@ -87,6 +113,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		this.annotations = annotations;
 		this.repeatableContainers = repeatableContainers;
 		this.annotationFilter = annotationFilter;
+		this.resultCache = null;
 	}
 
 
@@ -95,8 +122,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return false;
 		}
-		return Boolean.TRUE.equals(scan(annotationType,
-				IsPresent.get(this.repeatableContainers, this.annotationFilter, false)));
+		return isPresent(annotationType, false);
 	}
 
 	@Override
@@ -104,8 +130,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return false;
 		}
-		return Boolean.TRUE.equals(scan(annotationType,
-				IsPresent.get(this.repeatableContainers, this.annotationFilter, false)));
+		return isPresent(annotationType, false);
 	}
 
 	@Override
@@ -113,8 +138,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return false;
 		}
-		return Boolean.TRUE.equals(scan(annotationType,
-				IsPresent.get(this.repeatableContainers, this.annotationFilter, true)));
+		return isPresent(annotationType, true);
 	}
 
 	@Override
@@ -122,8 +146,23 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return false;
 		}
+		return isPresent(annotationType, true);
+	}
+
+	private boolean isPresent(Object annotationType, boolean directOnly) {
+		ResultCache resultCache = this.resultCache;
+		if (resultCache != null) {
+			Map<Object, Boolean> results = (directOnly ? resultCache.directlyPresent : resultCache.present);
+			Boolean result = results.get(annotationType);
+			if (result == null) {
+				result = Boolean.TRUE.equals(scan(annotationType,
+						IsPresent.get(this.repeatableContainers, this.annotationFilter, directOnly)));
+				resultCache.put(results, annotationType, result);
+			}
+			return result;
+		}
 		return Boolean.TRUE.equals(scan(annotationType,
-				IsPresent.get(this.repeatableContainers, this.annotationFilter, true)));
+				IsPresent.get(this.repeatableContainers, this.annotationFilter, directOnly)));
 	}
 
 	@Override
@@ -146,9 +185,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
-		MergedAnnotation<A> result = scan(annotationType,
-				new MergedAnnotationFinder<>(annotationType, predicate, selector));
-		return (result != null ? result : MergedAnnotation.missing());
+		return find(annotationType, predicate, selector);
 	}
 
 	@Override
@@ -171,9 +208,31 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (this.annotationFilter.matches(annotationType)) {
 			return MergedAnnotation.missing();
 		}
+		return find(annotationType, predicate, selector);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <A extends Annotation> MergedAnnotation<A> find(Object annotationType,
+			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
+			@Nullable MergedAnnotationSelector<A> selector) {
+
+		Map<Object, MergedAnnotation<?>> results = (predicate == null && this.resultCache != null ?
+				this.resultCache.getResults(selector) : null);
+		if (results != null) {
+			MergedAnnotation<A> result = (MergedAnnotation<A>) results.get(annotationType);
+			if (result != null) {
+				return result;
+			}
+		}
 		MergedAnnotation<A> result = scan(annotationType,
 				new MergedAnnotationFinder<>(annotationType, predicate, selector));
-		return (result != null ? result : MergedAnnotation.missing());
+		if (result == null) {
+			result = MergedAnnotation.missing();
+		}
+		if (results != null) {
+			this.resultCache.put(results, annotationType, result);
+		}
+		return result;
 	}
 
 	@Override
@@ -251,7 +310,34 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (AnnotationsScanner.isKnownEmpty(element, searchStrategy)) {
 			return NONE;
 		}
-		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter);
+		int index = getSharedInstanceIndex(element, searchStrategy, repeatableContainers, annotationFilter);
+		if (index == -1) {
+			return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter, false);
+		}
+		TypeMappedAnnotations[] sharedInstances = sharedInstanceCache.computeIfAbsent(
+				element, key -> new TypeMappedAnnotations[SHARED_INSTANCES_PER_ELEMENT]);
+		TypeMappedAnnotations annotations = sharedInstances[index];
+		if (annotations == null) {
+			annotations = new TypeMappedAnnotations(
+					element, searchStrategy, repeatableContainers, annotationFilter, true);
+			sharedInstances[index] = annotations;
+		}
+		return annotations;
+	}
+
+	private static int getSharedInstanceIndex(AnnotatedElement element, SearchStrategy searchStrategy,
+			RepeatableContainers repeatableContainers, AnnotationFilter annotationFilter) {
+
+		if (annotationFilter != AnnotationFilter.PLAIN || !(element instanceof Class || element instanceof Member)) {
+			return -1;
+		}
+		if (repeatableContainers == RepeatableContainers.none()) {
+			return searchStrategy.ordinal() * 2;
+		}
+		if (repeatableContainers == RepeatableContainers.standardRepeatables()) {
+			return searchStrategy.ordinal() * 2 + 1;
+		}
+		return -1;
 	}
 
 	static MergedAnnotations from(@Nullable Object source, Annotation[] annotations,
@@ -263,6 +349,10 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return new TypeMappedAnnotations(source, annotations, repeatableContainers, annotationFilter);
 	}
 
+	static void clearCache() {
+		sharedInstanceCache.clear();
+	}
+
 	private static boolean isMappingForType(AnnotationTypeMapping mapping,
 			AnnotationFilter annotationFilter, @Nullable Object requiredType) {
 
@@ -272,6 +362,39 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 	}
 
 
+	/**
+	 * Lookup results of a shared {@link TypeMappedAnnotations} instance, keyed
+	 * by annotation type or annotation type name.
+	 */
+	private static final class ResultCache {
+
+		final Map<Object, Boolean> present = new ConcurrentHashMap<>(8);
+
+		final Map<Object, Boolean> directlyPresent = new ConcurrentHashMap<>(8);
+
+		final Map<Object, MergedAnnotation<?>> nearest = new ConcurrentHashMap<>(8);
+
+		final Map<Object, MergedAnnotation<?>> firstDirectlyDeclared = new ConcurrentHashMap<>(8);
+
+		@Nullable
+		Map<Object, MergedAnnotation<?>> getResults(@Nullable MergedAnnotationSelector<?> selector) {
+			if (selector == null || selector == MergedAnnotationSelectors.nearest()) {
+				return this.nearest;
+			}
+			if (selector == MergedAnnotationSelectors.firstDirectlyDeclared()) {
+				return this.firstDirectlyDeclared;
+			}
+			return null;
+		}
+
+		<V> void put(Map<Object, V> results, Object annotationType, V result) {
+			if (results.size() < MAX_CACHED_RESULTS) {
+				results.put(annotationType, result);
+			}
+		}
+	}
+
+
 	/**
 	 * {@link AnnotationsProcessor} used to detect if an annotation is directly
 	 * present or meta-present.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.core.codec;
 
+import java.io.IOException;
 import java.util.Map;
 
 import reactor.core.publisher.Flux;
@@ -44,8 +45,15 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 	 */
 	public static final int DEFAULT_BUFFER_SIZE = StreamUtils.BUFFER_SIZE;
 
+	/**
+	 * The maximum size of a memory-mapped region per data buffer.
+	 */
+	private static final int MAPPED_REGION_SIZE = 4 * 1024 * 1024;
+
 	private final int bufferSize;
 
+	private long memoryMappingThreshold = -1;
+
 
 	public ResourceEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -58,6 +66,28 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 	}
 
 
+	/**
+	 * Set the minimum size of file resources to memory-map rather than read into
+	 * buffers, with the resulting buffers also eligible for zero-copy transfer.
+	 * <p>By default this is set to -1, i.e. file resources are always read.
+	 * @param memoryMappingThreshold the minimum size in bytes, or -1 to never
+	 * memory-map file resources
+	 * @since 5.3
+	 * @see DataBufferUtils#readMapped(Resource, long, long, DataBufferFactory, int)
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.memoryMappingThreshold = memoryMappingThreshold;
+	}
+
+	/**
+	 * Return the minimum size of file resources to memory-map.
+	 * @since 5.3
+	 */
+	public long getMemoryMappingThreshold() {
+		return this.memoryMappingThreshold;
+	}
+
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		Class<?> clazz = elementType.toClass();
@@ -72,7 +102,22 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 			String logPrefix = Hints.getLogPrefix(hints);
 			logger.debug(logPrefix + "Writing [" + resource + "]");
 		}
+		if (useMemoryMapping(resource)) {
+			return DataBufferUtils.readMapped(resource, 0, -1, bufferFactory, MAPPED_REGION_SIZE);
+		}
 		return DataBufferUtils.read(resource, bufferFactory, this.bufferSize);
 	}
 
+	private boolean useMemoryMapping(Resource resource) {
+		if (this.memoryMappingThreshold < 0 || !resource.isFile()) {
+			return false;
+		}
+		try {
+			return (resource.contentLength() >= this.memoryMappingThreshold);
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -56,8 +56,15 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 	 */
 	public static final String BOUNDARY_STRING_HINT = ResourceRegionEncoder.class.getName() + ".boundaryString";
 
+	/**
+	 * The maximum size of a memory-mapped region per data buffer.
+	 */
+	private static final int MAPPED_REGION_SIZE = 4 * 1024 * 1024;
+
 	private final int bufferSize;
 
+	private long memoryMappingThreshold = -1;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -69,6 +76,28 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+
+	/**
+	 * Set the minimum size of file regions to memory-map rather than read into
+	 * buffers, with the resulting buffers also eligible for zero-copy transfer.
+	 * <p>By default this is set to -1, i.e. file regions are always read.
+	 * @param memoryMappingThreshold the minimum size in bytes, or -1 to never
+	 * memory-map file regions
+	 * @since 5.3
+	 * @see DataBufferUtils#readMapped(Resource, long, long, DataBufferFactory, int)
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.memoryMappingThreshold = memoryMappingThreshold;
+	}
+
+	/**
+	 * Return the minimum size of file regions to memory-map.
+	 * @since 5.3
+	 */
+	public long getMemoryMappingThreshold() {
+		return this.memoryMappingThreshold;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -129,6 +158,10 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 					"Writing region " + position + "-" + (position + count) + " of [" + resource + "]");
 		}
 
+		if (this.memoryMappingThreshold >= 0 && count >= this.memoryMappingThreshold && resource.isFile()) {
+			return DataBufferUtils.readMapped(resource, position, count, bufferFactory, MAPPED_REGION_SIZE);
+		}
+
 		Flux<DataBuffer> in = DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize);
 		return DataBufferUtils.takeUntilByteCount(in, count);
 	}
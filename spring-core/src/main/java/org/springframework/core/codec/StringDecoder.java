@@ -16,7 +16,6 @@
 
 package org.springframework.core.codec;
 
-import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -126,9 +125,8 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		String value = dataBuffer.toString(charset);
 		DataBufferUtils.release(dataBuffer);
-		String value = charBuffer.toString();
 		LogFormatUtils.traceDebug(logger, traceOn -> {
 			String formatted = LogFormatUtils.formatValue(value, !traceOn);
 			return Hints.getLogPrefix(hints) + "Decoded " + formatted;
@@ -200,7 +198,7 @@ public final class StringDecoder extends AbstractDataBufferDecoder<String> {
 			dataBuffers.remove(lastIdx);
 		}
 
-		DataBuffer result = dataBuffers.get(0).factory().join(dataBuffers);
+		DataBuffer result = DataBufferUtils.compose(dataBuffers);
 
 		if (stripDelimiter && matchingDelimiter != null) {
 			result.writePosition(result.writePosition() - matchingDelimiter.length);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,7 +38,7 @@ import org.springframework.lang.Nullable;
  * @author Juergen Hoeller
  * @since 3.0
  */
-final class CollectionToCollectionConverter implements ConditionalGenericConverter {
+final class CollectionToCollectionConverter implements ConditionalGenericConverter, CompilableConverter {
 
 	private final ConversionService conversionService;
 
@@ -98,4 +98,49 @@ final class CollectionToCollectionConverter implements ConditionalGenericConvert
 		return (copyRequired ? target : source);
 	}
 
+	@Override
+	@Nullable
+	public CompiledConverter compile(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		if (!(this.conversionService instanceof GenericConversionService)) {
+			return null;
+		}
+		TypeDescriptor elementDesc = targetType.getElementTypeDescriptor();
+		CompiledConverter elementConverter = (elementDesc != null ? new CompiledElementConverter(
+				(GenericConversionService) this.conversionService, sourceType, elementDesc) : null);
+
+		return source -> {
+			if (source == null) {
+				return null;
+			}
+			Collection<?> sourceCollection = (Collection<?>) source;
+
+			// Shortcut if possible...
+			boolean copyRequired = !targetType.getType().isInstance(source);
+			if (!copyRequired && sourceCollection.isEmpty()) {
+				return source;
+			}
+			if (elementConverter == null && !copyRequired) {
+				return source;
+			}
+
+			Collection<Object> target = CollectionFactory.createCollection(targetType.getType(),
+					(elementDesc != null ? elementDesc.getType() : null), sourceCollection.size());
+
+			if (elementConverter == null) {
+				target.addAll(sourceCollection);
+			}
+			else {
+				for (Object sourceElement : sourceCollection) {
+					Object targetElement = elementConverter.convert(sourceElement);
+					target.add(targetElement);
+					if (sourceElement != targetElement) {
+						copyRequired = true;
+					}
+				}
+			}
+
+			return (copyRequired ? target : source);
+		};
+	}
+
 }
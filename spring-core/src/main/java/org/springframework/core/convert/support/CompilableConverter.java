@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Extension of {@link GenericConverter} for converters that can prepare the
+ * conversion between a specific source and target type ahead of time, e.g.
+ * resolving a factory method or the converters for collection elements.
+ *
+ * @since 5.3
+ * @see GenericConversionService#compile
+ */
+interface CompilableConverter extends GenericConverter {
+
+	/**
+	 * Prepare the conversion between the given source and target type, performing
+	 * the same conversion as {@link #convert(Object, TypeDescriptor, TypeDescriptor)}.
+	 * @param sourceType the type descriptor of the field we are converting from
+	 * @param targetType the type descriptor of the field we are converting to
+	 * @return the prepared conversion, or {@code null} if it cannot be prepared
+	 * and the regular {@code convert} method has to be used instead
+	 */
+	@Nullable
+	CompiledConverter compile(TypeDescriptor sourceType, TypeDescriptor targetType);
+
+}
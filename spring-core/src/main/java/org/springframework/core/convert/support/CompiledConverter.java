@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A conversion from a specific source type to a specific target type, with
+ * the converter to use and any element converters resolved ahead of time.
+ * Repeated conversions of values of the same types therefore avoid the
+ * converter lookup and reflective introspection of a regular conversion.
+ *
+ * <p>Instances are thread-safe and obtained through
+ * {@link GenericConversionService#compile(org.springframework.core.convert.TypeDescriptor,
+ * org.springframework.core.convert.TypeDescriptor)}.
+ *
+ * @since 5.3
+ * @see GenericConversionService#compile
+ */
+@FunctionalInterface
+public interface CompiledConverter {
+
+	/**
+	 * Convert the given source object, which has to be an instance of the
+	 * source type that this converter has been compiled for.
+	 * @param source the source object to convert (may be {@code null})
+	 * @return the converted object, an instance of the target type
+	 * @throws org.springframework.core.convert.ConversionException if a conversion exception occurred
+	 * @throws IllegalArgumentException if the source is not an instance of the source type
+	 */
+	@Nullable
+	Object convert(@Nullable Object source);
+
+}
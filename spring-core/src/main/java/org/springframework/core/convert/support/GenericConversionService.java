@@ -78,6 +78,33 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<ConverterCacheKey, CompiledConverter> compiledConverterCache = new ConcurrentReferenceHashMap<>(64);
+
+	private volatile boolean compileConversions = false;
+
+
+	/**
+	 * Specify whether {@link #convert(Object, TypeDescriptor, TypeDescriptor)}
+	 * should go through a {@link #compile compiled} conversion per source and
+	 * target type pair, resolving the converter as well as any element converters
+	 * only once instead of on every call.
+	 * <p>Default is "false". Switch this on for services that repeatedly convert
+	 * values between the same types, e.g. for data binding.
+	 * @since 5.3
+	 * @see #compile(TypeDescriptor, TypeDescriptor)
+	 */
+	public void setCompileConversions(boolean compileConversions) {
+		this.compileConversions = compileConversions;
+	}
+
+	/**
+	 * Return whether conversions go through {@link #compile compiled} conversions.
+	 * @since 5.3
+	 */
+	public boolean isCompileConversions() {
+		return this.compileConversions;
+	}
+
 
 	// ConverterRegistry implementation
 
@@ -186,6 +213,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 			throw new IllegalArgumentException("Source to convert from must be an instance of [" +
 					sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
 		}
+		if (this.compileConversions) {
+			return compile(sourceType, targetType).convert(source);
+		}
 		GenericConverter converter = getConverter(sourceType, targetType);
 		if (converter != null) {
 			Object result = ConversionUtils.invokeConverter(converter, source, sourceType, targetType);
@@ -212,6 +242,34 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Compile the conversion from the given source type to the given target type
+	 * into a reusable {@link CompiledConverter}, with the converter to use resolved
+	 * once. Built-in converters additionally prepare their conversion ahead of time,
+	 * e.g. {@code valueOf} methods and constructors as method handles and the
+	 * converters for collection elements per element class.
+	 * <p>The returned converter behaves like {@link #convert(Object, TypeDescriptor, TypeDescriptor)}
+	 * for the given types, including throwing a {@link ConverterNotFoundException} on
+	 * use if no suitable converter is available. Compiled converters are cached per type
+	 * pair; converters added or removed later on are only taken into account by
+	 * subsequent {@code compile} calls.
+	 * @param sourceType context about the source type to convert from
+	 * @param targetType context about the target type to convert to
+	 * @return the compiled converter (never {@code null})
+	 * @since 5.3
+	 */
+	public CompiledConverter compile(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		Assert.notNull(sourceType, "Source type to convert from cannot be null");
+		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
+		CompiledConverter compiled = this.compiledConverterCache.get(key);
+		if (compiled == null) {
+			compiled = new CompiledConversion(sourceType, targetType, compileInternal(sourceType, targetType));
+			this.compiledConverterCache.put(key, compiled);
+		}
+		return compiled;
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -304,6 +362,25 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.compiledConverterCache.clear();
+	}
+
+	@Nullable
+	private CompiledConverter compileInternal(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		GenericConverter converter = getConverter(sourceType, targetType);
+		if (converter == null) {
+			return null;
+		}
+		if (converter == NO_OP_CONVERTER) {
+			return source -> source;
+		}
+		if (converter instanceof CompilableConverter) {
+			CompiledConverter compiled = ((CompilableConverter) converter).compile(sourceType, targetType);
+			if (compiled != null) {
+				return compiled;
+			}
+		}
+		return source -> converter.convert(source, sourceType, targetType);
 	}
 
 	@Nullable
@@ -341,7 +418,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 * Adapts a {@link Converter} to a {@link GenericConverter}.
 	 */
 	@SuppressWarnings("unchecked")
-	private final class ConverterAdapter implements ConditionalGenericConverter {
+	private final class ConverterAdapter implements ConditionalGenericConverter, CompilableConverter {
 
 		private final Converter<Object, Object> converter;
 
@@ -385,6 +462,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 			return this.converter.convert(source);
 		}
 
+		@Override
+		public CompiledConverter compile(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			Converter<Object, Object> converter = this.converter;
+			return source -> (source != null ? converter.convert(source) : convertNullSource(sourceType, targetType));
+		}
+
 		@Override
 		public String toString() {
 			return (this.typeInfo + " : " + this.converter);
@@ -396,7 +479,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 * Adapts a {@link ConverterFactory} to a {@link GenericConverter}.
 	 */
 	@SuppressWarnings("unchecked")
-	private final class ConverterFactoryAdapter implements ConditionalGenericConverter {
+	private final class ConverterFactoryAdapter implements ConditionalGenericConverter, CompilableConverter {
 
 		private final ConverterFactory<Object, Object> converterFactory;
 
@@ -436,6 +519,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 			return this.converterFactory.getConverter(targetType.getObjectType()).convert(source);
 		}
 
+		@Override
+		public CompiledConverter compile(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			Converter<Object, ?> converter = this.converterFactory.getConverter(targetType.getObjectType());
+			return source -> (source != null ? converter.convert(source) : convertNullSource(sourceType, targetType));
+		}
+
 		@Override
 		public String toString() {
 			return (this.typeInfo + " : " + this.converterFactory);
@@ -443,6 +532,58 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * {@link CompiledConverter} applying the argument checks, exception
+	 * translation and result handling of a regular conversion.
+	 */
+	private final class CompiledConversion implements CompiledConverter {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		@Nullable
+		private final CompiledConverter converter;
+
+		public CompiledConversion(TypeDescriptor sourceType, TypeDescriptor targetType,
+				@Nullable CompiledConverter converter) {
+
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+
+		@Override
+		@Nullable
+		public Object convert(@Nullable Object source) {
+			if (source != null && !this.sourceType.getObjectType().isInstance(source)) {
+				throw new IllegalArgumentException("Source to convert from must be an instance of [" +
+						this.sourceType + "]; instead it was a [" + source.getClass().getName() + "]");
+			}
+			if (this.converter == null) {
+				return handleConverterNotFound(source, this.sourceType, this.targetType);
+			}
+			Object result;
+			try {
+				result = this.converter.convert(source);
+			}
+			catch (ConversionFailedException ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new ConversionFailedException(this.sourceType, this.targetType, source, ex);
+			}
+			return handleResult(this.sourceType, this.targetType, result);
+		}
+
+		@Override
+		public String toString() {
+			return ("CompiledConversion [sourceType = " + this.sourceType +
+					", targetType = " + this.targetType + "]");
+		}
+	}
+
+
 	/**
 	 * Key for use with the converter cache.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.core.convert.support;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
@@ -63,7 +66,7 @@ import org.springframework.util.ReflectionUtils;
  * @since 3.0
  * @see FallbackObjectToStringConverter
  */
-final class ObjectToObjectConverter implements ConditionalGenericConverter {
+final class ObjectToObjectConverter implements ConditionalGenericConverter, CompilableConverter {
 
 	// Cache for the latest to-method resolved on a given Class
 	private static final Map<Class<?>, Member> conversionMemberCache =
@@ -123,6 +126,44 @@ final class ObjectToObjectConverter implements ConditionalGenericConverter {
 				sourceClass.getName(), targetClass.getName(), targetClass.getSimpleName()));
 	}
 
+	@Override
+	@Nullable
+	public CompiledConverter compile(TypeDescriptor sourceType, TypeDescriptor targetType) {
+		Member member = getValidatedMember(targetType.getType(), sourceType.getType());
+		MethodHandle handle;
+		try {
+			if (member instanceof Method) {
+				Method method = (Method) member;
+				ReflectionUtils.makeAccessible(method);
+				handle = MethodHandles.lookup().unreflect(method);
+			}
+			else if (member instanceof Constructor) {
+				Constructor<?> ctor = (Constructor<?>) member;
+				ReflectionUtils.makeAccessible(ctor);
+				handle = MethodHandles.lookup().unreflectConstructor(ctor);
+			}
+			else {
+				return null;
+			}
+		}
+		catch (IllegalAccessException ex) {
+			// Fall back to reflective invocation on every conversion
+			return null;
+		}
+
+		MethodHandle converter = handle.asType(MethodType.methodType(Object.class, Object.class));
+		return source -> {
+			if (source == null) {
+				return null;
+			}
+			try {
+				return converter.invokeExact(source);
+			}
+			catch (Throwable ex) {
+				throw new ConversionFailedException(sourceType, targetType, source, ex);
+			}
+		};
+	}
 
 
 	static boolean hasConversionMethodOrConstructor(Class<?> targetClass, Class<?> sourceClass) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -109,7 +109,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources();
 
-	private final ConfigurablePropertyResolver propertyResolver =
+	private final PropertySourcesPropertyResolver propertyResolver =
 			new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -474,6 +474,39 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		}
 	}
 
+	/**
+	 * Specify whether to resolve properties against a frozen snapshot of this
+	 * environment's property sources, flattened into a hash index, instead of
+	 * searching all property sources on every call. Recommended for environments
+	 * with many property sources that are heavily accessed at runtime.
+	 * <p>Default is "false". The snapshot is taken anew when property sources get
+	 * added, removed or replaced; changes within individual property sources require
+	 * an explicit {@link #refreshPropertySnapshot()}.
+	 * @since 5.3
+	 * @see PropertySourcesPropertyResolver#setSnapshotEnabled
+	 */
+	public void setPropertySnapshotEnabled(boolean propertySnapshotEnabled) {
+		this.propertyResolver.setSnapshotEnabled(propertySnapshotEnabled);
+	}
+
+	/**
+	 * Return whether properties are resolved against a frozen snapshot.
+	 * @since 5.3
+	 */
+	public boolean isPropertySnapshotEnabled() {
+		return this.propertyResolver.isSnapshotEnabled();
+	}
+
+	/**
+	 * Discard the current snapshot of this environment's property sources, if any,
+	 * picking up changes within individual property sources on next access.
+	 * @since 5.3
+	 * @see #setPropertySnapshotEnabled
+	 */
+	public void refreshPropertySnapshot() {
+		this.propertyResolver.refreshSnapshot();
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of ConfigurablePropertyResolver interface
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,8 @@ public class MutablePropertySources implements PropertySources {
 
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<>();
 
+	private volatile int modificationCount;
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -96,6 +98,7 @@ public class MutablePropertySources implements PropertySources {
 	public void addFirst(PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(0, propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -104,6 +107,7 @@ public class MutablePropertySources implements PropertySources {
 	public void addLast(PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -142,7 +146,12 @@ public class MutablePropertySources implements PropertySources {
 	@Nullable
 	public PropertySource<?> remove(String name) {
 		int index = this.propertySourceList.indexOf(PropertySource.named(name));
-		return (index != -1 ? this.propertySourceList.remove(index) : null);
+		if (index == -1) {
+			return null;
+		}
+		PropertySource<?> removed = this.propertySourceList.remove(index);
+		this.modificationCount++;
+		return removed;
 	}
 
 	/**
@@ -155,6 +164,7 @@ public class MutablePropertySources implements PropertySources {
 	public void replace(String name, PropertySource<?> propertySource) {
 		int index = assertPresentAndGetIndex(name);
 		this.propertySourceList.set(index, propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -164,6 +174,16 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Return the number of structural modifications made to this instance so far,
+	 * i.e. property sources added, removed or replaced. Allows for detecting
+	 * changes against a {@linkplain PropertySourcesPropertyResolver#setSnapshotEnabled
+	 * snapshot} of the contained property sources.
+	 */
+	int getModificationCount() {
+		return this.modificationCount;
+	}
+
 	@Override
 	public String toString() {
 		return this.propertySourceList.toString();
@@ -184,7 +204,9 @@ public class MutablePropertySources implements PropertySources {
 	 * Remove the given property source if it is present.
 	 */
 	protected void removeIfPresent(PropertySource<?> propertySource) {
-		this.propertySourceList.remove(propertySource);
+		if (this.propertySourceList.remove(propertySource)) {
+			this.modificationCount++;
+		}
 	}
 
 	/**
@@ -193,6 +215,7 @@ public class MutablePropertySources implements PropertySources {
 	private void addAtIndex(int index, PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(index, propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.core.env;
 
+import org.springframework.core.env.PropertySourcesSnapshot.SnapshotProperty;
 import org.springframework.lang.Nullable;
 
 /**
@@ -34,6 +35,11 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	@Nullable
 	private final PropertySources propertySources;
 
+	private volatile boolean snapshotEnabled;
+
+	@Nullable
+	private volatile PropertySourcesSnapshot snapshot;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,8 +50,48 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Specify whether to resolve properties against a frozen snapshot of the
+	 * property sources, flattened into a hash index, instead of searching all
+	 * property sources on every call.
+	 * <p>Default is "false". The snapshot is taken on first access and taken anew
+	 * when property sources get added, removed or replaced in an underlying
+	 * {@link MutablePropertySources} instance. Changes within individual property
+	 * sources, e.g. to system properties, remain invisible until the snapshot is
+	 * refreshed through {@link #refreshSnapshot()}.
+	 * <p>In snapshot mode, {@link #containsProperty} only reports properties with
+	 * a non-null value.
+	 * @since 5.3
+	 */
+	public void setSnapshotEnabled(boolean snapshotEnabled) {
+		this.snapshotEnabled = snapshotEnabled;
+		this.snapshot = null;
+	}
+
+	/**
+	 * Return whether properties are resolved against a frozen snapshot.
+	 * @since 5.3
+	 */
+	public boolean isSnapshotEnabled() {
+		return this.snapshotEnabled;
+	}
+
+	/**
+	 * Discard the current snapshot of the property sources, if any, so that
+	 * the next access takes a new snapshot with the then current property values.
+	 * @since 5.3
+	 * @see #setSnapshotEnabled
+	 */
+	public void refreshSnapshot() {
+		this.snapshot = null;
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
+		if (this.snapshotEnabled && this.propertySources != null) {
+			return (obtainSnapshot(this.propertySources).getProperty(key) != null);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (propertySource.containsProperty(key)) {
@@ -76,7 +122,18 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
-		if (this.propertySources != null) {
+		if (this.snapshotEnabled && this.propertySources != null) {
+			SnapshotProperty property = obtainSnapshot(this.propertySources).getProperty(key);
+			if (property != null) {
+				Object value = property.getValue();
+				if (resolveNestedPlaceholders && value instanceof String) {
+					value = resolveNestedPlaceholders((String) value);
+				}
+				logKeyFound(key, property.getPropertySource(), value);
+				return convertValueIfNecessary(value, targetValueType);
+			}
+		}
+		else if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Searching for key '" + key + "' in PropertySource '" +
@@ -98,6 +155,16 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	private PropertySourcesSnapshot obtainSnapshot(PropertySources propertySources) {
+		PropertySourcesSnapshot snapshot = this.snapshot;
+		if (snapshot == null || (propertySources instanceof MutablePropertySources &&
+				((MutablePropertySources) propertySources).getModificationCount() != snapshot.getModificationCount())) {
+			snapshot = new PropertySourcesSnapshot(propertySources);
+			this.snapshot = snapshot;
+		}
+		return snapshot;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.env;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+
+/**
+ * Frozen snapshot of a {@link PropertySources} instance, flattening the
+ * properties of all {@link EnumerablePropertySource enumerable} property sources
+ * into a single hash index according to their precedence.
+ *
+ * <p>Names that are not enumerated by any property source can only be matched by
+ * {@link SystemEnvironmentPropertySource} variants or by non-enumerable property
+ * sources. Such names get resolved against those sources on first access, with
+ * the outcome cached for subsequent lookups.
+ *
+ * @since 5.3
+ * @see PropertySourcesPropertyResolver#setSnapshotEnabled
+ */
+final class PropertySourcesSnapshot {
+
+	private static final int RESOLVED_PROPERTIES_CACHE_LIMIT = 256;
+
+	private static final SnapshotProperty NOT_FOUND = new SnapshotProperty(new PropertySource.StubPropertySource("notFound"), "");
+
+
+	private final Map<String, SnapshotProperty> index = new HashMap<>(256);
+
+	private final List<PropertySource<?>> fallbackSources = new ArrayList<>(4);
+
+	private final List<PropertySource<?>> fallbackOriginals = new ArrayList<>(4);
+
+	@Nullable
+	private final ConcurrentLruCache<String, SnapshotProperty> resolvedProperties;
+
+	private final int modificationCount;
+
+
+	/**
+	 * Create a snapshot of the given property sources.
+	 * @param propertySources the property sources to take a snapshot of
+	 */
+	PropertySourcesSnapshot(PropertySources propertySources) {
+		this.modificationCount = (propertySources instanceof MutablePropertySources ?
+				((MutablePropertySources) propertySources).getModificationCount() : 0);
+		for (PropertySource<?> propertySource : propertySources) {
+			if (propertySource instanceof EnumerablePropertySource &&
+					!(propertySource.getSource() instanceof ReadOnlySystemAttributesMap)) {
+				Map<String, Object> values = indexProperties((EnumerablePropertySource<?>) propertySource);
+				if (propertySource instanceof SystemEnvironmentPropertySource) {
+					// Name variants such as FOO_BAR for foo.bar need to be resolved on demand
+					addFallbackSource(propertySource,
+							new SystemEnvironmentPropertySource(propertySource.getName(), values));
+				}
+			}
+			else {
+				addFallbackSource(propertySource, propertySource);
+			}
+		}
+		this.resolvedProperties = (!this.fallbackSources.isEmpty() ?
+				new ConcurrentLruCache<>(RESOLVED_PROPERTIES_CACHE_LIMIT, this::resolveProperty) : null);
+	}
+
+	private Map<String, Object> indexProperties(EnumerablePropertySource<?> propertySource) {
+		String[] names = propertySource.getPropertyNames();
+		Map<String, Object> values = new HashMap<>(names.length * 2);
+		for (String name : names) {
+			Object value = propertySource.getProperty(name);
+			if (value == null) {
+				continue;
+			}
+			values.put(name, value);
+			if (!this.index.containsKey(name)) {
+				SnapshotProperty property = resolveProperty(name);
+				this.index.put(name, (property != NOT_FOUND ? property : new SnapshotProperty(propertySource, value)));
+			}
+		}
+		return values;
+	}
+
+	private void addFallbackSource(PropertySource<?> original, PropertySource<?> snapshot) {
+		this.fallbackOriginals.add(original);
+		this.fallbackSources.add(snapshot);
+	}
+
+	private SnapshotProperty resolveProperty(String name) {
+		for (int i = 0; i < this.fallbackSources.size(); i++) {
+			Object value = this.fallbackSources.get(i).getProperty(name);
+			if (value != null) {
+				return new SnapshotProperty(this.fallbackOriginals.get(i), value);
+			}
+		}
+		return NOT_FOUND;
+	}
+
+
+	/**
+	 * Return the number of modifications of the underlying {@link MutablePropertySources}
+	 * at the time of taking this snapshot, or {@code 0} for other {@link PropertySources}.
+	 */
+	int getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Return the property with the given name, or {@code null} if not found.
+	 * @param name the name of the property
+	 */
+	@Nullable
+	SnapshotProperty getProperty(String name) {
+		SnapshotProperty property = this.index.get(name);
+		if (property == null && this.resolvedProperties != null) {
+			property = this.resolvedProperties.get(name);
+		}
+		return (property != NOT_FOUND ? property : null);
+	}
+
+
+	/**
+	 * A property value along with the original property source it has been found in.
+	 */
+	static final class SnapshotProperty {
+
+		private final PropertySource<?> propertySource;
+
+		private final Object value;
+
+		SnapshotProperty(PropertySource<?> propertySource, Object value) {
+			this.propertySource = propertySource;
+			this.value = value;
+		}
+
+		PropertySource<?> getPropertySource() {
+			return this.propertySource;
+		}
+
+		Object getValue() {
+			return this.value;
+		}
+	}
+
+}
@@ -0,0 +1,634 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link DataBuffer} that presents a sequence of data buffers as a single
+ * buffer without copying their contents, for example to decode a message body
+ * that was received in several chunks.
+ *
+ * <p>The composite takes ownership of the given buffers: they are released once
+ * the composite itself is {@linkplain #release() released}. Slices share the
+ * reference count of the composite they were created from. Writing beyond the
+ * capacity of the composite appends buffers allocated through its
+ * {@link #factory() factory}.
+ *
+ * <p>Reads, {@link #asInputStream()}, {@link #asByteBuffers()} and
+ * {@link #toString(Charset)} operate on the individual segments; a single
+ * {@link #asByteBuffer() ByteBuffer} spanning several segments can only be
+ * provided as a copy.
+ *
+ * @since 5.3
+ * @see DataBufferUtils#compose(List)
+ */
+public final class CompositeDataBuffer implements PooledDataBuffer {
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final Owner owner;
+
+	private DataBuffer[] components;
+
+	private int[] offsets;
+
+	private int componentCount;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} over the readable bytes of the given buffers.
+	 * @param dataBufferFactory the factory to allocate additional capacity with
+	 * @param dataBuffers the buffers to compose, released along with the composite
+	 */
+	public CompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notNull(dataBuffers, "DataBuffer List must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.owner = new Owner(new ArrayList<>(dataBuffers));
+		this.components = new DataBuffer[Math.max(dataBuffers.size(), 1)];
+		this.offsets = new int[this.components.length];
+		for (DataBuffer dataBuffer : dataBuffers) {
+			Assert.notNull(dataBuffer, "DataBuffer must not be null");
+			if (dataBuffer.readableByteCount() > 0) {
+				addComponent(dataBuffer.slice(dataBuffer.readPosition(), dataBuffer.readableByteCount()));
+			}
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(DataBufferFactory dataBufferFactory, Owner owner, List<DataBuffer> components) {
+		this.dataBufferFactory = dataBufferFactory;
+		this.owner = owner;
+		this.components = new DataBuffer[Math.max(components.size(), 1)];
+		this.offsets = new int[this.components.length];
+		components.forEach(this::addComponent);
+		this.writePosition = this.capacity;
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = componentIndex(fromIndex); i < this.componentCount; i++) {
+			DataBuffer component = this.components[i];
+			int offset = this.offsets[i];
+			int end = Math.min(component.capacity(), this.writePosition - offset);
+			for (int j = Math.max(fromIndex - offset, 0); j < end; j++) {
+				if (predicate.test(component.getByte(j))) {
+					return offset + j;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		int index = Math.min(fromIndex, this.writePosition - 1);
+		if (index < 0) {
+			return -1;
+		}
+		for (int i = componentIndex(index); i >= 0; i--) {
+			DataBuffer component = this.components[i];
+			int offset = this.offsets[i];
+			for (int j = Math.min(index - offset, component.capacity() - 1); j >= 0; j--) {
+				if (predicate.test(component.getByte(j))) {
+					return offset + j;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation appends a newly allocated buffer when increasing
+	 * the capacity, and drops trailing segments when decreasing it.
+	 */
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		if (newCapacity <= 0) {
+			throw new IllegalArgumentException(String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		}
+		if (newCapacity > this.capacity) {
+			int length = newCapacity - this.capacity;
+			DataBuffer dataBuffer = this.dataBufferFactory.allocateBuffer(length);
+			this.owner.add(dataBuffer);
+			addComponent(dataBuffer.slice(0, length));
+		}
+		else if (newCapacity < this.capacity) {
+			int index = componentIndex(newCapacity - 1);
+			int length = newCapacity - this.offsets[index];
+			if (length < this.components[index].capacity()) {
+				this.components[index] = this.components[index].slice(0, length);
+			}
+			Arrays.fill(this.components, index + 1, this.componentCount, null);
+			this.componentCount = index + 1;
+			this.capacity = newCapacity;
+			this.writePosition = Math.min(this.writePosition, newCapacity);
+			this.readPosition = Math.min(this.readPosition, newCapacity);
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			int growth = Math.max(length - writableByteCount(), DefaultDataBufferFactory.DEFAULT_INITIAL_CAPACITY);
+			capacity(this.capacity + growth);
+		}
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		int i = componentIndex(index);
+		return this.components[i].getByte(index - this.offsets[i]);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+
+		for (ByteBuffer segment : asByteBuffers(this.readPosition, length)) {
+			int segmentLength = segment.remaining();
+			segment.get(destination, offset, segmentLength);
+			offset += segmentLength;
+		}
+		this.readPosition += length;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		int i = componentIndex(this.writePosition);
+		writeComponent(this.components[i], this.writePosition - this.offsets[i], component -> component.write(b));
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "Byte array must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "Byte array must not be null");
+		return write(ByteBuffer.wrap(source, offset, length));
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			write(Arrays.stream(buffers)
+					.flatMap(buffer -> buffer instanceof CompositeDataBuffer ?
+							Arrays.stream(((CompositeDataBuffer) buffer).asByteBuffers()) :
+							Arrays.stream(new ByteBuffer[] {buffer.asByteBuffer()}))
+					.toArray(ByteBuffer[]::new));
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			int length = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
+			ensureCapacity(length);
+			for (ByteBuffer source : buffers) {
+				while (source.hasRemaining()) {
+					int i = componentIndex(this.writePosition);
+					DataBuffer component = this.components[i];
+					int index = this.writePosition - this.offsets[i];
+					int chunkLength = Math.min(source.remaining(), component.capacity() - index);
+					ByteBuffer chunk = source.duplicate();
+					chunk.limit(chunk.position() + chunkLength);
+					writeComponent(component, index, c -> c.write(chunk));
+					source.position(source.position() + chunkLength);
+					this.writePosition += chunkLength;
+				}
+			}
+		}
+		return this;
+	}
+
+	private static void writeComponent(DataBuffer component, int index, Consumer<DataBuffer> writer) {
+		component.writePosition(index);
+		writer.accept(component);
+		component.writePosition(component.capacity());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned slice is a {@code CompositeDataBuffer} sharing the
+	 * reference count of this buffer.
+	 */
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		List<DataBuffer> sliced = new ArrayList<>();
+		int remaining = length;
+		for (int i = (length > 0 ? componentIndex(index) : this.componentCount); remaining > 0; i++) {
+			DataBuffer component = this.components[i];
+			int start = Math.max(index - this.offsets[i], 0);
+			int sliceLength = Math.min(component.capacity() - start, remaining);
+			sliced.add(component.slice(start, sliceLength));
+			remaining -= sliceLength;
+		}
+		return new CompositeDataBuffer(this.dataBufferFactory, this.owner, sliced);
+	}
+
+	@Override
+	public CompositeDataBuffer retainedSlice(int index, int length) {
+		CompositeDataBuffer slice = slice(index, length);
+		retain();
+		return slice;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>If the readable bytes span several segments, this implementation
+	 * returns a copy; consider {@link #asByteBuffers()} instead.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>If the given range spans several segments, this implementation
+	 * returns a copy; consider {@link #asByteBuffers(int, int)} instead.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		ByteBuffer[] segments = asByteBuffers(index, length);
+		if (segments.length == 1) {
+			return segments[0];
+		}
+		ByteBuffer result = ByteBuffer.allocate(length);
+		for (ByteBuffer segment : segments) {
+			result.put(segment);
+		}
+		result.flip();
+		return result;
+	}
+
+	/**
+	 * Expose the readable bytes of this buffer as a sequence of {@link ByteBuffer}
+	 * views, one per segment. Changes to the returned buffers' contents will be
+	 * reflected in this data buffer, though changes to their positions will not.
+	 * @return the readable bytes as byte buffers
+	 */
+	public ByteBuffer[] asByteBuffers() {
+		return asByteBuffers(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * Expose a subsequence of this buffer as a sequence of {@link ByteBuffer}
+	 * views, one per segment. Changes to the returned buffers' contents will be
+	 * reflected in this data buffer, though changes to their positions will not.
+	 * @param index the index at which to start the byte buffers
+	 * @param length the total length of the returned byte buffers
+	 * @return the given subsequence as byte buffers
+	 */
+	public ByteBuffer[] asByteBuffers(int index, int length) {
+		checkIndex(index, length);
+		if (length == 0) {
+			return new ByteBuffer[] {ByteBuffer.allocate(0)};
+		}
+		List<ByteBuffer> result = new ArrayList<>();
+		int remaining = length;
+		for (int i = componentIndex(index); remaining > 0; i++) {
+			DataBuffer component = this.components[i];
+			int start = Math.max(index - this.offsets[i], 0);
+			int segmentLength = Math.min(component.capacity() - start, remaining);
+			result.add(component.asByteBuffer(start, segmentLength));
+			remaining -= segmentLength;
+		}
+		return result.toArray(new ByteBuffer[0]);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation decodes the segments in turn, without
+	 * joining them into a contiguous buffer first.
+	 */
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		Assert.notNull(charset, "Charset must not be null");
+		ByteBuffer[] segments = asByteBuffers(index, length);
+		if (segments.length == 1) {
+			return charset.decode(segments[0]).toString();
+		}
+		CharsetDecoder decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		CharBuffer chars = CharBuffer.allocate((int) Math.ceil(length * (double) decoder.maxCharsPerByte()));
+		// Holds a character split across segments until it is complete
+		ByteBuffer pending = ByteBuffer.allocate(16);
+		for (ByteBuffer segment : segments) {
+			while (pending.position() > 0 && segment.hasRemaining()) {
+				pending.put(segment.get());
+				pending.flip();
+				decoder.decode(pending, chars, false);
+				pending.compact();
+			}
+			decoder.decode(segment, chars, false);
+			pending.put(segment);
+		}
+		pending.flip();
+		decoder.decode(pending, chars, true);
+		decoder.flush(chars);
+		chars.flip();
+		return chars.toString();
+	}
+
+
+	@Override
+	public boolean isAllocated() {
+		return this.owner.refCount.get() > 0;
+	}
+
+	@Override
+	public CompositeDataBuffer retain() {
+		this.owner.retain();
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Releasing the last reference releases the composed buffers.
+	 */
+	@Override
+	public boolean release() {
+		return this.owner.release();
+	}
+
+
+	private void addComponent(DataBuffer component) {
+		if (this.componentCount == this.components.length) {
+			this.components = Arrays.copyOf(this.components, this.componentCount * 2);
+			this.offsets = Arrays.copyOf(this.offsets, this.componentCount * 2);
+		}
+		this.components[this.componentCount] = component;
+		this.offsets[this.componentCount] = this.capacity;
+		this.componentCount++;
+		this.capacity += component.capacity();
+	}
+
+	private int componentIndex(int index) {
+		int i = Arrays.binarySearch(this.offsets, 0, this.componentCount, index);
+		return (i >= 0 ? i : -i - 2);
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, segments: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.componentCount);
+	}
+
+
+	/**
+	 * Reference count and composed buffers, shared with slices.
+	 */
+	private static final class Owner {
+
+		private final List<DataBuffer> dataBuffers;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		Owner(List<DataBuffer> dataBuffers) {
+			this.dataBuffers = dataBuffers;
+		}
+
+		void add(DataBuffer dataBuffer) {
+			synchronized (this.dataBuffers) {
+				this.dataBuffers.add(dataBuffer);
+			}
+		}
+
+		void retain() {
+			int refCount;
+			do {
+				refCount = this.refCount.get();
+				Assert.state(refCount > 0, "DataBuffer has already been released");
+			}
+			while (!this.refCount.compareAndSet(refCount, refCount + 1));
+		}
+
+		boolean release() {
+			int refCount = this.refCount.decrementAndGet();
+			if (refCount > 0) {
+				return false;
+			}
+			Assert.state(refCount == 0, "DataBuffer has already been released");
+			synchronized (this.dataBuffers) {
+				this.dataBuffers.forEach(DataBufferUtils::release);
+				this.dataBuffers.clear();
+			}
+			return true;
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose && !this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(CompositeDataBuffer.this);
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,17 +21,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -50,6 +53,8 @@ import reactor.core.publisher.SynchronousSink;
 import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
 
 /**
  * Utility class for working with {@link DataBuffer DataBuffers}.
@@ -62,6 +67,9 @@ public abstract class DataBufferUtils {
 
 	private static final Consumer<DataBuffer> RELEASE_CONSUMER = DataBufferUtils::release;
 
+	private static final boolean nettyPresent =
+			ClassUtils.isPresent("io.netty.buffer.ByteBuf", DataBufferUtils.class.getClassLoader());
+
 
 	//---------------------------------------------------------------------
 	// Reading
@@ -229,6 +237,84 @@ public abstract class DataBufferUtils {
 		return position == 0 ? result : skipUntilByteCount(result, position);
 	}
 
+	/**
+	 * Read a region of the given file {@code Path} into a {@code Flux} of
+	 * {@link FileRegionDataBuffer FileRegionDataBuffers}, which memory-map their
+	 * part of the file content on first access instead of copying it into buffers.
+	 * Servers capable of zero-copy file transfer may send the resulting buffers
+	 * directly from the file, in which case the content is not mapped at all.
+	 * <p>Memory-mapping is only worth it for larger files; note that mapped files
+	 * may remain locked on some operating systems until the buffers are garbage
+	 * collected.
+	 * @param path the path to read bytes from
+	 * @param position the position within the file to start reading from
+	 * @param count the maximum number of bytes to read, or {@code -1} to read
+	 * until the end of the file
+	 * @param bufferFactory the factory to wrap the mapped regions with
+	 * @param regionSize the maximum size of the mapped region per data buffer
+	 * @return a Flux of data buffers for the mapped regions of the file
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> readMapped(
+			Path path, long position, long count, DataBufferFactory bufferFactory, int regionSize) {
+
+		Assert.notNull(path, "Path must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.notNull(bufferFactory, "BufferFactory must not be null");
+		Assert.isTrue(regionSize > 0, "'regionSize' must be > 0");
+
+		return Flux.defer(() -> {
+			long size;
+			try {
+				size = Files.size(path);
+			}
+			catch (IOException ex) {
+				return Flux.error(ex);
+			}
+			long end = (count >= 0 && count < size - position ? position + count : size);
+			return Flux.generate(() -> position, (regionPosition, sink) -> {
+				if (regionPosition >= end) {
+					sink.complete();
+					return regionPosition;
+				}
+				int length = (int) Math.min(regionSize, end - regionPosition);
+				sink.next(new FileRegionDataBuffer(path, regionPosition, length, bufferFactory));
+				return regionPosition + length;
+			});
+		});
+	}
+
+	/**
+	 * Read a region of the given {@code Resource} into a {@code Flux} of
+	 * {@code DataBuffer}s, memory-mapping the content if the resource is a file.
+	 * <p>If the resource is a file, this delegates to
+	 * {@link #readMapped(Path, long, long, DataBufferFactory, int)}, or else
+	 * falls back on {@link #read(Resource, long, DataBufferFactory, int)}
+	 * with a buffer size of {@value org.springframework.util.StreamUtils#BUFFER_SIZE}.
+	 * @param resource the resource to read from
+	 * @param position the position to start reading from
+	 * @param count the maximum number of bytes to read, or {@code -1} to read
+	 * until the end of the resource
+	 * @param bufferFactory the factory to create data buffers with
+	 * @param regionSize the maximum size of the mapped region per data buffer
+	 * @return a Flux of data buffers read from the given resource
+	 * @since 5.3
+	 */
+	public static Flux<DataBuffer> readMapped(
+			Resource resource, long position, long count, DataBufferFactory bufferFactory, int regionSize) {
+
+		try {
+			if (resource.isFile()) {
+				return readMapped(resource.getFile().toPath(), position, count, bufferFactory, regionSize);
+			}
+		}
+		catch (IOException ignore) {
+			// fallback to read(Resource...), below
+		}
+		Flux<DataBuffer> result = read(resource, position, bufferFactory, StreamUtils.BUFFER_SIZE);
+		return (count >= 0 ? takeUntilByteCount(result, count) : result);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Writing
@@ -554,6 +640,59 @@ public abstract class DataBufferUtils {
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
+	/**
+	 * Variant of {@link #join(Publisher, int)} that {@linkplain #compose(List)
+	 * composes} the given buffers rather than copying their contents into a
+	 * new buffer.
+	 * <p>Note that the given data buffers do <strong>not</strong> have to be
+	 * released. They will be released as part of the returned composite.
+	 * @param buffers the data buffers that are to be composed
+	 * @param maxByteCount the max number of bytes to buffer, or -1 for unlimited
+	 * @return a buffer with the aggregated content, possibly an empty Mono if
+	 * the max number of bytes to buffer is exceeded.
+	 * @throws DataBufferLimitException if maxByteCount is exceeded
+	 * @since 5.3
+	 * @see #compose(List)
+	 */
+	@SuppressWarnings("unchecked")
+	public static Mono<DataBuffer> compose(Publisher<? extends DataBuffer> buffers, int maxByteCount) {
+		Assert.notNull(buffers, "'dataBuffers' must not be null");
+
+		if (buffers instanceof Mono) {
+			return (Mono<DataBuffer>) buffers;
+		}
+
+		return Flux.from(buffers)
+				.collect(() -> new LimitedDataBufferList(maxByteCount), LimitedDataBufferList::add)
+				.filter(list -> !list.isEmpty())
+				.map(DataBufferUtils::compose)
+				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	/**
+	 * Compose the given data buffers into a single buffer without copying
+	 * their contents: a single buffer is returned as is, buffers allocated by a
+	 * {@link NettyDataBufferFactory} are {@linkplain DataBufferFactory#join joined}
+	 * into a composite {@code ByteBuf}, and any other buffers are wrapped in a
+	 * {@link CompositeDataBuffer}.
+	 * <p>Note that the given data buffers do <strong>not</strong> have to be
+	 * released. They will be released as part of the returned composite.
+	 * @param dataBuffers the data buffers that are to be composed
+	 * @return a buffer that is composed from the {@code dataBuffers} argument
+	 * @since 5.3
+	 */
+	public static DataBuffer compose(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		DataBufferFactory factory = dataBuffers.get(0).factory();
+		if (nettyPresent && factory instanceof NettyDataBufferFactory) {
+			return factory.join(dataBuffers);
+		}
+		return new CompositeDataBuffer(factory, dataBuffers);
+	}
+
 	/**
 	 * Return a {@link Matcher} for the given delimiter.
 	 * The matcher can be used to find the delimiters in data buffers.
@@ -562,6 +701,17 @@ public abstract class DataBufferUtils {
 	 * @since 5.2
 	 */
 	public static Matcher matcher(byte[] delimiter) {
+		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
+		return new WordScanningMatcher(delimiter);
+	}
+
+	/**
+	 * Return a {@link Matcher} for the given delimiter that compares one byte
+	 * at a time, as a baseline for the default matcher.
+	 * @param delimiter the delimiter bytes to find
+	 * @return the matcher
+	 */
+	static Matcher knuthMorrisPrattMatcher(byte[] delimiter) {
 		Assert.isTrue(delimiter.length > 0, "Delimiter must not be empty");
 		return new KnuthMorrisPrattMatcher(delimiter);
 	}
@@ -949,6 +1099,138 @@ public abstract class DataBufferUtils {
 	}
 
 
+	/**
+	 * Implementation of {@link Matcher} that looks for the first delimiter byte
+	 * eight bytes at a time, reading buffer contents as {@code long} words
+	 * (SWAR, "SIMD within a register"), and matches the remaining delimiter
+	 * bytes with the Knuth-Morris-Pratt algorithm.
+	 * @see <a href="https://graphics.stanford.edu/~seander/bithacks.html#ValueInWord">Determine if a word has a byte equal to n</a>
+	 */
+	private static class WordScanningMatcher implements Matcher {
+
+		/** Ranges shorter than this are scanned one byte at a time. */
+		private static final int MIN_WORD_SCAN_LENGTH = 32;
+
+		private static final long LOW_BITS = 0x0101010101010101L;
+
+		private static final long HIGH_BITS = 0x8080808080808080L;
+
+		private final byte[] delimiter;
+
+		private final int[] table;
+
+		private final long pattern;
+
+		private int matches = 0;
+
+		public WordScanningMatcher(byte[] delimiter) {
+			this.delimiter = Arrays.copyOf(delimiter, delimiter.length);
+			this.table = KnuthMorrisPrattMatcher.longestSuffixPrefixTable(delimiter);
+			this.pattern = LOW_BITS * (delimiter[0] & 0xFF);
+		}
+
+		@Override
+		public int match(DataBuffer dataBuffer) {
+			ByteBuffer[] segments = null;
+			int segmentsStart = 0;
+			int end = dataBuffer.writePosition();
+			int i = dataBuffer.readPosition();
+			while (i < end) {
+				if (this.matches == 0) {
+					if (end - i < MIN_WORD_SCAN_LENGTH) {
+						i = indexOf(dataBuffer, i, end);
+					}
+					else {
+						if (segments == null) {
+							segments = segments(dataBuffer, i, end - i);
+							segmentsStart = i;
+						}
+						i = indexOf(segments, segmentsStart, i);
+					}
+					if (i == -1) {
+						return -1;
+					}
+					this.matches = 1;
+				}
+				else {
+					byte b = dataBuffer.getByte(i);
+					while (this.matches > 0 && b != this.delimiter[this.matches]) {
+						this.matches = this.table[this.matches - 1];
+					}
+					if (b == this.delimiter[this.matches]) {
+						this.matches++;
+					}
+				}
+				if (this.matches == this.delimiter.length) {
+					reset();
+					return i;
+				}
+				i++;
+			}
+			return -1;
+		}
+
+		private int indexOf(DataBuffer dataBuffer, int from, int to) {
+			byte first = this.delimiter[0];
+			for (int i = from; i < to; i++) {
+				if (dataBuffer.getByte(i) == first) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Find the first delimiter byte at or after the given index in the given
+		 * segments, the first of which corresponds to the given start index.
+		 */
+		private int indexOf(ByteBuffer[] segments, int start, int from) {
+			byte first = this.delimiter[0];
+			int offset = start;
+			for (ByteBuffer segment : segments) {
+				int position = segment.position();
+				int limit = segment.limit();
+				int i = position + Math.max(from - offset, 0);
+				for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+					long word = segment.getLong(i) ^ this.pattern;
+					long found = (word - LOW_BITS) & ~word & HIGH_BITS;
+					if (found != 0) {
+						// Little-endian: the lowest set bit marks the first matching byte
+						return offset + (i - position) + (Long.numberOfTrailingZeros(found) >>> 3);
+					}
+				}
+				for (; i < limit; i++) {
+					if (segment.get(i) == first) {
+						return offset + (i - position);
+					}
+				}
+				offset += limit - position;
+			}
+			return -1;
+		}
+
+		private static ByteBuffer[] segments(DataBuffer dataBuffer, int index, int length) {
+			ByteBuffer[] segments = (dataBuffer instanceof CompositeDataBuffer ?
+					((CompositeDataBuffer) dataBuffer).asByteBuffers(index, length) :
+					new ByteBuffer[] {dataBuffer.asByteBuffer(index, length)});
+			for (ByteBuffer segment : segments) {
+				segment.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			return segments;
+		}
+
+		@Override
+		public byte[] delimiter() {
+			return Arrays.copyOf(this.delimiter, this.delimiter.length);
+		}
+
+		@Override
+		public void reset() {
+			this.matches = 0;
+		}
+	}
+
+
 	/**
 	 * Implementation of {@link Matcher} that wraps several other matchers.
 	 */
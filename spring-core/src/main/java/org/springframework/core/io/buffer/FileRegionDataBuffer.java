@@ -0,0 +1,290 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBuffer} for a region of a file. The region's content is
+ * {@linkplain FileChannel#map memory-mapped} on first access rather than
+ * copied into the buffer, and servers capable of zero-copy file transfer may
+ * send the {@linkplain #getFilePosition() file region} corresponding to the
+ * readable bytes of this buffer directly from the file, without the content
+ * being mapped at all.
+ *
+ * <p>Instances are read-only: writing to them is not supported. Since the mapped
+ * content is unmapped when garbage collected, buffers of this type do not need
+ * to be released.
+ *
+ * @since 5.3
+ * @see DataBufferUtils#readMapped(Path, long, long, DataBufferFactory, int)
+ */
+public class FileRegionDataBuffer implements DataBuffer {
+
+	private final Path file;
+
+	private final long position;
+
+	private final int count;
+
+	private final DataBufferFactory bufferFactory;
+
+	private int readPosition;
+
+	@Nullable
+	private DataBuffer content;
+
+
+	/**
+	 * Create a new {@code FileRegionDataBuffer}.
+	 * @param file the file that the region belongs to
+	 * @param position the position of the region within the file
+	 * @param count the number of bytes in the region
+	 * @param bufferFactory the factory to wrap the mapped content with
+	 */
+	public FileRegionDataBuffer(Path file, long position, int count, DataBufferFactory bufferFactory) {
+		Assert.notNull(file, "File must not be null");
+		Assert.isTrue(position >= 0, "Position must be >= 0");
+		Assert.isTrue(count >= 0, "Count must be >= 0");
+		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
+		this.file = file;
+		this.position = position;
+		this.count = count;
+		this.bufferFactory = bufferFactory;
+	}
+
+
+	/**
+	 * Return the file that the region belongs to.
+	 */
+	public Path getFile() {
+		return this.file;
+	}
+
+	/**
+	 * Return the position within the file of the first readable byte of this
+	 * buffer. Along with {@link #readableByteCount()}, this describes the file
+	 * region that corresponds to the readable bytes.
+	 */
+	public long getFilePosition() {
+		return this.position + readPosition();
+	}
+
+	/**
+	 * Return the buffer for the mapped content of the region, mapping it on
+	 * first access.
+	 */
+	private DataBuffer getContent() {
+		DataBuffer content = this.content;
+		if (content == null) {
+			try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+				content = this.bufferFactory.wrap(channel.map(FileChannel.MapMode.READ_ONLY, this.position, this.count));
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException("Failed to map " + this, ex);
+			}
+			content.readPosition(this.readPosition);
+			this.content = content;
+		}
+		return content;
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.bufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		return getContent().indexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		return getContent().lastIndexOf(predicate, fromIndex);
+	}
+
+	@Override
+	public int readableByteCount() {
+		return (this.content != null ? this.content.readableByteCount() : this.count - this.readPosition);
+	}
+
+	@Override
+	public int writableByteCount() {
+		return (this.content != null ? this.content.writableByteCount() : 0);
+	}
+
+	@Override
+	public int capacity() {
+		return (this.content != null ? this.content.capacity() : this.count);
+	}
+
+	@Override
+	public DataBuffer capacity(int capacity) {
+		return getContent().capacity(capacity);
+	}
+
+	@Override
+	public DataBuffer ensureCapacity(int capacity) {
+		return getContent().ensureCapacity(capacity);
+	}
+
+	@Override
+	public int readPosition() {
+		return (this.content != null ? this.content.readPosition() : this.readPosition);
+	}
+
+	@Override
+	public DataBuffer readPosition(int readPosition) {
+		if (this.content != null) {
+			this.content.readPosition(readPosition);
+		}
+		else {
+			Assert.isTrue(readPosition >= 0 && readPosition <= this.count,
+					() -> "'readPosition' " + readPosition + " must be >= 0 and <= " + this.count);
+			this.readPosition = readPosition;
+		}
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return (this.content != null ? this.content.writePosition() : this.count);
+	}
+
+	@Override
+	public DataBuffer writePosition(int writePosition) {
+		return getContent().writePosition(writePosition);
+	}
+
+	@Override
+	public byte getByte(int index) {
+		return getContent().getByte(index);
+	}
+
+	@Override
+	public byte read() {
+		return getContent().read();
+	}
+
+	@Override
+	public DataBuffer read(byte[] destination) {
+		getContent().read(destination);
+		return this;
+	}
+
+	@Override
+	public DataBuffer read(byte[] destination, int offset, int length) {
+		getContent().read(destination, offset, length);
+		return this;
+	}
+
+	@Override
+	public DataBuffer write(byte b) {
+		return getContent().write(b);
+	}
+
+	@Override
+	public DataBuffer write(byte[] source) {
+		return getContent().write(source);
+	}
+
+	@Override
+	public DataBuffer write(byte[] source, int offset, int length) {
+		return getContent().write(source, offset, length);
+	}
+
+	@Override
+	public DataBuffer write(DataBuffer... buffers) {
+		return getContent().write(buffers);
+	}
+
+	@Override
+	public DataBuffer write(ByteBuffer... buffers) {
+		return getContent().write(buffers);
+	}
+
+	@Override
+	public DataBuffer write(CharSequence charSequence, Charset charset) {
+		return getContent().write(charSequence, charset);
+	}
+
+	@Override
+	public DataBuffer slice(int index, int length) {
+		return getContent().slice(index, length);
+	}
+
+	@Override
+	public DataBuffer retainedSlice(int index, int length) {
+		return getContent().retainedSlice(index, length);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return getContent().asByteBuffer();
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		return getContent().asByteBuffer(index, length);
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return getContent().asInputStream();
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return getContent().asInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return getContent().asOutputStream();
+	}
+
+	@Override
+	public String toString(Charset charset) {
+		return getContent().toString(charset);
+	}
+
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		return getContent().toString(index, length, charset);
+	}
+
+	@Override
+	public String toString() {
+		return "FileRegionDataBuffer [file=" + this.file + ", position=" + getFilePosition() +
+				", count=" + readableByteCount() + "]";
+	}
+
+}
@@ -0,0 +1,631 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBufferFactory} that pools the {@link ByteBuffer ByteBuffers} backing
+ * its data buffers, for runtimes without a pooling allocator of their own such as
+ * Servlet containers and Undertow. Buffers are handed out as {@link PooledDataBuffer}
+ * instances and return their memory to the pool once released.
+ *
+ * <p>Pooled memory is organized in power-of-two size classes between
+ * {@link #MIN_POOLED_CAPACITY} and a configurable maximum capacity. Requests for
+ * larger buffers are served with unpooled memory; the same applies when a buffer
+ * needs to grow beyond its initial capacity. Each size class retains at most its
+ * share of the configured maximum number of pooled bytes.
+ *
+ * <p>Buffers that are garbage collected without having been released can be
+ * reported through {@linkplain #setLeakDetectionEnabled leak detection}, logging
+ * a warning along with the allocation site. Usage metrics are exposed through
+ * accessors such as {@link #getPoolHitCount()} and {@link #getActiveBufferCount()}.
+ *
+ * @since 5.3
+ * @see DefaultDataBufferFactory
+ */
+public class PooledDataBufferFactory implements DataBufferFactory {
+
+	/**
+	 * The smallest size class; smaller requests are served with buffers of this capacity.
+	 */
+	public static final int MIN_POOLED_CAPACITY = 256;
+
+	/**
+	 * The default largest size class: 64 KB.
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default maximum number of bytes retained by the pool: 32 MB.
+	 */
+	public static final long DEFAULT_MAX_POOLED_BYTES = 32 * 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final DefaultDataBufferFactory delegate;
+
+	private final SizeClass[] sizeClasses;
+
+	private volatile boolean leakDetectionEnabled;
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final ReferenceQueue<PooledByteBufferDataBuffer> leakQueue = new ReferenceQueue<>();
+
+	private final LongAdder allocationCount = new LongAdder();
+
+	private final LongAdder poolHitCount = new LongAdder();
+
+	private final LongAdder releaseCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with heap buffers and default settings.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default pool limits.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOLED_BYTES);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the largest buffer capacity to pool, rounded up to
+	 * the next power of two
+	 * @param maxPooledBytes the maximum number of bytes to retain in the pool,
+	 * split evenly between size classes
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, long maxPooledBytes) {
+		Assert.isTrue(maxPooledCapacity >= MIN_POOLED_CAPACITY,
+				"'maxPooledCapacity' must be at least " + MIN_POOLED_CAPACITY);
+		Assert.isTrue(maxPooledCapacity <= (1 << 30), "'maxPooledCapacity' must not exceed 1 GB");
+		Assert.isTrue(maxPooledBytes >= 0, "'maxPooledBytes' must not be negative");
+		this.preferDirect = preferDirect;
+		this.delegate = new DefaultDataBufferFactory(preferDirect);
+		int count = sizeClassIndex(maxPooledCapacity) + 1;
+		this.sizeClasses = new SizeClass[count];
+		for (int i = 0; i < count; i++) {
+			int capacity = MIN_POOLED_CAPACITY << i;
+			long maxBuffers = (maxPooledBytes / count) / capacity;
+			this.sizeClasses[i] = new SizeClass(capacity, (int) Math.min(maxBuffers, Integer.MAX_VALUE));
+		}
+	}
+
+
+	/**
+	 * Specify whether to track allocated buffers in order to report buffers that
+	 * have been garbage collected without having been released.
+	 * <p>Default is "false". Leak detection records the allocation site of every
+	 * buffer and is therefore meant for development and testing.
+	 */
+	public void setLeakDetectionEnabled(boolean leakDetectionEnabled) {
+		this.leakDetectionEnabled = leakDetectionEnabled;
+	}
+
+	/**
+	 * Return whether leak detection is enabled.
+	 */
+	public boolean isLeakDetectionEnabled() {
+		return this.leakDetectionEnabled;
+	}
+
+
+	@Override
+	public PooledDataBuffer allocateBuffer() {
+		return allocateBuffer(DefaultDataBufferFactory.DEFAULT_INITIAL_CAPACITY);
+	}
+
+	@Override
+	public PooledDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must not be negative");
+		detectLeaks();
+		this.allocationCount.increment();
+		ByteBuffer byteBuffer = null;
+		SizeClass sizeClass = null;
+		int index = sizeClassIndex(initialCapacity);
+		if (index < this.sizeClasses.length) {
+			sizeClass = this.sizeClasses[index];
+			byteBuffer = sizeClass.poll();
+			if (byteBuffer != null) {
+				this.poolHitCount.increment();
+			}
+		}
+		if (byteBuffer == null) {
+			int capacity = (sizeClass != null ? sizeClass.capacity : initialCapacity);
+			byteBuffer = (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+		}
+		// Expose the requested capacity only, with the remainder of the size class unused
+		ByteBuffer view = byteBuffer.duplicate();
+		view.limit(initialCapacity);
+		PooledByteBufferDataBuffer dataBuffer = new PooledByteBufferDataBuffer(
+				DefaultDataBuffer.fromEmptyByteBuffer(this.delegate, view.slice()), byteBuffer, sizeClass);
+		if (this.leakDetectionEnabled) {
+			dataBuffer.leakTracker = new LeakTracker(dataBuffer, this.leakQueue, byteBuffer.capacity());
+			this.leakTrackers.add(dataBuffer.leakTracker);
+		}
+		return dataBuffer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns an unpooled buffer since the given
+	 * {@code ByteBuffer} is not owned by this factory.
+	 */
+	@Override
+	public DataBuffer wrap(ByteBuffer byteBuffer) {
+		return this.delegate.wrap(byteBuffer);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns an unpooled buffer since the given
+	 * byte array is not owned by this factory.
+	 */
+	@Override
+	public DataBuffer wrap(byte[] bytes) {
+		return this.delegate.wrap(bytes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation allocates a single pooled buffer to contain the
+	 * data in {@code dataBuffers}, releasing the given buffers.
+	 */
+	@Override
+	public PooledDataBuffer join(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		int capacity = dataBuffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+		PooledDataBuffer result = allocateBuffer(capacity);
+		dataBuffers.forEach(result::write);
+		dataBuffers.forEach(DataBufferUtils::release);
+		return result;
+	}
+
+
+	// Metrics
+
+	/**
+	 * Return the number of buffers allocated through this factory so far.
+	 */
+	public long getAllocationCount() {
+		return this.allocationCount.sum();
+	}
+
+	/**
+	 * Return the number of allocations served with pooled memory so far.
+	 */
+	public long getPoolHitCount() {
+		return this.poolHitCount.sum();
+	}
+
+	/**
+	 * Return the number of buffers released so far.
+	 */
+	public long getReleaseCount() {
+		return this.releaseCount.sum();
+	}
+
+	/**
+	 * Return the number of buffers that have been allocated but not released yet.
+	 */
+	public long getActiveBufferCount() {
+		return getAllocationCount() - getReleaseCount();
+	}
+
+	/**
+	 * Return the number of buffers that have been reported as leaked so far.
+	 * Only tracked with {@linkplain #setLeakDetectionEnabled leak detection} enabled.
+	 */
+	public long getLeakCount() {
+		detectLeaks();
+		return this.leakCount.sum();
+	}
+
+	/**
+	 * Return the number of bytes currently retained by the pool for reuse.
+	 */
+	public long getPooledBytes() {
+		long pooledBytes = 0;
+		for (SizeClass sizeClass : this.sizeClasses) {
+			pooledBytes += (long) sizeClass.size.get() * sizeClass.capacity;
+		}
+		return pooledBytes;
+	}
+
+	/**
+	 * Drop all buffers currently retained by the pool.
+	 */
+	public void clear() {
+		for (SizeClass sizeClass : this.sizeClasses) {
+			sizeClass.clear();
+		}
+	}
+
+
+	private void detectLeaks() {
+		Reference<? extends PooledByteBufferDataBuffer> reference;
+		while ((reference = this.leakQueue.poll()) != null) {
+			LeakTracker leakTracker = (LeakTracker) reference;
+			if (this.leakTrackers.remove(leakTracker)) {
+				// Memory may still be referenced through ByteBuffer views: not reclaimed
+				this.leakCount.increment();
+				this.releaseCount.increment();
+				if (logger.isWarnEnabled()) {
+					logger.warn("DataBuffer with capacity " + leakTracker.capacity +
+							" was garbage collected without having been released", leakTracker.allocationSite);
+				}
+			}
+		}
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_POOLED_CAPACITY) {
+			return 0;
+		}
+		int shift = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+		return shift - Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+	}
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect + ", allocations=" +
+				getAllocationCount() + ", poolHits=" + getPoolHitCount() + ", active=" +
+				getActiveBufferCount() + ", pooledBytes=" + getPooledBytes() + ")";
+	}
+
+
+	/**
+	 * Pool of buffers of a given capacity.
+	 */
+	private static final class SizeClass {
+
+		private final int capacity;
+
+		private final int maxBuffers;
+
+		private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		SizeClass(int capacity, int maxBuffers) {
+			this.capacity = capacity;
+			this.maxBuffers = maxBuffers;
+		}
+
+		@Nullable
+		ByteBuffer poll() {
+			ByteBuffer byteBuffer = this.buffers.poll();
+			if (byteBuffer != null) {
+				this.size.decrementAndGet();
+			}
+			return byteBuffer;
+		}
+
+		void offer(ByteBuffer byteBuffer) {
+			if (this.size.incrementAndGet() <= this.maxBuffers) {
+				byteBuffer.clear();
+				this.buffers.offer(byteBuffer);
+			}
+			else {
+				this.size.decrementAndGet();
+			}
+		}
+
+		void clear() {
+			while (poll() != null) {
+				// drop buffer
+			}
+		}
+	}
+
+
+	/**
+	 * Tracks a buffer for leak detection, keeping its allocation site.
+	 */
+	private static final class LeakTracker extends PhantomReference<PooledByteBufferDataBuffer> {
+
+		private final int capacity;
+
+		private final Throwable allocationSite = new Throwable("Allocation site");
+
+		LeakTracker(PooledByteBufferDataBuffer dataBuffer,
+				ReferenceQueue<PooledByteBufferDataBuffer> queue, int capacity) {
+
+			super(dataBuffer, queue);
+			this.capacity = capacity;
+		}
+	}
+
+
+	/**
+	 * Base class for pooled buffers, returning the wrapper rather than the
+	 * underlying buffer from fluent methods.
+	 */
+	private abstract static class AbstractPooledDataBuffer extends DataBufferWrapper implements PooledDataBuffer {
+
+		AbstractPooledDataBuffer(DataBuffer dataBuffer) {
+			super(dataBuffer);
+		}
+
+		@Override
+		public DataBuffer capacity(int capacity) {
+			super.capacity(capacity);
+			return this;
+		}
+
+		@Override
+		public DataBuffer ensureCapacity(int capacity) {
+			super.ensureCapacity(capacity);
+			return this;
+		}
+
+		@Override
+		public DataBuffer readPosition(int readPosition) {
+			super.readPosition(readPosition);
+			return this;
+		}
+
+		@Override
+		public DataBuffer writePosition(int writePosition) {
+			super.writePosition(writePosition);
+			return this;
+		}
+
+		@Override
+		public DataBuffer read(byte[] destination) {
+			super.read(destination);
+			return this;
+		}
+
+		@Override
+		public DataBuffer read(byte[] destination, int offset, int length) {
+			super.read(destination, offset, length);
+			return this;
+		}
+
+		@Override
+		public DataBuffer write(byte b) {
+			super.write(b);
+			return this;
+		}
+
+		@Override
+		public DataBuffer write(byte[] source) {
+			super.write(source);
+			return this;
+		}
+
+		@Override
+		public DataBuffer write(byte[] source, int offset, int length) {
+			super.write(source, offset, length);
+			return this;
+		}
+
+		@Override
+		public DataBuffer write(DataBuffer... buffers) {
+			super.write(buffers);
+			return this;
+		}
+
+		@Override
+		public DataBuffer write(ByteBuffer... buffers) {
+			super.write(buffers);
+			return this;
+		}
+
+		@Override
+		public DataBuffer write(CharSequence charSequence, Charset charset) {
+			super.write(charSequence, charset);
+			return this;
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = dataBuffer().asInputStream();
+			return (releaseOnClose ? new ReleasingInputStream(inputStream, this) : inputStream);
+		}
+	}
+
+
+	/**
+	 * {@link PooledDataBuffer} backed by a {@link DefaultDataBuffer} over pooled
+	 * memory, returning the memory to its size class once released.
+	 */
+	private final class PooledByteBufferDataBuffer extends AbstractPooledDataBuffer {
+
+		private final ByteBuffer byteBuffer;
+
+		@Nullable
+		private final SizeClass sizeClass;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		@Nullable
+		private volatile LeakTracker leakTracker;
+
+		PooledByteBufferDataBuffer(DataBuffer dataBuffer, ByteBuffer byteBuffer, @Nullable SizeClass sizeClass) {
+			super(dataBuffer);
+			this.byteBuffer = byteBuffer;
+			this.sizeClass = sizeClass;
+		}
+
+		@Override
+		public DataBufferFactory factory() {
+			return PooledDataBufferFactory.this;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int refCount;
+			do {
+				refCount = this.refCount.get();
+				Assert.state(refCount > 0, "DataBuffer has already been released");
+			}
+			while (!this.refCount.compareAndSet(refCount, refCount + 1));
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int refCount = this.refCount.decrementAndGet();
+			if (refCount > 0) {
+				return false;
+			}
+			Assert.state(refCount == 0, "DataBuffer has already been released");
+			LeakTracker leakTracker = this.leakTracker;
+			if (leakTracker != null) {
+				leakTrackers.remove(leakTracker);
+				leakTracker.clear();
+			}
+			releaseCount.increment();
+			if (this.sizeClass != null) {
+				this.sizeClass.offer(this.byteBuffer);
+			}
+			return true;
+		}
+
+		@Override
+		public DataBuffer slice(int index, int length) {
+			return new PooledSlice(dataBuffer().slice(index, length), this);
+		}
+
+		@Override
+		public DataBuffer retainedSlice(int index, int length) {
+			DataBuffer slice = slice(index, length);
+			retain();
+			return slice;
+		}
+
+		@Override
+		public String toString() {
+			return "PooledDataBuffer (r: " + readPosition() + ", w: " + writePosition() + ", c: " + capacity() + ")";
+		}
+	}
+
+
+	/**
+	 * Slice of a pooled buffer, sharing its reference count.
+	 */
+	private static final class PooledSlice extends AbstractPooledDataBuffer {
+
+		private final PooledDataBuffer parent;
+
+		PooledSlice(DataBuffer slice, PooledDataBuffer parent) {
+			super(slice);
+			this.parent = parent;
+		}
+
+		@Override
+		public DataBufferFactory factory() {
+			return this.parent.factory();
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DataBuffer slice(int index, int length) {
+			return new PooledSlice(dataBuffer().slice(index, length), this.parent);
+		}
+
+		@Override
+		public DataBuffer retainedSlice(int index, int length) {
+			DataBuffer slice = slice(index, length);
+			this.parent.retain();
+			return slice;
+		}
+	}
+
+
+	/**
+	 * InputStream that releases the buffer it reads from when closed.
+	 */
+	private static final class ReleasingInputStream extends FilterInputStream {
+
+		private final PooledDataBuffer dataBuffer;
+
+		private boolean closed;
+
+		ReleasingInputStream(InputStream inputStream, PooledDataBuffer dataBuffer) {
+			super(inputStream);
+			this.dataBuffer = dataBuffer;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(this.dataBuffer);
+			}
+			super.close();
+		}
+	}
+
+}
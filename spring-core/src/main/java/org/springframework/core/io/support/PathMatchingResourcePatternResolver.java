@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.core.io.support;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -27,12 +28,20 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -203,6 +212,12 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	
 	private PathMatcher pathMatcher = new AntPathMatcher();
 	
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+	
+	/** Entry names per jar file URL, cached when scanning in parallel. */
+	private final Map<String, String[]> jarEntryNameCache = new ConcurrentHashMap<>();
+	
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
 	 * <p>ClassLoader access will happen via the thread context class loader.
@@ -268,6 +283,45 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 	
+	/**
+	 * Specify a {@link ForkJoinPool} to scan for matching resources in parallel:
+	 * root directories and jar files are searched concurrently, as are the
+	 * entries of each directory in a directory tree. Matching resources are
+	 * returned in the same order as with sequential scanning.
+	 * <p>When scanning in parallel, the entry names of each jar file searched
+	 * are cached for the lifetime of this resolver; see {@link #clearCache()}.
+	 * <p>Default is none, scanning sequentially in the calling thread.
+	 *
+	 * @param forkJoinPool the pool to scan with, or {@code null} to scan sequentially
+	 * @since 5.3
+	 */
+	public void setForkJoinPool(@Nullable ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+		if (forkJoinPool == null) {
+			clearCache();
+		}
+	}
+	
+	/**
+	 * Return the {@link ForkJoinPool} to scan with, if any.
+	 *
+	 * @since 5.3
+	 */
+	@Nullable
+	public ForkJoinPool getForkJoinPool() {
+		return this.forkJoinPool;
+	}
+	
+	/**
+	 * Clear the jar entry names cached when scanning in parallel.
+	 *
+	 * @since 5.3
+	 * @see #setForkJoinPool
+	 */
+	public void clearCache() {
+		this.jarEntryNameCache.clear();
+	}
+	
 	@Override
 	public Resource getResource(String location) {
 		return getResourceLoader().getResource(location);
@@ -490,23 +544,15 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
+		if (this.forkJoinPool != null && rootDirResources.length > 1) {
+			List<Callable<Set<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				tasks.add(() -> findPathMatchingResources(rootDirResource, subPattern));
 			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(
-						VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
-			} else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
-			} else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+			invokeAll(tasks).forEach(result::addAll);
+		} else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isTraceEnabled()) {
@@ -515,6 +561,25 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 	
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, String subPattern) throws IOException {
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		} else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		} else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+	
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -642,9 +707,7 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
+			for (String entryPath : getJarEntryNames(jarFile, jarFileUrl)) {
 				if (entryPath.startsWith(rootEntryPath)) {
 					String relativePath = entryPath.substring(rootEntryPath.length());
 					if (getPathMatcher().match(subPattern, relativePath)) {
@@ -660,6 +723,30 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 	
+	/**
+	 * Return the names of the entries in the given jar file,
+	 * cached per jar file URL when scanning in parallel.
+	 */
+	private String[] getJarEntryNames(JarFile jarFile, String jarFileUrl) {
+		if (this.forkJoinPool == null) {
+			return readJarEntryNames(jarFile);
+		}
+		String[] entryNames = this.jarEntryNameCache.get(jarFileUrl);
+		if (entryNames == null) {
+			entryNames = readJarEntryNames(jarFile);
+			this.jarEntryNameCache.putIfAbsent(jarFileUrl, entryNames);
+		}
+		return entryNames;
+	}
+	
+	private static String[] readJarEntryNames(JarFile jarFile) {
+		List<String> entryNames = new ArrayList<>(jarFile.size());
+		for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements(); ) {
+			entryNames.add(entries.nextElement().getName());
+		}
+		return entryNames.toArray(new String[0]);
+	}
+	
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -788,22 +875,41 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			logger.trace("Searching directory [" + dir.getAbsolutePath() +
 					"] for files matching pattern [" + fullPattern + "]");
 		}
-		for (File content : listDirectory(dir)) {
-			String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
-			if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
-				if (!content.canRead()) {
-					if (logger.isDebugEnabled()) {
-						logger.debug("Skipping subdirectory [" + dir.getAbsolutePath() +
-								"] because the application is not allowed to read the directory");
-					}
-				} else {
-					doRetrieveMatchingFiles(fullPattern, content, result);
-				}
+		File[] contents = listDirectory(dir);
+		if (this.forkJoinPool != null && contents.length > 1) {
+			List<Callable<Set<File>>> tasks = new ArrayList<>(contents.length);
+			for (File content : contents) {
+				tasks.add(() -> {
+					Set<File> contentResult = new LinkedHashSet<>(4);
+					doRetrieveMatchingFiles(fullPattern, dir, content, contentResult);
+					return contentResult;
+				});
+			}
+			invokeAll(tasks).forEach(result::addAll);
+		} else {
+			for (File content : contents) {
+				doRetrieveMatchingFiles(fullPattern, dir, content, result);
 			}
-			if (getPathMatcher().match(fullPattern, currPath)) {
-				result.add(content);
+		}
+	}
+	
+	private void doRetrieveMatchingFiles(String fullPattern, File dir, File content, Set<File> result)
+			throws IOException {
+		
+		String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
+		if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
+			if (!content.canRead()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Skipping subdirectory [" + dir.getAbsolutePath() +
+							"] because the application is not allowed to read the directory");
+				}
+			} else {
+				doRetrieveMatchingFiles(fullPattern, content, result);
 			}
 		}
+		if (getPathMatcher().match(fullPattern, currPath)) {
+			result.add(content);
+		}
 	}
 	
 	/**
@@ -826,6 +932,65 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return files;
 	}
 	
+	/**
+	 * Run the given tasks in the configured {@link ForkJoinPool}, propagating the
+	 * thread context ClassLoader of the calling thread.
+	 *
+	 * @return the results of the tasks, in the order of the tasks
+	 */
+	private <T> List<T> invokeAll(List<Callable<T>> tasks) throws IOException {
+		ForkJoinPool forkJoinPool = this.forkJoinPool;
+		Assert.state(forkJoinPool != null, "No ForkJoinPool set");
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		List<ForkJoinTask<T>> forkJoinTasks = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks) {
+			forkJoinTasks.add(ForkJoinTask.adapt(() -> {
+				Thread currentThread = Thread.currentThread();
+				ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+				currentThread.setContextClassLoader(classLoader);
+				try {
+					return task.call();
+				} finally {
+					currentThread.setContextClassLoader(originalClassLoader);
+				}
+			}));
+		}
+		try {
+			if (ForkJoinTask.getPool() == forkJoinPool) {
+				ForkJoinTask.invokeAll(forkJoinTasks);
+			} else {
+				forkJoinPool.submit(() -> ForkJoinTask.invokeAll(forkJoinTasks)).get();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while scanning for matching resources");
+		} catch (ExecutionException ex) {
+			throw rethrow(ex.getCause());
+		} catch (RuntimeException ex) {
+			throw rethrow(ex);
+		}
+		List<T> results = new ArrayList<>(forkJoinTasks.size());
+		for (ForkJoinTask<T> forkJoinTask : forkJoinTasks) {
+			results.add(forkJoinTask.join());
+		}
+		return results;
+	}
+	
+	private static RuntimeException rethrow(Throwable ex) throws IOException {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+		}
+		if (ex instanceof RuntimeException) {
+			throw (RuntimeException) ex;
+		}
+		if (ex instanceof Error) {
+			throw (Error) ex;
+		}
+		throw new IllegalStateException(ex);
+	}
+	
 	/**
 	 * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
 	 */
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link StartupStep} implementation to be buffered by
+ * {@link BufferingApplicationStartup}.
+ *
+ * @since 5.3
+ */
+class BufferedStartupStep implements StartupStep {
+
+	private final long id;
+
+	private final String name;
+
+	@Nullable
+	private final BufferedStartupStep parent;
+
+	private final Instant startTime;
+
+	private final Consumer<BufferedStartupStep> recorder;
+
+	private final DefaultTags tags = new DefaultTags();
+
+	private volatile boolean ended;
+
+
+	BufferedStartupStep(long id, String name, @Nullable BufferedStartupStep parent,
+			Instant startTime, Consumer<BufferedStartupStep> recorder) {
+
+		this.id = id;
+		this.name = name;
+		this.parent = parent;
+		this.startTime = startTime;
+		this.recorder = recorder;
+	}
+
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public long getId() {
+		return this.id;
+	}
+
+	@Override
+	@Nullable
+	public Long getParentId() {
+		return (this.parent != null ? this.parent.getId() : null);
+	}
+
+	@Nullable
+	BufferedStartupStep getParent() {
+		return this.parent;
+	}
+
+	Instant getStartTime() {
+		return this.startTime;
+	}
+
+	@Override
+	public StartupStep tag(String key, String value) {
+		Assert.state(!this.ended, "StartupStep has already ended.");
+		this.tags.add(key, value);
+		return this;
+	}
+
+	@Override
+	public StartupStep tag(String key, Supplier<String> value) {
+		return tag(key, value.get());
+	}
+
+	@Override
+	public Tags getTags() {
+		return this.tags;
+	}
+
+	@Override
+	public void end() {
+		Assert.state(!this.ended, "StartupStep has already ended.");
+		this.ended = true;
+		this.recorder.accept(this);
+	}
+
+
+	private static class DefaultTags implements Tags {
+
+		private final List<Tag> tags = Collections.synchronizedList(new ArrayList<>(4));
+
+		void add(String key, String value) {
+			this.tags.add(new DefaultTag(key, value));
+		}
+
+		@Override
+		public Iterator<Tag> iterator() {
+			synchronized (this.tags) {
+				return new ArrayList<>(this.tags).iterator();
+			}
+		}
+	}
+
+
+	private static class DefaultTag implements Tag {
+
+		private final String key;
+
+		private final String value;
+
+		DefaultTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
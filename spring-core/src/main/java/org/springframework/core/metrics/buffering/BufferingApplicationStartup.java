@@ -0,0 +1,155 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * in memory and records their timing.
+ *
+ * <p>Steps are kept in the order in which they ended, up to the given capacity;
+ * steps ending after the buffer is full are silently dropped. A {@link #addFilter
+ * filter} can be used to only record the steps of interest.
+ *
+ * <p>The recorded steps can be inspected with {@link #getBufferedTimeline()} or
+ * consumed with {@link #drainBufferedTimeline()}, which also frees up the buffer.
+ *
+ * <p>The parent of a step is the step currently in progress on the thread
+ * that starts it, so steps started concurrently on different threads, e.g.
+ * during parallel singleton pre-instantiation, are recorded independently.
+ *
+ * @since 5.3
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final Clock clock;
+
+	private final Instant startTime;
+
+	private final AtomicInteger estimatedSize = new AtomicInteger();
+
+	private final ConcurrentLinkedQueue<TimelineEvent> events = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong idSequence = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> current = new ThreadLocal<>();
+
+	private volatile Predicate<StartupStep> filter = step -> true;
+
+
+	/**
+	 * Create a new buffered {@link ApplicationStartup} with a limited capacity.
+	 * @param capacity the maximum number of steps to record
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		this(capacity, Clock.systemDefaultZone());
+	}
+
+	/**
+	 * Create a new buffered {@link ApplicationStartup} with a limited capacity,
+	 * using the given {@link Clock} for timestamps.
+	 * @param capacity the maximum number of steps to record
+	 * @param clock the clock to use for recording step start and end times
+	 */
+	public BufferingApplicationStartup(int capacity, Clock clock) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		Assert.notNull(clock, "Clock must not be null");
+		this.capacity = capacity;
+		this.clock = clock;
+		this.startTime = clock.instant();
+	}
+
+
+	/**
+	 * Add a predicate filter to the list of existing ones.
+	 * <p>A {@link StartupStep step} that doesn't match all filters will not be recorded.
+	 * @param filter the predicate filter to add
+	 */
+	public void addFilter(Predicate<StartupStep> filter) {
+		Assert.notNull(filter, "Filter must not be null");
+		this.filter = this.filter.and(filter);
+	}
+
+	@Override
+	public StartupStep start(String name) {
+		BufferedStartupStep parent = this.current.get();
+		BufferedStartupStep step = new BufferedStartupStep(this.idSequence.getAndIncrement(),
+				name, parent, this.clock.instant(), this::record);
+		this.current.set(step);
+		return step;
+	}
+
+	private void record(BufferedStartupStep step) {
+		if (this.current.get() == step) {
+			BufferedStartupStep parent = step.getParent();
+			if (parent != null) {
+				this.current.set(parent);
+			}
+			else {
+				this.current.remove();
+			}
+		}
+		if (this.filter.test(step) && this.estimatedSize.get() < this.capacity) {
+			this.estimatedSize.incrementAndGet();
+			this.events.add(new TimelineEvent(step, this.clock.instant()));
+		}
+	}
+
+	/**
+	 * Return the {@link StartupTimeline timeline} as a snapshot of currently buffered
+	 * steps.
+	 * <p>This will not remove steps from the buffer, see {@link #drainBufferedTimeline()}
+	 * for its counterpart.
+	 * @return a snapshot of currently buffered steps
+	 */
+	public StartupTimeline getBufferedTimeline() {
+		return new StartupTimeline(this.startTime, new ArrayList<>(this.events));
+	}
+
+	/**
+	 * Return the {@link StartupTimeline timeline} by pulling steps from the buffer.
+	 * <p>This removes steps from the buffer, see {@link #getBufferedTimeline()} for
+	 * its read-only counterpart.
+	 * @return buffered steps drained from the buffer
+	 */
+	public StartupTimeline drainBufferedTimeline() {
+		List<TimelineEvent> drained = new ArrayList<>(this.capacity);
+		for (Iterator<TimelineEvent> it = this.events.iterator(); it.hasNext();) {
+			drained.add(it.next());
+			it.remove();
+		}
+		this.estimatedSize.addAndGet(-drained.size());
+		return new StartupTimeline(this.startTime, drained);
+	}
+
+}
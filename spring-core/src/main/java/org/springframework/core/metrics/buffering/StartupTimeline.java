@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Represent the timeline of {@link StartupStep steps} recorded by
+ * {@link BufferingApplicationStartup}. Each {@link TimelineEvent} has a start
+ * and end time as well as the resulting duration.
+ *
+ * @since 5.3
+ */
+public class StartupTimeline {
+
+	private final Instant startTime;
+
+	private final List<TimelineEvent> events;
+
+
+	StartupTimeline(Instant startTime, List<TimelineEvent> events) {
+		this.startTime = startTime;
+		this.events = Collections.unmodifiableList(events);
+	}
+
+
+	/**
+	 * Return the start time of this timeline.
+	 */
+	public Instant getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Return the recorded events, in the order in which the steps ended.
+	 */
+	public List<TimelineEvent> getEvents() {
+		return this.events;
+	}
+
+
+	/**
+	 * Event on the current {@link StartupTimeline}. Each event has a start/end time,
+	 * a precise duration and the complete {@link StartupStep} information
+	 * associated with it.
+	 */
+	public static class TimelineEvent {
+
+		private final StartupStep step;
+
+		private final Instant startTime;
+
+		private final Instant endTime;
+
+		private final Duration duration;
+
+		TimelineEvent(BufferedStartupStep step, Instant endTime) {
+			this.step = step;
+			this.startTime = step.getStartTime();
+			this.endTime = endTime;
+			this.duration = Duration.between(this.startTime, this.endTime);
+		}
+
+		/**
+		 * Return the start time of this event.
+		 */
+		public Instant getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the end time of this event.
+		 */
+		public Instant getEndTime() {
+			return this.endTime;
+		}
+
+		/**
+		 * Return the duration of this event, i.e. the processing time of the
+		 * associated {@link StartupStep}.
+		 */
+		public Duration getDuration() {
+			return this.duration;
+		}
+
+		/**
+		 * Return the {@link StartupStep} information for this event.
+		 */
+		public StartupStep getStartupStep() {
+			return this.step;
+		}
+
+		@Override
+		public String toString() {
+			return this.step.getName() + " [" + this.duration.toMillis() + "ms]";
+		}
+	}
+
+}
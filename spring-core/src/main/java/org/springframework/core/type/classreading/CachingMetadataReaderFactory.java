@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,7 @@
 package org.springframework.core.type.classreading;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 
@@ -25,6 +25,7 @@ import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
@@ -40,10 +41,14 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	/** Default maximum number of entries for a local MetadataReader cache: 256. */
 	public static final int DEFAULT_CACHE_LIMIT = 256;
 
-	/** MetadataReader cache: either local or shared at the ResourceLoader level. */
+	/** MetadataReader cache shared at the ResourceLoader level, if any. */
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	/** Local MetadataReader cache, if any. */
+	@Nullable
+	private ConcurrentLruCache<Resource, MetadataReader> localMetadataReaderCache;
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -90,14 +95,12 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * even if the {@link ResourceLoader} supports a shared resource cache.
 	 */
 	public void setCacheLimit(int cacheLimit) {
+		this.metadataReaderCache = null;
 		if (cacheLimit <= 0) {
-			this.metadataReaderCache = null;
-		}
-		else if (this.metadataReaderCache instanceof LocalResourceCache) {
-			((LocalResourceCache) this.metadataReaderCache).setCacheLimit(cacheLimit);
+			this.localMetadataReaderCache = null;
 		}
-		else {
-			this.metadataReaderCache = new LocalResourceCache(cacheLimit);
+		else if (this.localMetadataReaderCache == null || this.localMetadataReaderCache.sizeLimit() != cacheLimit) {
+			this.localMetadataReaderCache = new ConcurrentLruCache<>(cacheLimit, this::createMetadataReader);
 		}
 	}
 
@@ -105,8 +108,8 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 * Return the maximum number of entries for the MetadataReader cache.
 	 */
 	public int getCacheLimit() {
-		if (this.metadataReaderCache instanceof LocalResourceCache) {
-			return ((LocalResourceCache) this.metadataReaderCache).getCacheLimit();
+		if (this.localMetadataReaderCache != null) {
+			return this.localMetadataReaderCache.sizeLimit();
 		}
 		else {
 			return (this.metadataReaderCache != null ? Integer.MAX_VALUE : 0);
@@ -125,14 +128,12 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			}
 			return metadataReader;
 		}
-		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
-				}
-				return metadataReader;
+		else if (this.localMetadataReaderCache != null) {
+			try {
+				return this.localMetadataReaderCache.get(resource);
+			}
+			catch (UncheckedIOException ex) {
+				throw ex.getCause();
 			}
 		}
 		else {
@@ -140,14 +141,21 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
+	private MetadataReader createMetadataReader(Resource resource) {
+		try {
+			return super.getMetadataReader(resource);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
 	 */
 	public void clearCache() {
-		if (this.metadataReaderCache instanceof LocalResourceCache) {
-			synchronized (this.metadataReaderCache) {
-				this.metadataReaderCache.clear();
-			}
+		if (this.localMetadataReaderCache != null) {
+			this.localMetadataReaderCache.clear();
 		}
 		else if (this.metadataReaderCache != null) {
 			// Shared resource cache -> reset to local cache.
@@ -155,29 +163,4 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
-
-	@SuppressWarnings("serial")
-	private static class LocalResourceCache extends LinkedHashMap<Resource, MetadataReader> {
-
-		private volatile int cacheLimit;
-
-		public LocalResourceCache(int cacheLimit) {
-			super(cacheLimit, 0.75f, true);
-			this.cacheLimit = cacheLimit;
-		}
-
-		public void setCacheLimit(int cacheLimit) {
-			this.cacheLimit = cacheLimit;
-		}
-
-		public int getCacheLimit() {
-			return this.cacheLimit;
-		}
-
-		@Override
-		protected boolean removeEldestEntry(Map.Entry<Resource, MetadataReader> eldest) {
-			return size() > this.cacheLimit;
-		}
-	}
-
 }
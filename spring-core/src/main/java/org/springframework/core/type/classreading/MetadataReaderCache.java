@@ -0,0 +1,257 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Concurrent, size-bounded cache of {@link MetadataReader} instances that can
+ * be shared between any number of application contexts, typically through
+ * {@link SharedMetadataReaderFactory}.
+ *
+ * <p>Entries are keyed by class file URL and last-modified timestamp, so that
+ * a changed class file gets parsed again, plus the {@link ClassLoader} that
+ * annotation types are resolved against. Class loaders are only referenced
+ * weakly from keys, and entries are held through soft references in addition
+ * to the size limit. Cached metadata may still keep a discarded class loader
+ * reachable until the garbage collector clears its entries under memory
+ * pressure; call {@link #clear(ClassLoader)} to release them right away.
+ * Eviction beyond the size limit happens in insertion order.
+ *
+ * <p>Hit and miss counts are recorded for monitoring purposes.
+ *
+ * @since 5.3
+ * @see #shared()
+ * @see SharedMetadataReaderFactory
+ */
+public class MetadataReaderCache {
+
+	/** Default maximum number of entries for a MetadataReaderCache: 4096. */
+	public static final int DEFAULT_CACHE_LIMIT = 4096;
+
+	private static final MetadataReaderCache sharedInstance = new MetadataReaderCache(DEFAULT_CACHE_LIMIT);
+
+
+	private final int cacheLimit;
+
+	private final ConcurrentMap<CacheKey, MetadataReader> cache = new ConcurrentReferenceHashMap<>(256);
+
+	private final Queue<CacheKey> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger insertionCount = new AtomicInteger();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+
+	/**
+	 * Create a new MetadataReaderCache with the given size limit.
+	 * @param cacheLimit the maximum number of entries to keep
+	 */
+	public MetadataReaderCache(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cacheLimit = cacheLimit;
+	}
+
+
+	/**
+	 * Return the JVM-wide shared MetadataReaderCache instance,
+	 * bounded to {@link #DEFAULT_CACHE_LIMIT} entries.
+	 */
+	public static MetadataReaderCache shared() {
+		return sharedInstance;
+	}
+
+
+	/**
+	 * Return the maximum number of entries for this cache.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the current number of entries in this cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the number of lookups served from this cache.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that required parsing a class file.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the ratio of lookups served from this cache,
+	 * or {@code 0} if no lookup happened yet.
+	 */
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return (total > 0 ? (double) hits / total : 0);
+	}
+
+	/**
+	 * Remove all entries from this cache and reset its statistics.
+	 */
+	public void clear() {
+		this.cache.clear();
+		this.insertionOrder.clear();
+		this.insertionCount.set(0);
+		this.hitCount.reset();
+		this.missCount.reset();
+	}
+
+	/**
+	 * Remove all entries for the given class loader from this cache,
+	 * typically when that class loader is being discarded.
+	 * @param classLoader the class loader to remove entries for
+	 */
+	public void clear(ClassLoader classLoader) {
+		Assert.notNull(classLoader, "ClassLoader must not be null");
+		this.insertionOrder.removeIf(key -> {
+			if (key.getClassLoader() != classLoader) {
+				return false;
+			}
+			this.insertionCount.decrementAndGet();
+			this.cache.remove(key);
+			return true;
+		});
+	}
+
+
+	/**
+	 * Create the cache key for the given class file resource.
+	 * @return the key, or {@code null} if the resource does not
+	 * expose a URL and last-modified timestamp and cannot be cached
+	 */
+	@Nullable
+	CacheKey createKey(Resource resource, @Nullable ClassLoader classLoader) {
+		try {
+			return new CacheKey(resource.getURL().toString(), resource.lastModified(), classLoader);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	MetadataReader get(CacheKey key) {
+		MetadataReader metadataReader = this.cache.get(key);
+		if (metadataReader != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+		}
+		return metadataReader;
+	}
+
+	void put(CacheKey key, MetadataReader metadataReader) {
+		if (this.cache.put(key, metadataReader) == null) {
+			this.insertionOrder.add(key);
+			if (this.insertionCount.incrementAndGet() > this.cacheLimit) {
+				CacheKey eldest = this.insertionOrder.poll();
+				if (eldest != null) {
+					this.insertionCount.decrementAndGet();
+					this.cache.remove(eldest);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MetadataReaderCache: size = " + size() + ", limit = " + this.cacheLimit +
+				", hits = " + getHitCount() + ", misses = " + getMissCount();
+	}
+
+
+	/**
+	 * Cache key for a class file as seen through a specific class loader.
+	 */
+	static final class CacheKey {
+
+		private final String url;
+
+		private final long lastModified;
+
+		@Nullable
+		private final WeakReference<ClassLoader> classLoader;
+
+		private final int hashCode;
+
+		CacheKey(String url, long lastModified, @Nullable ClassLoader classLoader) {
+			this.url = url;
+			this.lastModified = lastModified;
+			this.classLoader = (classLoader != null ? new WeakReference<>(classLoader) : null);
+			this.hashCode = (url.hashCode() * 31 + Long.hashCode(lastModified)) * 31 +
+					System.identityHashCode(classLoader);
+		}
+
+		@Nullable
+		private ClassLoader getClassLoader() {
+			return (this.classLoader != null ? this.classLoader.get() : null);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.hashCode == otherKey.hashCode && this.url.equals(otherKey.url) &&
+					this.lastModified == otherKey.lastModified && getClassLoader() == otherKey.getClassLoader());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return this.url + " [" + this.lastModified + "]";
+		}
+	}
+
+}
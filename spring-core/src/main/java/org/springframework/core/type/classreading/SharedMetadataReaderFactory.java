@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Caching implementation of the {@link MetadataReaderFactory} interface,
+ * backed by a {@link MetadataReaderCache} that can be shared across
+ * application contexts, by default the JVM-wide {@link MetadataReaderCache#shared()}
+ * instance.
+ *
+ * <p>In contrast to {@link CachingMetadataReaderFactory}, cached metadata is not
+ * bound to a particular {@link ResourceLoader}: parent and child contexts as well
+ * as successive test contexts reuse each other's parsed class files, while a
+ * class file that changed on disk gets parsed again.
+ *
+ * @since 5.3
+ * @see MetadataReaderCache
+ */
+public class SharedMetadataReaderFactory extends SimpleMetadataReaderFactory {
+
+	private final MetadataReaderCache metadataReaderCache;
+
+
+	/**
+	 * Create a new SharedMetadataReaderFactory for the default class loader,
+	 * using the shared cache.
+	 */
+	public SharedMetadataReaderFactory() {
+		super();
+		this.metadataReaderCache = MetadataReaderCache.shared();
+	}
+
+	/**
+	 * Create a new SharedMetadataReaderFactory for the given {@link ClassLoader},
+	 * using the shared cache.
+	 * @param classLoader the ClassLoader to use
+	 */
+	public SharedMetadataReaderFactory(@Nullable ClassLoader classLoader) {
+		super(classLoader);
+		this.metadataReaderCache = MetadataReaderCache.shared();
+	}
+
+	/**
+	 * Create a new SharedMetadataReaderFactory for the given {@link ResourceLoader},
+	 * using the shared cache.
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 */
+	public SharedMetadataReaderFactory(@Nullable ResourceLoader resourceLoader) {
+		this(resourceLoader, MetadataReaderCache.shared());
+	}
+
+	/**
+	 * Create a new SharedMetadataReaderFactory for the given {@link ResourceLoader},
+	 * using the given cache.
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 * @param metadataReaderCache the cache to use
+	 */
+	public SharedMetadataReaderFactory(@Nullable ResourceLoader resourceLoader,
+			MetadataReaderCache metadataReaderCache) {
+
+		super(resourceLoader);
+		Assert.notNull(metadataReaderCache, "MetadataReaderCache must not be null");
+		this.metadataReaderCache = metadataReaderCache;
+	}
+
+
+	/**
+	 * Return the cache used by this factory, e.g. for access to its statistics.
+	 */
+	public final MetadataReaderCache getMetadataReaderCache() {
+		return this.metadataReaderCache;
+	}
+
+	@Override
+	public MetadataReader getMetadataReader(Resource resource) throws IOException {
+		MetadataReaderCache.CacheKey key =
+				this.metadataReaderCache.createKey(resource, getResourceLoader().getClassLoader());
+		if (key == null) {
+			return super.getMetadataReader(resource);
+		}
+		MetadataReader metadataReader = this.metadataReaderCache.get(key);
+		if (metadataReader == null) {
+			metadataReader = super.getMetadataReader(resource);
+			this.metadataReaderCache.put(key, metadataReader);
+		}
+		return metadataReader;
+	}
+
+}
@@ -21,7 +21,6 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -75,7 +74,7 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/". */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+	private static final int DEFAULT_CACHE_LIMIT = 65536;
 
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?}");
 
@@ -90,12 +89,11 @@ public class AntPathMatcher implements PathMatcher {
 
 	private boolean trimTokens = false;
 
-	@Nullable
-	private volatile Boolean cachePatterns;
+	private volatile boolean cachePatterns = true;
 
-	private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+	private volatile ConcurrentLruCache<String, String[]> tokenizedPatternCache;
 
-	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+	volatile ConcurrentLruCache<String, AntPathStringMatcher> stringMatcherCache;
 
 
 	/**
@@ -104,6 +102,7 @@ public class AntPathMatcher implements PathMatcher {
 	public AntPathMatcher() {
 		this.pathSeparator = DEFAULT_PATH_SEPARATOR;
 		this.pathSeparatorPatternCache = new PathSeparatorPatternCache(DEFAULT_PATH_SEPARATOR);
+		initPatternCaches(DEFAULT_CACHE_LIMIT);
 	}
 
 	/**
@@ -115,6 +114,7 @@ public class AntPathMatcher implements PathMatcher {
 		Assert.notNull(pathSeparator, "'pathSeparator' is required");
 		this.pathSeparator = pathSeparator;
 		this.pathSeparatorPatternCache = new PathSeparatorPatternCache(pathSeparator);
+		initPatternCaches(DEFAULT_CACHE_LIMIT);
 	}
 
 
@@ -149,21 +149,21 @@ public class AntPathMatcher implements PathMatcher {
 	 * into this matcher's {@link #match} method. A value of {@code true}
 	 * activates an unlimited pattern cache; a value of {@code false} turns
 	 * the pattern cache off completely.
-	 * <p>Default is for the cache to be on, but with the variant to automatically
-	 * turn it off when encountering too many patterns to cache at runtime
-	 * (the threshold is 65536), assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Default is for the cache to be on, but limited to the 65536 most
+	 * recently used patterns, in case of arbitrary permutations of patterns
+	 * coming in at runtime.
 	 * @since 4.0.1
 	 * @see #getStringMatcher(String)
 	 */
 	public void setCachePatterns(boolean cachePatterns) {
 		this.cachePatterns = cachePatterns;
+		initPatternCaches(cachePatterns ? Integer.MAX_VALUE : 0);
 	}
 
-	private void deactivatePatternCache() {
-		this.cachePatterns = false;
-		this.tokenizedPatternCache.clear();
-		this.stringMatcherCache.clear();
+	private void initPatternCaches(int cacheLimit) {
+		this.tokenizedPatternCache = new ConcurrentLruCache<>(cacheLimit, this::tokenizePath);
+		this.stringMatcherCache = new ConcurrentLruCache<>(cacheLimit,
+				pattern -> new AntPathStringMatcher(pattern, this.caseSensitive));
 	}
 
 
@@ -395,25 +395,10 @@ public class AntPathMatcher implements PathMatcher {
 	 * @return the tokenized pattern parts
 	 */
 	protected String[] tokenizePattern(String pattern) {
-		String[] tokenized = null;
-		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			tokenized = this.tokenizedPatternCache.get(pattern);
+		if (!this.cachePatterns) {
+			return tokenizePath(pattern);
 		}
-		if (tokenized == null) {
-			tokenized = tokenizePath(pattern);
-			if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return tokenized;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.tokenizedPatternCache.put(pattern, tokenized);
-			}
-		}
-		return tokenized;
+		return this.tokenizedPatternCache.get(pattern);
 	}
 
 	/**
@@ -442,34 +427,18 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>The default implementation checks this AntPathMatcher's internal cache
 	 * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
 	 * if no cached copy is found.
-	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-	 * it turns the default cache off, assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>By default, the cache keeps the 65536 most recently used patterns,
+	 * in case of arbitrary permutations of patterns coming in at runtime.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
 	 * @see #setCachePatterns
 	 */
 	protected AntPathStringMatcher getStringMatcher(String pattern) {
-		AntPathStringMatcher matcher = null;
-		Boolean cachePatterns = this.cachePatterns;
-		if (cachePatterns == null || cachePatterns.booleanValue()) {
-			matcher = this.stringMatcherCache.get(pattern);
-		}
-		if (matcher == null) {
-			matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-			if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return matcher;
-			}
-			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.stringMatcherCache.put(pattern, matcher);
-			}
+		if (!this.cachePatterns) {
+			return new AntPathStringMatcher(pattern, this.caseSensitive);
 		}
-		return matcher;
+		return this.stringMatcherCache.get(pattern);
 	}
 
 	/**
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache limit.
+ *
+ * <p>This implementation is backed by a {@link ConcurrentHashMap}, so that
+ * looking up a cached value does not take any lock. Instead of reordering the
+ * entries on each access, every entry records when it was last used, and the
+ * least recently used entries are evicted in batches once the limit is
+ * exceeded. As long as the cache is less than half full, lookups of cached
+ * values do not record their use at all, since no eviction is due.
+ *
+ * <p>Values are created on demand by the generator function, which is invoked
+ * at most once per key as long as the key is cached. The generator is invoked
+ * without holding any lock shared with other keys: concurrent lookups of the
+ * same key wait for its value, while lookups of other keys proceed. The
+ * generator may access this cache for other keys, but not for the key that
+ * it generates the value for.
+ *
+ * <p>The number of cache hits and misses is available via {@link #hitCount()}
+ * and {@link #missCount()}.
+ *
+ * @since 5.3
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ * @see #get
+ */
+public class ConcurrentLruCache<K, V> {
+
+	/**
+	 * Fraction of the size limit to evict at once, so that finding the least
+	 * recently used entries is amortized over several insertions.
+	 */
+	private static final int EVICTION_BATCH_DIVISOR = 16;
+
+
+	private final int sizeLimit;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentHashMap<K, Node<V>> entries;
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+
+	/**
+	 * Create a new cache instance with the given limit and generator function.
+	 * @param sizeLimit the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int sizeLimit, Function<K, V> generator) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.sizeLimit = sizeLimit;
+		this.generator = generator;
+		this.entries = new ConcurrentHashMap<>(Math.min(sizeLimit, 64));
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.sizeLimit == 0) {
+			this.misses.increment();
+			return this.generator.apply(key);
+		}
+		Node<V> node = this.entries.get(key);
+		if (node != null) {
+			V value = node.value;
+			if (value != null) {
+				this.hits.increment();
+				recordUse(node);
+				return value;
+			}
+		}
+		return getOrGenerate(key);
+	}
+
+	private V getOrGenerate(K key) {
+		while (true) {
+			Node<V> node = this.entries.get(key);
+			if (node == null) {
+				Node<V> newNode = new Node<>();
+				node = this.entries.putIfAbsent(key, newNode);
+				if (node == null) {
+					node = newNode;
+				}
+			}
+			V value;
+			synchronized (node) {
+				value = node.value;
+				if (value != null) {
+					this.hits.increment();
+					recordUse(node);
+					return value;
+				}
+				if (this.entries.get(key) != node) {
+					// Generation failed in another thread, or the entry got removed: start over
+					continue;
+				}
+				this.misses.increment();
+				boolean generated = false;
+				try {
+					value = this.generator.apply(key);
+					Assert.state(value != null, "Generator function must not return null");
+					generated = true;
+				}
+				finally {
+					if (!generated) {
+						this.entries.remove(key, node);
+					}
+				}
+				node.lastUse = this.clock.incrementAndGet();
+				node.value = value;
+			}
+			evictIfNecessary();
+			return value;
+		}
+	}
+
+	/**
+	 * Record the use of the given entry, unless the cache is less than half
+	 * full or the entry is the most recently used one already.
+	 */
+	private void recordUse(Node<V> node) {
+		if (node.lastUse < this.clock.get() && this.entries.size() >= this.sizeLimit / 2) {
+			node.lastUse = this.clock.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Evict the least recently used entries if the size limit is exceeded,
+	 * unless another thread is evicting already. Enough entries are evicted
+	 * to leave room for a number of subsequent insertions.
+	 */
+	private void evictIfNecessary() {
+		if (this.entries.size() <= this.sizeLimit || !this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int excess = this.entries.size() - (this.sizeLimit - this.sizeLimit / EVICTION_BATCH_DIVISOR);
+			if (excess <= 0) {
+				return;
+			}
+			List<EvictionCandidate<K, V>> candidates = new ArrayList<>(this.entries.size());
+			for (Map.Entry<K, Node<V>> entry : this.entries.entrySet()) {
+				Node<V> node = entry.getValue();
+				if (node.value != null) {
+					candidates.add(new EvictionCandidate<>(entry.getKey(), node));
+				}
+			}
+			candidates.sort(Comparator.comparingLong(candidate -> candidate.lastUse));
+			for (int i = 0; i < excess && i < candidates.size(); i++) {
+				EvictionCandidate<K, V> candidate = candidates.get(i);
+				this.entries.remove(candidate.key, candidate.node);
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache,
+	 * without affecting the order of eviction.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		if (this.sizeLimit == 0) {
+			return false;
+		}
+		Node<V> node = this.entries.get(key);
+		return (node != null && node.value != null);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		if (this.sizeLimit == 0) {
+			return false;
+		}
+		Node<V> node = this.entries.remove(key);
+		return (node != null && node.value != null);
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+
+	/**
+	 * Perform the given action for each entry in this cache, without affecting
+	 * the order of eviction.
+	 * <p>Like iterating a {@link ConcurrentHashMap}, this reflects the state of
+	 * the cache at some point at or since the start of the iteration.
+	 * @param action the action to perform for each key and value
+	 */
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		this.entries.forEach((key, node) -> {
+			V value = node.value;
+			if (value != null) {
+				action.accept(key, value);
+			}
+		});
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 * @see #size()
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return the current size of the cache, including entries
+	 * whose value is being generated.
+	 * @see #sizeLimit()
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the number of lookups that found a cached value.
+	 * @see #missCount()
+	 */
+	public long hitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that had to generate a new value.
+	 * @see #hitCount()
+	 */
+	public long missCount() {
+		return this.misses.sum();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[size=" + size() + ", sizeLimit=" + this.sizeLimit +
+				", hits=" + hitCount() + ", misses=" + missCount() + "]";
+	}
+
+
+	/**
+	 * A cache entry: its value once generated, and the tick of the cache
+	 * clock at which it was last used.
+	 */
+	private static final class Node<V> {
+
+		@Nullable
+		volatile V value;
+
+		volatile long lastUse;
+	}
+
+
+	/**
+	 * An entry considered for eviction, with the time of its last use
+	 * captured so that it does not change while sorting.
+	 */
+	private static final class EvictionCandidate<K, V> {
+
+		final K key;
+
+		final Node<V> node;
+
+		final long lastUse;
+
+		EvictionCandidate(K key, Node<V> node) {
+			this.key = key;
+			this.node = node;
+			this.lastUse = node.lastUse;
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TypeMappedAnnotations}, covering the shared instances.
+ * See {@link MergedAnnotationsTests} for a much more extensive collection of tests.
+ */
+class TypeMappedAnnotationsTests {
+
+	@AfterEach
+	void clearCache() {
+		AnnotationUtils.clearCache();
+	}
+
+
+	@Test
+	void fromClassReturnsSharedInstancePerSearchStrategy() {
+		MergedAnnotations annotations = MergedAnnotations.from(WithComposed.class, SearchStrategy.TYPE_HIERARCHY);
+		assertThat(MergedAnnotations.from(WithComposed.class, SearchStrategy.TYPE_HIERARCHY)).isSameAs(annotations);
+		assertThat(MergedAnnotations.from(WithComposed.class, SearchStrategy.DIRECT)).isNotSameAs(annotations);
+		assertThat(MergedAnnotations.from(WithComposed.class, SearchStrategy.TYPE_HIERARCHY,
+				RepeatableContainers.none())).isNotSameAs(annotations);
+	}
+
+	@Test
+	void fromClassWithCustomFilterReturnsNewInstance() {
+		AnnotationFilter filter = AnnotationFilter.packages("java.lang");
+		MergedAnnotations annotations = MergedAnnotations.from(
+				WithComposed.class, SearchStrategy.DIRECT, RepeatableContainers.none(), filter);
+		assertThat(MergedAnnotations.from(WithComposed.class, SearchStrategy.DIRECT,
+				RepeatableContainers.none(), filter)).isNotSameAs(annotations);
+	}
+
+	@Test
+	void getReturnsSharedMergedAnnotationAndSynthesizedAnnotation() {
+		MergedAnnotation<Meta> annotation = MergedAnnotations.from(WithComposed.class).get(Meta.class);
+		assertThat(annotation.getString("value")).isEqualTo("test");
+		assertThat(MergedAnnotations.from(WithComposed.class).get(Meta.class)).isSameAs(annotation);
+		assertThat(MergedAnnotations.from(WithComposed.class).get(Meta.class.getName()).getString("value")).isEqualTo("test");
+		assertThat(MergedAnnotations.from(WithComposed.class).get(Meta.class).synthesize())
+				.isSameAs(annotation.synthesize());
+	}
+
+	@Test
+	void getWithPredicateDoesNotUseSharedResult() {
+		MergedAnnotation<Meta> annotation = MergedAnnotations.from(WithComposed.class).get(Meta.class);
+		MergedAnnotation<Meta> filtered = MergedAnnotations.from(WithComposed.class)
+				.get(Meta.class, candidate -> candidate.getDistance() == 0);
+		assertThat(annotation.isPresent()).isTrue();
+		assertThat(filtered.isPresent()).isFalse();
+	}
+
+	@Test
+	void isPresentReturnsSharedResult() {
+		MergedAnnotations annotations = MergedAnnotations.from(WithComposed.class);
+		assertThat(annotations.isPresent(Meta.class)).isTrue();
+		assertThat(annotations.isPresent(Meta.class)).isTrue();
+		assertThat(annotations.isDirectlyPresent(Meta.class)).isFalse();
+		assertThat(annotations.isDirectlyPresent(Composed.class)).isTrue();
+		assertThat(annotations.isPresent(Deprecated.class)).isFalse();
+	}
+
+	@Test
+	void findMergedAnnotationReturnsSharedSynthesizedAnnotation() throws Exception {
+		Method method = WithComposed.class.getMethod("handle");
+		Meta annotation = AnnotatedElementUtils.findMergedAnnotation(method, Meta.class);
+		assertThat(annotation.value()).isEqualTo("handle");
+		assertThat(AnnotatedElementUtils.findMergedAnnotation(method, Meta.class)).isSameAs(annotation);
+	}
+
+	@Test
+	void findAnnotationReturnsSharedSynthesizedAnnotation() throws Exception {
+		Method method = WithComposed.class.getMethod("handle");
+		Meta annotation = AnnotationUtils.findAnnotation(method, Meta.class);
+		assertThat(annotation.value()).isEmpty();
+		assertThat(AnnotationUtils.findAnnotation(method, Meta.class)).isSameAs(annotation);
+	}
+
+	@Test
+	void clearCacheDropsSharedInstances() {
+		MergedAnnotations annotations = MergedAnnotations.from(WithComposed.class);
+		MergedAnnotation<Meta> annotation = annotations.get(Meta.class);
+		AnnotationUtils.clearCache();
+		assertThat(MergedAnnotations.from(WithComposed.class)).isNotSameAs(annotations);
+		assertThat(MergedAnnotations.from(WithComposed.class).get(Meta.class)).isNotSameAs(annotation);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Meta {
+
+		String value() default "";
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Meta
+	@interface Composed {
+
+		@AliasFor(annotation = Meta.class)
+		String value() default "";
+	}
+
+	@Composed("test")
+	static class WithComposed {
+
+		@Composed("handle")
+		public void handle() {
+		}
+	}
+
+}
@@ -31,6 +31,7 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.FileRegionDataBuffer;
 import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.core.testfixture.io.buffer.AbstractLeakCheckingTests;
 import org.springframework.util.MimeType;
@@ -77,6 +78,26 @@ class ResourceRegionEncoderTests extends AbstractLeakCheckingTests {
 				.verify();
 	}
 
+	@Test
+	void shouldEncodeResourceRegionFileResourceMemoryMapped() {
+		this.encoder.setMemoryMappingThreshold(0);
+		ResourceRegion region = new ResourceRegion(
+				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()), 7, 9);
+		Flux<DataBuffer> result = this.encoder.encode(Mono.just(region), this.bufferFactory,
+				ResolvableType.forClass(ResourceRegion.class),
+				MimeTypeUtils.APPLICATION_OCTET_STREAM,
+				Collections.emptyMap());
+
+		StepVerifier.create(result)
+				.assertNext(buffer -> {
+					assertThat(buffer).isInstanceOf(FileRegionDataBuffer.class);
+					assertThat(((FileRegionDataBuffer) buffer).getFilePosition()).isEqualTo(7);
+					stringConsumer("Framework").accept(buffer);
+				})
+				.expectComplete()
+				.verify();
+	}
+
 	@Test
 	void shouldEncodeMultipleResourceRegionsFileResource() {
 		Resource resource = new ClassPathResource("ResourceRegionEncoderTests.txt", getClass());
@@ -628,6 +628,102 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection")))).isEqualTo(Collections.singleton("testX"));
 	}
 
+	@Test
+	void compileWithConverter() {
+		conversionService.addConverter(new MyStringToStringCollectionConverter());
+		CompiledConverter converter = conversionService.compile(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Collection.class));
+
+		assertThat(converter.convert("test")).isEqualTo(Collections.singleton("testX"));
+		assertThat(converter.convert(null)).isNull();
+		assertThat(conversionService.compile(TypeDescriptor.valueOf(String.class),
+				TypeDescriptor.valueOf(Collection.class))).isSameAs(converter);
+	}
+
+	@Test
+	void compileWithConverterFactory() {
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+		CompiledConverter converter = conversionService.compile(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Integer.class));
+
+		assertThat(converter.convert("3")).isEqualTo(3);
+		assertThat(converter.convert(null)).isNull();
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				converter.convert("three"))
+			.withCauseInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void compileWithStaticFactoryMethodAndToMethod() {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		CompiledConverter valueOf = conversionService.compile(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(CompiledValue.class));
+		CompiledConverter toString = conversionService.compile(
+				TypeDescriptor.valueOf(CompiledValue.class), TypeDescriptor.valueOf(StringBuilder.class));
+
+		Object value = valueOf.convert("test");
+		assertThat(value).isInstanceOf(CompiledValue.class);
+		assertThat(toString.convert(value).toString()).isEqualTo("test");
+		assertThat(valueOf.convert(null)).isNull();
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				valueOf.convert(""))
+			.withCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void compileWithCollectionElements() throws Exception {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		CompiledConverter converter = conversionService.compile(
+				TypeDescriptor.valueOf(List.class), new TypeDescriptor(getClass().getField("list")));
+
+		assertThat(converter.convert(Arrays.asList("1", "2", null))).isEqualTo(Arrays.asList(1, 2, null));
+		assertThat(converter.convert(Arrays.asList(3, "4", 5L))).isEqualTo(Arrays.asList(3, 4, 5));
+		List<Integer> integers = Arrays.asList(1, 2);
+		assertThat(converter.convert(integers)).isSameAs(integers);
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				converter.convert(Collections.singletonList("one")));
+	}
+
+	@Test
+	void compileWithoutConverter() {
+		CompiledConverter converter = conversionService.compile(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Integer.class));
+
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				converter.convert("3"));
+		assertThat(converter.convert(null)).isNull();
+		assertThatExceptionOfType(ConversionFailedException.class).isThrownBy(() ->
+				conversionService.compile(TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(int.class)).convert(null));
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				converter.convert(3));
+	}
+
+	@Test
+	void compileIsInvalidatedByAddingConverter() {
+		CompiledConverter converter = conversionService.compile(
+				TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Integer.class));
+		conversionService.addConverterFactory(new StringToNumberConverterFactory());
+
+		assertThat(conversionService.compile(TypeDescriptor.valueOf(String.class),
+				TypeDescriptor.valueOf(Integer.class))).isNotSameAs(converter);
+		assertThat(conversionService.compile(TypeDescriptor.valueOf(String.class),
+				TypeDescriptor.valueOf(Integer.class)).convert("3")).isEqualTo(3);
+	}
+
+	@Test
+	void convertWithCompileConversions() throws Exception {
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.setCompileConversions(true);
+
+		assertThat(conversionService.convert("3", Integer.class)).isEqualTo(3);
+		assertThat(conversionService.convert(null, Integer.class)).isNull();
+		assertThat(conversionService.convert(Arrays.asList("1", "2"), TypeDescriptor.valueOf(List.class),
+				new TypeDescriptor(getClass().getField("list")))).isEqualTo(Arrays.asList(1, 2));
+		assertThat(conversionService.convert("test", CompiledValue.class)).isInstanceOf(CompiledValue.class);
+		assertThatExceptionOfType(ConverterNotFoundException.class).isThrownBy(() ->
+				conversionService.convert("test", GenericConversionServiceTests.class));
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
@@ -654,6 +750,29 @@ class GenericConversionServiceTests {
 	public Collection<Integer> integerCollection;
 
 
+	private static class CompiledValue {
+
+		private final String value;
+
+		private CompiledValue(String value) {
+			this.value = value;
+		}
+
+		@SuppressWarnings("unused")
+		public static CompiledValue valueOf(String value) {
+			if (value.isEmpty()) {
+				throw new IllegalArgumentException("Empty value");
+			}
+			return new CompiledValue(value);
+		}
+
+		@SuppressWarnings("unused")
+		public StringBuilder toStringBuilder() {
+			return new StringBuilder(this.value);
+		}
+	}
+
+
 	@Retention(RetentionPolicy.RUNTIME)
 	private @interface ExampleAnnotation {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -332,4 +332,87 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+	@Test
+	void snapshotResolvesAccordingToPrecedence() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new MockPropertySource("ps1").withProperty("p1", "v1"));
+		ps.addLast(new MockPropertySource("ps2").withProperty("p1", "v2").withProperty("p2", "v2"));
+		ps.addLast(new MockPropertySource("ps3").withProperty("p3", "${p1}").withProperty("p4", "4"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setSnapshotEnabled(true);
+
+		assertThat(pr.getProperty("p1")).isEqualTo("v1");
+		assertThat(pr.getProperty("p2")).isEqualTo("v2");
+		assertThat(pr.getProperty("p3")).isEqualTo("v1");
+		assertThat(pr.getProperty("p4", Integer.class)).isEqualTo(4);
+		assertThat(pr.getProperty("bogus")).isNull();
+		assertThat(pr.containsProperty("p2")).isTrue();
+		assertThat(pr.containsProperty("bogus")).isFalse();
+	}
+
+	@Test
+	void snapshotResolvesSystemEnvironmentVariants() {
+		Map<String, Object> env = new HashMap<>();
+		env.put("FOO_BAR", "env");
+		env.put("baz", "env");
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new MockPropertySource("ps1").withProperty("baz", "ps1"));
+		ps.addLast(new SystemEnvironmentPropertySource("env", env));
+		ps.addLast(new MockPropertySource("ps2").withProperty("foo.bar", "ps2").withProperty("foo-bar", "ps2"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setSnapshotEnabled(true);
+
+		assertThat(pr.getProperty("foo.bar")).isEqualTo("env");
+		assertThat(pr.getProperty("foo-bar")).isEqualTo("env");
+		assertThat(pr.getProperty("FOO_BAR")).isEqualTo("env");
+		assertThat(pr.getProperty("foo_bar")).isEqualTo("env");
+		assertThat(pr.getProperty("baz")).isEqualTo("ps1");
+		assertThat(pr.getProperty("BAZ")).isNull();
+	}
+
+	@Test
+	void snapshotIsTakenAnewOnPropertySourcesChange() {
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(propertySources);
+		pr.setSnapshotEnabled(true);
+		testProperties.put("foo", "bar");
+		assertThat(pr.getProperty("foo")).isEqualTo("bar");
+
+		testProperties.put("foo", "baz");
+		assertThat(pr.getProperty("foo")).isEqualTo("bar");
+
+		propertySources.addFirst(new MockPropertySource("override").withProperty("foo", "override"));
+		assertThat(pr.getProperty("foo")).isEqualTo("override");
+
+		propertySources.remove("override");
+		assertThat(pr.getProperty("foo")).isEqualTo("baz");
+
+		testProperties.put("foo", "qux");
+		assertThat(pr.getProperty("foo")).isEqualTo("baz");
+		pr.refreshSnapshot();
+		assertThat(pr.getProperty("foo")).isEqualTo("qux");
+
+		pr.setSnapshotEnabled(false);
+		testProperties.put("foo", "quux");
+		assertThat(pr.getProperty("foo")).isEqualTo("quux");
+	}
+
+	@Test
+	void snapshotWithNonEnumerablePropertySource() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new PropertySource<Object>("dynamic", new Object()) {
+			@Override
+			public Object getProperty(String name) {
+				return (name.startsWith("dynamic.") ? "dynamic" : null);
+			}
+		});
+		ps.addLast(new MockPropertySource("ps1").withProperty("dynamic.p1", "static").withProperty("p1", "static"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setSnapshotEnabled(true);
+
+		assertThat(pr.getProperty("dynamic.p1")).isEqualTo("dynamic");
+		assertThat(pr.getProperty("dynamic.p2")).isEqualTo("dynamic");
+		assertThat(pr.getProperty("p1")).isEqualTo("static");
+		assertThat(pr.getProperty("p2")).isNull();
+	}
+
 }
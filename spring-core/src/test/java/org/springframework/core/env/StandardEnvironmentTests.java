@@ -19,6 +19,7 @@ package org.springframework.core.env;
 import java.security.AccessControlException;
 import java.security.Permission;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -380,6 +381,29 @@ public class StandardEnvironmentTests {
 		SpringProperties.setProperty("spring.getenv.ignore", null);
 	}
 
+	@Test
+	void propertySnapshot() {
+		StandardEnvironment environment = new StandardEnvironment();
+		System.setProperty("snapshot.key", "value1");
+		try {
+			environment.setPropertySnapshotEnabled(true);
+			assertThat(environment.isPropertySnapshotEnabled()).isTrue();
+			assertThat(environment.getProperty("snapshot.key")).isEqualTo("value1");
+
+			System.setProperty("snapshot.key", "value2");
+			assertThat(environment.getProperty("snapshot.key")).isEqualTo("value1");
+			environment.refreshPropertySnapshot();
+			assertThat(environment.getProperty("snapshot.key")).isEqualTo("value2");
+
+			environment.getPropertySources().addFirst(
+					new MapPropertySource("override", Collections.singletonMap("snapshot.key", "value3")));
+			assertThat(environment.getProperty("snapshot.key")).isEqualTo("value3");
+		}
+		finally {
+			System.clearProperty("snapshot.key");
+		}
+	}
+
 	@Test
 	void getSystemProperties_withAndWithoutSecurityManager() {
 		System.setProperty(ALLOWED_PROPERTY_NAME, ALLOWED_PROPERTY_VALUE);
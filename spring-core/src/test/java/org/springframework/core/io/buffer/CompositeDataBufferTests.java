@@ -0,0 +1,157 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.core.testfixture.io.buffer.AbstractDataBufferAllocatingTests;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ */
+class CompositeDataBufferTests extends AbstractDataBufferAllocatingTests {
+
+	private CompositeDataBuffer composite(String... values) {
+		List<DataBuffer> buffers = Arrays.stream(values).map(this::stringBuffer).collect(Collectors.toList());
+		return new CompositeDataBuffer(this.bufferFactory, buffers);
+	}
+
+
+	@ParameterizedDataBufferAllocatingTest
+	void readAcrossSegments(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("foo", "bar", "baz");
+		assertThat(buffer.capacity()).isEqualTo(9);
+		assertThat(buffer.readableByteCount()).isEqualTo(9);
+		assertThat(buffer.getByte(4)).isEqualTo((byte) 'a');
+
+		byte[] result = new byte[5];
+		buffer.read(result);
+		assertThat(result).isEqualTo("fooba".getBytes(StandardCharsets.UTF_8));
+		assertThat(buffer.read()).isEqualTo((byte) 'r');
+		assertThat(buffer.readableByteCount()).isEqualTo(3);
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void indexOf(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("ab", "cd", "ef");
+		assertThat(buffer.indexOf(b -> b == 'd', 0)).isEqualTo(3);
+		assertThat(buffer.indexOf(b -> b == 'b', 2)).isEqualTo(-1);
+		assertThat(buffer.lastIndexOf(b -> b == 'c', 5)).isEqualTo(2);
+		assertThat(buffer.lastIndexOf(b -> b == 'e', 3)).isEqualTo(-1);
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void writeBeyondCapacity(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("foo", "bar");
+		buffer.writePosition(4);
+		buffer.write("BAZQUX".getBytes(StandardCharsets.UTF_8));
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("foobBAZQUX");
+
+		buffer.write((byte) '!');
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("foobBAZQUX!");
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void slice(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("foo", "bar", "baz");
+		DataBuffer slice = buffer.retainedSlice(2, 5);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("obarb");
+
+		assertThat(buffer.release()).isFalse();
+		assertThat(buffer.isAllocated()).isTrue();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void asByteBuffers(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("foo", "bar");
+		buffer.readPosition(1);
+
+		ByteBuffer[] byteBuffers = buffer.asByteBuffers();
+		assertThat(byteBuffers).hasSize(2);
+		assertThat(byteBuffers[0].remaining()).isEqualTo(2);
+		assertThat(byteBuffers[1].remaining()).isEqualTo(3);
+
+		ByteBuffer byteBuffer = buffer.asByteBuffer();
+		byte[] result = new byte[byteBuffer.remaining()];
+		byteBuffer.get(result);
+		assertThat(result).isEqualTo("oobar".getBytes(StandardCharsets.UTF_8));
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void asInputStream(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("foo", "bar", "baz");
+		try (InputStream inputStream = buffer.asInputStream(true)) {
+			assertThat(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8)).isEqualTo("foobarbaz");
+		}
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void toStringWithCharacterSplitAcrossSegments(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		byte[] bytes = "aé€".getBytes(StandardCharsets.UTF_8);
+		CompositeDataBuffer buffer = new CompositeDataBuffer(bufferFactory, Arrays.asList(
+				byteBuffer(Arrays.copyOfRange(bytes, 0, 2)),
+				byteBuffer(Arrays.copyOfRange(bytes, 2, 4)),
+				byteBuffer(Arrays.copyOfRange(bytes, 4, bytes.length))));
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("aé€");
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void tooManyReleases(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		CompositeDataBuffer buffer = composite("foo", "bar");
+		buffer.release();
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(buffer::release);
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.core.io.buffer;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
@@ -31,7 +32,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 
 import io.netty.buffer.ByteBuf;
@@ -48,6 +52,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.testfixture.io.buffer.AbstractDataBufferAllocatingTests;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.isA;
@@ -276,6 +281,90 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 				.verify(Duration.ofSeconds(5));
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedPath(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Path path = this.resource.getFile().toPath();
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, 0, -1, super.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.assertNext(buffer -> {
+					assertThat(buffer).isInstanceOf(FileRegionDataBuffer.class);
+					assertThat(((FileRegionDataBuffer) buffer).getFile()).isEqualTo(path);
+					assertThat(((FileRegionDataBuffer) buffer).getFilePosition()).isEqualTo(0);
+					stringConsumer("foo").accept(buffer);
+				})
+				.consumeNextWith(stringConsumer("bar"))
+				.consumeNextWith(stringConsumer("baz"))
+				.consumeNextWith(stringConsumer("qux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedResourcePositionAndCount(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(this.resource, 4, 7, super.bufferFactory, 4);
+
+		StepVerifier.create(flux)
+				.assertNext(buffer -> {
+					FileRegionDataBuffer fileRegion = (FileRegionDataBuffer) buffer;
+					assertThat(fileRegion.getFilePosition()).isEqualTo(4);
+					fileRegion.read();
+					assertThat(fileRegion.getFilePosition()).isEqualTo(5);
+					assertThat(fileRegion.readableByteCount()).isEqualTo(3);
+					stringConsumer("rba").accept(buffer);
+				})
+				.assertNext(buffer -> {
+					assertThat(((FileRegionDataBuffer) buffer).getFilePosition()).isEqualTo(8);
+					stringConsumer("zqu").accept(buffer);
+				})
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedMaxCount(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Path path = this.resource.getFile().toPath();
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, 6, Long.MAX_VALUE, super.bufferFactory, 4);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("bazq"))
+				.consumeNextWith(stringConsumer("ux"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedMapsOnFirstAccess(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Path path = this.tempFile.resolveSibling(this.tempFile.getFileName() + ".missing");
+		FileRegionDataBuffer buffer = new FileRegionDataBuffer(path, 4, 8, super.bufferFactory);
+		buffer.readPosition(2);
+
+		assertThat(buffer.getFilePosition()).isEqualTo(6);
+		assertThat(buffer.readableByteCount()).isEqualTo(6);
+		assertThatExceptionOfType(UncheckedIOException.class).isThrownBy(buffer::asByteBuffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedNonFileResource(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Resource resource = new ByteArrayResource("foobarbazqux".getBytes(StandardCharsets.UTF_8));
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(resource, 3, 6, super.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("barbaz"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void readByteArrayResourcePositionAndTakeUntil(String displayName, DataBufferFactory bufferFactory) throws Exception {
 		super.bufferFactory = bufferFactory;
@@ -834,6 +923,56 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 				.verifyError(DataBufferLimitException.class);
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void compose(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo");
+		DataBuffer bar = stringBuffer("bar");
+		DataBuffer baz = stringBuffer("baz");
+		Flux<DataBuffer> flux = Flux.just(foo, bar, baz);
+		Mono<DataBuffer> result = DataBufferUtils.compose(flux, -1);
+
+		StepVerifier.create(result)
+				.consumeNextWith(buf -> {
+					if (bufferFactory instanceof NettyDataBufferFactory) {
+						assertThat(buf).isInstanceOf(NettyDataBuffer.class);
+					}
+					else {
+						assertThat(buf).isInstanceOf(CompositeDataBuffer.class);
+					}
+					assertThat(buf.toString(StandardCharsets.UTF_8)).isEqualTo("foobarbaz");
+					release(buf);
+				})
+				.verifyComplete();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void composeSingleBuffer(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer foo = stringBuffer("foo");
+		Mono<DataBuffer> result = DataBufferUtils.compose(Flux.just(foo), -1);
+
+		StepVerifier.create(result)
+				.consumeNextWith(buf -> {
+					assertThat(buf).isSameAs(foo);
+					release(buf);
+				})
+				.verifyComplete();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void composeWithLimit(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = Flux.just(stringBuffer("foo"), stringBuffer("bar"), stringBuffer("baz"));
+		Mono<DataBuffer> result = DataBufferUtils.compose(flux, 8);
+
+		StepVerifier.create(result)
+				.verifyError(DataBufferLimitException.class);
+	}
+
 	@ParameterizedDataBufferAllocatingTest
 	void joinErrors(String displayName, DataBufferFactory bufferFactory) {
 		super.bufferFactory = bufferFactory;
@@ -902,6 +1041,77 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 		release(foo);
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void matcherLongBuffer(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		byte[] bytes = new byte[100];
+		Arrays.fill(bytes, (byte) 'a');
+		bytes[41] = '\r';
+		bytes[42] = '\n';
+		bytes[99] = '\n';
+		DataBuffer buffer = byteBuffer(bytes);
+
+		DataBufferUtils.Matcher matcher = DataBufferUtils.matcher("\r\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(matcher.match(buffer)).isEqualTo(42);
+		buffer.readPosition(43);
+		assertThat(matcher.match(buffer)).isEqualTo(-1);
+
+		matcher = DataBufferUtils.matcher("\n".getBytes(StandardCharsets.UTF_8));
+		assertThat(matcher.match(buffer)).isEqualTo(99);
+
+		release(buffer);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void matcherConsistentWithKnuthMorrisPratt(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		Random random = new Random(42);
+		byte[] alphabet = "ab\r\n".getBytes(StandardCharsets.UTF_8);
+		String[] delimiters = {"\n", "\r\n", "abab", "aab", "baaab"};
+
+		for (int run = 0; run < 20; run++) {
+			byte[] bytes = new byte[random.nextInt(500) + 1];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = alphabet[random.nextInt(alphabet.length)];
+			}
+			List<DataBuffer> chunks = new ArrayList<>();
+			for (int i = 0; i < bytes.length; ) {
+				int length = Math.min(random.nextInt(100) + 1, bytes.length - i);
+				chunks.add(byteBuffer(Arrays.copyOfRange(bytes, i, i + length)));
+				i += length;
+			}
+			DataBuffer composite = DataBufferUtils.compose(
+					Arrays.asList(DataBufferUtils.retain(chunks.get(0)), byteBuffer(bytes)));
+
+			for (String delimiter : delimiters) {
+				byte[] delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+				List<DataBuffer> buffers = new ArrayList<>(chunks);
+				buffers.add(composite);
+				assertThat(matchAll(DataBufferUtils.matcher(delimiterBytes), buffers))
+						.isEqualTo(matchAll(DataBufferUtils.knuthMorrisPrattMatcher(delimiterBytes), buffers));
+			}
+			chunks.forEach(this::release);
+			release(composite);
+		}
+	}
+
+	private static List<Integer> matchAll(DataBufferUtils.Matcher matcher, List<DataBuffer> buffers) {
+		List<Integer> result = new ArrayList<>();
+		for (DataBuffer buffer : buffers) {
+			int readPosition = buffer.readPosition();
+			int endIndex;
+			while ((endIndex = matcher.match(buffer)) != -1) {
+				result.add(endIndex);
+				buffer.readPosition(endIndex + 1);
+			}
+			result.add(-1);
+			buffer.readPosition(readPosition);
+		}
+		return result;
+	}
+
 
 	private static class ZeroDemandSubscriber extends BaseSubscriber<DataBuffer> {
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory();
+
+
+	@Test
+	void allocateReturnsRequestedCapacity() {
+		PooledDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		assertThat(buffer.capacity()).isEqualTo(100);
+		assertThat(buffer.factory()).isSameAs(this.bufferFactory);
+		buffer.release();
+	}
+
+	@Test
+	void reuseAfterRelease() {
+		PooledDataBuffer buffer = this.bufferFactory.allocateBuffer(300);
+		buffer.write("foo", StandardCharsets.UTF_8);
+		buffer.release();
+		assertThat(this.bufferFactory.getPooledBytes()).isEqualTo(512);
+
+		PooledDataBuffer reused = this.bufferFactory.allocateBuffer(400);
+		assertThat(reused.readableByteCount()).isEqualTo(0);
+		assertThat(reused.capacity()).isEqualTo(400);
+		assertThat(this.bufferFactory.getPoolHitCount()).isEqualTo(1);
+		assertThat(this.bufferFactory.getPooledBytes()).isEqualTo(0);
+		reused.release();
+	}
+
+	@Test
+	void largeBuffersAreNotPooled() {
+		PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 1024, 1024 * 1024);
+		PooledDataBuffer buffer = bufferFactory.allocateBuffer(2048);
+		assertThat(buffer.capacity()).isEqualTo(2048);
+		buffer.release();
+		assertThat(bufferFactory.getPooledBytes()).isEqualTo(0);
+		assertThat(bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void poolIsBounded() {
+		PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 256, 512);
+		PooledDataBuffer[] buffers = new PooledDataBuffer[3];
+		Arrays.setAll(buffers, i -> bufferFactory.allocateBuffer(10));
+		Arrays.stream(buffers).forEach(PooledDataBuffer::release);
+		assertThat(bufferFactory.getPooledBytes()).isEqualTo(512);
+
+		bufferFactory.clear();
+		assertThat(bufferFactory.getPooledBytes()).isEqualTo(0);
+	}
+
+	@Test
+	void metrics() {
+		PooledDataBuffer buffer1 = this.bufferFactory.allocateBuffer();
+		PooledDataBuffer buffer2 = this.bufferFactory.allocateBuffer();
+		assertThat(this.bufferFactory.getAllocationCount()).isEqualTo(2);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(2);
+
+		buffer1.release();
+		buffer2.release();
+		assertThat(this.bufferFactory.getReleaseCount()).isEqualTo(2);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void sliceSharesReferenceCount() {
+		PooledDataBuffer buffer = this.bufferFactory.allocateBuffer();
+		buffer.write("foobar", StandardCharsets.UTF_8);
+
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bar");
+		assertThat(buffer.release()).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(buffer.isAllocated()).isFalse();
+		assertThatIllegalStateException().isThrownBy(buffer::retain);
+	}
+
+	@Test
+	void inputStreamReleasesOnClose() throws Exception {
+		PooledDataBuffer buffer = this.bufferFactory.allocateBuffer();
+		buffer.write("foo", StandardCharsets.UTF_8);
+
+		try (InputStream inputStream = buffer.asInputStream(true)) {
+			assertThat(inputStream.read()).isEqualTo('f');
+		}
+		assertThat(buffer.isAllocated()).isFalse();
+	}
+
+	@Test
+	void join() {
+		DataBuffer foo = this.bufferFactory.allocateBuffer().write("foo", StandardCharsets.UTF_8);
+		DataBuffer bar = this.bufferFactory.allocateBuffer().write("bar", StandardCharsets.UTF_8);
+
+		PooledDataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		result.release();
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void leakDetection() throws Exception {
+		this.bufferFactory.setLeakDetectionEnabled(true);
+		allocateAndForget();
+
+		for (int i = 0; i < 50 && this.bufferFactory.getLeakCount() == 0; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertThat(this.bufferFactory.getLeakCount()).isEqualTo(1);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void noLeakDetectedForReleasedBuffer() throws Exception {
+		this.bufferFactory.setLeakDetectionEnabled(true);
+		this.bufferFactory.allocateBuffer().release();
+
+		System.gc();
+		Thread.sleep(20);
+		assertThat(this.bufferFactory.getLeakCount()).isEqualTo(0);
+	}
+
+	private void allocateAndForget() {
+		this.bufferFactory.allocateBuffer().write((byte) 'a');
+	}
+
+}
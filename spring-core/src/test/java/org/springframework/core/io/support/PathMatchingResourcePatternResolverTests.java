@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -129,6 +130,26 @@ class PathMatchingResourcePatternResolverTests {
 		assertThat(found).as("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar").isTrue();
 	}
 
+	@Test
+	void parallelScanningPreservesOrder() throws IOException {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+			parallelResolver.setForkJoinPool(forkJoinPool);
+			for (String pattern : new String[] {"classpath*:org/springframework/core/io/**/*.class",
+					"classpath*:reactor/util/**/*.class", "classpath*:*.dtd"}) {
+				Resource[] expected = resolver.getResources(pattern);
+				assertThat(expected).isNotEmpty();
+				assertThat(parallelResolver.getResources(pattern)).containsExactly(expected);
+				// Again with cached jar entry names
+				assertThat(parallelResolver.getResources(pattern)).containsExactly(expected);
+			}
+		}
+		finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.buffering.StartupTimeline.TimelineEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BufferingApplicationStartup}.
+ */
+class BufferingApplicationStartupTests {
+
+	@Test
+	void recordsStepsInEndOrder() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep first = startup.start("first");
+		StartupStep second = startup.start("second");
+		second.end();
+		first.end();
+		List<TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+		assertThat(events).extracting(event -> event.getStartupStep().getName()).containsExactly("second", "first");
+	}
+
+	@Test
+	void tracksParentSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep parent = startup.start("parent");
+		StartupStep child = startup.start("child");
+		child.end();
+		StartupStep sibling = startup.start("sibling");
+		sibling.end();
+		parent.end();
+		assertThat(parent.getParentId()).isNull();
+		assertThat(child.getParentId()).isEqualTo(parent.getId());
+		assertThat(sibling.getParentId()).isEqualTo(parent.getId());
+	}
+
+	@Test
+	void tracksParentStepsPerThread() throws Exception {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep parent = startup.start("parent");
+		AtomicReference<StartupStep> other = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			StartupStep step = startup.start("other");
+			step.end();
+			other.set(step);
+		});
+		thread.start();
+		thread.join();
+		StartupStep child = startup.start("child");
+		child.end();
+		parent.end();
+		assertThat(other.get().getParentId()).isNull();
+		assertThat(child.getParentId()).isEqualTo(parent.getId());
+	}
+
+	@Test
+	void recordsTags() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		startup.start("step").tag("name", "value").tag("supplied", () -> "other").end();
+		StartupStep step = startup.getBufferedTimeline().getEvents().get(0).getStartupStep();
+		assertThat(step.getTags()).extracting(StartupStep.Tag::getKey).containsExactly("name", "supplied");
+		assertThat(step.getTags()).extracting(StartupStep.Tag::getValue).containsExactly("value", "other");
+	}
+
+	@Test
+	void dropsStepsWhenCapacityIsReached() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2);
+		startup.start("first").end();
+		startup.start("second").end();
+		startup.start("third").end();
+		assertThat(startup.getBufferedTimeline().getEvents()).hasSize(2);
+	}
+
+	@Test
+	void appliesFilters() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		startup.addFilter(step -> step.getName().startsWith("spring.beans"));
+		startup.start("spring.beans.instantiate").end();
+		startup.start("spring.context.refresh").end();
+		assertThat(startup.getBufferedTimeline().getEvents())
+				.extracting(event -> event.getStartupStep().getName()).containsExactly("spring.beans.instantiate");
+	}
+
+	@Test
+	void drainingFreesUpCapacity() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(1);
+		startup.start("first").end();
+		assertThat(startup.drainBufferedTimeline().getEvents()).hasSize(1);
+		assertThat(startup.getBufferedTimeline().getEvents()).isEmpty();
+		startup.start("second").end();
+		assertThat(startup.getBufferedTimeline().getEvents())
+				.extracting(event -> event.getStartupStep().getName()).containsExactly("second");
+	}
+
+	@Test
+	void endingTwiceFails() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep step = startup.start("step");
+		step.end();
+		assertThatIllegalStateException().isThrownBy(step::end);
+	}
+
+}
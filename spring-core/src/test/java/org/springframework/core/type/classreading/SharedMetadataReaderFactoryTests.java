@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SharedMetadataReaderFactory} and {@link MetadataReaderCache}.
+ */
+class SharedMetadataReaderFactoryTests {
+
+	private final MetadataReaderCache cache = new MetadataReaderCache(16);
+
+
+	@Test
+	void cacheSharedAcrossFactories() throws IOException {
+		SharedMetadataReaderFactory first = new SharedMetadataReaderFactory(new DefaultResourceLoader(), this.cache);
+		SharedMetadataReaderFactory second = new SharedMetadataReaderFactory(new DefaultResourceLoader(), this.cache);
+		MetadataReader reader = first.getMetadataReader(getClass().getName());
+		assertThat(second.getMetadataReader(getClass().getName())).isSameAs(reader);
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+		assertThat(this.cache.getHitRatio()).isEqualTo(0.5);
+	}
+
+	@Test
+	void cacheSeparatedPerClassLoader() throws IOException {
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+			SharedMetadataReaderFactory first = new SharedMetadataReaderFactory(new DefaultResourceLoader(), this.cache);
+			SharedMetadataReaderFactory second = new SharedMetadataReaderFactory(
+					new DefaultResourceLoader(classLoader), this.cache);
+			MetadataReader reader = first.getMetadataReader(getClass().getName());
+			assertThat(second.getMetadataReader(getClass().getName())).isNotSameAs(reader);
+			assertThat(this.cache.size()).isEqualTo(2);
+			assertThat(this.cache.getMissCount()).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void clearPerClassLoader() throws IOException {
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader())) {
+			SharedMetadataReaderFactory first = new SharedMetadataReaderFactory(new DefaultResourceLoader(), this.cache);
+			SharedMetadataReaderFactory second = new SharedMetadataReaderFactory(
+					new DefaultResourceLoader(classLoader), this.cache);
+			MetadataReader reader = first.getMetadataReader(getClass().getName());
+			second.getMetadataReader(getClass().getName());
+			this.cache.clear(classLoader);
+			assertThat(this.cache.size()).isEqualTo(1);
+			assertThat(first.getMetadataReader(getClass().getName())).isSameAs(reader);
+			second.getMetadataReader(getClass().getName());
+			assertThat(this.cache.getMissCount()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void changedClassFileIsParsedAgain() throws IOException {
+		SharedMetadataReaderFactory factory = new SharedMetadataReaderFactory(new DefaultResourceLoader(), this.cache);
+		URL url = getClass().getResource(getClass().getSimpleName() + ".class");
+		MetadataReader reader = factory.getMetadataReader(new ModifiableUrlResource(url, 1));
+		assertThat(factory.getMetadataReader(new ModifiableUrlResource(url, 1))).isSameAs(reader);
+		assertThat(factory.getMetadataReader(new ModifiableUrlResource(url, 2))).isNotSameAs(reader);
+	}
+
+	@Test
+	void cacheLimitIsEnforced() throws IOException {
+		MetadataReaderCache cache = new MetadataReaderCache(2);
+		SharedMetadataReaderFactory factory = new SharedMetadataReaderFactory(new DefaultResourceLoader(), cache);
+		factory.getMetadataReader(getClass().getName());
+		factory.getMetadataReader(ModifiableUrlResource.class.getName());
+		factory.getMetadataReader(MetadataReaderCache.class.getName());
+		assertThat(cache.size()).isEqualTo(2);
+		factory.getMetadataReader(getClass().getName());
+		assertThat(cache.getHitCount()).isEqualTo(0);
+		assertThat(cache.getMissCount()).isEqualTo(4);
+	}
+
+	@Test
+	void clearResetsStatistics() throws IOException {
+		SharedMetadataReaderFactory factory = new SharedMetadataReaderFactory(new DefaultResourceLoader(), this.cache);
+		factory.getMetadataReader(getClass().getName());
+		this.cache.clear();
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.getMissCount()).isEqualTo(0);
+	}
+
+
+	private static class ModifiableUrlResource extends UrlResource {
+
+		private final long lastModified;
+
+		ModifiableUrlResource(URL url, long lastModified) {
+			super(url);
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
@@ -623,10 +623,11 @@ class AntPathMatcherTests {
 		assertThat(pathMatcher.stringMatcherCache.size() > 20).isTrue();
 
 		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+			pathMatcher.match("test" + i, "test" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+		// Cache limited to the most recently used patterns instead of being turned off
+		assertThat(pathMatcher.stringMatcherCache.size()).isLessThanOrEqualTo(65536).isGreaterThan(60000);
+		assertThat(pathMatcher.stringMatcherCache.contains("test65535")).isTrue();
 	}
 
 	@Test
@@ -678,7 +679,7 @@ class AntPathMatcherTests {
 	void cachePatternsSetToFalse() {
 		pathMatcher.setCachePatterns(false);
 		match();
-		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.size()).isEqualTo(0);
 	}
 
 	@Test
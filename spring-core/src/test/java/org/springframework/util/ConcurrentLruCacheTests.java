@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ */
+class ConcurrentLruCacheTests {
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> key + "value");
+
+
+	@Test
+	void getAndSize() {
+		assertThat(this.cache.sizeLimit()).isEqualTo(2);
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.get("k1")).isEqualTo("k1value");
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.get("k2")).isEqualTo("k2value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.get("k3")).isEqualTo("k3value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	void getEvictsLeastRecentlyUsed() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k1");
+		this.cache.get("k3");
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.contains("k2")).isFalse();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	void getReturnsCachedValueAndCountsHitsAndMisses() {
+		AtomicInteger generated = new AtomicInteger();
+		ConcurrentLruCache<String, Object> cache = new ConcurrentLruCache<>(2, key -> {
+			generated.incrementAndGet();
+			return new Object();
+		});
+		Object value = cache.get("k1");
+		assertThat(cache.get("k1")).isSameAs(value);
+		assertThat(cache.get("k1")).isSameAs(value);
+		assertThat(generated.get()).isEqualTo(1);
+		assertThat(cache.hitCount()).isEqualTo(2);
+		assertThat(cache.missCount()).isEqualTo(1);
+	}
+
+	@Test
+	void removeAndClear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		assertThat(this.cache.remove("k1")).isTrue();
+		assertThat(this.cache.remove("k1")).isFalse();
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.size()).isEqualTo(1);
+		this.cache.clear();
+		assertThat(this.cache.contains("k2")).isFalse();
+		assertThat(this.cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	void forEachDoesNotAffectEvictionOrder() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+		Map<String, String> entries = new HashMap<>();
+		this.cache.forEach(entries::put);
+		assertThat(entries).containsEntry("k1", "k1value").containsEntry("k2", "k2value").hasSize(2);
+		this.cache.get("k3");
+		assertThat(this.cache.contains("k1")).isFalse();
+	}
+
+	@Test
+	void zeroSizeLimitDisablesCaching() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0, key -> key + "value");
+		assertThat(cache.get("k1")).isEqualTo("k1value");
+		assertThat(cache.contains("k1")).isFalse();
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.missCount()).isEqualTo(1);
+	}
+
+	@Test
+	void negativeSizeLimitIsRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrentLruCache<>(-1, key -> key));
+	}
+
+	@Test
+	void nullValueIsRejected() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> null);
+		assertThatIllegalStateException().isThrownBy(() -> cache.get("k1"));
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	void largeCacheStaysWithinSizeLimit() {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(1000, key -> key);
+		for (int i = 0; i < 10000; i++) {
+			cache.get(i);
+		}
+		assertThat(cache.size()).isLessThanOrEqualTo(1000).isGreaterThan(900);
+		assertThat(cache.contains(9999)).isTrue();
+		assertThat(cache.contains(0)).isFalse();
+	}
+
+	@Test
+	void concurrentAccessGeneratesValueOnce() throws Exception {
+		AtomicInteger generated = new AtomicInteger();
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(256, key -> {
+			generated.incrementAndGet();
+			return key;
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch latch = new CountDownLatch(8);
+		try {
+			for (int t = 0; t < 8; t++) {
+				executor.execute(() -> {
+					for (int i = 0; i < 10000; i++) {
+						cache.get(i % 128);
+					}
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(generated.get()).isEqualTo(128);
+		assertThat(cache.size()).isEqualTo(128);
+		assertThat(cache.hitCount() + cache.missCount()).isEqualTo(80000);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,14 +17,13 @@
 package org.springframework.messaging.simp.broker;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
@@ -41,6 +40,7 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.PathMatcher;
@@ -106,6 +106,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.destinationCache.resetCache();
 	}
 
 	/**
@@ -249,116 +250,151 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	/**
 	 * A cache for destinations previously resolved via
 	 * {@link DefaultSubscriptionRegistry#findSubscriptionsInternal(String, Message)}.
+	 * <p>Only destinations with at least one subscription are cached. Subscriptions
+	 * are resolved without holding a lock, while updates are serialized and stamp
+	 * every cached destination they visit with the current update count. A cached
+	 * destination with an outdated stamp was resolved concurrently with an update
+	 * that may not have been applied to it, and is therefore resolved again.
 	 */
 	private class DestinationCache {
 
-		/** Map from destination to {@code <sessionId, subscriptionId>} for fast look-ups. */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
-				new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
-
-		/** Map from destination to {@code <sessionId, subscriptionId>} with locking. */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
-					}
-				};
+		/** Map from destination to {@code <sessionId, subscriptionId>}, for the most recently used destinations. */
+		private volatile ConcurrentLruCache<String, DestinationSubscriptions> cache = createCache();
 
+		/** Incremented at the start of every update, under the monitor of this cache. */
+		private final AtomicLong updateCount = new AtomicLong();
+
+		private ConcurrentLruCache<String, DestinationSubscriptions> createCache() {
+			return new ConcurrentLruCache<>(getCacheLimit(), this::resolveSubscriptions);
+		}
+
+		public void resetCache() {
+			this.cache = createCache();
+		}
 
 		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
-			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
-			if (result == null) {
-				synchronized (this.updateCache) {
-					result = new LinkedMultiValueMap<>();
-					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
-						for (String destinationPattern : info.getDestinations()) {
-							if (getPathMatcher().match(destinationPattern, destination)) {
-								for (Subscription sub : info.getSubscriptions(destinationPattern)) {
-									result.add(info.sessionId, sub.getId());
-								}
-							}
-						}
-					}
-					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
-						this.accessCache.put(destination, result);
-					}
+			ConcurrentLruCache<String, DestinationSubscriptions> cache = this.cache;
+			if (!cache.contains(destination)) {
+				DestinationSubscriptions resolved = resolveSubscriptions(destination);
+				if (resolved.subscriptions.isEmpty()) {
+					return resolved.subscriptions;
 				}
 			}
-			return result;
-		}
-
-		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				this.updateCache.forEach((cachedDestination, subscriptions) -> {
-					if (getPathMatcher().match(destination, cachedDestination)) {
-						// Subscription id's may also be populated via getSubscriptions()
-						List<String> subsForSession = subscriptions.get(sessionId);
-						if (subsForSession == null || !subsForSession.contains(subsId)) {
-							subscriptions.add(sessionId, subsId);
-							this.accessCache.put(cachedDestination, subscriptions.deepCopy());
-						}
-					}
-				});
+			DestinationSubscriptions destinationSubscriptions = cache.get(destination);
+			if (destinationSubscriptions.updateCount != this.updateCount.get()) {
+				// Resolved concurrently with an update: resolve again, and cache on next access
+				cache.remove(destination);
+				return resolveSubscriptions(destination).subscriptions;
 			}
+			if (destinationSubscriptions.subscriptions.isEmpty()) {
+				// Evicted and re-resolved after the check above
+				cache.remove(destination);
+			}
+			return destinationSubscriptions.subscriptions;
 		}
 
-		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
-						subscriptions.remove(subsId);
-						if (subscriptions.isEmpty()) {
-							sessionMap.remove(sessionId);
-						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
+		private DestinationSubscriptions resolveSubscriptions(String destination) {
+			long updateCount = this.updateCount.get();
+			LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+			for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
+				for (String destinationPattern : info.getDestinations()) {
+					if (getPathMatcher().match(destinationPattern, destination)) {
+						for (Subscription sub : info.getSubscriptions(destinationPattern)) {
+							result.add(info.sessionId, sub.getId());
 						}
 					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
 				}
 			}
+			return new DestinationSubscriptions(result, updateCount);
 		}
 
-		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
-					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+		public synchronized void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
+			long updateCount = this.updateCount.incrementAndGet();
+			this.cache.forEach((cachedDestination, destinationSubscriptions) -> {
+				if (getPathMatcher().match(destination, cachedDestination)) {
+					// Subscription id's may also be populated via getSubscriptions()
+					destinationSubscriptions.addSubscription(sessionId, subsId);
 				}
-			}
+				destinationSubscriptions.updateCount = updateCount;
+			});
+		}
+
+		public synchronized void updateAfterRemovedSubscription(String sessionId, String subsId) {
+			long updateCount = this.updateCount.incrementAndGet();
+			ConcurrentLruCache<String, DestinationSubscriptions> cache = this.cache;
+			cache.forEach((destination, destinationSubscriptions) -> {
+				destinationSubscriptions.removeSubscription(sessionId, subsId);
+				destinationSubscriptions.updateCount = updateCount;
+				if (destinationSubscriptions.subscriptions.isEmpty()) {
+					cache.remove(destination);
+				}
+			});
+		}
+
+		public synchronized void updateAfterRemovedSession(SessionSubscriptionInfo info) {
+			long updateCount = this.updateCount.incrementAndGet();
+			ConcurrentLruCache<String, DestinationSubscriptions> cache = this.cache;
+			cache.forEach((destination, destinationSubscriptions) -> {
+				destinationSubscriptions.removeSession(info.getSessionId());
+				destinationSubscriptions.updateCount = updateCount;
+				if (destinationSubscriptions.subscriptions.isEmpty()) {
+					cache.remove(destination);
+				}
+			});
 		}
 
 		@Override
 		public String toString() {
-			return "cache[" + this.accessCache.size() + " destination(s)]";
+			return "cache[" + this.cache.size() + " destination(s)]";
+		}
+	}
+
+
+	/**
+	 * Resolved subscriptions for a destination. Updates are serialized by the
+	 * {@link DestinationCache} and replace the subscriptions with an updated copy,
+	 * so that the map handed out is never modified.
+	 */
+	private static final class DestinationSubscriptions {
+
+		volatile LinkedMultiValueMap<String, String> subscriptions;
+
+		/** The update count that the subscriptions are known to be current with. */
+		volatile long updateCount;
+
+		DestinationSubscriptions(LinkedMultiValueMap<String, String> subscriptions, long updateCount) {
+			this.subscriptions = subscriptions;
+			this.updateCount = updateCount;
+		}
+
+		void addSubscription(String sessionId, String subsId) {
+			List<String> subsForSession = this.subscriptions.get(sessionId);
+			if (subsForSession == null || !subsForSession.contains(subsId)) {
+				LinkedMultiValueMap<String, String> subscriptions = this.subscriptions.deepCopy();
+				subscriptions.add(sessionId, subsId);
+				this.subscriptions = subscriptions;
+			}
+		}
+
+		void removeSubscription(String sessionId, String subsId) {
+			List<String> subsForSession = this.subscriptions.get(sessionId);
+			if (subsForSession != null && subsForSession.contains(subsId)) {
+				LinkedMultiValueMap<String, String> subscriptions = this.subscriptions.deepCopy();
+				subsForSession = subscriptions.get(sessionId);
+				subsForSession.remove(subsId);
+				if (subsForSession.isEmpty()) {
+					subscriptions.remove(sessionId);
+				}
+				this.subscriptions = subscriptions;
+			}
+		}
+
+		void removeSession(String sessionId) {
+			if (this.subscriptions.containsKey(sessionId)) {
+				LinkedMultiValueMap<String, String> subscriptions = this.subscriptions.deepCopy();
+				subscriptions.remove(sessionId);
+				this.subscriptions = subscriptions;
+			}
 		}
 	}
 
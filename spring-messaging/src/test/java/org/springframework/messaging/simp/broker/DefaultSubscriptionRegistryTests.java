@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -438,6 +438,21 @@ public class DefaultSubscriptionRegistryTests {
 		assertThat(this.registry.findSubscriptions(createMessage("/bar")).size()).isEqualTo(2);
 	}
 
+	@Test
+	public void emptySubscriptionsAreNotCached() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/foo"));
+
+		assertThat(this.registry.findSubscriptions(createMessage("/bar"))).isEmpty();
+		assertThat(this.registry.toString()).contains("cache[0 destination(s)]");
+
+		assertThat(this.registry.findSubscriptions(createMessage("/foo")).size()).isEqualTo(1);
+		assertThat(this.registry.toString()).contains("cache[1 destination(s)]");
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "1"));
+		assertThat(this.registry.toString()).contains("cache[0 destination(s)]");
+		assertThat(this.registry.findSubscriptions(createMessage("/foo"))).isEmpty();
+	}
+
 	private Message<?> createMessage(String destination) {
 		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		accessor.setDestination(destination);
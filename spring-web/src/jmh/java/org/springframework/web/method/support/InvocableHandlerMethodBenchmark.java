@@ -0,0 +1,113 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method.support;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.support.ConfigurableWebBindingInitializer;
+import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.RequestHeaderMethodArgumentResolver;
+import org.springframework.web.method.annotation.RequestParamMethodArgumentResolver;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+/**
+ * Benchmarks for {@link InvocableHandlerMethod#invokeForRequest}, resolving
+ * request parameters and headers with type conversion.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class InvocableHandlerMethodBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public InvocableHandlerMethod noArgs;
+
+		public InvocableHandlerMethod withArgs;
+
+		public NativeWebRequest webRequest;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			HandlerMethodArgumentResolverComposite resolvers = new HandlerMethodArgumentResolverComposite();
+			resolvers.addResolver(new RequestParamMethodArgumentResolver(null, false));
+			resolvers.addResolver(new RequestHeaderMethodArgumentResolver(null));
+
+			ConfigurableWebBindingInitializer initializer = new ConfigurableWebBindingInitializer();
+			initializer.setConversionService(new DefaultConversionService());
+
+			Handler handler = new Handler();
+			Method noArgs = Handler.class.getMethod("noArgs");
+			Method withArgs = Handler.class.getMethod("withArgs", String.class, int.class, String.class);
+			this.noArgs = createHandlerMethod(handler, noArgs, resolvers, initializer);
+			this.withArgs = createHandlerMethod(handler, withArgs, resolvers, initializer);
+
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects");
+			request.addParameter("name", "spring-framework");
+			request.addParameter("page", "3");
+			request.addHeader("Accept-Language", "en");
+			this.webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+		}
+
+		private static InvocableHandlerMethod createHandlerMethod(Object handler, Method method,
+				HandlerMethodArgumentResolverComposite resolvers, ConfigurableWebBindingInitializer initializer) {
+
+			InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(handler, method);
+			handlerMethod.setHandlerMethodArgumentResolvers(resolvers);
+			handlerMethod.setDataBinderFactory(new DefaultDataBinderFactory(initializer));
+			return handlerMethod;
+		}
+	}
+
+	@Benchmark
+	public Object invokeNoArgs(BenchmarkState state) throws Exception {
+		return state.noArgs.invokeForRequest(state.webRequest, null);
+	}
+
+	@Benchmark
+	public Object invokeWithArgs(BenchmarkState state) throws Exception {
+		return state.withArgs.invokeForRequest(state.webRequest, null);
+	}
+
+
+	public static class Handler {
+
+		public String noArgs() {
+			return "ok";
+		}
+
+		public String withArgs(@RequestParam("name") String name, @RequestParam("page") int page,
+				@RequestHeader("Accept-Language") String language) {
+
+			return name + page + language;
+		}
+	}
+
+}
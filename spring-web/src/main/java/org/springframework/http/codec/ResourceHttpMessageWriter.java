@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -92,6 +92,32 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 	}
 
 
+	/**
+	 * Set the minimum size of file resources and regions to memory-map rather
+	 * than read into buffers, whenever they cannot be written through
+	 * {@link ZeroCopyHttpOutputMessage#writeWith(File, long, long)}, e.g. for
+	 * multiple ranges or on servers without zero-copy support.
+	 * <p>By default this is set to -1, i.e. file content is always read.
+	 * @param memoryMappingThreshold the minimum size in bytes, or -1 to never
+	 * memory-map file content
+	 * @since 5.3
+	 * @see ResourceEncoder#setMemoryMappingThreshold
+	 * @see ResourceRegionEncoder#setMemoryMappingThreshold
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.encoder.setMemoryMappingThreshold(memoryMappingThreshold);
+		this.regionEncoder.setMemoryMappingThreshold(memoryMappingThreshold);
+	}
+
+	/**
+	 * Return the minimum size of file resources and regions to memory-map.
+	 * @since 5.3
+	 */
+	public long getMemoryMappingThreshold() {
+		return this.encoder.getMemoryMappingThreshold();
+	}
+
+
 	@Override
 	public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
 		return this.encoder.canEncode(elementType, mediaType);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,7 +57,18 @@ public interface RequestPath extends PathContainer {
 	 * Create a new {@code RequestPath} with the given parameters.
 	 */
 	static RequestPath parse(URI uri, @Nullable String contextPath) {
-		return new DefaultRequestPath(uri, contextPath);
+		return new DefaultRequestPath(uri.getRawPath(), contextPath);
+	}
+
+	/**
+	 * Variant of {@link #parse(URI, String)} with the encoded
+	 * {@link URI#getRawPath() raw path}.
+	 * @param rawPath the path
+	 * @param contextPath the contextPath if any
+	 * @since 5.3
+	 */
+	static RequestPath parse(String rawPath, @Nullable String contextPath) {
+		return new DefaultRequestPath(rawPath, contextPath);
 	}
 
 }
@@ -20,13 +20,20 @@ import java.nio.file.Path;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ServerChannel;
+import io.netty.handler.ssl.SslHandler;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.NettyPipeline;
 import reactor.netty.http.server.HttpServerResponse;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.FileRegionDataBuffer;
 import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -81,6 +88,16 @@ class ReactorServerHttpResponse extends AbstractServerHttpResponse implements Ze
 
 	@Override
 	protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> publisher) {
+		if (!(publisher instanceof Mono) && isFileRegionSupported()) {
+			// Transfer runs of FileRegionDataBuffers from the file, other buffers as usual
+			return Flux.<DataBuffer>from(publisher)
+					.windowUntilChanged(FileRegionDataBuffer.class::isInstance)
+					.concatMap(window -> window.switchOnFirst((signal, buffers) ->
+							signal.get() instanceof FileRegionDataBuffer ?
+									buffers.concatMap(this::sendFileRegion) :
+									this.response.send(buffers.map(NettyDataBufferFactory::toByteBuf))))
+					.then();
+		}
 		return this.response.send(toByteBufs(publisher)).then();
 	}
 
@@ -109,6 +126,27 @@ class ReactorServerHttpResponse extends AbstractServerHttpResponse implements Ze
 		return doCommit(() -> this.response.sendFile(file, position, count).then());
 	}
 
+	/**
+	 * Whether the channel allows for writing file regions as-is, i.e. without
+	 * SSL, compression or HTTP/2 stream framing in the pipeline.
+	 */
+	private boolean isFileRegionSupported() {
+		if (!(this.response instanceof Connection)) {
+			return false;
+		}
+		Channel channel = ((Connection) this.response).channel();
+		ChannelPipeline pipeline = channel.pipeline();
+		return (channel.parent() instanceof ServerChannel && pipeline.get(SslHandler.class) == null &&
+				pipeline.get(NettyPipeline.CompressionHandler) == null);
+	}
+
+	private Mono<Void> sendFileRegion(DataBuffer dataBuffer) {
+		// Only the file region goes out: its content does not get mapped
+		FileRegionDataBuffer fileRegion = (FileRegionDataBuffer) dataBuffer;
+		return this.response.sendFile(fileRegion.getFile(),
+				fileRegion.getFilePosition(), fileRegion.readableByteCount()).then();
+	}
+
 	private Publisher<ByteBuf> toByteBufs(Publisher<? extends DataBuffer> dataBuffers) {
 		return dataBuffers instanceof Mono ?
 				Mono.from(dataBuffers).map(NettyDataBufferFactory::toByteBuf) :
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -108,6 +108,13 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.servletPath;
 	}
 
+	/**
+	 * Set the {@link DataBufferFactory} used to read the request body and
+	 * to write the response.
+	 * <p>By default this is a {@link DefaultDataBufferFactory}. Consider a
+	 * {@link org.springframework.core.io.buffer.PooledDataBufferFactory} to
+	 * reuse buffer memory across requests.
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
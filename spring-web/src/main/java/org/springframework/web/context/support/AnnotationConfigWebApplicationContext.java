@@ -19,6 +19,7 @@ package org.springframework.web.context.support;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
@@ -92,6 +93,9 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 	@Nullable
 	private ScopeMetadataResolver scopeMetadataResolver;
 
+	@Nullable
+	private ForkJoinPool scanningForkJoinPool;
+
 	private final Set<Class<?>> componentClasses = new LinkedHashSet<>();
 
 	private final Set<String> basePackages = new LinkedHashSet<>();
@@ -137,6 +141,20 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 		return this.scopeMetadataResolver;
 	}
 
+	/**
+	 * Specify a {@link ForkJoinPool} to scan the class path in parallel with, both
+	 * for base packages and for {@code @ComponentScan} declarations on registered
+	 * configuration classes.
+	 * <p>Default is none, scanning sequentially. The pool is not managed by this
+	 * context and needs to be shut down by the caller.
+	 * @since 5.3
+	 * @see ClassPathBeanDefinitionScanner#setForkJoinPool
+	 * @see org.springframework.context.annotation.ConfigurationClassPostProcessor#setScanningForkJoinPool
+	 */
+	public void setScanningForkJoinPool(@Nullable ForkJoinPool scanningForkJoinPool) {
+		this.scanningForkJoinPool = scanningForkJoinPool;
+	}
+
 
 	/**
 	 * Register one or more component classes to be processed.
@@ -212,6 +230,14 @@ public class AnnotationConfigWebApplicationContext extends AbstractRefreshableWe
 			scanner.setScopeMetadataResolver(scopeMetadataResolver);
 		}
 
+		if (this.scanningForkJoinPool != null) {
+			scanner.setForkJoinPool(this.scanningForkJoinPool);
+			if (beanFactory.containsBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+				beanFactory.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+						.getPropertyValues().add("scanningForkJoinPool", this.scanningForkJoinPool);
+			}
+		}
+
 		if (!this.componentClasses.isEmpty()) {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Registering component classes: [" +
@@ -17,7 +17,11 @@
 package org.springframework.web.method;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +43,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
@@ -89,6 +94,8 @@ public class HandlerMethod {
 	@Nullable
 	private volatile List<Annotation[][]> interfaceParameterAnnotations;
 
+	private final MethodHandleHolder methodHandleHolder;
+
 	private final String description;
 
 
@@ -105,6 +112,7 @@ public class HandlerMethod {
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
 		this.parameters = initMethodParameters();
 		evaluateResponseStatus();
+		this.methodHandleHolder = new MethodHandleHolder(this.bridgedMethod);
 		this.description = initDescription(this.beanType, this.method);
 	}
 
@@ -122,6 +130,7 @@ public class HandlerMethod {
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(this.method);
 		this.parameters = initMethodParameters();
 		evaluateResponseStatus();
+		this.methodHandleHolder = new MethodHandleHolder(this.bridgedMethod);
 		this.description = initDescription(this.beanType, this.method);
 	}
 
@@ -145,6 +154,7 @@ public class HandlerMethod {
 		this.bridgedMethod = BridgeMethodResolver.findBridgedMethod(method);
 		this.parameters = initMethodParameters();
 		evaluateResponseStatus();
+		this.methodHandleHolder = new MethodHandleHolder(this.bridgedMethod);
 		this.description = initDescription(this.beanType, this.method);
 	}
 
@@ -161,6 +171,7 @@ public class HandlerMethod {
 		this.parameters = handlerMethod.parameters;
 		this.responseStatus = handlerMethod.responseStatus;
 		this.responseStatusReason = handlerMethod.responseStatusReason;
+		this.methodHandleHolder = handlerMethod.methodHandleHolder;
 		this.description = handlerMethod.description;
 		this.resolvedFromHandlerMethod = handlerMethod.resolvedFromHandlerMethod;
 	}
@@ -180,6 +191,7 @@ public class HandlerMethod {
 		this.responseStatus = handlerMethod.responseStatus;
 		this.responseStatusReason = handlerMethod.responseStatusReason;
 		this.resolvedFromHandlerMethod = handlerMethod;
+		this.methodHandleHolder = handlerMethod.methodHandleHolder;
 		this.description = handlerMethod.description;
 	}
 
@@ -315,6 +327,44 @@ public class HandlerMethod {
 		return AnnotatedElementUtils.hasAnnotation(this.method, annotationType);
 	}
 
+	/**
+	 * Return a {@link MethodHandle} for the {@link #getBridgedMethod() bridged method}
+	 * that takes the bean followed by the method arguments as an {@code Object[]}.
+	 * <p>The handle is created on first access and shared with all copies of this
+	 * handler method, e.g. as obtained via {@link #createWithResolvedBean()}.
+	 * @return the method handle, or {@code null} if the method cannot be
+	 * accessed through a method handle
+	 * @since 5.3
+	 */
+	@Nullable
+	public MethodHandle getSpreadMethodHandle() {
+		return this.methodHandleHolder.getMethodHandle();
+	}
+
+	/**
+	 * Return the invocation metadata that a subclass stored through
+	 * {@link #setSharedInvocationMetadata}, if any.
+	 * <p>Like the {@link #getSpreadMethodHandle() MethodHandle}, the metadata is
+	 * shared with all copies of this handler method, e.g. as obtained via
+	 * {@link #createWithResolvedBean()}, and thus outlives per-request copies.
+	 * @since 5.3
+	 */
+	@Nullable
+	protected Object getSharedInvocationMetadata() {
+		return this.methodHandleHolder.invocationMetadata;
+	}
+
+	/**
+	 * Store invocation metadata to be shared with all copies of this handler
+	 * method. The metadata must only depend on state that copies have in common,
+	 * i.e. the method and its parameters but not the bean instance.
+	 * @since 5.3
+	 * @see #getSharedInvocationMetadata()
+	 */
+	protected void setSharedInvocationMetadata(Object metadata) {
+		this.methodHandleHolder.invocationMetadata = metadata;
+	}
+
 	/**
 	 * Return the HandlerMethod from which this HandlerMethod instance was
 	 * resolved via {@link #createWithResolvedBean()}.
@@ -457,6 +507,55 @@ public class HandlerMethod {
 	}
 
 
+	/**
+	 * Lazily created {@link MethodHandle} for a handler method, shared by
+	 * the handler method and its copies along with any invocation metadata.
+	 */
+	private static final class MethodHandleHolder {
+
+		private final Method method;
+
+		@Nullable
+		private volatile MethodHandle methodHandle;
+
+		private volatile boolean initialized;
+
+		@Nullable
+		volatile Object invocationMetadata;
+
+		MethodHandleHolder(Method method) {
+			this.method = method;
+		}
+
+		@Nullable
+		MethodHandle getMethodHandle() {
+			if (!this.initialized) {
+				this.methodHandle = initMethodHandle(this.method);
+				this.initialized = true;
+			}
+			return this.methodHandle;
+		}
+
+		@Nullable
+		private static MethodHandle initMethodHandle(Method method) {
+			try {
+				ReflectionUtils.makeAccessible(method);
+				MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+				if (Modifier.isStatic(method.getModifiers())) {
+					handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				}
+				int parameterCount = method.getParameterCount();
+				return handle.asType(MethodType.genericMethodType(parameterCount + 1))
+						.asSpreader(Object[].class, parameterCount);
+			}
+			catch (Throwable ex) {
+				// Not accessible or not adaptable: to be invoked through reflection
+				return null;
+			}
+		}
+	}
+
+
 	/**
 	 * A MethodParameter with HandlerMethod-specific behavior.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,17 @@
 
 package org.springframework.web.method.support;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.WebDataBinder;
@@ -141,6 +144,8 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	/**
 	 * Get the method argument values for the current request, checking the provided
 	 * argument values and falling back to the configured argument resolvers.
+	 * <p>The resolver for each parameter is looked up once per instance
+	 * and reused for subsequent invocations.
 	 * <p>The resulting array will be passed into {@link #doInvoke}.
 	 * @since 5.1.2
 	 */
@@ -152,19 +157,28 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		HandlerMethodArgumentResolver[] argumentResolvers = getInvocationPlan().getArgumentResolvers(this.resolvers);
+		boolean checkProvidedArgs = !ObjectUtils.isEmpty(providedArgs);
 		Object[] args = new Object[parameters.length];
 		for (int i = 0; i < parameters.length; i++) {
 			MethodParameter parameter = parameters[i];
 			parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
-			args[i] = findProvidedArgument(parameter, providedArgs);
-			if (args[i] != null) {
-				continue;
+			if (checkProvidedArgs) {
+				args[i] = findProvidedArgument(parameter, providedArgs);
+				if (args[i] != null) {
+					continue;
+				}
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
-				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+			HandlerMethodArgumentResolver resolver = argumentResolvers[i];
+			if (resolver == null) {
+				// Not supported when the plan was created: check again in case resolvers were added since...
+				resolver = this.resolvers.getArgumentResolver(parameter);
+				if (resolver == null) {
+					throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+				}
 			}
 			try {
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 			}
 			catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
@@ -182,9 +196,25 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	/**
 	 * Invoke the handler method with the given argument values.
+	 * <p>Uses the {@link #getSpreadMethodHandle() MethodHandle} of the handler
+	 * method if the bean and the arguments match the method signature, and
+	 * reflection otherwise, which also provides detailed errors in case of a mismatch.
 	 */
 	@Nullable
 	protected Object doInvoke(Object... args) throws Exception {
+		InvocationPlan plan = getInvocationPlan();
+		MethodHandle methodHandle = plan.getMethodHandle();
+		if (methodHandle != null && plan.isInvocableWith(getBean(), args)) {
+			try {
+				return (Object) methodHandle.invokeExact(getBean(), args);
+			}
+			catch (Exception | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(formatInvokeError("Invocation failure", args), ex);
+			}
+		}
 		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
 			return getBridgedMethod().invoke(getBean(), args);
@@ -212,4 +242,94 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		}
 	}
 
+	private InvocationPlan getInvocationPlan() {
+		Object metadata = getSharedInvocationMetadata();
+		if (metadata instanceof InvocationPlan) {
+			return (InvocationPlan) metadata;
+		}
+		InvocationPlan plan = new InvocationPlan(getBridgedMethod(), getMethodParameters(), getSpreadMethodHandle());
+		setSharedInvocationMetadata(plan);
+		return plan;
+	}
+
+
+	/**
+	 * Metadata reused across invocations and shared with copies of the handler
+	 * method: the argument resolver for each parameter along with the composite
+	 * it was obtained from, the parameter types, and the {@code MethodHandle}.
+	 */
+	private static class InvocationPlan {
+
+		private final boolean staticMethod;
+
+		private final Class<?> declaringClass;
+
+		private final MethodParameter[] parameters;
+
+		private final Class<?>[] parameterTypes;
+
+		@Nullable
+		private final MethodHandle methodHandle;
+
+		@Nullable
+		private volatile ArgumentResolvers argumentResolvers;
+
+		InvocationPlan(Method method, MethodParameter[] parameters, @Nullable MethodHandle methodHandle) {
+			this.staticMethod = Modifier.isStatic(method.getModifiers());
+			this.declaringClass = method.getDeclaringClass();
+			this.parameters = parameters;
+			this.parameterTypes = new Class<?>[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				this.parameterTypes[i] = parameters[i].getParameterType();
+			}
+			this.methodHandle = methodHandle;
+		}
+
+		@Nullable
+		public MethodHandle getMethodHandle() {
+			return this.methodHandle;
+		}
+
+		public boolean isInvocableWith(Object bean, Object[] args) {
+			if (!this.staticMethod && !this.declaringClass.isInstance(bean)) {
+				return false;
+			}
+			if (args.length != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < args.length; i++) {
+				if (!ClassUtils.isAssignableValue(this.parameterTypes[i], args[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public HandlerMethodArgumentResolver[] getArgumentResolvers(HandlerMethodArgumentResolverComposite composite) {
+			ArgumentResolvers resolvers = this.argumentResolvers;
+			if (resolvers == null || resolvers.composite != composite) {
+				HandlerMethodArgumentResolver[] array = new HandlerMethodArgumentResolver[this.parameters.length];
+				for (int i = 0; i < this.parameters.length; i++) {
+					array[i] = composite.getArgumentResolver(this.parameters[i]);
+				}
+				resolvers = new ArgumentResolvers(composite, array);
+				this.argumentResolvers = resolvers;
+			}
+			return resolvers.resolvers;
+		}
+	}
+
+
+	private static class ArgumentResolvers {
+
+		final HandlerMethodArgumentResolverComposite composite;
+
+		final HandlerMethodArgumentResolver[] resolvers;
+
+		ArgumentResolvers(HandlerMethodArgumentResolverComposite composite, HandlerMethodArgumentResolver[] resolvers) {
+			this.composite = composite;
+			this.resolvers = resolvers;
+		}
+	}
+
 }
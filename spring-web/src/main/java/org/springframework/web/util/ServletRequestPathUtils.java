@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Utility class to parse the path of an {@link HttpServletRequest} to a
+ * {@link RequestPath} and cache it in a request attribute for further access,
+ * e.g. for matching against
+ * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+ * from several components during the same request.
+ *
+ * @since 5.3
+ */
+public abstract class ServletRequestPathUtils {
+
+	/** Name of Servlet request attribute that holds the parsed {@link RequestPath}. */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the {@link HttpServletRequest#getRequestURI() requestURI} of the
+	 * request, as well as its {@link HttpServletRequest#getContextPath()
+	 * contextPath}, to a {@link RequestPath} and save it in the request
+	 * attribute {@link #PATH_ATTRIBUTE} for subsequent use with
+	 * {@link org.springframework.web.util.pattern.PathPattern parsed patterns}.
+	 * <p>For an include dispatch, the URI and context path of the included
+	 * resource are used instead.
+	 * @param request the current request
+	 * @return the parsed path, also cached in the request
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		String contextPath;
+		if (requestUri != null) {
+			contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+		}
+		else {
+			requestUri = request.getRequestURI();
+			contextPath = request.getContextPath();
+		}
+		RequestPath requestPath = RequestPath.parse(requestUri, contextPath);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 * @return the cached path
+	 * @throws IllegalArgumentException if the path has not been parsed
+	 * @see #hasParsedRequestPath(ServletRequest)
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath path = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		Assert.notNull(path, "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+		return path;
+	}
+
+	/**
+	 * Return the {@link #parseAndCache previously} parsed {@link RequestPath},
+	 * or parse and cache it if not available yet.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath getOrParseRequestPath(HttpServletRequest request) {
+		RequestPath path = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		return (path != null ? path : parseAndCache(request));
+	}
+
+	/**
+	 * Check for a {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Set the cached, parsed {@code RequestPath} to the given value,
+	 * or remove it if the given value is {@code null}. Typically used
+	 * to restore a previously parsed path after a nested dispatch.
+	 * @param requestPath the value to set to, or {@code null} to remove it
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Remove the request attribute {@link #PATH_ATTRIBUTE} that holds a
+	 * {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+}
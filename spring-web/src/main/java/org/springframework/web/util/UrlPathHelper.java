@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -49,6 +50,13 @@ import org.springframework.util.StringUtils;
  */
 public class UrlPathHelper {
 
+	/**
+	 * Name of the request attribute that holds the lookup path cached by
+	 * {@link #resolveAndCacheLookupPath}.
+	 * @since 5.3
+	 */
+	public static final String PATH_ATTRIBUTE = UrlPathHelper.class.getName() + ".PATH";
+
 	/**
 	 * Special WebSphere request attribute, indicating the original request URI.
 	 * Preferable over the standard Servlet 2.4 forward attribute on WebSphere,
@@ -182,6 +190,8 @@ public class UrlPathHelper {
 	 * Variant of {@link #getLookupPathForRequest(HttpServletRequest)} that
 	 * automates checking for a previously computed lookupPath saved as a
 	 * request attribute. The attribute is only used for lookup purposes.
+	 * <p>If the attribute is not present, the lookup path is obtained through
+	 * {@link #resolveAndCacheLookupPath}.
 	 * @param request current HTTP request
 	 * @param lookupPathAttributeName the request attribute to check
 	 * @return the lookup path
@@ -195,7 +205,45 @@ public class UrlPathHelper {
 				return result;
 			}
 		}
-		return getLookupPathForRequest(request);
+		return resolveAndCacheLookupPath(request);
+	}
+
+	/**
+	 * Variant of {@link #getLookupPathForRequest(HttpServletRequest)} that
+	 * caches the lookup path in the request attribute {@link #PATH_ATTRIBUTE},
+	 * and returns the cached lookup path instead if it was resolved for the
+	 * same request URI, servlet path, and character encoding by a
+	 * {@code UrlPathHelper} of the same type with the same settings.
+	 * <p>This allows the handler mappings, CORS configuration sources and
+	 * other components involved in the processing of a request, including
+	 * ones invoked from Servlet filters before the {@code DispatcherServlet},
+	 * to decode and sanitize the request URI only once, while a forward or
+	 * include dispatch to a different path is always resolved again.
+	 * @param request current HTTP request
+	 * @return the lookup path
+	 * @since 5.3
+	 */
+	public String resolveAndCacheLookupPath(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		if (requestUri == null) {
+			requestUri = request.getRequestURI();
+		}
+		String servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+		if (servletPath == null) {
+			servletPath = request.getServletPath();
+		}
+		String encoding = request.getCharacterEncoding();
+		Object cached = request.getAttribute(PATH_ATTRIBUTE);
+		if (cached instanceof ResolvedLookupPath) {
+			ResolvedLookupPath resolved = (ResolvedLookupPath) cached;
+			if (resolved.matches(this, requestUri, servletPath, encoding)) {
+				return resolved.getLookupPath();
+			}
+		}
+		String lookupPath = getLookupPathForRequest(request);
+		request.setAttribute(PATH_ATTRIBUTE,
+				new ResolvedLookupPath(this, requestUri, servletPath, encoding, lookupPath));
+		return lookupPath;
 	}
 
 	/**
@@ -626,4 +674,59 @@ public class UrlPathHelper {
 		return !flagToUse;
 	}
 
+
+	/**
+	 * A lookup path cached in a request attribute, along with the request
+	 * state and the helper settings it was resolved from.
+	 */
+	private static final class ResolvedLookupPath {
+
+		private final Class<?> helperType;
+
+		private final boolean alwaysUseFullPath;
+
+		private final boolean urlDecode;
+
+		private final boolean removeSemicolonContent;
+
+		private final String defaultEncoding;
+
+		private final String requestUri;
+
+		private final String servletPath;
+
+		@Nullable
+		private final String encoding;
+
+		private final String lookupPath;
+
+		ResolvedLookupPath(UrlPathHelper helper, String requestUri, String servletPath,
+				@Nullable String encoding, String lookupPath) {
+
+			this.helperType = helper.getClass();
+			this.alwaysUseFullPath = helper.alwaysUseFullPath;
+			this.urlDecode = helper.urlDecode;
+			this.removeSemicolonContent = helper.removeSemicolonContent;
+			this.defaultEncoding = helper.defaultEncoding;
+			this.requestUri = requestUri;
+			this.servletPath = servletPath;
+			this.encoding = encoding;
+			this.lookupPath = lookupPath;
+		}
+
+		public String getLookupPath() {
+			return this.lookupPath;
+		}
+
+		public boolean matches(UrlPathHelper helper, String requestUri, String servletPath, @Nullable String encoding) {
+			return (this.requestUri.equals(requestUri) && this.servletPath.equals(servletPath) &&
+					ObjectUtils.nullSafeEquals(this.encoding, encoding) &&
+					this.helperType == helper.getClass() &&
+					this.alwaysUseFullPath == helper.alwaysUseFullPath &&
+					this.urlDecode == helper.urlDecode &&
+					this.removeSemicolonContent == helper.removeSemicolonContent &&
+					this.defaultEncoding.equals(helper.defaultEncoding));
+		}
+	}
+
 }
@@ -187,7 +187,7 @@ public class PathPattern implements Comparable<PathPattern> {
 	 * @since 5.2
 	 */
 	public boolean hasPatternSyntax() {
-		return (this.score > 0 || this.patternString.indexOf('?') != -1);
+		return (this.score > 0 || this.catchAll || this.patternString.indexOf('?') != -1);
 	}
 
 	/**
@@ -468,6 +468,10 @@ public class PathPattern implements Comparable<PathPattern> {
 		return this.pathOptions.separator();
 	}
 
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
 	int getCapturedVariableCount() {
 		return this.capturedVariableCount;
 	}
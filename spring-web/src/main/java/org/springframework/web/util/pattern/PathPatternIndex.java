@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+
+/**
+ * Index of values registered against {@link PathPattern PathPatterns}, used to
+ * narrow down the values whose patterns could possibly match a given path
+ * without trying each pattern in turn.
+ *
+ * <p>Values are kept in a tree keyed by the literal path segments each pattern
+ * starts with, up to its first variable, wildcard, or regex segment. A lookup
+ * walks the segments of the path and collects the values of every node along
+ * the way, so its cost depends on the depth of the path rather than on the
+ * number of registered patterns. Values registered without patterns, or with
+ * case-insensitive patterns, are kept at the root and always returned.
+ *
+ * <p>The returned candidates are a superset of the values with a matching
+ * pattern, and still need to be matched. This class is not thread-safe,
+ * concurrent access must be guarded by the caller.
+ *
+ * @since 5.3
+ * @param <T> the type of value registered against patterns
+ */
+public class PathPatternIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+	private final Map<T, List<Node<T>>> registrations = new HashMap<>();
+
+
+	/**
+	 * Register the given value against the given patterns. If the collection
+	 * of patterns is empty, the value is a candidate for any path.
+	 * @param value the value to register
+	 * @param patterns the patterns of the value
+	 */
+	public void add(T value, Collection<PathPattern> patterns) {
+		List<Node<T>> nodes = this.registrations.computeIfAbsent(value, key -> new ArrayList<>(1));
+		if (patterns.isEmpty()) {
+			addValue(this.root, value, nodes);
+		}
+		for (PathPattern pattern : patterns) {
+			Node<T> node = this.root;
+			if (pattern.isCaseSensitive()) {
+				PathElement elem = pattern.getHeadSection();
+				while (elem instanceof SeparatorPathElement && elem.next instanceof LiteralPathElement) {
+					node = node.getOrCreateChild(String.valueOf(elem.next.getChars()));
+					elem = elem.next.next;
+				}
+			}
+			addValue(node, value, nodes);
+		}
+	}
+
+	private void addValue(Node<T> node, T value, List<Node<T>> nodes) {
+		if (!nodes.contains(node)) {
+			node.values.add(value);
+			nodes.add(node);
+		}
+	}
+
+	/**
+	 * Remove all registrations of the given value.
+	 * @param value the value to remove
+	 */
+	public void remove(T value) {
+		List<Node<T>> nodes = this.registrations.remove(value);
+		if (nodes != null) {
+			for (Node<T> node : nodes) {
+				node.values.remove(value);
+			}
+		}
+	}
+
+	/**
+	 * Return the values with patterns that could match the given path, in
+	 * the order of their registration at each segment from the root down.
+	 * @param path the path to look up
+	 * @return the candidate values, possibly empty
+	 */
+	public Collection<T> getCandidates(PathContainer path) {
+		Collection<T> result = this.root.values;
+		LinkedHashSet<T> merged = null;
+		Node<T> node = this.root;
+		List<PathContainer.Element> elements = path.elements();
+		for (int i = 0; i + 1 < elements.size(); i += 2) {
+			PathContainer.Element segment = elements.get(i + 1);
+			if (!(elements.get(i) instanceof PathContainer.Separator) ||
+					!(segment instanceof PathContainer.PathSegment)) {
+				break;
+			}
+			node = node.getChild(((PathContainer.PathSegment) segment).valueToMatch());
+			if (node == null) {
+				break;
+			}
+			if (!node.values.isEmpty()) {
+				if (result.isEmpty()) {
+					result = node.values;
+				}
+				else {
+					if (merged == null) {
+						merged = new LinkedHashSet<>(result);
+						result = merged;
+					}
+					merged.addAll(node.values);
+				}
+			}
+		}
+		return Collections.unmodifiableCollection(result);
+	}
+
+
+	private static class Node<T> {
+
+		private final List<T> values = new ArrayList<>(1);
+
+		@Nullable
+		private Map<String, Node<T>> children;
+
+		@Nullable
+		public Node<T> getChild(String segment) {
+			return (this.children != null ? this.children.get(segment) : null);
+		}
+
+		public Node<T> getOrCreateChild(String segment) {
+			if (this.children == null) {
+				this.children = new HashMap<>(4);
+			}
+			return this.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+	}
+
+}
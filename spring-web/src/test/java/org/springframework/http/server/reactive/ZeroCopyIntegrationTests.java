@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,26 @@
 
 package org.springframework.http.server.reactive;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.testfixture.http.server.reactive.bootstrap.AbstractHttpHandlerIntegrationTests;
 import org.springframework.web.testfixture.http.server.reactive.bootstrap.HttpServer;
@@ -43,6 +52,12 @@ class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTests {
 
 	private static final Resource springLogoResource = new ClassPathResource("/org/springframework/web/spring.png");
 
+	private static final byte[] PREFIX = "--prefix\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] SEPARATOR = "\r\n--separator\r\n".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] SUFFIX = "\r\n--suffix--".getBytes(StandardCharsets.US_ASCII);
+
 	private final ZeroCopyHandler handler = new ZeroCopyHandler();
 
 
@@ -70,10 +85,34 @@ class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTests {
 	}
 
 
+	@ParameterizedHttpServerTest
+	void mappedFileRegions(HttpServer httpServer) throws Exception {
+		startServer(httpServer);
+
+		URI url = new URI("http://localhost:" + port + "/mapped");
+		RequestEntity<?> request = RequestEntity.get(url).build();
+		ResponseEntity<byte[]> response = new RestTemplate().exchange(request, byte[].class);
+
+		byte[] logo = FileCopyUtils.copyToByteArray(springLogoResource.getInputStream());
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(PREFIX);
+		expected.write(logo);
+		expected.write(SEPARATOR);
+		expected.write(logo, 0, logo.length / 2);
+		expected.write(SUFFIX);
+
+		assertThat(response.hasBody()).isTrue();
+		assertThat(response.getBody()).isEqualTo(expected.toByteArray());
+	}
+
+
 	private static class ZeroCopyHandler implements HttpHandler {
 
 		@Override
 		public Mono<Void> handle(ServerHttpRequest request, ServerHttpResponse response) {
+			if (request.getURI().getPath().equals("/mapped")) {
+				return handleMapped(response);
+			}
 			try {
 				ZeroCopyHttpOutputMessage zeroCopyResponse = (ZeroCopyHttpOutputMessage) response;
 				File logoFile = springLogoResource.getFile();
@@ -85,6 +124,28 @@ class ZeroCopyIntegrationTests extends AbstractHttpHandlerIntegrationTests {
 				return Mono.error(ex);
 			}
 		}
+
+		private Mono<Void> handleMapped(ServerHttpResponse response) {
+			try {
+				// Mix mapped file regions with other buffers, as for multiple byte ranges
+				Path logoFile = springLogoResource.getFile().toPath();
+				long length = Files.size(logoFile);
+				DataBufferFactory bufferFactory = response.bufferFactory();
+				Flux<DataBuffer> body = Flux.concat(
+						Mono.fromCallable(() -> bufferFactory.wrap(PREFIX)),
+						DataBufferUtils.readMapped(logoFile, 0, -1, bufferFactory, 1024),
+						Mono.fromCallable(() -> bufferFactory.wrap(SEPARATOR)),
+						DataBufferUtils.readMapped(logoFile, 0, length / 2, bufferFactory, 1024),
+						Mono.fromCallable(() -> bufferFactory.wrap(SUFFIX)));
+				response.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+				response.getHeaders().setContentLength(
+						PREFIX.length + length + SEPARATOR.length + length / 2 + SUFFIX.length);
+				return response.writeWith(body);
+			}
+			catch (Throwable ex) {
+				return Mono.error(ex);
+			}
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.web.method.support;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -156,6 +157,65 @@ public class InvocableHandlerMethodTests {
 			.withMessageContaining("Illegal argument");
 	}
 
+	@Test
+	public void resolveArgWithResolverAddedLater() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		Object value = getInvocable(Integer.class, String.class).invokeForRequest(request, null, "provided");
+		assertThat(value).isEqualTo("99-provided");
+
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		value = getInvocable(Integer.class, String.class).invokeForRequest(request, null);
+		assertThat(value).isEqualTo("99-value");
+	}
+
+	@Test
+	public void invocationWithIncompatibleBean() throws Exception {
+		Method method = ResolvableMethod.on(Handler.class).argTypes(Integer.class, String.class).resolveMethod();
+		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new Object(), method);
+		handlerMethod.setHandlerMethodArgumentResolvers(this.composite);
+		assertThatIllegalStateException().isThrownBy(() ->
+				handlerMethod.invokeForRequest(this.request, null, 99, "value"))
+			.withMessageContaining("is not an instance of the actual controller bean class");
+	}
+
+	@Test
+	public void methodHandleSharedWithCopies() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		InvocableHandlerMethod copy = new InvocableHandlerMethod(handlerMethod.createWithResolvedBean());
+		copy.setHandlerMethodArgumentResolvers(this.composite);
+
+		assertThat(handlerMethod.getSpreadMethodHandle()).isNotNull();
+		assertThat(copy.getSpreadMethodHandle()).isSameAs(handlerMethod.getSpreadMethodHandle());
+		assertThat(copy.invokeForRequest(request, null)).isEqualTo("99-value");
+	}
+
+	@Test
+	public void argumentResolversSharedWithCopies() throws Exception {
+		AtomicInteger lookups = new AtomicInteger();
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite() {
+			@Override
+			public HandlerMethodArgumentResolver getArgumentResolver(MethodParameter parameter) {
+				lookups.incrementAndGet();
+				return super.getArgumentResolver(parameter);
+			}
+		};
+		composite.addResolver(new StubArgumentResolver(99));
+		composite.addResolver(new StubArgumentResolver("value"));
+		InvocableHandlerMethod handlerMethod = getInvocable(Integer.class, String.class);
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		assertThat(handlerMethod.invokeForRequest(request, null)).isEqualTo("99-value");
+		assertThat(lookups.get()).isEqualTo(2);
+
+		for (int i = 0; i < 3; i++) {
+			InvocableHandlerMethod copy = new InvocableHandlerMethod(handlerMethod.createWithResolvedBean());
+			copy.setHandlerMethodArgumentResolvers(composite);
+			assertThat(copy.invokeForRequest(request, null)).isEqualTo("99-value");
+		}
+		assertThat(lookups.get()).isEqualTo(2);
+	}
+
 	private InvocableHandlerMethod getInvocable(Class<?>... argTypes) {
 		Method method = ResolvableMethod.on(Handler.class).argTypes(argTypes).resolveMethod();
 		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(new Handler(), method);
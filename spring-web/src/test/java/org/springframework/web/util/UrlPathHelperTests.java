@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.web.util;
 
 import java.io.UnsupportedEncodingException;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -444,4 +446,64 @@ public class UrlPathHelperTests {
 		assertThat(this.helper.getOriginatingQueryString(request)).isNull();
 	}
 
+	@Test
+	public void resolveAndCacheLookupPath() {
+		CountingUrlPathHelper helper1 = new CountingUrlPathHelper();
+		CountingUrlPathHelper helper2 = new CountingUrlPathHelper();
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome%20page.html");
+
+		assertThat(helper1.resolveAndCacheLookupPath(request)).isEqualTo("/welcome page.html");
+		assertThat(helper2.resolveAndCacheLookupPath(request)).isEqualTo("/welcome page.html");
+		assertThat(helper2.getLookupPathForRequest(request, "unknown")).isEqualTo("/welcome page.html");
+		assertThat(helper1.count + helper2.count).isEqualTo(1);
+	}
+
+	@Test
+	public void resolveAndCacheLookupPathAfterRequestChange() {
+		CountingUrlPathHelper helper = new CountingUrlPathHelper();
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/welcome.html");
+
+		request.setRequestURI("/petclinic/main/owners.html");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/owners.html");
+
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/petclinic/other/vets.html");
+		request.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/other");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/vets.html");
+
+		request.setCharacterEncoding("UTF-8");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/vets.html");
+		assertThat(helper.count).isEqualTo(4);
+	}
+
+	@Test
+	public void resolveAndCacheLookupPathWithDifferentSettings() {
+		request.setContextPath("/petclinic");
+		request.setServletPath("/main");
+		request.setRequestURI("/petclinic/main/welcome.html");
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/welcome.html");
+
+		helper.setAlwaysUseFullPath(true);
+		assertThat(helper.resolveAndCacheLookupPath(request)).isEqualTo("/main/welcome.html");
+
+		UrlPathHelper otherHelper = new UrlPathHelper();
+		assertThat(otherHelper.resolveAndCacheLookupPath(request)).isEqualTo("/welcome.html");
+	}
+
+
+	private static class CountingUrlPathHelper extends UrlPathHelper {
+
+		private int count;
+
+		@Override
+		public String getLookupPathForRequest(HttpServletRequest request) {
+			this.count++;
+			return super.getLookupPathForRequest(request);
+		}
+	}
+
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPatternIndex}.
+ */
+class PathPatternIndexTests {
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+	private final PathPatternIndex<String> index = new PathPatternIndex<>();
+
+
+	@Test
+	void literalPrefixes() {
+		add("users", "/api/users");
+		add("user", "/api/users/{id}");
+		add("orders", "/api/orders/{id}/items");
+		add("all", "/**");
+
+		assertThat(candidates("/api/users")).containsExactly("all", "users", "user");
+		assertThat(candidates("/api/users/42")).containsExactly("all", "users", "user");
+		assertThat(candidates("/api/orders/42/items")).containsExactly("all", "orders");
+		assertThat(candidates("/other")).containsExactly("all");
+	}
+
+	@Test
+	void candidatesIncludeAllMatches() {
+		add("wildcard", "/api/*/items");
+		add("regex", "/api/item{id}");
+		add("catchAll", "/api/{*rest}");
+		add("trailingSlash", "/api/items/");
+		add("other", "/other/items");
+
+		Collection<String> candidates = candidates("/api/items/");
+		assertThat(candidates).containsExactly("wildcard", "regex", "catchAll", "trailingSlash");
+	}
+
+	@Test
+	void matrixVariablesAndEncoding() {
+		add("cars", "/cars/{id}");
+		add("spaces", "/a b/c");
+
+		assertThat(candidates("/cars;color=red/42")).containsExactly("cars");
+		assertThat(candidates("/a%20b/c")).containsExactly("spaces");
+	}
+
+	@Test
+	void doubleSeparator() {
+		add("a", "/a/{x}");
+		add("ab", "/a/b");
+
+		assertThat(candidates("/a//b")).containsExactly("a");
+	}
+
+	@Test
+	void unindexedValues() {
+		this.index.add("none", Collections.emptyList());
+		PathPatternParser caseInsensitive = new PathPatternParser();
+		caseInsensitive.setCaseSensitive(false);
+		this.index.add("insensitive", Collections.singletonList(caseInsensitive.parse("/Api/Users")));
+		add("relative", "api");
+
+		assertThat(candidates("/API/USERS")).containsExactly("none", "insensitive", "relative");
+	}
+
+	@Test
+	void multiplePatterns() {
+		add("both", "/api", "/api/users/{id}", "/api/users/{name}/profile");
+
+		assertThat(candidates("/api/users/42")).containsExactly("both");
+		assertThat(candidates("/other")).isEmpty();
+	}
+
+	@Test
+	void remove() {
+		add("users", "/api/users");
+		add("user", "/api/users/{id}", "/users/{id}");
+
+		this.index.remove("user");
+		this.index.remove("unknown");
+
+		assertThat(candidates("/api/users/42")).containsExactly("users");
+		assertThat(candidates("/users/42")).isEmpty();
+	}
+
+
+	private void add(String value, String... patterns) {
+		this.index.add(value, Arrays.stream(patterns).map(this.parser::parse).collect(Collectors.toList()));
+	}
+
+	private Collection<String> candidates(String path) {
+		return this.index.getCandidates(PathContainer.parsePath(path));
+	}
+
+}
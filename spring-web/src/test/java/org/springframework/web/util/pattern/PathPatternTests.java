@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,8 @@ public class PathPatternTests {
 		assertThat(parser.parse("/foo/**/bar").hasPatternSyntax()).isTrue();
 		assertThat(parser.parse("/f?o").hasPatternSyntax()).isTrue();
 		assertThat(parser.parse("/foo/{bar}/baz").hasPatternSyntax()).isTrue();
+		assertThat(parser.parse("/foo/**").hasPatternSyntax()).isTrue();
+		assertThat(parser.parse("/foo/{*bar}").hasPatternSyntax()).isTrue();
 		assertThat(parser.parse("/foo/bar").hasPatternSyntax()).isFalse();
 	}
 
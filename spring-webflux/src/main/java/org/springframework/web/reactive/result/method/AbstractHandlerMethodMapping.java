@@ -37,6 +37,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -47,6 +48,8 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -311,7 +314,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected HandlerMethod lookupHandlerMethod(ServerWebExchange exchange) throws Exception {
 		List<Match> matches = new ArrayList<>();
-		addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+		addMatchingMappings(this.mappingRegistry.getMappingsByPath(lookupPath), matches, exchange);
 
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -412,6 +416,20 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected abstract T getMappingForMethod(Method method, Class<?> handlerType);
 
+	/**
+	 * Return the path patterns by which to index the given mapping, so that
+	 * lookups only need to check the mappings whose patterns could match the
+	 * request path.
+	 * <p>The default implementation returns an empty set, in which case the
+	 * mapping is checked for every request.
+	 * @param mapping the mapping to get the path patterns for
+	 * @since 5.3
+	 * @see PathPatternIndex
+	 */
+	protected Set<PathPattern> getIndexedPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -443,6 +461,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<T, HandlerMethod> mappingLookup = new LinkedHashMap<>();
 
+		private final PathPatternIndex<T> pathLookup = new PathPatternIndex<>();
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -455,6 +475,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.mappingLookup;
 		}
 
+		/**
+		 * Return the mappings with patterns that could match the given path.
+		 * Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPath(PathContainer path) {
+			return this.pathLookup.getCandidates(path);
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -484,6 +513,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				HandlerMethod handlerMethod = createHandlerMethod(handler, method);
 				validateMethodMapping(handlerMethod, mapping);
 				this.mappingLookup.put(mapping, handlerMethod);
+				this.pathLookup.add(mapping, getIndexedPathPatterns(mapping));
 
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
@@ -517,6 +547,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 
 				this.mappingLookup.remove(definition.getMapping());
+				this.pathLookup.remove(definition.getMapping());
 				this.corsLookup.remove(definition.getHandlerMethod());
 			}
 			finally {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockServletContext;
+
+/**
+ * Benchmarks for the handler lookup of {@link RequestMappingHandlerMapping},
+ * for direct paths, URI templates and unmatched requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		public MockHttpServletRequest directRequest;
+
+		public MockHttpServletRequest templateRequest;
+
+		public MockHttpServletRequest unmatchedRequest;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			StaticWebApplicationContext context = new StaticWebApplicationContext();
+			context.setServletContext(new MockServletContext());
+			context.registerSingleton("controller", ProjectController.class);
+			context.refresh();
+
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			this.handlerMapping.setApplicationContext(context);
+			this.handlerMapping.afterPropertiesSet();
+
+			this.directRequest = new MockHttpServletRequest("GET", "/projects");
+			this.templateRequest = new MockHttpServletRequest("GET", "/projects/spring-framework/releases/5.3.0");
+			this.unmatchedRequest = new MockHttpServletRequest("GET", "/unknown");
+		}
+	}
+
+	@Benchmark
+	public HandlerExecutionChain directPath(BenchmarkState state) throws Exception {
+		return state.handlerMapping.getHandler(state.directRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain uriTemplate(BenchmarkState state) throws Exception {
+		return state.handlerMapping.getHandler(state.templateRequest);
+	}
+
+	@Benchmark
+	public HandlerExecutionChain noMatch(BenchmarkState state) throws Exception {
+		return state.handlerMapping.getHandler(state.unmatchedRequest);
+	}
+
+
+	@Controller
+	@RequestMapping("/projects")
+	static class ProjectController {
+
+		@GetMapping
+		public void projects() {
+		}
+
+		@PostMapping
+		public void createProject() {
+		}
+
+		@GetMapping("/{project}")
+		public void project(@PathVariable("project") String project) {
+		}
+
+		@GetMapping("/{project}/releases")
+		public void releases(@PathVariable("project") String project) {
+		}
+
+		@GetMapping("/{project}/releases/{version}")
+		public void release(@PathVariable("project") String project, @PathVariable("version") String version) {
+		}
+
+		@GetMapping("/{project}/contributors/**")
+		public void contributors(@PathVariable("project") String project) {
+		}
+	}
+
+}
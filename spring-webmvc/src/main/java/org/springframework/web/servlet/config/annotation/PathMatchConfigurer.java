@@ -24,6 +24,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Helps with configuring HandlerMappings path matching options such as trailing
@@ -58,6 +59,9 @@ public class PathMatchConfigurer {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	@Nullable
 	private Map<String, Predicate<Class<?>>> pathPrefixes;
 
@@ -128,6 +132,24 @@ public class PathMatchConfigurer {
 		return this;
 	}
 
+	/**
+	 * Enable use of parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} for request mappings, as an alternative to String pattern
+	 * matching with a {@link PathMatcher}. Request mapping patterns are then
+	 * parsed once at startup, and the request path once per request.
+	 * <p>Parsed patterns are matched against the full path within the
+	 * application, and the suffix pattern match and trailing slash match options
+	 * do not apply; trailing slash matching is configured on the parser instead.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.3
+	 * @see RequestMappingHandlerMapping#setPatternParser
+	 */
+	public PathMatchConfigurer setPatternParser(PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		return this;
+	}
+
 	/**
 	 * Configure a path prefix to apply to matching controller methods.
 	 * <p>Prefixes are used to enrich the mappings of every {@code @RequestMapping}
@@ -187,6 +209,15 @@ public class PathMatchConfigurer {
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Return the {@link PathPatternParser} to use, if configured.
+	 * @since 5.3
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 	@Nullable
 	protected Map<String, Predicate<Class<?>>> getPathPrefixes() {
 		return this.pathPrefixes;
@@ -124,7 +124,7 @@ class DefaultServerRequest implements ServerRequest {
 		String path = (String) servletRequest().getAttribute(HandlerMapping.LOOKUP_PATH);
 		if (path == null) {
 			UrlPathHelper helper = new UrlPathHelper();
-			path = helper.getLookupPathForRequest(servletRequest());
+			path = helper.resolveAndCacheLookupPath(servletRequest());
 		}
 		return path;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -166,7 +166,7 @@ public class RouterFunctionMapping extends AbstractHandlerMapping implements Ini
 	@Nullable
 	@Override
 	protected Object getHandlerInternal(HttpServletRequest servletRequest) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(servletRequest);
+		String lookupPath = getUrlPathHelper().resolveAndCacheLookupPath(servletRequest);
 		servletRequest.setAttribute(LOOKUP_PATH, lookupPath);
 		if (this.routerFunction != null) {
 			ServerRequest request = ServerRequest.create(servletRequest, this.messageConverters);
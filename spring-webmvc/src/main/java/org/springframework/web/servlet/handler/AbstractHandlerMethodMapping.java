@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +44,7 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -52,6 +54,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -360,7 +365,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		request.setAttribute(LOOKUP_PATH, lookupPath);
 		this.mappingRegistry.acquireReadLock();
 		try {
@@ -372,6 +377,21 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 	}
 
+	/**
+	 * Determine the lookup path for the given request, used for direct path
+	 * lookups as well as exposed as {@link #LOOKUP_PATH} request attribute.
+	 * <p>The default implementation delegates to the configured
+	 * {@link #getUrlPathHelper() UrlPathHelper}, reusing a lookup path
+	 * already resolved for the current request where possible.
+	 * @see org.springframework.web.util.UrlPathHelper#resolveAndCacheLookupPath
+	 * @param request the current request
+	 * @return the lookup path
+	 * @since 5.3
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		return getUrlPathHelper().resolveAndCacheLookupPath(request);
+	}
+
 	/**
 	 * Look up the best-matching handler method for the current request.
 	 * If multiple matches are found, the best match is selected.
@@ -389,8 +409,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			if (usesPathPatterns()) {
+				// Only go through mappings with a literal path prefix matching the path...
+				PathContainer path = ServletRequestPathUtils.getOrParseRequestPath(request).pathWithinApplication();
+				addMatchingMappings(this.mappingRegistry.getMappingsByPath(path), matches, request);
+			}
+			else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		if (!matches.isEmpty()) {
@@ -504,6 +531,40 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
+	/**
+	 * Return the request mapping paths that are not patterns, i.e. which can
+	 * be looked up directly by {@link #initLookupPath lookup path}.
+	 * <p>The default implementation returns the
+	 * {@link #getMappingPathPatterns mapping paths} that are not patterns
+	 * according to the configured {@link #getPathMatcher() PathMatcher}.
+	 * @param mapping the mapping to get the direct paths for
+	 * @since 5.3
+	 */
+	protected Set<String> getDirectPaths(T mapping) {
+		Set<String> urls = Collections.emptySet();
+		for (String path : getMappingPathPatterns(mapping)) {
+			if (!getPathMatcher().isPattern(path)) {
+				urls = (urls.isEmpty() ? new LinkedHashSet<>(1) : urls);
+				urls.add(path);
+			}
+		}
+		return urls;
+	}
+
+	/**
+	 * Return the parsed path patterns by which to index the given mapping,
+	 * so that lookups by {@link #usesPathPatterns() parsed request path} only
+	 * need to check the mappings whose patterns could match.
+	 * <p>The default implementation returns an empty set, in which case the
+	 * mapping is checked for every request.
+	 * @param mapping the mapping to get the path patterns for
+	 * @since 5.3
+	 * @see PathPatternIndex
+	 */
+	protected Set<PathPattern> getIndexedPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -536,6 +597,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathPatternIndex<T> pathLookup = new PathPatternIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -559,6 +622,15 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings with patterns that could match the given parsed
+		 * path. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPath(PathContainer path) {
+			return this.pathLookup.getCandidates(path);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -603,11 +675,13 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				validateMethodMapping(handlerMethod, mapping);
 				this.mappingLookup.put(mapping, handlerMethod);
 
-				List<String> directUrls = getDirectUrls(mapping);
+				Set<String> directUrls = getDirectPaths(mapping);
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
 
+				this.pathLookup.add(mapping, getIndexedPathPatterns(mapping));
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -637,16 +711,6 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			}
 		}
 
-		private List<String> getDirectUrls(T mapping) {
-			List<String> urls = new ArrayList<>(1);
-			for (String path : getMappingPathPatterns(mapping)) {
-				if (!getPathMatcher().isPattern(path)) {
-					urls.add(path);
-				}
-			}
-			return urls;
-		}
-
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -685,6 +749,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				this.pathLookup.remove(definition.getMapping());
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
@@ -725,19 +791,19 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final HandlerMethod handlerMethod;
 
-		private final List<String> directUrls;
+		private final Set<String> directUrls;
 
 		@Nullable
 		private final String mappingName;
 
 		public MappingRegistration(T mapping, HandlerMethod handlerMethod,
-				@Nullable List<String> directUrls, @Nullable String mappingName) {
+				@Nullable Set<String> directUrls, @Nullable String mappingName) {
 
 			Assert.notNull(mapping, "Mapping must not be null");
 			Assert.notNull(handlerMethod, "HandlerMethod must not be null");
 			this.mapping = mapping;
 			this.handlerMethod = handlerMethod;
-			this.directUrls = (directUrls != null ? directUrls : Collections.emptyList());
+			this.directUrls = (directUrls != null ? directUrls : Collections.emptySet());
 			this.mappingName = mappingName;
 		}
 
@@ -749,7 +815,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.handlerMethod;
 		}
 
-		public List<String> getDirectUrls() {
+		public Set<String> getDirectUrls() {
 			return this.directUrls;
 		}
 
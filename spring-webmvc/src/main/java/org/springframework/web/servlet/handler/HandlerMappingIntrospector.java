@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -44,6 +45,8 @@ import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UrlPathHelper;
 
 /**
  * Helper class to get information from the {@code HandlerMapping} that would
@@ -69,6 +72,8 @@ public class HandlerMappingIntrospector
 	@Nullable
 	private List<HandlerMapping> handlerMappings;
 
+	private boolean parseRequestPath;
+
 
 	/**
 	 * Constructor for use with {@link ApplicationContextAware}.
@@ -85,6 +90,7 @@ public class HandlerMappingIntrospector
 	@Deprecated
 	public HandlerMappingIntrospector(ApplicationContext context) {
 		this.handlerMappings = initHandlerMappings(context);
+		this.parseRequestPath = usesPathPatterns(this.handlerMappings);
 	}
 
 
@@ -107,6 +113,7 @@ public class HandlerMappingIntrospector
 			Assert.notNull(this.applicationContext, "No ApplicationContext");
 			this.handlerMappings = initHandlerMappings(this.applicationContext);
 		}
+		this.parseRequestPath = usesPathPatterns(this.handlerMappings);
 	}
 
 
@@ -124,17 +131,26 @@ public class HandlerMappingIntrospector
 	public MatchableHandlerMapping getMatchableHandlerMapping(HttpServletRequest request) throws Exception {
 		Assert.notNull(this.handlerMappings, "Handler mappings not initialized");
 		HttpServletRequest wrapper = new RequestAttributeChangeIgnoringWrapper(request);
-		for (HandlerMapping handlerMapping : this.handlerMappings) {
-			Object handler = handlerMapping.getHandler(wrapper);
-			if (handler == null) {
-				continue;
+		RequestPath previousPath = (RequestPath) request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE);
+		parseRequestPathIfNecessary(request);
+		try {
+			for (HandlerMapping handlerMapping : this.handlerMappings) {
+				Object handler = handlerMapping.getHandler(wrapper);
+				if (handler == null) {
+					continue;
+				}
+				if (handlerMapping instanceof MatchableHandlerMapping) {
+					return ((MatchableHandlerMapping) handlerMapping);
+				}
+				throw new IllegalStateException("HandlerMapping is not a MatchableHandlerMapping");
 			}
-			if (handlerMapping instanceof MatchableHandlerMapping) {
-				return ((MatchableHandlerMapping) handlerMapping);
+			return null;
+		}
+		finally {
+			if (this.parseRequestPath) {
+				ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
 			}
-			throw new IllegalStateException("HandlerMapping is not a MatchableHandlerMapping");
 		}
-		return null;
 	}
 
 	@Override
@@ -142,29 +158,60 @@ public class HandlerMappingIntrospector
 	public CorsConfiguration getCorsConfiguration(HttpServletRequest request) {
 		Assert.notNull(this.handlerMappings, "Handler mappings not initialized");
 		HttpServletRequest wrapper = new RequestAttributeChangeIgnoringWrapper(request);
-		for (HandlerMapping handlerMapping : this.handlerMappings) {
-			HandlerExecutionChain handler = null;
-			try {
-				handler = handlerMapping.getHandler(wrapper);
-			}
-			catch (Exception ex) {
-				// Ignore
-			}
-			if (handler == null) {
-				continue;
-			}
-			if (handler.getInterceptors() != null) {
-				for (HandlerInterceptor interceptor : handler.getInterceptors()) {
-					if (interceptor instanceof CorsConfigurationSource) {
-						return ((CorsConfigurationSource) interceptor).getCorsConfiguration(wrapper);
+		RequestPath previousPath = (RequestPath) request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE);
+		parseRequestPathIfNecessary(request);
+		try {
+			for (HandlerMapping handlerMapping : this.handlerMappings) {
+				HandlerExecutionChain handler = null;
+				try {
+					handler = handlerMapping.getHandler(wrapper);
+				}
+				catch (Exception ex) {
+					// Ignore
+				}
+				if (handler == null) {
+					continue;
+				}
+				if (handler.getInterceptors() != null) {
+					for (HandlerInterceptor interceptor : handler.getInterceptors()) {
+						if (interceptor instanceof CorsConfigurationSource) {
+							return ((CorsConfigurationSource) interceptor).getCorsConfiguration(wrapper);
+						}
 					}
 				}
+				if (handler.getHandler() instanceof CorsConfigurationSource) {
+					return ((CorsConfigurationSource) handler.getHandler()).getCorsConfiguration(wrapper);
+				}
+			}
+			return null;
+		}
+		finally {
+			if (this.parseRequestPath) {
+				ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
 			}
-			if (handler.getHandler() instanceof CorsConfigurationSource) {
-				return ((CorsConfigurationSource) handler.getHandler()).getCorsConfiguration(wrapper);
+		}
+	}
+
+	/**
+	 * Parse and cache the request path for handler mappings that use parsed
+	 * patterns, since the request wrapper passed to them ignores attribute
+	 * changes. The path is always parsed, since a path cached before may be
+	 * that of the outer request during a forward or include dispatch. The
+	 * previous value is to be restored afterwards.
+	 */
+	private void parseRequestPathIfNecessary(HttpServletRequest request) {
+		if (this.parseRequestPath) {
+			ServletRequestPathUtils.parseAndCache(request);
+		}
+	}
+
+	private static boolean usesPathPatterns(List<HandlerMapping> handlerMappings) {
+		for (HandlerMapping handlerMapping : handlerMappings) {
+			if (handlerMapping.usesPathPatterns()) {
+				return true;
 			}
 		}
-		return null;
+		return false;
 	}
 
 
@@ -208,7 +255,10 @@ public class HandlerMappingIntrospector
 
 
 	/**
-	 * Request wrapper that ignores request attribute changes.
+	 * Request wrapper that ignores request attribute changes, except for the
+	 * lookup path cached by {@link UrlPathHelper#resolveAndCacheLookupPath},
+	 * which remains valid for the request and can be reused by subsequent
+	 * introspection calls as well as by the actual handler mappings.
 	 */
 	private static class RequestAttributeChangeIgnoringWrapper extends HttpServletRequestWrapper {
 
@@ -218,7 +268,10 @@ public class HandlerMappingIntrospector
 
 		@Override
 		public void setAttribute(String name, Object value) {
-			// Ignore attribute change...
+			if (UrlPathHelper.PATH_ATTRIBUTE.equals(name)) {
+				super.setAttribute(name, value);
+			}
+			// Ignore other attribute changes...
 		}
 	}
 
@@ -31,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.HeadersRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ParamsRequestCondition;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
@@ -38,11 +39,12 @@ import org.springframework.web.servlet.mvc.condition.RequestConditionHolder;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Request mapping information. Encapsulates the following request mapping conditions:
  * <ol>
- * <li>{@link PatternsRequestCondition}
+ * <li>{@link PatternsRequestCondition} or {@link PathPatternsRequestCondition}
  * <li>{@link RequestMethodsRequestCondition}
  * <li>{@link ParamsRequestCondition}
  * <li>{@link HeadersRequestCondition}
@@ -59,6 +61,8 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 
 	private static final PatternsRequestCondition EMPTY_PATTERNS = new PatternsRequestCondition();
 
+	private static final PathPatternsRequestCondition EMPTY_PATH_PATTERNS = new PathPatternsRequestCondition();
+
 	private static final RequestMethodsRequestCondition EMPTY_REQUEST_METHODS = new RequestMethodsRequestCondition();
 
 	private static final ParamsRequestCondition EMPTY_PARAMS = new ParamsRequestCondition();
@@ -77,6 +81,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 
 	private final PatternsRequestCondition patternsCondition;
 
+	@Nullable
+	private final PathPatternsRequestCondition pathPatternsCondition;
+
 	private final RequestMethodsRequestCondition methodsCondition;
 
 	private final ParamsRequestCondition paramsCondition;
@@ -97,7 +104,17 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			@Nullable HeadersRequestCondition headers, @Nullable ConsumesRequestCondition consumes,
 			@Nullable ProducesRequestCondition produces, @Nullable RequestCondition<?> custom) {
 
+		this(name, null, patterns, methods, params, headers, consumes, produces, custom);
+	}
+
+	private RequestMappingInfo(@Nullable String name, @Nullable PathPatternsRequestCondition pathPatterns,
+			@Nullable PatternsRequestCondition patterns, @Nullable RequestMethodsRequestCondition methods,
+			@Nullable ParamsRequestCondition params, @Nullable HeadersRequestCondition headers,
+			@Nullable ConsumesRequestCondition consumes, @Nullable ProducesRequestCondition produces,
+			@Nullable RequestCondition<?> custom) {
+
 		this.name = (StringUtils.hasText(name) ? name : null);
+		this.pathPatternsCondition = pathPatterns;
 		this.patternsCondition = (patterns != null ? patterns : EMPTY_PATTERNS);
 		this.methodsCondition = (methods != null ? methods : EMPTY_REQUEST_METHODS);
 		this.paramsCondition = (params != null ? params : EMPTY_PARAMS);
@@ -107,7 +124,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		this.customConditionHolder = (custom != null ? new RequestConditionHolder(custom) : EMPTY_CUSTOM);
 
 		this.hashCode = calculateHashCode(
-				this.patternsCondition, this.methodsCondition, this.paramsCondition, this.headersCondition,
+				getActivePatternsCondition(), this.methodsCondition, this.paramsCondition, this.headersCondition,
 				this.consumesCondition, this.producesCondition, this.customConditionHolder);
 	}
 
@@ -126,8 +143,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	 * Re-create a RequestMappingInfo with the given custom request condition.
 	 */
 	public RequestMappingInfo(RequestMappingInfo info, @Nullable RequestCondition<?> customRequestCondition) {
-		this(info.name, info.patternsCondition, info.methodsCondition, info.paramsCondition, info.headersCondition,
-				info.consumesCondition, info.producesCondition, customRequestCondition);
+		this(info.name, info.pathPatternsCondition, info.patternsCondition, info.methodsCondition,
+				info.paramsCondition, info.headersCondition, info.consumesCondition, info.producesCondition,
+				customRequestCondition);
 	}
 
 	/**
@@ -141,11 +159,44 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	/**
 	 * Return the URL patterns of this {@link RequestMappingInfo};
 	 * or instance with 0 patterns (never {@code null}).
+	 * <p>This is empty if the mapping uses
+	 * {@link #getPathPatternsCondition() parsed patterns}.
 	 */
 	public PatternsRequestCondition getPatternsCondition() {
 		return this.patternsCondition;
 	}
 
+	/**
+	 * Return the parsed URL patterns of this {@link RequestMappingInfo}, or
+	 * {@code null} if the mapping uses String patterns with a
+	 * {@link PathMatcher} instead.
+	 * @since 5.3
+	 * @see BuilderConfiguration#setPatternParser(PathPatternParser)
+	 */
+	@Nullable
+	public PathPatternsRequestCondition getPathPatternsCondition() {
+		return this.pathPatternsCondition;
+	}
+
+	/**
+	 * Return whichever of {@link #getPathPatternsCondition()} or
+	 * {@link #getPatternsCondition()} is in use for this mapping.
+	 * @since 5.3
+	 */
+	public RequestCondition<?> getActivePatternsCondition() {
+		return (this.pathPatternsCondition != null ? this.pathPatternsCondition : this.patternsCondition);
+	}
+
+	/**
+	 * Return the URL pattern Strings of this mapping, irrespective of
+	 * whether they are parsed patterns or String patterns.
+	 * @since 5.3
+	 */
+	public Set<String> getPatternValues() {
+		return (this.pathPatternsCondition != null ?
+				this.pathPatternsCondition.getPatternValues() : this.patternsCondition.getPatterns());
+	}
+
 	/**
 	 * Return the HTTP request methods of this {@link RequestMappingInfo};
 	 * or instance with 0 request methods (never {@code null}).
@@ -203,6 +254,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	@Override
 	public RequestMappingInfo combine(RequestMappingInfo other) {
 		String name = combineNames(other);
+		PathPatternsRequestCondition pathPatterns = combinePathPatterns(other);
 		PatternsRequestCondition patterns = this.patternsCondition.combine(other.patternsCondition);
 		RequestMethodsRequestCondition methods = this.methodsCondition.combine(other.methodsCondition);
 		ParamsRequestCondition params = this.paramsCondition.combine(other.paramsCondition);
@@ -211,10 +263,35 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		ProducesRequestCondition produces = this.producesCondition.combine(other.producesCondition);
 		RequestConditionHolder custom = this.customConditionHolder.combine(other.customConditionHolder);
 
-		return new RequestMappingInfo(name, patterns,
+		return new RequestMappingInfo(name, pathPatterns, patterns,
 				methods, params, headers, consumes, produces, custom.getCondition());
 	}
 
+	@Nullable
+	private PathPatternsRequestCondition combinePathPatterns(RequestMappingInfo other) {
+		if (this.pathPatternsCondition != null && other.pathPatternsCondition != null) {
+			return this.pathPatternsCondition.combine(other.pathPatternsCondition);
+		}
+		else if (this.pathPatternsCondition != null) {
+			assertNoStringPatterns(other);
+			return this.pathPatternsCondition;
+		}
+		else if (other.pathPatternsCondition != null) {
+			assertNoStringPatterns(this);
+			return other.pathPatternsCondition;
+		}
+		else {
+			return null;
+		}
+	}
+
+	private static void assertNoStringPatterns(RequestMappingInfo info) {
+		if (info.patternsCondition != EMPTY_PATTERNS) {
+			throw new IllegalStateException("Cannot combine parsed path patterns with String patterns " +
+					info.patternsCondition + ": use the same BuilderConfiguration for all mappings");
+		}
+	}
+
 	@Nullable
 	private String combineNames(RequestMappingInfo other) {
 		if (this.name != null && other.name != null) {
@@ -259,16 +336,26 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		if (produces == null) {
 			return null;
 		}
-		PatternsRequestCondition patterns = this.patternsCondition.getMatchingCondition(request);
-		if (patterns == null) {
-			return null;
+		PathPatternsRequestCondition pathPatterns = null;
+		PatternsRequestCondition patterns = null;
+		if (this.pathPatternsCondition != null) {
+			pathPatterns = this.pathPatternsCondition.getMatchingCondition(request);
+			if (pathPatterns == null) {
+				return null;
+			}
+		}
+		else {
+			patterns = this.patternsCondition.getMatchingCondition(request);
+			if (patterns == null) {
+				return null;
+			}
 		}
 		RequestConditionHolder custom = this.customConditionHolder.getMatchingCondition(request);
 		if (custom == null) {
 			return null;
 		}
 
-		return new RequestMappingInfo(this.name, patterns,
+		return new RequestMappingInfo(this.name, pathPatterns, patterns,
 				methods, params, headers, consumes, produces, custom.getCondition());
 	}
 
@@ -288,7 +375,12 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 				return result;
 			}
 		}
-		result = this.patternsCondition.compareTo(other.getPatternsCondition(), request);
+		if (this.pathPatternsCondition != null && other.pathPatternsCondition != null) {
+			result = this.pathPatternsCondition.compareTo(other.pathPatternsCondition, request);
+		}
+		else {
+			result = this.patternsCondition.compareTo(other.getPatternsCondition(), request);
+		}
 		if (result != 0) {
 			return result;
 		}
@@ -329,7 +421,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			return false;
 		}
 		RequestMappingInfo otherInfo = (RequestMappingInfo) other;
-		return (this.patternsCondition.equals(otherInfo.patternsCondition) &&
+		return (getActivePatternsCondition().equals(otherInfo.getActivePatternsCondition()) &&
 				this.methodsCondition.equals(otherInfo.methodsCondition) &&
 				this.paramsCondition.equals(otherInfo.paramsCondition) &&
 				this.headersCondition.equals(otherInfo.headersCondition) &&
@@ -344,7 +436,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	}
 
 	private static int calculateHashCode(
-			PatternsRequestCondition patterns, RequestMethodsRequestCondition methods,
+			RequestCondition<?> patterns, RequestMethodsRequestCondition methods,
 			ParamsRequestCondition params, HeadersRequestCondition headers,
 			ConsumesRequestCondition consumes, ProducesRequestCondition produces,
 			RequestConditionHolder custom) {
@@ -360,8 +452,8 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			Set<RequestMethod> httpMethods = this.methodsCondition.getMethods();
 			builder.append(httpMethods.size() == 1 ? httpMethods.iterator().next() : httpMethods);
 		}
-		if (!this.patternsCondition.isEmpty()) {
-			Set<String> patterns = this.patternsCondition.getPatterns();
+		Set<String> patterns = getPatternValues();
+		if (!patterns.isEmpty()) {
 			builder.append(" ").append(patterns.size() == 1 ? patterns.iterator().next() : patterns);
 		}
 		if (!this.paramsCondition.isEmpty()) {
@@ -547,15 +639,23 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@SuppressWarnings("deprecation")
 		public RequestMappingInfo build() {
 
-			PatternsRequestCondition patternsCondition = ObjectUtils.isEmpty(this.paths) ? null :
-					new PatternsRequestCondition(
-							this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
-							this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
-							this.options.getFileExtensions());
+			PathPatternsRequestCondition pathPatternsCondition = null;
+			PatternsRequestCondition patternsCondition = null;
+			PathPatternParser parser = this.options.getPatternParser();
+			if (parser != null) {
+				pathPatternsCondition = (ObjectUtils.isEmpty(this.paths) ? EMPTY_PATH_PATTERNS :
+						new PathPatternsRequestCondition(parser, this.paths));
+			}
+			else if (!ObjectUtils.isEmpty(this.paths)) {
+				patternsCondition = new PatternsRequestCondition(
+						this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
+						this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
+						this.options.getFileExtensions());
+			}
 
 			ContentNegotiationManager manager = this.options.getContentNegotiationManager();
 
-			return new RequestMappingInfo(this.mappingName, patternsCondition,
+			return new RequestMappingInfo(this.mappingName, pathPatternsCondition, patternsCondition,
 					ObjectUtils.isEmpty(this.methods) ?
 							null : new RequestMethodsRequestCondition(this.methods),
 					ObjectUtils.isEmpty(this.params) ?
@@ -586,6 +686,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@Nullable
 		private PathMatcher pathMatcher;
 
+		@Nullable
+		private PathPatternParser patternParser;
+
 		private boolean trailingSlashMatch = true;
 
 		private boolean suffixPatternMatch = true;
@@ -628,6 +731,28 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			return this.pathMatcher;
 		}
 
+		/**
+		 * Set a {@link PathPatternParser} to parse mapping patterns with, in
+		 * which case a {@link PathPatternsRequestCondition} is created instead
+		 * of a {@link PatternsRequestCondition}, and the {@code UrlPathHelper},
+		 * {@code PathMatcher}, trailing slash and suffix pattern options do not
+		 * apply. Trailing slash matching is configured on the parser instead.
+		 * <p>By default this is not set.
+		 * @since 5.3
+		 */
+		public void setPatternParser(@Nullable PathPatternParser patternParser) {
+			this.patternParser = patternParser;
+		}
+
+		/**
+		 * Return the {@link PathPatternParser} to parse mapping patterns with, if any.
+		 * @since 5.3
+		 */
+		@Nullable
+		public PathPatternParser getPatternParser() {
+			return this.patternParser;
+		}
+
 		/**
 		 * Set whether to apply trailing slash matching in PatternsRequestCondition.
 		 * <p>By default this is set to 'true'.
@@ -33,6 +33,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -45,8 +47,12 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -71,17 +77,98 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	}
 
 
+	@Nullable
+	private PathPatternParser patternParser;
+
+
 	protected RequestMappingInfoHandlerMapping() {
 		setHandlerMethodMappingNamingStrategy(new RequestMappingInfoHandlerMethodMappingNamingStrategy());
 	}
 
 
+	/**
+	 * Enable use of parsed {@link PathPattern}s as an alternative to String
+	 * pattern matching with a {@link org.springframework.util.PathMatcher}.
+	 * Patterns are parsed once at startup, while the request path is parsed
+	 * once per request, cached as a request attribute via
+	 * {@link ServletRequestPathUtils}, and matched against the parsed patterns
+	 * of all mappings.
+	 * <p>Subclasses are expected to create mappings with a
+	 * {@link org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition
+	 * PathPatternsRequestCondition} when this is set.
+	 * <p>Note that parsed patterns are matched against the full path within
+	 * the application, i.e. as if {@link #setAlwaysUseFullPath alwaysUseFullPath}
+	 * was set, and that the {@code UrlPathHelper} and {@code PathMatcher} are
+	 * not used for matching request mappings in that case.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.3
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser(PathPatternParser) configured}
+	 * {@code PathPatternParser}, or {@code null}.
+	 * @since 5.3
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	@Override
+	public boolean usesPathPatterns() {
+		return (this.patternParser != null);
+	}
+
+
 	/**
 	 * Get the URL path patterns associated with the supplied {@link RequestMappingInfo}.
 	 */
 	@Override
 	protected Set<String> getMappingPathPatterns(RequestMappingInfo info) {
-		return info.getPatternsCondition().getPatterns();
+		return info.getPatternValues();
+	}
+
+	/**
+	 * Get the direct paths of the supplied {@link RequestMappingInfo}, taken
+	 * from its parsed patterns if available.
+	 */
+	@Override
+	protected Set<String> getDirectPaths(RequestMappingInfo info) {
+		PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+		return (pathPatterns != null ? pathPatterns.getDirectPaths() : super.getDirectPaths(info));
+	}
+
+	/**
+	 * Get the parsed patterns of the supplied {@link RequestMappingInfo}, if any.
+	 */
+	@Override
+	protected Set<PathPattern> getIndexedPathPatterns(RequestMappingInfo info) {
+		PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+		return (pathPatterns != null ? pathPatterns.getPatterns() : Collections.emptySet());
+	}
+
+	/**
+	 * Determine the lookup path from the parsed {@link ServletRequestPathUtils
+	 * RequestPath} if {@link #usesPathPatterns() parsed patterns} are in use,
+	 * parsing and caching it first if necessary. The lookup path is the decoded
+	 * path within the application without ";" (semicolon) content.
+	 */
+	@Override
+	protected String initLookupPath(HttpServletRequest request) {
+		if (!usesPathPatterns()) {
+			return super.initLookupPath(request);
+		}
+		PathContainer path = ServletRequestPathUtils.getOrParseRequestPath(request).pathWithinApplication();
+		StringBuilder builder = new StringBuilder(path.value().length());
+		for (PathContainer.Element element : path.elements()) {
+			builder.append(element instanceof PathContainer.PathSegment ?
+					((PathContainer.PathSegment) element).valueToMatch() : element.value());
+		}
+		return builder.toString();
 	}
 
 	/**
@@ -124,10 +211,39 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request);
 
+		PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+		if (pathPatterns != null) {
+			handleMatch(pathPatterns.getFirstPattern(), lookupPath, request);
+		}
+		else {
+			handleMatch(info.getPatternsCondition().getPatterns(), lookupPath, request);
+		}
+
+		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
+			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
+			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+		}
+	}
+
+	private void handleMatch(PathPattern bestPattern, String lookupPath, HttpServletRequest request) {
+		PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+		PathPattern.PathMatchInfo result = bestPattern.matchAndExtract(path);
+		String patternString = bestPattern.getPatternString();
+		request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, (patternString.isEmpty() ? lookupPath : patternString));
+		if (result == null) {
+			request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.emptyMap());
+			return;
+		}
+		if (!result.getMatrixVariables().isEmpty()) {
+			request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, result.getMatrixVariables());
+		}
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, result.getUriVariables());
+	}
+
+	private void handleMatch(Set<String> patterns, String lookupPath, HttpServletRequest request) {
 		String bestPattern;
 		Map<String, String> uriVariables;
 
-		Set<String> patterns = info.getPatternsCondition().getPatterns();
 		if (patterns.isEmpty()) {
 			bestPattern = lookupPath;
 			uriVariables = Collections.emptyMap();
@@ -146,11 +262,6 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 		Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
 		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
-
-		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
-			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
-			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
-		}
 	}
 
 	private boolean isMatrixVariableContentAvailable() {
@@ -250,7 +361,7 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 		public PartialMatchHelper(Set<RequestMappingInfo> infos, HttpServletRequest request) {
 			for (RequestMappingInfo info : infos) {
-				if (info.getPatternsCondition().getMatchingCondition(request) != null) {
+				if (info.getActivePatternsCondition().getMatchingCondition(request) != null) {
 					this.partialMatches.add(new PartialMatch(info, request));
 				}
 			}
@@ -18,6 +18,7 @@ package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -189,6 +190,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 	
+	private final Map<HandlerMethod, ReusableInvocation> reusableInvocationCache = new ConcurrentHashMap<>(64);
+	
 	public RequestMappingHandlerAdapter() {
 		this.messageConverters = new ArrayList<>(4);
 		this.messageConverters.add(new ByteArrayHttpMessageConverter());
@@ -548,6 +551,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	public void afterPropertiesSet() {
 		// Do this first, it may add ResponseBody advice beans
 		initControllerAdviceCache();
+		this.reusableInvocationCache.clear();
 		
 		if (this.argumentResolvers == null) {
 			List<HandlerMethodArgumentResolver> resolvers = getDefaultArgumentResolvers();
@@ -838,50 +842,36 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		// 把请求 request response 包装成 ServletwebRequest
 		ServletWebRequest webRequest = new ServletWebRequest(request, response);
 		try {
+			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
+			ModelFactory modelFactory;
+			ServletInvocableHandlerMethod invocableMethod;
 			/**
-			 * 获取容器中全局配置的 InitBinder 和当前 HandlerMethod 所对应的 Controller 中
-			 * 配置的 InitBinder,用于进行参数的绑定
-			 */
-			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
-			/**
-			 * 获取容器中全局配置的 ModeLAttribute 和当前 HandLerMethod 所对应的 Controller
-			 * 中配置的 ModelAttribute,这些配置的方法将会在目标方法调用之前进行调用
-			 */
-			ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
-			/**
-			 * 将 HandlerMethod封装为一个 ServletInvocableHandlerMethod 对象 该对象用于对当前request的整体调用流程进行了封装
-			 * HanlderMethod
-			 * 		--InvocableHandlerMethod: invokeForRequest()
-			 * 			--ServletInvocableHandlerMethod: invokeAndHandle()
-			 */
-			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
-			/**
-			 * 为 invocableMethod(ServletInvocableHandlerMethod)设度参数解折器对象
-			 * argumentResolvers 的切始化就是在 RequestMappingHandlerAdapter的生命周期回调
-			 * afterPropertiesSet()方法进行对 argumentResolvers 初始化赋值,用于解析参数
-			 */
-			if (this.argumentResolvers != null) {
-				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
-			}
-			/**
-			 * 为 invocableMethod(ServletInvocableHandlerMethod) 设置参数解析器对象
-			 * argumentResolvers 的初始化就足在 RequestMappingHandlerAdapter 的生命周期回调
-			 * afterPropertiesset()方法进行对 returnValueHandlers 切始化赋值,用于解所返回值
+			 * 如果 Controller 没有 @InitBinder、@ModelAttribute 和 @SessionAttributes 配置,
+			 * 则复用已经配置好的 ServletInvocableHandlerMethod,并跳过 model 的初始化
 			 */
-			if (this.returnValueHandlers != null) {
-				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+			ReusableInvocation reusableInvocation = getReusableInvocation(handlerMethod);
+			if (reusableInvocation != null) {
+				modelFactory = reusableInvocation.modelFactory;
+				invocableMethod = reusableInvocation.invocableMethod;
+			} else {
+				/**
+				 * 获取容器中全局配置的 InitBinder 和当前 HandlerMethod 所对应的 Controller 中
+				 * 配置的 InitBinder,用于进行参数的绑定
+				 */
+				WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
+				/**
+				 * 获取容器中全局配置的 ModeLAttribute 和当前 HandLerMethod 所对应的 Controller
+				 * 中配置的 ModelAttribute,这些配置的方法将会在目标方法调用之前进行调用
+				 */
+				modelFactory = getModelFactory(handlerMethod, binderFactory);
+				invocableMethod = createConfiguredInvocableHandlerMethod(handlerMethod, binderFactory);
+				/**
+				 * 这里 initModel()方法主要作用是调用前面获取到的 @ModelAttribute 标注的方法
+				 * 从而达到 @ModelAttribute 标注的方法能够在目标 Handler 调用之前调用的目的
+				 */
+				modelFactory.initModel(webRequest, mavContainer, invocableMethod);
 			}
-			// 将前面创建的 webDataBinderFactory 设置到 ServletInvocableHandlerMethod 中
-			invocableMethod.setDataBinderFactory(binderFactory);
-			// 设置 ParameterMameDiscoverer,该对象将按照一定的规则获取当前参数的名称
-			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
-			/**
-			 * 这里 initModel()方法主要作用是调用前面获取到的 @ModelAttribute 标注的方法
-			 * 从而达到 @ModelAttribute 标注的方法能够在目标 Handler 调用之前调用的目的
-			 */
-			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
-			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
-			modelFactory.initModel(webRequest, mavContainer, invocableMethod);
 			// 从定向的时候, 忽略 model 中的数据
 			mavContainer.setIgnoreDefaultModelOnRedirect(this.ignoreDefaultModelOnRedirect);
 			
@@ -930,6 +920,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	
 	/**
 	 * Create a {@link ServletInvocableHandlerMethod} from the given {@link HandlerMethod} definition.
+	 * <p>As of 5.3, a plain {@code ServletInvocableHandlerMethod} returned from
+	 * here may be reused across concurrent requests if the controller declares no
+	 * {@code @InitBinder}, {@code @ModelAttribute}, or {@code @SessionAttributes}
+	 * that apply to the handler method. Instances of custom subclasses are always
+	 * created per request.
 	 * @param handlerMethod the {@link HandlerMethod} definition
 	 * @return the corresponding {@link ServletInvocableHandlerMethod} (or custom subclass thereof)
 	 * @since 4.2
@@ -938,6 +933,109 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return new ServletInvocableHandlerMethod(handlerMethod);
 	}
 	
+	private ServletInvocableHandlerMethod createConfiguredInvocableHandlerMethod(
+			HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
+		
+		/**
+		 * 将 HandlerMethod封装为一个 ServletInvocableHandlerMethod 对象 该对象用于对当前request的整体调用流程进行了封装
+		 * HanlderMethod
+		 * 		--InvocableHandlerMethod: invokeForRequest()
+		 * 			--ServletInvocableHandlerMethod: invokeAndHandle()
+		 */
+		ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
+		/**
+		 * 为 invocableMethod(ServletInvocableHandlerMethod)设度参数解折器对象
+		 * argumentResolvers 的切始化就是在 RequestMappingHandlerAdapter的生命周期回调
+		 * afterPropertiesSet()方法进行对 argumentResolvers 初始化赋值,用于解析参数
+		 */
+		if (this.argumentResolvers != null) {
+			invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+		}
+		/**
+		 * 为 invocableMethod(ServletInvocableHandlerMethod) 设置参数解析器对象
+		 * argumentResolvers 的初始化就足在 RequestMappingHandlerAdapter 的生命周期回调
+		 * afterPropertiesset()方法进行对 returnValueHandlers 切始化赋值,用于解所返回值
+		 */
+		if (this.returnValueHandlers != null) {
+			invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+		}
+		// 将前面创建的 webDataBinderFactory 设置到 ServletInvocableHandlerMethod 中
+		invocableMethod.setDataBinderFactory(binderFactory);
+		// 设置 ParameterMameDiscoverer,该对象将按照一定的规则获取当前参数的名称
+		invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		return invocableMethod;
+	}
+	
+	/**
+	 * Return the {@link ReusableInvocation} for the given handler method, or
+	 * {@code null} if it needs per-request binder and model setup, i.e. if the
+	 * controller has {@code @InitBinder}, {@code @ModelAttribute}, or
+	 * {@code @SessionAttributes} declarations that apply to it, if its bean
+	 * is not a singleton, or if {@link #createInvocableHandlerMethod} returns
+	 * a custom subclass of {@link ServletInvocableHandlerMethod}.
+	 * <p>Only handler methods resolved from a registered handler method, as
+	 * returned by {@link HandlerMethod#createWithResolvedBean()}, are cached,
+	 * keyed by the registered handler method. Any other handler method may be
+	 * created per request and is set up per request as well.
+	 */
+	@Nullable
+	private ReusableInvocation getReusableInvocation(HandlerMethod handlerMethod) throws Exception {
+		HandlerMethod resolvedFrom = handlerMethod.getResolvedFromHandlerMethod();
+		if (resolvedFrom == null) {
+			return null;
+		}
+		ReusableInvocation invocation = this.reusableInvocationCache.get(resolvedFrom);
+		if (invocation == null || !invocation.isReusableFor(this, handlerMethod)) {
+			invocation = (isReusable(resolvedFrom, handlerMethod) ?
+					createReusableInvocation(handlerMethod) : ReusableInvocation.NOT_REUSABLE);
+			this.reusableInvocationCache.put(resolvedFrom, invocation);
+		}
+		return (invocation != ReusableInvocation.NOT_REUSABLE ? invocation : null);
+	}
+	
+	private boolean isReusable(HandlerMethod resolvedFrom, HandlerMethod handlerMethod) {
+		if (resolvedFrom.getBean() instanceof String) {
+			String beanName = (String) resolvedFrom.getBean();
+			if (this.beanFactory == null || !this.beanFactory.isSingleton(beanName)) {
+				return false;
+			}
+		}
+		if (getSessionAttributesHandler(handlerMethod).hasSessionAttributes()) {
+			return false;
+		}
+		Class<?> handlerType = handlerMethod.getBeanType();
+		if (!this.initBinderCache.computeIfAbsent(handlerType,
+				type -> MethodIntrospector.selectMethods(type, INIT_BINDER_METHODS)).isEmpty() ||
+				!this.modelAttributeCache.computeIfAbsent(handlerType,
+						type -> MethodIntrospector.selectMethods(type, MODEL_ATTRIBUTE_METHODS)).isEmpty()) {
+			return false;
+		}
+		for (ControllerAdviceBean adviceBean : this.initBinderAdviceCache.keySet()) {
+			if (adviceBean.isApplicableToBeanType(handlerType)) {
+				return false;
+			}
+		}
+		for (ControllerAdviceBean adviceBean : this.modelAttributeAdviceCache.keySet()) {
+			if (adviceBean.isApplicableToBeanType(handlerType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private ReusableInvocation createReusableInvocation(HandlerMethod handlerMethod) throws Exception {
+		WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
+		ServletInvocableHandlerMethod invocableMethod =
+				createConfiguredInvocableHandlerMethod(handlerMethod, binderFactory);
+		if (invocableMethod.getClass() != ServletInvocableHandlerMethod.class) {
+			// Custom subclass: may hold per-request state, not known to be safe to share
+			return ReusableInvocation.NOT_REUSABLE;
+		}
+		ModelFactory modelFactory = new ModelFactory(
+				Collections.emptyList(), binderFactory, getSessionAttributesHandler(handlerMethod));
+		return new ReusableInvocation(invocableMethod, modelFactory, this.argumentResolvers, this.returnValueHandlers);
+	}
+	
 	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
 		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
 		Class<?> handlerType = handlerMethod.getBeanType();
@@ -1045,4 +1143,52 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return mav;
 	}
 	
+	
+	/**
+	 * Invocation state for a handler method that needs no per-request binder or
+	 * model setup: a fully configured {@link ServletInvocableHandlerMethod} and
+	 * a {@link ModelFactory} without {@code @ModelAttribute} methods, both of
+	 * which are safe to share across requests.
+	 */
+	private static class ReusableInvocation {
+		
+		static final ReusableInvocation NOT_REUSABLE = new ReusableInvocation(null, null, null, null);
+		
+		@Nullable
+		final ServletInvocableHandlerMethod invocableMethod;
+		
+		@Nullable
+		final ModelFactory modelFactory;
+		
+		@Nullable
+		private final HandlerMethodArgumentResolverComposite argumentResolvers;
+		
+		@Nullable
+		private final HandlerMethodReturnValueHandlerComposite returnValueHandlers;
+		
+		ReusableInvocation(@Nullable ServletInvocableHandlerMethod invocableMethod,
+						   @Nullable ModelFactory modelFactory,
+						   @Nullable HandlerMethodArgumentResolverComposite argumentResolvers,
+						   @Nullable HandlerMethodReturnValueHandlerComposite returnValueHandlers) {
+			
+			this.invocableMethod = invocableMethod;
+			this.modelFactory = modelFactory;
+			this.argumentResolvers = argumentResolvers;
+			this.returnValueHandlers = returnValueHandlers;
+		}
+		
+		/**
+		 * Whether this state is still up to date with the adapter's configuration,
+		 * and was created for the same bean instance as the given handler method.
+		 */
+		boolean isReusableFor(RequestMappingHandlerAdapter adapter, HandlerMethod handlerMethod) {
+			if (this == NOT_REUSABLE) {
+				return true;
+			}
+			return (this.argumentResolvers == adapter.argumentResolvers &&
+					this.returnValueHandlers == adapter.returnValueHandlers &&
+					this.invocableMethod != null && this.invocableMethod.getBean() == handlerMethod.getBean());
+		}
+	}
+	
 }
@@ -32,6 +32,7 @@ import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.MergedAnnotation;
 import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.Assert;
@@ -49,9 +50,12 @@ import org.springframework.web.servlet.handler.RequestMatchResult;
 import org.springframework.web.servlet.mvc.condition.AbstractRequestCondition;
 import org.springframework.web.servlet.mvc.condition.CompositeRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Creates {@link RequestMappingInfo} instances from type and method-level
@@ -181,6 +185,7 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 		this.config = new RequestMappingInfo.BuilderConfiguration();
 		this.config.setUrlPathHelper(getUrlPathHelper());
 		this.config.setPathMatcher(getPathMatcher());
+		this.config.setPatternParser(getPatternParser());
 		this.config.setSuffixPatternMatch(useSuffixPatternMatch());
 		this.config.setTrailingSlashMatch(useTrailingSlashMatch());
 		this.config.setRegisteredSuffixPatternMatch(useRegisteredSuffixPatternMatch());
@@ -395,11 +400,30 @@ public class RequestMappingHandlerMapping extends RequestMappingInfoHandlerMappi
 	@Override
 	public RequestMatchResult match(HttpServletRequest request, String pattern) {
 		RequestMappingInfo info = RequestMappingInfo.paths(pattern).options(this.config).build();
+		if (usesPathPatterns()) {
+			boolean parsed = !ServletRequestPathUtils.hasParsedRequestPath(request);
+			RequestPath requestPath = ServletRequestPathUtils.getOrParseRequestPath(request);
+			try {
+				RequestMappingInfo matchingInfo = info.getMatchingCondition(request);
+				if (matchingInfo == null) {
+					return null;
+				}
+				PathPatternsRequestCondition condition = matchingInfo.getPathPatternsCondition();
+				Assert.state(condition != null, "Expected parsed patterns");
+				PathPattern pathPattern = condition.getFirstPattern();
+				return new RequestMatchResult(pathPattern, requestPath.pathWithinApplication());
+			}
+			finally {
+				if (parsed) {
+					ServletRequestPathUtils.clearParsedRequestPath(request);
+				}
+			}
+		}
 		RequestMappingInfo matchingInfo = info.getMatchingCondition(request);
 		if (matchingInfo == null) {
 			return null;
 		}
-		Set<String> patterns = matchingInfo.getPatternsCondition().getPatterns();
+		Set<String> patterns = matchingInfo.getPatternValues();
 		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request, LOOKUP_PATH);
 		return new RequestMatchResult(patterns.iterator().next(), lookupPath, getPathMatcher());
 	}
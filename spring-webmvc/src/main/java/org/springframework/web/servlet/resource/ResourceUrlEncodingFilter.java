@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,7 +94,7 @@ public class ResourceUrlEncodingFilter extends GenericFilterBean {
 			if (this.indexLookupPath == null) {
 				UrlPathHelper pathHelper = this.resourceUrlProvider.getUrlPathHelper();
 				String requestUri = pathHelper.getRequestUri(this);
-				String lookupPath = pathHelper.getLookupPathForRequest(this);
+				String lookupPath = pathHelper.resolveAndCacheLookupPath(this);
 				this.indexLookupPath = requestUri.lastIndexOf(lookupPath);
 				if (this.indexLookupPath == -1) {
 					throw new LookupPathIndexException(lookupPath, requestUri);
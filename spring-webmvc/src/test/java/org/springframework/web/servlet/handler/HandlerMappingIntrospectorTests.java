@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.handler;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +29,7 @@ import org.springframework.beans.MutablePropertyValues;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.RequestPath;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -39,6 +41,9 @@ import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
@@ -107,6 +112,7 @@ public class HandlerMappingIntrospectorTests {
 
 		assertThat(hm).isEqualTo(cxt.getBean("hm"));
 		assertThat(request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE)).as("Attributes changes not ignored").isNull();
+		assertThat(request.getAttribute(UrlPathHelper.PATH_ATTRIBUTE)).as("Lookup path not cached").isNotNull();
 	}
 
 	@Test
@@ -153,6 +159,57 @@ public class HandlerMappingIntrospectorTests {
 		assertThat(corsConfig.getAllowedMethods()).isEqualTo(Collections.singletonList("POST"));
 	}
 
+	@Test
+	public void getMatchableWithPathPatterns() throws Exception {
+		AnnotationConfigWebApplicationContext cxt = new AnnotationConfigWebApplicationContext();
+		cxt.register(PathPatternsConfig.class);
+		cxt.refresh();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/path");
+		MatchableHandlerMapping hm = getIntrospector(cxt).getMatchableHandlerMapping(request);
+
+		assertThat(hm).isEqualTo(cxt.getBean("handlerMapping"));
+		assertThat(request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE)).as("Attributes changes not ignored").isNull();
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).as("Parsed path not cleared").isFalse();
+
+		RequestMatchResult result = hm.match(request, "/{name}");
+		assertThat(result).isNotNull();
+		assertThat(result.extractUriTemplateVariables()).containsEntry("name", "path");
+		assertThat(hm.match(request, "/other")).isNull();
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).as("Parsed path not cleared").isFalse();
+	}
+
+	@Test
+	public void getMatchableWithPathPatternsAndOuterRequestPath() throws Exception {
+		AnnotationConfigWebApplicationContext cxt = new AnnotationConfigWebApplicationContext();
+		cxt.register(PathPatternsConfig.class);
+		cxt.refresh();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/path");
+		RequestPath outerPath = RequestPath.parse(URI.create("/outer"), null);
+		ServletRequestPathUtils.setParsedRequestPath(outerPath, request);
+
+		MatchableHandlerMapping hm = getIntrospector(cxt).getMatchableHandlerMapping(request);
+
+		assertThat(hm).isEqualTo(cxt.getBean("handlerMapping"));
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request)).as("Outer path not restored").isSameAs(outerPath);
+	}
+
+	@Test
+	public void getCorsConfigurationWithPathPatterns() throws Exception {
+		AnnotationConfigWebApplicationContext cxt = new AnnotationConfigWebApplicationContext();
+		cxt.register(PathPatternsConfig.class);
+		cxt.refresh();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/path");
+		request.addHeader("Origin", "http://localhost:9000");
+		CorsConfiguration corsConfig = getIntrospector(cxt).getCorsConfiguration(request);
+
+		assertThat(corsConfig).isNotNull();
+		assertThat(corsConfig.getAllowedOrigins()).isEqualTo(Collections.singletonList("http://localhost:9000"));
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).as("Parsed path not cleared").isFalse();
+	}
+
 	private HandlerMappingIntrospector getIntrospector(WebApplicationContext cxt) {
 		HandlerMappingIntrospector introspector = new HandlerMappingIntrospector();
 		introspector.setApplicationContext(cxt);
@@ -186,6 +243,24 @@ public class HandlerMappingIntrospectorTests {
 	}
 
 
+	@Configuration
+	@SuppressWarnings({"WeakerAccess", "unused"})
+	static class PathPatternsConfig {
+
+		@Bean
+		public RequestMappingHandlerMapping handlerMapping() {
+			RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+			mapping.setPatternParser(new PathPatternParser());
+			return mapping;
+		}
+
+		@Bean
+		public TestController testController() {
+			return new TestController();
+		}
+	}
+
+
 	@CrossOrigin("http://localhost:9000")
 	@Controller
 	private static class TestController {
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.condition;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPatternsRequestCondition}.
+ */
+class PathPatternsRequestConditionTests {
+
+	private static final PathPatternParser parser = new PathPatternParser();
+
+
+	@Test
+	void prependSlash() {
+		assertThat(createCondition("foo").getPatternValues()).containsExactly("/foo");
+	}
+
+	@Test
+	void combineEmptySets() {
+		PathPatternsRequestCondition c1 = new PathPatternsRequestCondition();
+		PathPatternsRequestCondition c2 = new PathPatternsRequestCondition();
+
+		assertThat(c1.combine(c2)).isSameAs(c1);
+		assertThat(c1.getPatternValues()).containsExactly("");
+	}
+
+	@Test
+	void combineOnePatternWithEmptySet() {
+		PathPatternsRequestCondition c1 = createCondition("/type1", "/type2");
+		PathPatternsRequestCondition c2 = new PathPatternsRequestCondition();
+
+		assertThat(c1.combine(c2)).isEqualTo(createCondition("/type1", "/type2"));
+		assertThat(c2.combine(c1)).isEqualTo(createCondition("/type1", "/type2"));
+	}
+
+	@Test
+	void combineMultiplePatterns() {
+		PathPatternsRequestCondition c1 = createCondition("/t1", "/t2");
+		PathPatternsRequestCondition c2 = createCondition("/m1", "/m2");
+
+		assertThat(c1.combine(c2)).isEqualTo(createCondition("/t1/m1", "/t1/m2", "/t2/m1", "/t2/m2"));
+	}
+
+	@Test
+	void directPaths() {
+		PathPatternsRequestCondition condition = createCondition("/foo", "/bar/{id}", "/baz/**", "/qux");
+
+		assertThat(condition.getDirectPaths()).containsExactlyInAnyOrder("/foo", "/qux");
+		assertThat(new PathPatternsRequestCondition().getDirectPaths()).isEmpty();
+	}
+
+	@Test
+	void matchDirectPath() {
+		PathPatternsRequestCondition condition = createCondition("/foo");
+
+		assertThat(condition.getMatchingCondition(createRequest("/foo"))).isNotNull();
+		assertThat(condition.getMatchingCondition(createRequest("/foo/"))).isNotNull();
+		assertThat(condition.getMatchingCondition(createRequest("/bar"))).isNull();
+	}
+
+	@Test
+	void matchPatternWithContextPath() {
+		PathPatternsRequestCondition condition = createCondition("/foo/*");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		assertThat(condition.getMatchingCondition(request)).isNotNull();
+	}
+
+	@Test
+	void matchSortPatterns() {
+		PathPatternsRequestCondition condition = createCondition("/**", "/foo/bar", "/foo/*");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(createRequest("/foo/bar"));
+
+		assertThat(match).isNotNull();
+		assertThat(match.getPatternValues()).containsExactly("/foo/bar", "/foo/*", "/**");
+		assertThat(match.getFirstPattern().getPatternString()).isEqualTo("/foo/bar");
+	}
+
+	@Test
+	void compareToConsistentWithSpecificity() {
+		MockHttpServletRequest request = createRequest("/foo/bar");
+		PathPatternsRequestCondition c1 = createCondition("/foo/*").getMatchingCondition(request);
+		PathPatternsRequestCondition c2 = createCondition("/foo/bar").getMatchingCondition(request);
+
+		assertThat(c1).isNotNull();
+		assertThat(c2).isNotNull();
+		assertThat(c1.compareTo(c2, request)).isGreaterThan(0);
+		assertThat(c2.compareTo(c1, request)).isLessThan(0);
+	}
+
+
+	private static PathPatternsRequestCondition createCondition(String... patterns) {
+		return new PathPatternsRequestCondition(parser, patterns);
+	}
+
+	private static MockHttpServletRequest createRequest(String requestUri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		ServletRequestPathUtils.parseAndCache(request);
+		return request;
+	}
+
+}
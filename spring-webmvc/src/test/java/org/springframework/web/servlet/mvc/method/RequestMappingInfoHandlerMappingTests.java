@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.RequestPath;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
@@ -57,7 +58,9 @@ import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -367,9 +370,77 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertThat(uriVariables.get("cars")).isEqualTo("cars");
 	}
 
+	@Test
+	public void getHandlerWithPathPatterns() throws Exception {
+		TestRequestMappingInfoHandlerMapping mapping = initPathPatternsMapping();
+
+		assertThat(getHandler(mapping, new MockHttpServletRequest("GET", "/foo")).getMethod())
+				.isEqualTo(this.fooMethod.getMethod());
+		assertThat(getHandler(mapping, new MockHttpServletRequest("GET", "/bar")).getMethod())
+				.isEqualTo(this.barMethod.getMethod());
+		assertThat(getHandler(mapping, new MockHttpServletRequest("GET", "/")).getMethod())
+				.isEqualTo(this.emptyMethod.getMethod());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		request.setParameter("p", "anything");
+		assertThat(getHandler(mapping, request).getMethod()).isEqualTo(this.fooParamMethod.getMethod());
+
+		assertThatExceptionOfType(HttpRequestMethodNotSupportedException.class).isThrownBy(() ->
+				mapping.getHandler(new MockHttpServletRequest("POST", "/bar")))
+			.satisfies(ex -> assertThat(ex.getSupportedMethods()).containsExactly("GET", "HEAD"));
+	}
+
+	@Test
+	public void getHandlerWithPathPatternsParsesRequestPathOnce() throws Exception {
+		TestRequestMappingInfoHandlerMapping mapping = initPathPatternsMapping();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo");
+		request.setContextPath("/app");
+		assertThat(getHandler(mapping, request).getMethod()).isEqualTo(this.fooMethod.getMethod());
+		assertThat(request.getAttribute(HandlerMapping.LOOKUP_PATH)).isEqualTo("/foo");
+
+		// A previously parsed path is used as is
+		request = new MockHttpServletRequest("GET", "/foo");
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(new MockHttpServletRequest("GET", "/bar"));
+		ServletRequestPathUtils.setParsedRequestPath(requestPath, request);
+		assertThat(getHandler(mapping, request).getMethod()).isEqualTo(this.barMethod.getMethod());
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request)).isSameAs(requestPath);
+	}
+
+	@Test
+	public void handleMatchWithPathPatterns() {
+		RequestMappingInfo.BuilderConfiguration options = new RequestMappingInfo.BuilderConfiguration();
+		options.setPatternParser(new PathPatternParser());
+		RequestMappingInfo info = RequestMappingInfo.paths("/{cars}/{path}").options(options).build();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cars;colors=red,blue/a%2Fb");
+		ServletRequestPathUtils.parseAndCache(request);
+		this.handlerMapping.handleMatch(info, "/cars/a/b", request);
+
+		assertThat(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/{cars}/{path}");
+		Map<String, String> uriVariables = getUriTemplateVariables(request);
+		assertThat(uriVariables.get("cars")).isEqualTo("cars");
+		assertThat(uriVariables.get("path")).isEqualTo("a/b");
+		assertThat(getMatrixVariables(request, "cars").get("colors")).containsExactly("red", "blue");
+	}
+
 
 	private HandlerMethod getHandler(MockHttpServletRequest request) throws Exception {
-		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);
+		return getHandler(this.handlerMapping, request);
+	}
+
+	private TestRequestMappingInfoHandlerMapping initPathPatternsMapping() {
+		TestRequestMappingInfoHandlerMapping mapping = new TestRequestMappingInfoHandlerMapping();
+		mapping.setPatternParser(new PathPatternParser());
+		mapping.registerHandler(new TestController());
+		assertThat(mapping.usesPathPatterns()).isTrue();
+		return mapping;
+	}
+
+	private HandlerMethod getHandler(TestRequestMappingInfoHandlerMapping mapping,
+			MockHttpServletRequest request) throws Exception {
+
+		HandlerExecutionChain chain = mapping.getHandler(request);
 		assertThat(chain).isNotNull();
 		return (HandlerMethod) chain.getHandler();
 	}
@@ -507,7 +578,15 @@ public class RequestMappingInfoHandlerMappingTests {
 		@Override
 		protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
 			RequestMapping annot = AnnotationUtils.findAnnotation(method, RequestMapping.class);
-			if (annot != null) {
+			if (annot != null && getPatternParser() != null) {
+				RequestMappingInfo.BuilderConfiguration options = new RequestMappingInfo.BuilderConfiguration();
+				options.setPatternParser(getPatternParser());
+				return RequestMappingInfo.paths(annot.value()).methods(annot.method())
+						.params(annot.params()).headers(annot.headers())
+						.consumes(annot.consumes()).produces(annot.produces())
+						.options(options).build();
+			}
+			else if (annot != null) {
 				return new RequestMappingInfo(
 					new PatternsRequestCondition(annot.value(), getUrlPathHelper(), getPathMatcher(), true, true),
 					new RequestMethodsRequestCondition(annot.method()),
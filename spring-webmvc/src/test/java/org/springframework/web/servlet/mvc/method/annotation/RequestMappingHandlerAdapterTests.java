@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,8 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -46,12 +48,14 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.SessionAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.support.StaticWebApplicationContext;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.ModelMethodProcessor;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.InvocableHandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.FlashMap;
 import org.springframework.web.servlet.ModelAndView;
@@ -272,6 +276,80 @@ public class RequestMappingHandlerAdapterTests {
 		assertThat(this.response.getContentAsString()).isEqualTo("{\"status\":400,\"message\":\"body\"}");
 	}
 
+	@Test
+	public void invocableHandlerMethodReusedWithoutModelSetup() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		RequestMappingHandlerAdapter adapter = new CountingHandlerAdapter(count);
+		adapter.setApplicationContext(this.webAppContext);
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new ModelFreeController(), "handle");
+		assertThat(adapter.handle(this.request, this.response, handlerMethod.createWithResolvedBean())).isNull();
+		assertThat(adapter.handle(this.request, new MockHttpServletResponse(), handlerMethod.createWithResolvedBean())).isNull();
+
+		assertThat(count.get()).isEqualTo(1);
+		assertThat(this.response.getContentAsString()).isEqualTo("body");
+	}
+
+	@Test
+	public void invocableHandlerMethodNotReusedWithoutRegisteredHandlerMethod() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		RequestMappingHandlerAdapter adapter = new CountingHandlerAdapter(count);
+		adapter.setApplicationContext(this.webAppContext);
+		adapter.afterPropertiesSet();
+
+		adapter.handle(this.request, this.response, handlerMethod(new ModelFreeController(), "handle"));
+		adapter.handle(this.request, new MockHttpServletResponse(), handlerMethod(new ModelFreeController(), "handle"));
+
+		assertThat(count.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void invocableHandlerMethodNotReusedWithModelAttributeMethods() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		RequestMappingHandlerAdapter adapter = new CountingHandlerAdapter(count);
+		adapter.setApplicationContext(this.webAppContext);
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handleBadRequest");
+		adapter.handle(this.request, this.response, handlerMethod.createWithResolvedBean());
+		adapter.handle(this.request, new MockHttpServletResponse(), handlerMethod.createWithResolvedBean());
+
+		assertThat(count.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void invocableHandlerMethodNotReusedWithModelAttributeAdvice() throws Exception {
+		this.webAppContext.registerSingleton("maa", ModelAttributeAdvice.class);
+		this.webAppContext.refresh();
+
+		AtomicInteger count = new AtomicInteger();
+		RequestMappingHandlerAdapter adapter = new CountingHandlerAdapter(count);
+		adapter.setApplicationContext(this.webAppContext);
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new ModelFreeController(), "handle");
+		adapter.handle(this.request, this.response, handlerMethod.createWithResolvedBean());
+		adapter.handle(this.request, new MockHttpServletResponse(), handlerMethod.createWithResolvedBean());
+
+		assertThat(count.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void customInvocableHandlerMethodNotReused() throws Exception {
+		CustomInvocableHandlerAdapter adapter = new CustomInvocableHandlerAdapter();
+		adapter.setApplicationContext(this.webAppContext);
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new ModelFreeController(), "handle");
+		adapter.handle(this.request, this.response, handlerMethod.createWithResolvedBean());
+		adapter.handle(this.request, new MockHttpServletResponse(), handlerMethod.createWithResolvedBean());
+
+		assertThat(adapter.created).allSatisfy(invocable ->
+				assertThat(invocable.invocations.get()).isLessThanOrEqualTo(1));
+		assertThat(adapter.created.stream().mapToInt(invocable -> invocable.invocations.get()).sum()).isEqualTo(2);
+	}
+
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
 		return new InvocableHandlerMethod(handler, method);
@@ -308,6 +386,15 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class ModelFreeController {
+
+		public ResponseEntity<String> handle() {
+			return ResponseEntity.ok("body");
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
@@ -414,4 +501,51 @@ public class RequestMappingHandlerAdapterTests {
 
 	}
 
+
+	private static class CountingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+		private final AtomicInteger count;
+
+		CountingHandlerAdapter(AtomicInteger count) {
+			this.count = count;
+		}
+
+		@Override
+		protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+			this.count.incrementAndGet();
+			return super.createInvocableHandlerMethod(handlerMethod);
+		}
+	}
+
+
+	private static class CustomInvocableHandlerAdapter extends RequestMappingHandlerAdapter {
+
+		private final List<CustomInvocableHandlerMethod> created = new CopyOnWriteArrayList<>();
+
+		@Override
+		protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+			CustomInvocableHandlerMethod invocableMethod = new CustomInvocableHandlerMethod(handlerMethod);
+			this.created.add(invocableMethod);
+			return invocableMethod;
+		}
+	}
+
+
+	private static class CustomInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+		private final AtomicInteger invocations = new AtomicInteger();
+
+		CustomInvocableHandlerMethod(HandlerMethod handlerMethod) {
+			super(handlerMethod);
+		}
+
+		@Override
+		public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer,
+				Object... providedArgs) throws Exception {
+
+			this.invocations.incrementAndGet();
+			super.invokeAndHandle(webRequest, mavContainer, providedArgs);
+		}
+	}
+
 }
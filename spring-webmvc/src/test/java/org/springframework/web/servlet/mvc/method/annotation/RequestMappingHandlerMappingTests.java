@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,10 +46,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -174,6 +179,32 @@ public class RequestMappingHandlerMappingTests {
 		assertThat(info.getPatternsCondition().getMatchingCondition(request)).isNull();
 	}
 
+	@Test
+	public void pathPatternsWithPathPrefix() throws Exception {
+		this.handlerMapping.setPatternParser(new PathPatternParser());
+		this.handlerMapping.setPathPrefixes(Collections.singletonMap(
+				"/api", HandlerTypePredicate.forAnnotation(RestController.class)));
+		this.wac.registerSingleton("userController", UserController.class);
+		this.wac.refresh();
+		this.handlerMapping.afterPropertiesSet();
+
+		Method method = UserController.class.getMethod("getUser");
+		RequestMappingInfo info = this.handlerMapping.getMappingForMethod(method, UserController.class);
+
+		assertThat(info).isNotNull();
+		assertThat(info.getPathPatternsCondition()).isNotNull();
+		assertThat(info.getPatternValues()).containsExactly("/api/user/{id}");
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/42");
+		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);
+
+		assertThat(chain).isNotNull();
+		assertThat(((HandlerMethod) chain.getHandler()).getMethod()).isEqualTo(method);
+		assertThat(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE))
+				.isEqualTo(Collections.singletonMap("id", "42"));
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isTrue();
+	}
+
 	@Test
 	public void resolveRequestMappingViaComposedAnnotation() throws Exception {
 		RequestMappingInfo info = assertComposedAnnotationMapping("postJson", "/postJson", RequestMethod.POST);